@@ -0,0 +1,70 @@
+package com.techsolutions.urlshortener.benchmark;
+
+import com.techsolutions.urlshortener.UrlShortenerApplication;
+
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Sobe a aplicação completa para os benchmarks: H2 embarcado (um banco novo por execução),
+ * porta aleatória e sem logs de SQL, para medir o código e não o console.
+ */
+final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(String... extraProperties) {
+        return start(true, extraProperties);
+    }
+
+    /**
+     * @param quiet false = mantém os logs como configurados (SQL no console etc.),
+     *              para medir a configuração como ela é
+     * @param extraProperties "chave=valor"; substituem os valores padrão de mesma chave
+     */
+    static ConfigurableApplicationContext start(boolean quiet, String... extraProperties) {
+        List<String> defaults = new ArrayList<>(List.of(
+            "server.port=0",
+            "spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+            // Os clientes do benchmark saem todos do mesmo IP
+            "app.rate-limit.enabled=false"
+        ));
+        if (quiet) {
+            defaults.addAll(List.of(
+                "spring.jpa.show-sql=false",
+                "spring.jpa.properties.hibernate.format_sql=false",
+                "logging.level.root=WARN",
+                "logging.level.org.hibernate=WARN",
+                "logging.level.org.hibernate.SQL=WARN",
+                "logging.level.org.hibernate.type.descriptor.sql=WARN",
+                "logging.level.com.techsolutions=WARN"
+            ));
+        }
+
+        // Uma chave repetida na linha de comando vira "valor1,valor2": as extras substituem as padrão
+        List<String> properties = new ArrayList<>();
+        for (String property : defaults) {
+            String key = property.substring(0, property.indexOf('=') + 1);
+            if (Arrays.stream(extraProperties).noneMatch(extra -> extra.startsWith(key))) {
+                properties.add(property);
+            }
+        }
+        properties.addAll(List.of(extraProperties));
+
+        // Passadas como argumentos de linha de comando: têm precedência sobre o application.yml
+        String[] args = properties.stream().map(p -> "--" + p).toArray(String[]::new);
+
+        return new SpringApplicationBuilder(UrlShortenerApplication.class)
+            .web(WebApplicationType.SERVLET)
+            .bannerMode(Banner.Mode.OFF)
+            .run(args);
+    }
+}
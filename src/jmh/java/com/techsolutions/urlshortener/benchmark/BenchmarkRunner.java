@@ -0,0 +1,44 @@
+package com.techsolutions.urlshortener.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.util.Arrays;
+
+/**
+ * Ponto de entrada dos benchmarks (perfil Maven "benchmark").
+ *
+ * Uso: BenchmarkRunner <arquivo-resultado.json> [opções do JMH]
+ * Ex:  BenchmarkRunner target/jmh/result.json Redirect -t 4
+ *
+ * O resultado é sempre gravado em JSON, para comparar execuções de commits diferentes
+ * (ex: jmh.morethan.io ou um diff dos campos "primaryMetric").
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("Uso: BenchmarkRunner <arquivo-resultado.json> [opções do JMH]");
+            System.exit(2);
+        }
+
+        File result = new File(args[0]);
+        if (result.getParentFile() != null) {
+            result.getParentFile().mkdirs();
+        }
+
+        CommandLineOptions cli = new CommandLineOptions(Arrays.copyOfRange(args, 1, args.length));
+        Options options = new OptionsBuilder()
+            .parent(cli)
+            .resultFormat(ResultFormatType.JSON)
+            .result(result.getPath())
+            .build();
+
+        new Runner(options).run();
+        System.out.println("Resultado gravado em " + result.getAbsolutePath());
+    }
+}
@@ -0,0 +1,78 @@
+package com.techsolutions.urlshortener.benchmark;
+
+import com.techsolutions.urlshortener.dto.CreateUrlRequest;
+import com.techsolutions.urlshortener.service.UrlShortenerService;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Caminho completo do redirecionamento (DispatcherServlet → RedirectController → serviço)
+ * via MockMvc, sem rede: GET /{shortCode} para códigos existentes e inexistentes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class RedirectBenchmark {
+
+    private static final int URL_COUNT = 1_000;
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+    private String[] codes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+
+        UrlShortenerService urlService = context.getBean(UrlShortenerService.class);
+        codes = new String[URL_COUNT];
+        for (int i = 0; i < URL_COUNT; i++) {
+            codes[i] = urlService.createShortUrl(new CreateUrlRequest("https://example.com/page/" + i)).getShortCode();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MvcResult redirect() throws Exception {
+        String code = codes[ThreadLocalRandom.current().nextInt(codes.length)];
+        return mockMvc.perform(get("/" + code)
+                .header(HttpHeaders.REFERER, "https://www.google.com/")
+                .header(HttpHeaders.USER_AGENT, "Mozilla/5.0 (Windows NT 10.0)"))
+            .andReturn();
+    }
+
+    @Benchmark
+    public MvcResult redirectNotFound() throws Exception {
+        return mockMvc.perform(get("/naoExiste")).andReturn();
+    }
+}
@@ -0,0 +1,259 @@
+package com.techsolutions.urlshortener.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.techsolutions.urlshortener.dto.CreateUrlRequest;
+import com.techsolutions.urlshortener.service.UrlShortenerService;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Teste de carga do redirecionamento por HTTP real (Tomcat), comparando o modo padrão
+ * (threads da plataforma, server.tomcat.threads.max = 200) com o perfil "virtual-threads".
+ * Os modos "defaults" e "prod" comparam a configuração do application.yml como está
+ * (SQL no console, H2 em memória) com o perfil "prod" (Flyway, H2 em arquivo, logs em INFO).
+ *
+ * Para cada modo sobe a aplicação, cria as URLs e, para cada nível de concorrência,
+ * mantém N clientes fazendo GET /{código} sem parar durante a medição.
+ * Por padrão o cache de redirecionamento fica desligado (TTL 0): cada requisição consulta
+ * o banco, que é o caso em que as threads passam o tempo bloqueadas no JDBC.
+ *
+ * Uso: RedirectLoadTest <arquivo-resultado.json> [opções]
+ *   -c 50,200,1000,2000   níveis de concorrência
+ *   -d 10                 segundos de medição por nível
+ *   -w 3                  segundos de aquecimento por nível
+ *   -m platform,virtual   modos: platform, virtual, defaults, prod
+ *   -u 1000               URLs criadas
+ *   --slo 100             p99 máximo (ms) para considerar um nível atendido
+ *   --cached              mantém o cache de redirecionamento ligado
+ */
+public class RedirectLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("Uso: RedirectLoadTest <arquivo-resultado.json> [opções]");
+            System.exit(2);
+        }
+
+        File resultFile = new File(args[0]);
+        int[] levels = { 50, 200, 1000, 2000 };
+        int durationSeconds = 10;
+        int warmupSeconds = 3;
+        List<String> modes = List.of("platform", "virtual");
+        int urlCount = 1000;
+        double sloMillis = 100;
+        boolean cached = false;
+
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "-c" -> levels = Arrays.stream(args[++i].split(",")).mapToInt(Integer::parseInt).toArray();
+                case "-d" -> durationSeconds = Integer.parseInt(args[++i]);
+                case "-w" -> warmupSeconds = Integer.parseInt(args[++i]);
+                case "-m" -> modes = List.of(args[++i].split(","));
+                case "-u" -> urlCount = Integer.parseInt(args[++i]);
+                case "--slo" -> sloMillis = Double.parseDouble(args[++i]);
+                case "--cached" -> cached = true;
+                default -> throw new IllegalArgumentException("Opção desconhecida: " + args[i]);
+            }
+        }
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        Map<String, Integer> maxConcurrency = new LinkedHashMap<>();
+
+        for (String mode : modes) {
+            List<String> properties = modeProperties(mode);
+            if (!cached) {
+                properties.add("app.cache.redirect.ttl-seconds=0");
+            }
+            // platform/virtual medem só o modelo de threads: logs desligados nos dois
+            boolean quiet = mode.equals("platform") || mode.equals("virtual");
+
+            try (ConfigurableApplicationContext context =
+                     BenchmarkContext.start(quiet, properties.toArray(String[]::new))) {
+                String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/";
+                String[] codes = createUrls(context, urlCount);
+
+                int best = 0;
+                for (int level : levels) {
+                    run(baseUrl, codes, level, warmupSeconds);
+                    Map<String, Object> result = run(baseUrl, codes, level, durationSeconds);
+                    result.put("mode", mode);
+                    results.add(result);
+                    print(result);
+
+                    if ((long) result.get("errors") == 0 && (double) result.get("p99Ms") <= sloMillis) {
+                        best = level;
+                    }
+                }
+                maxConcurrency.put(mode, best);
+            }
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("durationSeconds", durationSeconds);
+        report.put("cached", cached);
+        report.put("sloP99Ms", sloMillis);
+        report.put("maxConcurrencyWithinSlo", maxConcurrency);
+        report.put("results", results);
+
+        if (resultFile.getParentFile() != null) {
+            resultFile.getParentFile().mkdirs();
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(resultFile, report);
+
+        System.out.println();
+        System.out.println("Maior concorrência sem erros e com p99 <= " + sloMillis + " ms: " + maxConcurrency);
+        System.out.println("Resultado gravado em " + resultFile.getAbsolutePath());
+    }
+
+    private static List<String> modeProperties(String mode) throws IOException {
+        List<String> properties = new ArrayList<>();
+        switch (mode) {
+            case "platform", "defaults" -> properties.add("spring.threads.virtual.enabled=false");
+            case "virtual" -> {
+                properties.add("spring.threads.virtual.enabled=true");
+                properties.add("spring.profiles.active=virtual-threads");
+            }
+            case "prod" -> {
+                // Banco em arquivo novo a cada execução (as migrações rodam do zero)
+                Path dataDir = Files.createTempDirectory("url-shortener-bench");
+                properties.add("spring.profiles.active=prod");
+                properties.add("spring.datasource.url=jdbc:h2:file:" + dataDir.resolve("db").toAbsolutePath());
+            }
+            default -> throw new IllegalArgumentException("Modo desconhecido: " + mode);
+        }
+        return properties;
+    }
+
+    private static String[] createUrls(ConfigurableApplicationContext context, int count) {
+        UrlShortenerService urlService = context.getBean(UrlShortenerService.class);
+        String[] codes = new String[count];
+        for (int i = 0; i < count; i++) {
+            codes[i] = urlService.createShortUrl(new CreateUrlRequest("https://example.com/page/" + i)).getShortCode();
+        }
+        return codes;
+    }
+
+    /**
+     * Mantém "concurrency" clientes fazendo requisições durante "seconds" segundos.
+     */
+    private static Map<String, Object> run(String baseUrl, String[] codes, int concurrency, int seconds) throws Exception {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .executor(clients)
+                .build();
+
+            List<Future<Samples>> futures = new ArrayList<>(concurrency);
+            for (int c = 0; c < concurrency; c++) {
+                futures.add(clients.submit(() -> client(http, baseUrl, codes, deadline)));
+            }
+
+            Samples all = new Samples();
+            for (Future<Samples> future : futures) {
+                all.addAll(future.get());
+            }
+            return all.summary(concurrency, seconds);
+        }
+    }
+
+    private static Samples client(HttpClient http, String baseUrl, String[] codes, long deadline) {
+        Samples samples = new Samples();
+        while (System.nanoTime() < deadline) {
+            String code = codes[ThreadLocalRandom.current().nextInt(codes.length)];
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + code))
+                .timeout(Duration.ofSeconds(10))
+                .GET()
+                .build();
+
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 302) {
+                    samples.add(System.nanoTime() - start);
+                } else {
+                    samples.errors++;
+                }
+            } catch (Exception e) {
+                samples.errors++;
+            }
+        }
+        return samples;
+    }
+
+    private static void print(Map<String, Object> r) {
+        System.out.printf("%-8s c=%-5d req/s=%-10.0f p50=%-8.2f p99=%-8.2f p99.9=%-8.2f max=%-8.2f erros=%d%n",
+            r.get("mode"), r.get("concurrency"), r.get("requestsPerSecond"),
+            r.get("p50Ms"), r.get("p99Ms"), r.get("p999Ms"), r.get("maxMs"), r.get("errors"));
+    }
+
+    /**
+     * Latências (ns) de um cliente, sem boxing.
+     */
+    private static final class Samples {
+
+        long[] latencies = new long[1024];
+        int size;
+        long errors;
+
+        void add(long latency) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = latency;
+        }
+
+        void addAll(Samples other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.latencies[i]);
+            }
+            errors += other.errors;
+        }
+
+        Map<String, Object> summary(int concurrency, int seconds) {
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("concurrency", concurrency);
+            summary.put("requests", (long) size);
+            summary.put("errors", errors);
+            summary.put("requestsPerSecond", (double) size / seconds);
+            summary.put("p50Ms", percentile(sorted, 0.50));
+            summary.put("p99Ms", percentile(sorted, 0.99));
+            summary.put("p999Ms", percentile(sorted, 0.999));
+            summary.put("maxMs", sorted.length == 0 ? 0.0 : sorted[sorted.length - 1] / 1e6);
+            return summary;
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0.0;
+            }
+            int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+}
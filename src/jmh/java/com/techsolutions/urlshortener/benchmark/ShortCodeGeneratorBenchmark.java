@@ -0,0 +1,58 @@
+package com.techsolutions.urlshortener.benchmark;
+
+import com.techsolutions.urlshortener.util.ShortCodeGenerator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Geração e validação de códigos (sem Spring, sem banco).
+ * Throughput em operações/µs e SampleTime para os percentis (p99).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShortCodeGeneratorBenchmark {
+
+    private final ShortCodeGenerator generator = new ShortCodeGenerator();
+
+    private final String validCode = "aB3dEf";
+    private final String invalidCode = "aB3-Ef";
+
+    @Benchmark
+    public String generate() {
+        return generator.generate();
+    }
+
+    @Benchmark
+    public String encode() {
+        return generator.encode(123_456_789L, 6);
+    }
+
+    @Benchmark
+    public long decode() {
+        return generator.decode(validCode);
+    }
+
+    @Benchmark
+    public boolean isValidCode() {
+        return generator.isValidCode(validCode);
+    }
+
+    @Benchmark
+    public boolean isValidCodeInvalid() {
+        return generator.isValidCode(invalidCode);
+    }
+}
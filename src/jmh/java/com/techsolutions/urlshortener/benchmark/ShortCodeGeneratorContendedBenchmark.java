@@ -0,0 +1,68 @@
+package com.techsolutions.urlshortener.benchmark;
+
+import com.techsolutions.urlshortener.util.ShortCodeGenerator;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ShortCodeGenerator com 32 threads ao mesmo tempo, comparado à implementação anterior
+ * (RandomStringUtils com Random compartilhado e indexOf por caractere) como referência.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(32)
+@Fork(1)
+public class ShortCodeGeneratorContendedBenchmark {
+
+    private static final String CHARACTERS =
+        "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+
+    private final ShortCodeGenerator generator = new ShortCodeGenerator();
+
+    private final String code = "aB3dEf";
+
+    @Benchmark
+    public String generate() {
+        return generator.generate();
+    }
+
+    @Benchmark
+    public String generateLegacy() {
+        return RandomStringUtils.random(6, CHARACTERS);
+    }
+
+    @Benchmark
+    public boolean isValidCode() {
+        return generator.isValidCode(code);
+    }
+
+    @Benchmark
+    public boolean isValidCodeLegacy() {
+        for (char c : code.toCharArray()) {
+            if (CHARACTERS.indexOf(c) == -1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Benchmark
+    public long decode() {
+        return generator.decode(code);
+    }
+}
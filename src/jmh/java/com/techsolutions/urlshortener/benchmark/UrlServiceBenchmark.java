@@ -0,0 +1,91 @@
+package com.techsolutions.urlshortener.benchmark;
+
+import com.techsolutions.urlshortener.cache.RedirectCache;
+import com.techsolutions.urlshortener.dto.CreateUrlRequest;
+import com.techsolutions.urlshortener.dto.UrlResponse;
+import com.techsolutions.urlshortener.service.LookupResult;
+import com.techsolutions.urlshortener.service.UrlShortenerService;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UrlShortenerService com a aplicação completa e H2 embarcado:
+ * - getOriginalUrl com o código no cache (caminho normal do redirecionamento)
+ * - getOriginalUrl sem cache (o código é invalidado antes de cada chamada → vai ao banco)
+ * - lookup de código inexistente (resultado MISSING, sem exceção)
+ * - createShortUrl com código gerado
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class UrlServiceBenchmark {
+
+    private static final int URL_COUNT = 1_000;
+
+    private ConfigurableApplicationContext context;
+    private UrlShortenerService urlService;
+    private RedirectCache redirectCache;
+    private String[] codes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        urlService = context.getBean(UrlShortenerService.class);
+        redirectCache = context.getBean(RedirectCache.class);
+
+        codes = new String[URL_COUNT];
+        for (int i = 0; i < URL_COUNT; i++) {
+            UrlResponse response = urlService.createShortUrl(new CreateUrlRequest("https://example.com/page/" + i));
+            codes[i] = response.getShortCode();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String getOriginalUrlCached() {
+        return urlService.getOriginalUrl(randomCode());
+    }
+
+    @Benchmark
+    public String getOriginalUrlUncached() {
+        String code = randomCode();
+        redirectCache.invalidate(code);
+        return urlService.getOriginalUrl(code);
+    }
+
+    @Benchmark
+    public LookupResult lookupMissing() {
+        return urlService.lookup("naoExiste");
+    }
+
+    @Benchmark
+    public UrlResponse createShortUrl() {
+        return urlService.createShortUrl(new CreateUrlRequest("https://example.com/new"));
+    }
+
+    private String randomCode() {
+        return codes[ThreadLocalRandom.current().nextInt(codes.length)];
+    }
+}
@@ -0,0 +1,85 @@
+package com.techsolutions.urlshortener;
+
+import com.techsolutions.urlshortener.transfer.LinkTransferService;
+import com.techsolutions.urlshortener.transfer.TransferJob;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Exportação/importação de shortened_urls pela linha de comando: o mesmo job de
+ * /api/admin/transfer (ver LinkTransferService), sem servidor web e sem a limpeza de expirados.
+ *
+ * Uso, com o jar gerado pelo spring-boot-maven-plugin:
+ * <pre>
+ * java -Dloader.main=com.techsolutions.urlshortener.LinkTransferCli \
+ *      -cp target/url-shortener-0.0.1-SNAPSHOT.jar org.springframework.boot.loader.launch.PropertiesLauncher \
+ *      export links.ulnk [--resume] [--spring.profiles.active=prod ...]
+ *
+ *      ... import links.ulnk [--after-id=150000] [--spring.profiles.active=prod ...]
+ * </pre>
+ * Os demais argumentos --chave=valor vão para o Spring (banco, perfil etc.).
+ * Termina com código 0 se o job concluiu, 1 se falhou (o cursor impresso serve para retomar).
+ */
+public class LinkTransferCli {
+
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length < 2 || !(args[0].equals("export") || args[0].equals("import"))) {
+            System.err.println("Uso: export <arquivo> [--resume] | import <arquivo> [--after-id=N]");
+            System.exit(2);
+        }
+        boolean export = args[0].equals("export");
+        Path file = Path.of(args[1]);
+        boolean resume = false;
+        long afterId = 0;
+        List<String> springArgs = new ArrayList<>();
+        for (int i = 2; i < args.length; i++) {
+            if (args[i].equals("--resume")) {
+                resume = true;
+            } else if (args[i].startsWith("--after-id=")) {
+                afterId = Long.parseLong(args[i].substring("--after-id=".length()));
+            } else {
+                springArgs.add(args[i]);
+            }
+        }
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(UrlShortenerApplication.class)
+            .web(WebApplicationType.NONE)
+            .properties("app.reaper.enabled=false", "app.snapshot.enabled=false", "app.index.build=false",
+                        "logging.level.org.hibernate=WARN", "logging.level.org.hibernate.SQL=WARN",
+                        "logging.level.org.hibernate.type.descriptor.sql=WARN")
+            .run(springArgs.toArray(String[]::new));
+
+        LinkTransferService transferService = context.getBean(LinkTransferService.class);
+        TransferJob job = export ? transferService.startExport(file, resume) : transferService.startImport(file, afterId);
+
+        while (!job.isFinished()) {
+            Thread.sleep(1000);
+            if (!job.isFinished()) {
+                printProgress(job);
+            }
+        }
+        printProgress(job);
+        if (job.getError() != null) {
+            System.err.println("Erro: " + job.getError() + " (retomar com "
+                + (export ? "--resume" : "--after-id=" + job.getCursor()) + ")");
+        }
+
+        int exitCode = job.getStatus() == TransferJob.Status.COMPLETED ? 0 : 1;
+        System.exit(SpringApplication.exit(context, () -> exitCode));
+    }
+
+    private static void printProgress(TransferJob job) {
+        double progress = job.getProgress();
+        System.out.printf("%s %s: %,d linhas%s, cursor %d, %,d linhas/s%n",
+            job.getType(), job.getStatus(), job.getRows(),
+            progress < 0 ? "" : String.format(" (%.1f%%)", progress * 100),
+            job.getCursor(), Math.round(job.getRowsPerSecond()));
+    }
+}
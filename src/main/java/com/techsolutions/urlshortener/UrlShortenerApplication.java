@@ -2,8 +2,13 @@ package com.techsolutions.urlshortener;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+// R2dbcAutoConfiguration fica de fora: um ConnectionFactory registrado como bean desliga o
+// DataSource (JPA/JDBC). O perfil "reactive" cria o seu próprio (ver ReactiveUrlRepository)
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
+@EnableScheduling
 public class UrlShortenerApplication {
 
 	public static void main(String[] args) {
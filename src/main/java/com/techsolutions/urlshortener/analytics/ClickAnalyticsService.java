@@ -0,0 +1,399 @@
+package com.techsolutions.urlshortener.analytics;
+
+import com.techsolutions.urlshortener.dto.ClickStatsPoint;
+import com.techsolutions.urlshortener.dto.ClickStatsResponse;
+import com.techsolutions.urlshortener.model.ClickDimensionRollup;
+import com.techsolutions.urlshortener.model.ClickRollup;
+import com.techsolutions.urlshortener.repository.ClickRollupRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Analytics de cliques.
+ *
+ * Na requisição: record() só publica o evento no ClickEventRingBuffer (sem lock, sem banco,
+ * sem alocar). Fora da requisição: aggregate() esvazia o buffer, classifica os eventos e
+ * soma os cliques por minuto/hora/dia (e por referrer/região, por dia) nas tabelas de rollup.
+ * Os totais por minuto só ficam retention.minute-hours horas: purge() apaga os mais antigos
+ * em lotes, como o ExpiredUrlReaper (hora e dia ficam).
+ */
+@Service
+public class ClickAnalyticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(ClickAnalyticsService.class);
+
+    // Granularidades da série temporal
+    public static final String MINUTE = "MINUTE";
+    public static final String HOUR = "HOUR";
+    public static final String DAY = "DAY";
+
+    // Dimensões dos rollups diários
+    public static final String REFERRER = "REFERRER";
+    public static final String REGION = "REGION";
+
+    private static final int TOP_VALUES = 10;
+
+    @Autowired
+    private ClickRollupRepository rollupRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ClickEventRingBuffer buffer;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int maxPendingRows;
+    private final long minuteRetentionHours;
+    private final int purgeBatchSize;
+    private final int maxPurgeBatchesPerRun;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    // Incrementos já agregados em memória e ainda não gravados (só a thread do agregador mexe)
+    private final Map<RollupKey, long[]> pendingRollups = new HashMap<>();
+    private final Map<DimensionKey, long[]> pendingDimensions = new HashMap<>();
+
+    private final ReentrantLock aggregateLock = new ReentrantLock();
+
+    // Uma limpeza por vez
+    private final ReentrantLock purgeLock = new ReentrantLock();
+
+    private final LongAdder aggregatedEvents = new LongAdder();
+    private final LongAdder discardedRows = new LongAdder();
+    private final LongAdder purgedRows = new LongAdder();
+
+    public ClickAnalyticsService(PlatformTransactionManager transactionManager,
+                                 @Value("${app.analytics.enabled:true}") boolean enabled,
+                                 @Value("${app.analytics.buffer-capacity:65536}") int bufferCapacity,
+                                 @Value("${app.analytics.max-pending-rows:100000}") int maxPendingRows,
+                                 @Value("${app.analytics.retention.minute-hours:48}") long minuteRetentionHours,
+                                 @Value("${app.analytics.retention.batch-size:1000}") int purgeBatchSize,
+                                 @Value("${app.analytics.retention.max-batches-per-run:20}") int maxPurgeBatchesPerRun) {
+        if (purgeBatchSize <= 0 || maxPurgeBatchesPerRun <= 0) {
+            throw new IllegalArgumentException(
+                "app.analytics.retention.batch-size e max-batches-per-run devem ser maiores que zero");
+        }
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.buffer = new ClickEventRingBuffer(bufferCapacity);
+        this.enabled = enabled;
+        this.maxPendingRows = maxPendingRows;
+        this.minuteRetentionHours = minuteRetentionHours;
+        this.purgeBatchSize = purgeBatchSize;
+        this.maxPurgeBatchesPerRun = maxPurgeBatchesPerRun;
+    }
+
+    // ------------------------------------------------------------
+    // CAMINHO QUENTE: registrar evento
+    // ------------------------------------------------------------
+
+    /**
+     * Registra um redirecionamento. Nunca bloqueia: com o buffer cheio o evento é descartado
+     * (e contado em getDroppedEvents).
+     */
+    public void record(String shortCode, String referrer, String userAgent, String remoteAddr) {
+        if (enabled) {
+            buffer.offer(System.currentTimeMillis(), shortCode, referrer, userAgent, remoteAddr);
+        }
+    }
+
+    public boolean isEnabled() { return enabled; }
+
+    public long getDroppedEvents() { return buffer.getDropped(); }
+
+    public long getBufferedEvents() { return buffer.size(); }
+
+    public long getAggregatedEvents() { return aggregatedEvents.sum(); }
+
+    public long getDiscardedRows() { return discardedRows.sum(); }
+
+    public long getPurgedRows() { return purgedRows.sum(); }
+
+    // ------------------------------------------------------------
+    // AGREGAÇÃO (fora da requisição)
+    // ------------------------------------------------------------
+
+    /**
+     * Esvazia o buffer de eventos e grava os totais nas tabelas de rollup.
+     */
+    @Scheduled(fixedDelayString = "${app.analytics.aggregate-interval-ms:5000}")
+    public void aggregate() {
+        // ReentrantLock e não synchronized: a gravação não prende a thread da plataforma
+        // quando o agendador roda em threads virtuais
+        aggregateLock.lock();
+        try {
+            aggregateLocked();
+        } finally {
+            aggregateLock.unlock();
+        }
+    }
+
+    private void aggregateLocked() {
+        // No máximo um buffer inteiro por rodada: com cliques chegando mais rápido do que a
+        // agregação, esvaziar "até acabar" nunca terminaria (e os totais em memória cresceriam
+        // sem limite). O que chegar durante a rodada fica para a próxima
+        aggregatedEvents.add(buffer.drain(this::accumulate, buffer.getCapacity()));
+
+        if (pendingRollups.isEmpty() && pendingDimensions.isEmpty()) {
+            return;
+        }
+
+        List<ClickRollup> rollups = toRollups();
+        List<ClickDimensionRollup> dimensions = toDimensionRollups();
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            writeRollups(rollups, dimensions);
+            pendingRollups.clear();
+            pendingDimensions.clear();
+        } catch (DataAccessException e) {
+            outcome = "failure";
+            // Mantém os totais em memória para a próxima rodada, até um limite
+            log.warn("Falha ao gravar rollups de cliques; nova tentativa na próxima rodada", e);
+            if (pendingRollups.size() + pendingDimensions.size() > maxPendingRows) {
+                discardedRows.add(pendingRollups.size() + pendingDimensions.size());
+                pendingRollups.clear();
+                pendingDimensions.clear();
+            }
+        } finally {
+            sample.stop(meterRegistry.timer("urlshortener.analytics.aggregate", "outcome", outcome));
+        }
+    }
+
+    @PreDestroy
+    public void aggregateOnShutdown() {
+        aggregate();
+    }
+
+    // ------------------------------------------------------------
+    // RETENÇÃO (totais por minuto)
+    // ------------------------------------------------------------
+
+    @Scheduled(fixedDelayString = "${app.analytics.retention.interval-ms:600000}",
+               initialDelayString = "${app.analytics.retention.interval-ms:600000}")
+    public void scheduledPurge() {
+        if (!enabled || minuteRetentionHours <= 0) {
+            return;
+        }
+        try {
+            purge();
+        } catch (IllegalStateException e) {
+            // Limpeza anterior ainda em andamento
+        } catch (DataAccessException e) {
+            log.warn("Falha na limpeza dos rollups por minuto; nova tentativa na próxima rodada", e);
+        }
+    }
+
+    /**
+     * Apaga até max-batches-per-run lotes de totais por minuto mais antigos que a retenção.
+     * Cada lote é um DELETE curto; o resto fica para a próxima execução.
+     *
+     * @return Linhas apagadas nesta execução
+     * @throws IllegalStateException se já houver uma limpeza em andamento
+     */
+    public long purge() {
+        if (!purgeLock.tryLock()) {
+            throw new IllegalStateException("Já existe uma limpeza de rollups em andamento");
+        }
+        try {
+            LocalDateTime cutoff = truncate(LocalDateTime.now().minusHours(minuteRetentionHours), MINUTE);
+            long removed = 0;
+            int batches = 0;
+            int last = purgeBatchSize;
+            while (batches < maxPurgeBatchesPerRun && last == purgeBatchSize) {
+                last = rollupRepository.deleteRollupsBefore(MINUTE, cutoff, purgeBatchSize);
+                removed += last;
+                batches++;
+            }
+
+            purgedRows.add(removed);
+            if (removed > 0) {
+                log.info("Limpeza de rollups por minuto: {} linhas anteriores a {} apagadas", removed, cutoff);
+            }
+            return removed;
+        } finally {
+            purgeLock.unlock();
+        }
+    }
+
+    // ------------------------------------------------------------
+    // CONSULTA
+    // ------------------------------------------------------------
+
+    /**
+     * Série temporal de cliques de uma URL, com top referrers e regiões do período.
+     *
+     * @param shortCode Código curto
+     * @param granularity minute, hour ou day
+     * @param from Início (null = padrão da granularidade)
+     * @param to Fim (null = agora)
+     * @throws IllegalArgumentException Se a granularidade for inválida
+     */
+    public ClickStatsResponse getStats(String shortCode, String granularity, LocalDateTime from, LocalDateTime to) {
+        String unit = granularity == null ? HOUR : granularity.toUpperCase(Locale.ROOT);
+        if (!unit.equals(MINUTE) && !unit.equals(HOUR) && !unit.equals(DAY)) {
+            throw new IllegalArgumentException("Granularidade inválida: " + granularity);
+        }
+
+        // Período padrão: última hora (minuto), último dia (hora) ou últimos 30 dias (dia)
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : switch (unit) {
+            case MINUTE -> end.minusHours(1);
+            case HOUR -> end.minusDays(1);
+            default -> end.minusDays(30);
+        };
+
+        List<ClickStatsPoint> series = new ArrayList<>();
+        long total = 0;
+        for (ClickRollup rollup : rollupRepository.findSeries(shortCode, unit, truncate(start, unit), end)) {
+            series.add(new ClickStatsPoint(rollup.getBucketStart(), rollup.getClicks(),
+                rollup.getBotClicks(), rollup.getMobileClicks(), rollup.getDesktopClicks()));
+            total += rollup.getClicks();
+        }
+
+        LocalDateTime dayStart = truncate(start, DAY);
+        ClickStatsResponse response = new ClickStatsResponse();
+        response.setShortCode(shortCode);
+        response.setGranularity(unit);
+        response.setFrom(start);
+        response.setTo(end);
+        response.setTotalClicks(total);
+        response.setSeries(series);
+        response.setTopReferrers(rollupRepository.findTopValues(shortCode, REFERRER, dayStart, end, TOP_VALUES));
+        response.setRegions(rollupRepository.findTopValues(shortCode, REGION, dayStart, end, TOP_VALUES));
+        return response;
+    }
+
+    // ------------------------------------------------------------
+    // MÉTODOS PRIVADOS
+    // ------------------------------------------------------------
+
+    private void accumulate(long timestamp, String shortCode, String referrer, String userAgent, String remoteAddr) {
+        LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), zone);
+        String uaClass = ClickClassifier.userAgentClass(userAgent);
+
+        addRollup(shortCode, MINUTE, truncate(time, MINUTE), uaClass);
+        addRollup(shortCode, HOUR, truncate(time, HOUR), uaClass);
+        LocalDateTime day = truncate(time, DAY);
+        addRollup(shortCode, DAY, day, uaClass);
+
+        addDimension(shortCode, day, REFERRER, ClickClassifier.referrerHost(referrer));
+        addDimension(shortCode, day, REGION, ClickClassifier.region(remoteAddr));
+    }
+
+    private void addRollup(String shortCode, String granularity, LocalDateTime bucket, String uaClass) {
+        long[] counts = pendingRollups.computeIfAbsent(new RollupKey(shortCode, granularity, bucket), k -> new long[4]);
+        counts[0]++;
+        switch (uaClass) {
+            case ClickClassifier.BOT -> counts[1]++;
+            case ClickClassifier.MOBILE -> counts[2]++;
+            case ClickClassifier.DESKTOP -> counts[3]++;
+            default -> { }
+        }
+    }
+
+    private void addDimension(String shortCode, LocalDateTime day, String dimension, String value) {
+        pendingDimensions.computeIfAbsent(new DimensionKey(shortCode, day, dimension, value), k -> new long[1])[0]++;
+    }
+
+    private void writeRollups(List<ClickRollup> rollups, List<ClickDimensionRollup> dimensions) {
+        try {
+            writeInTransaction(rollups, dimensions);
+        } catch (DuplicateKeyException e) {
+            // Outra instância criou uma das linhas ao mesmo tempo; a transação voltou inteira,
+            // e na segunda tentativa o UPDATE já encontra a linha
+            writeInTransaction(rollups, dimensions);
+        }
+    }
+
+    private void writeInTransaction(List<ClickRollup> rollups, List<ClickDimensionRollup> dimensions) {
+        transactionTemplate.executeWithoutResult(status -> {
+            rollupRepository.addRollups(rollups);
+            rollupRepository.addDimensionRollups(dimensions);
+        });
+    }
+
+    private List<ClickRollup> toRollups() {
+        List<ClickRollup> rollups = new ArrayList<>(pendingRollups.size());
+        pendingRollups.forEach((key, counts) -> {
+            ClickRollup rollup = new ClickRollup();
+            rollup.setShortCode(key.shortCode());
+            rollup.setGranularity(key.granularity());
+            rollup.setBucketStart(key.bucketStart());
+            rollup.setClicks(counts[0]);
+            rollup.setBotClicks(counts[1]);
+            rollup.setMobileClicks(counts[2]);
+            rollup.setDesktopClicks(counts[3]);
+            rollups.add(rollup);
+        });
+        return rollups;
+    }
+
+    private List<ClickDimensionRollup> toDimensionRollups() {
+        List<ClickDimensionRollup> rollups = new ArrayList<>(pendingDimensions.size());
+        pendingDimensions.forEach((key, counts) -> {
+            ClickDimensionRollup rollup = new ClickDimensionRollup();
+            rollup.setShortCode(key.shortCode());
+            rollup.setBucketStart(key.day());
+            rollup.setDimension(key.dimension());
+            rollup.setDimensionValue(key.value());
+            rollup.setClicks(counts[0]);
+            rollups.add(rollup);
+        });
+        return rollups;
+    }
+
+    private static LocalDateTime truncate(LocalDateTime time, String granularity) {
+        return switch (granularity) {
+            case MINUTE -> time.truncatedTo(ChronoUnit.MINUTES);
+            case HOUR -> time.truncatedTo(ChronoUnit.HOURS);
+            default -> time.truncatedTo(ChronoUnit.DAYS);
+        };
+    }
+
+    /**
+     * Estado do pipeline (usado pelo endpoint administrativo).
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("bufferCapacity", buffer.getCapacity());
+        stats.put("bufferedEvents", getBufferedEvents());
+        stats.put("droppedEvents", getDroppedEvents());
+        stats.put("aggregatedEvents", getAggregatedEvents());
+        stats.put("discardedRows", getDiscardedRows());
+        stats.put("minuteRetentionHours", minuteRetentionHours);
+        stats.put("purgedRows", getPurgedRows());
+        return stats;
+    }
+
+    private record RollupKey(String shortCode, String granularity, LocalDateTime bucketStart) { }
+
+    private record DimensionKey(String shortCode, LocalDateTime day, String dimension, String value) { }
+}
@@ -0,0 +1,102 @@
+package com.techsolutions.urlshortener.analytics;
+
+import java.net.URI;
+import java.util.Locale;
+
+/**
+ * Classificação dos dados brutos de um clique (roda na thread do agregador, não na requisição).
+ */
+public final class ClickClassifier {
+
+    // Classes de User-Agent
+    public static final String BOT = "BOT";
+    public static final String MOBILE = "MOBILE";
+    public static final String DESKTOP = "DESKTOP";
+    public static final String OTHER = "OTHER";
+
+    // Valores especiais de referrer/região
+    public static final String DIRECT = "(direct)";
+    public static final String UNKNOWN = "(unknown)";
+
+    private static final int MAX_VALUE_LENGTH = 255;
+
+    private ClickClassifier() {
+    }
+
+    /**
+     * Classifica o User-Agent em BOT, MOBILE, DESKTOP ou OTHER.
+     */
+    public static String userAgentClass(String userAgent) {
+        if (userAgent == null || userAgent.isBlank()) {
+            return OTHER;
+        }
+
+        String ua = userAgent.toLowerCase(Locale.ROOT);
+        if (ua.contains("bot") || ua.contains("crawler") || ua.contains("spider")
+                || ua.contains("curl") || ua.contains("wget") || ua.contains("python")) {
+            return BOT;
+        }
+        if (ua.contains("mobile") || ua.contains("android") || ua.contains("iphone") || ua.contains("ipad")) {
+            return MOBILE;
+        }
+        if (ua.contains("windows") || ua.contains("macintosh") || ua.contains("x11") || ua.contains("linux")) {
+            return DESKTOP;
+        }
+        return OTHER;
+    }
+
+    /**
+     * Extrai o host do cabeçalho Referer (ex: "https://www.google.com/search?q=x" → "www.google.com").
+     */
+    public static String referrerHost(String referrer) {
+        if (referrer == null || referrer.isBlank()) {
+            return DIRECT;
+        }
+        try {
+            String host = URI.create(referrer.trim()).getHost();
+            return host == null ? UNKNOWN : truncate(host.toLowerCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return UNKNOWN;
+        }
+    }
+
+    /**
+     * Região aproximada a partir do prefixo do IP.
+     * Substituto simples de um país (sem base GeoIP): agrupa IPv4 pelo /8
+     * (ex: "203.0.113.9" → "R203") e separa redes locais/privadas como "LOCAL".
+     */
+    public static String region(String remoteAddr) {
+        if (remoteAddr == null || remoteAddr.isBlank()) {
+            return UNKNOWN;
+        }
+        if (remoteAddr.indexOf(':') >= 0) {
+            // IPv6: loopback/link-local como LOCAL, o resto agrupado pelo primeiro bloco
+            String lower = remoteAddr.toLowerCase(Locale.ROOT);
+            if (lower.equals("::1") || lower.equals("0:0:0:0:0:0:0:1") || lower.startsWith("fe80") || lower.startsWith("fc") || lower.startsWith("fd")) {
+                return "LOCAL";
+            }
+            int colon = lower.indexOf(':');
+            return truncate("R6-" + lower.substring(0, colon));
+        }
+
+        int dot = remoteAddr.indexOf('.');
+        if (dot <= 0) {
+            return UNKNOWN;
+        }
+        try {
+            int first = Integer.parseInt(remoteAddr.substring(0, dot));
+            int second = Integer.parseInt(remoteAddr.substring(dot + 1, remoteAddr.indexOf('.', dot + 1)));
+
+            boolean local = first == 10 || first == 127
+                || (first == 172 && second >= 16 && second <= 31)
+                || (first == 192 && second == 168);
+            return local ? "LOCAL" : "R" + first;
+        } catch (RuntimeException e) {
+            return UNKNOWN;
+        }
+    }
+
+    private static String truncate(String value) {
+        return value.length() <= MAX_VALUE_LENGTH ? value : value.substring(0, MAX_VALUE_LENGTH);
+    }
+}
@@ -0,0 +1,142 @@
+package com.techsolutions.urlshortener.analytics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Buffer circular de eventos de clique: vários produtores (threads de requisição),
+ * um único consumidor (o agregador).
+ *
+ * Os slots são pré-alocados em arrays paralelos, então publicar um evento não cria
+ * objetos: só copia referências que a requisição já tinha. Se o buffer estiver cheio,
+ * o evento é descartado e contado em vez de bloquear o redirecionamento.
+ */
+public class ClickEventRingBuffer {
+
+    private final int capacity;
+    private final int mask;
+
+    // Campos de cada slot
+    private final long[] timestamps;
+    private final String[] shortCodes;
+    private final String[] referrers;
+    private final String[] userAgents;
+    private final String[] remoteAddrs;
+
+    // Número de sequência publicado em cada slot (o consumidor só lê slots já publicados)
+    private final AtomicLongArray published;
+
+    // Próxima sequência a ser reservada por um produtor / lida pelo consumidor
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * @param capacity Quantidade de slots (arredondada para a próxima potência de 2)
+     */
+    public ClickEventRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("A capacidade deve ser maior que zero");
+        }
+        // Potência de 2 → o índice do slot é só "sequência & mask"
+        this.capacity = Integer.bitCount(capacity) == 1 ? capacity : Integer.highestOneBit(capacity) << 1;
+        this.mask = this.capacity - 1;
+
+        this.timestamps = new long[this.capacity];
+        this.shortCodes = new String[this.capacity];
+        this.referrers = new String[this.capacity];
+        this.userAgents = new String[this.capacity];
+        this.remoteAddrs = new String[this.capacity];
+
+        this.published = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    // ------------------------------------------------------------
+    // PRODUTORES (threads de requisição)
+    // ------------------------------------------------------------
+
+    /**
+     * Publica um evento sem bloquear.
+     *
+     * @return false se o buffer estava cheio e o evento foi descartado
+     */
+    public boolean offer(long timestamp, String shortCode, String referrer, String userAgent, String remoteAddr) {
+        long sequence;
+        do {
+            sequence = head.get();
+            if (sequence - tail.get() >= capacity) {
+                dropped.increment();
+                return false;
+            }
+        } while (!head.compareAndSet(sequence, sequence + 1));
+
+        int slot = (int) (sequence & mask);
+        timestamps[slot] = timestamp;
+        shortCodes[slot] = shortCode;
+        referrers[slot] = referrer;
+        userAgents[slot] = userAgent;
+        remoteAddrs[slot] = remoteAddr;
+
+        // Escrita volátil: torna os campos acima visíveis ao consumidor
+        published.set(slot, sequence);
+        return true;
+    }
+
+    // ------------------------------------------------------------
+    // CONSUMIDOR (uma única thread)
+    // ------------------------------------------------------------
+
+    /**
+     * Entrega ao handler todos os eventos já publicados, na ordem, e libera os slots.
+     *
+     * @param handler Recebe cada evento
+     * @param maxEvents Máximo de eventos nesta chamada
+     * @return Quantidade de eventos entregues
+     */
+    public int drain(ClickEventHandler handler, int maxEvents) {
+        long sequence = tail.get();
+        int drained = 0;
+
+        while (drained < maxEvents) {
+            int slot = (int) (sequence & mask);
+            if (published.get(slot) != sequence) {
+                // Slot ainda não publicado (ou produtor no meio da escrita)
+                break;
+            }
+
+            handler.onEvent(timestamps[slot], shortCodes[slot], referrers[slot], userAgents[slot], remoteAddrs[slot]);
+
+            // Solta as referências para não segurar Strings da requisição
+            shortCodes[slot] = null;
+            referrers[slot] = null;
+            userAgents[slot] = null;
+            remoteAddrs[slot] = null;
+
+            sequence++;
+            drained++;
+            // Libera o slot para os produtores
+            tail.set(sequence);
+        }
+
+        return drained;
+    }
+
+    public int getCapacity() { return capacity; }
+
+    public long getDropped() { return dropped.sum(); }
+
+    public long size() { return head.get() - tail.get(); }
+
+    /**
+     * Recebe os campos de um evento durante o drain.
+     */
+    @FunctionalInterface
+    public interface ClickEventHandler {
+        void onEvent(long timestamp, String shortCode, String referrer, String userAgent, String remoteAddr);
+    }
+}
@@ -0,0 +1,116 @@
+package com.techsolutions.urlshortener.cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Filtro de Bloom de strings, seguro para várias threads.
+ *
+ * mightContain() = false → o item com certeza nunca foi adicionado.
+ * mightContain() = true  → provavelmente foi (falso positivo com a taxa configurada).
+ *
+ * Os bits ficam num AtomicLongArray: leituras sem lock e put() com compareAndSet.
+ * As k posições vêm de dois hashes de 64 bits (double hashing: h1 + i * h2).
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitSize;
+    private final int hashFunctions;
+    private final long expectedItems;
+    private final LongAdder insertions = new LongAdder();
+
+    /**
+     * @param expectedItems Quantidade de itens para a qual o filtro é dimensionado
+     * @param falsePositiveRate Taxa de falso positivo desejada com expectedItems itens (ex: 0.01)
+     */
+    public BloomFilter(long expectedItems, double falsePositiveRate) {
+        if (expectedItems <= 0) {
+            throw new IllegalArgumentException("A quantidade esperada deve ser maior que zero");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("A taxa de falso positivo deve estar entre 0 e 1");
+        }
+
+        // m = -n ln(p) / ln(2)^2 e k = m/n ln(2)
+        long bits = (long) Math.ceil(-expectedItems * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bits + 63) / 64));
+
+        this.words = new AtomicLongArray(words);
+        this.bitSize = (long) words * 64;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitSize / expectedItems * Math.log(2)));
+        this.expectedItems = expectedItems;
+    }
+
+    public void put(String value) {
+        long h1 = hash(value);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitSize);
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+
+            long word;
+            do {
+                word = words.get(index);
+                if ((word & mask) != 0) {
+                    break;
+                }
+            } while (!words.compareAndSet(index, word, word | mask));
+        }
+        insertions.increment();
+    }
+
+    public boolean mightContain(String value) {
+        long h1 = hash(value);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitSize);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getBitSize() { return bitSize; }
+
+    public int getHashFunctions() { return hashFunctions; }
+
+    public long getExpectedItems() { return expectedItems; }
+
+    /**
+     * Quantidade de put() (conta repetições: é um limite superior dos itens distintos).
+     */
+    public long getInsertions() { return insertions.sum(); }
+
+    /**
+     * Taxa de falso positivo atual, estimada pela fração de bits ligados: (bits ligados / m)^k.
+     * Percorre o vetor inteiro: usar só em estatísticas.
+     */
+    public double estimatedFalsePositiveRate() {
+        long setBits = 0;
+        for (int i = 0; i < words.length(); i++) {
+            setBits += Long.bitCount(words.get(i));
+        }
+        return Math.pow((double) setBits / bitSize, hashFunctions);
+    }
+
+    // FNV-1a de 64 bits sobre os caracteres, finalizado pelo mixer do SplitMix64
+    private static long hash(String value) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,42 @@
+package com.techsolutions.urlshortener.cache;
+
+import com.techsolutions.urlshortener.model.ShortenedUrl;
+
+import java.time.LocalDateTime;
+
+/**
+ * Snapshot imutável do que o redirecionamento precisa saber de uma URL.
+ * Guardamos só (originalUrl, isActive, expiresAt) para não manter entidades JPA no cache.
+ */
+public final class CachedUrl {
+
+    private final String originalUrl;
+    private final boolean active;
+    private final LocalDateTime expiresAt;   // null = não expira
+
+    public CachedUrl(String originalUrl, boolean active, LocalDateTime expiresAt) {
+        this.originalUrl = originalUrl;
+        this.active = active;
+        this.expiresAt = expiresAt;
+    }
+
+    // Cria o snapshot a partir da entidade lida do banco
+    public static CachedUrl from(ShortenedUrl url) {
+        return new CachedUrl(
+            url.getOriginalUrl(),
+            Boolean.TRUE.equals(url.getIsActive()),
+            url.getExpiresAt()
+        );
+    }
+
+    public String getOriginalUrl() { return originalUrl; }
+
+    public boolean isActive() { return active; }
+
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+
+    // Verifica a expiração sem precisar ir ao banco
+    public boolean isExpiredAt(LocalDateTime now) {
+        return expiresAt != null && expiresAt.isBefore(now);
+    }
+}
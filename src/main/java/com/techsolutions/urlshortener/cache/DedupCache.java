@@ -0,0 +1,98 @@
+package com.techsolutions.urlshortener.cache;
+
+import com.techsolutions.urlshortener.model.ShortenedUrl;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache da deduplicação: URL normalizada → URL curta já criada para ela.
+ *
+ * Tabela de tamanho fixo indexada pelo hash (cada hash tem uma única posição; uma entrada
+ * nova substitui a que estava lá). Leitura e escrita são um acesso a AtomicReferenceArray,
+ * sem lock, e a memória não passa de "capacity" entradas.
+ * A URL normalizada é guardada na entrada e comparada na leitura: hashes iguais de URLs
+ * diferentes nunca se confundem. Entradas valem por no máximo ttl-seconds.
+ */
+@Component
+public class DedupCache {
+
+    private final AtomicReferenceArray<Entry> slots;
+    private final int mask;
+    private final long ttlNanos;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public DedupCache(@Value("${app.dedup.cache-size:65536}") int capacity,
+                      @Value("${app.dedup.cache-ttl-seconds:600}") long ttlSeconds) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("app.dedup.cache-size deve ser maior que zero");
+        }
+        // Arredonda para potência de 2: a posição é "hash & mask"
+        int size = Integer.highestOneBit(Math.min(capacity, 1 << 30) * 2 - 1);
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+    }
+
+    /**
+     * @return URL já criada para a URL normalizada, ou null
+     */
+    public ShortenedUrl get(long hash, String normalizedUrl) {
+        Entry entry = slots.get(slot(hash));
+        if (entry == null || entry.hash != hash || !entry.normalizedUrl.equals(normalizedUrl)
+                || System.nanoTime() - entry.loadedAt > ttlNanos) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.url;
+    }
+
+    public void put(long hash, String normalizedUrl, ShortenedUrl url) {
+        slots.set(slot(hash), new Entry(hash, normalizedUrl, url, System.nanoTime()));
+    }
+
+    /**
+     * Remove a entrada do código (ex: URL desativada), se ela ainda estiver no cache.
+     */
+    public void invalidate(long hash, String shortCode) {
+        int slot = slot(hash);
+        Entry entry = slots.get(slot);
+        if (entry != null && entry.url.getShortCode().equals(shortCode)) {
+            slots.compareAndSet(slot, entry, null);
+        }
+    }
+
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, null);
+        }
+    }
+
+    public long getHits() { return hits.sum(); }
+
+    public long getMisses() { return misses.sum(); }
+
+    private int slot(long hash) {
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private static final class Entry {
+        final long hash;
+        final String normalizedUrl;
+        final ShortenedUrl url;
+        final long loadedAt;
+
+        Entry(long hash, String normalizedUrl, ShortenedUrl url, long loadedAt) {
+            this.hash = hash;
+            this.normalizedUrl = normalizedUrl;
+            this.url = url;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
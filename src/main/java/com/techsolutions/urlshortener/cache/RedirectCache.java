@@ -0,0 +1,340 @@
+package com.techsolutions.urlshortener.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * Cache em memória (read-through) do caminho de redirecionamento:
+ * shortCode → (originalUrl, isActive, expiresAt).
+ *
+ * Leituras não pegam lock: o mapa é um ConcurrentHashMap e a política de remoção
+ * por tamanho é um "relógio" (second chance) sobre uma fila de entradas.
+ * Entradas também expiram por TTL, para limitar quanto tempo um dado fica velho.
+ *
+ * Misses do banco gravam com put(código, valor, carimbo): o carimbo (loadStamp) é tirado
+ * antes da consulta, e o valor é descartado se o código foi invalidado depois dele.
+ * Sem isso, uma leitura feita antes do commit de uma desativação e gravada depois da
+ * invalidação pós-commit deixaria a URL ativa no cache até o TTL vencer.
+ */
+@Component
+public class RedirectCache {
+
+    // ------------------------------------------------------------
+    // CONFIGURAÇÃO E ESTADO
+    // ------------------------------------------------------------
+
+    private final int maxSize;
+    private final long ttlNanos;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    // Ordem de inserção usada pelo relógio de remoção.
+    // Pode conter entradas "mortas" (já substituídas/invalidadas), descartadas ao passar pelo relógio.
+    private final ConcurrentLinkedQueue<Entry> clock = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger clockSize = new AtomicInteger();
+
+    // Invalidações recentes: código → número de sequência da última (ver loadStamp)
+    // Apagadas depois de TOMBSTONE_NANOS; prunedThrough guarda a maior sequência apagada
+    private static final long TOMBSTONE_NANOS = 30_000_000_000L;
+    private static final int TOMBSTONE_PRUNE_THRESHOLD = 1024;
+
+    private final ConcurrentHashMap<String, Tombstone> tombstones = new ConcurrentHashMap<>();
+    private final AtomicLong invalidationSeq = new AtomicLong();
+    private volatile long prunedThrough;
+    private volatile long lastPruneNanos = System.nanoTime();
+
+    // Contadores (LongAdder → sem disputa entre threads)
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder staleLoads = new LongAdder();
+
+    public RedirectCache(@Value("${app.cache.redirect.max-size:10000}") int maxSize,
+                         @Value("${app.cache.redirect.ttl-seconds:300}") long ttlSeconds) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("O tamanho máximo do cache deve ser maior que zero");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+    }
+
+    // ------------------------------------------------------------
+    // LEITURA / ESCRITA
+    // ------------------------------------------------------------
+
+    /**
+     * Busca uma URL no cache.
+     *
+     * @param shortCode Código curto
+     * @return Snapshot da URL, ou null se não estiver no cache (ou se o TTL venceu)
+     */
+    public CachedUrl get(String shortCode) {
+        Entry entry = entries.get(shortCode);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+
+        if (System.nanoTime() - entry.loadedAt > ttlNanos) {
+            if (entries.remove(shortCode, entry)) {
+                expirations.increment();
+            }
+            misses.increment();
+            return null;
+        }
+
+        // Só escreve se necessário, para não disputar a linha de cache em links muito acessados
+        if (!entry.referenced) {
+            entry.referenced = true;
+        }
+        hits.increment();
+        return entry.value;
+    }
+
+    /**
+     * Lê uma entrada sem contar hit/miss nem marcar acesso (conferências internas).
+     */
+    public CachedUrl peek(String shortCode) {
+        Entry entry = entries.get(shortCode);
+        return entry == null ? null : entry.value;
+    }
+
+    /**
+     * Coloca (ou substitui) uma URL no cache, sem conferir invalidações
+     * (dados que não vieram de uma leitura concorrente, ex.: snapshot na partida).
+     */
+    public void put(String shortCode, CachedUrl value) {
+        insert(shortCode, value);
+    }
+
+    /**
+     * Carimbo para um miss: tirado antes de ler o banco e passado ao put de três argumentos.
+     */
+    public long loadStamp() {
+        return invalidationSeq.get();
+    }
+
+    /**
+     * Coloca no cache o resultado de uma leitura do banco iniciada em loadStamp.
+     * Se o código foi invalidado depois do carimbo, a leitura pode ser anterior ao commit
+     * que motivou a invalidação: o valor é descartado (o próximo acesso lê o banco de novo).
+     *
+     * @return false se o valor foi descartado
+     */
+    public boolean put(String shortCode, CachedUrl value, long stamp) {
+        if (invalidatedSince(shortCode, stamp)) {
+            staleLoads.increment();
+            return false;
+        }
+        Entry entry = insert(shortCode, value);
+
+        // Invalidação entre a conferência e o insert: ela pode ter removido o código antes
+        // do insert, então quem desfaz é este put
+        if (invalidatedSince(shortCode, stamp)) {
+            entries.remove(shortCode, entry);
+            staleLoads.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Remove uma URL do cache imediatamente.
+     */
+    public void invalidate(String shortCode) {
+        // Lápide antes da remoção: um put concorrente vê uma ou a outra
+        long now = System.nanoTime();
+        tombstones.put(shortCode, new Tombstone(invalidationSeq.incrementAndGet(), now));
+        if (entries.remove(shortCode) != null) {
+            invalidations.increment();
+        }
+        if (tombstones.size() > TOMBSTONE_PRUNE_THRESHOLD && now - lastPruneNanos > TOMBSTONE_NANOS / 2) {
+            pruneTombstones(now);
+        }
+    }
+
+    /**
+     * Remove uma URL do cache depois do commit da transação atual
+     * (ou imediatamente, se não houver transação).
+     * Assim um leitor concorrente não recoloca no cache o estado anterior ao commit.
+     */
+    public void invalidateAfterCommit(String shortCode) {
+        invalidate(shortCode);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(shortCode);
+                }
+            });
+        }
+    }
+
+    /**
+     * Esvazia o cache inteiro.
+     */
+    public void clear() {
+        // Leituras iniciadas antes da limpeza não voltam ao cache
+        prunedThrough = invalidationSeq.incrementAndGet();
+        tombstones.clear();
+        entries.clear();
+        clock.clear();
+        clockSize.set(0);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int getMaxSize() { return maxSize; }
+
+    /**
+     * Percorre as entradas ainda válidas (TTL não vencido), sem contar como acesso.
+     * Usado pelo snapshot em arquivo (ver RedirectSnapshotService).
+     */
+    public void forEach(BiConsumer<String, CachedUrl> action) {
+        long now = System.nanoTime();
+        for (Entry entry : entries.values()) {
+            if (now - entry.loadedAt <= ttlNanos) {
+                action.accept(entry.key, entry.value);
+            }
+        }
+    }
+
+    // ------------------------------------------------------------
+    // ESTATÍSTICAS
+    // ------------------------------------------------------------
+
+    public long getHits() { return hits.sum(); }
+
+    public long getMisses() { return misses.sum(); }
+
+    public long getEvictions() { return evictions.sum(); }
+
+    public long getExpirations() { return expirations.sum(); }
+
+    public long getInvalidations() { return invalidations.sum(); }
+
+    /** Leituras do banco descartadas por uma invalidação posterior ao carimbo */
+    public long getStaleLoads() { return staleLoads.sum(); }
+
+    /**
+     * Retorna um retrato dos contadores do cache (usado pelo endpoint administrativo).
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", size());
+        stats.put("maxSize", maxSize);
+        stats.put("hits", getHits());
+        stats.put("misses", getMisses());
+        stats.put("evictions", getEvictions());
+        stats.put("expirations", getExpirations());
+        stats.put("invalidations", getInvalidations());
+        stats.put("staleLoads", getStaleLoads());
+        return stats;
+    }
+
+    // ------------------------------------------------------------
+    // MÉTODOS PRIVADOS: Inserção e lápides
+    // ------------------------------------------------------------
+
+    private Entry insert(String shortCode, CachedUrl value) {
+        Entry entry = new Entry(shortCode, value, System.nanoTime());
+        entries.put(shortCode, entry);
+        clock.offer(entry);
+        clockSize.incrementAndGet();
+        evictIfNeeded();
+        return entry;
+    }
+
+    /**
+     * O código foi invalidado depois do carimbo? Mesma conferência do put com carimbo, para
+     * quem usa o resultado de uma leitura sem passar pelo cache (ver RedirectLoadCoalescer).
+     * Carimbo mais antigo que a última limpeza de lápides conta como invalidado
+     * (a lápide que o descartaria pode já ter sido apagada).
+     */
+    public boolean invalidatedSince(String shortCode, long stamp) {
+        if (stamp < prunedThrough) {
+            return true;
+        }
+        Tombstone tombstone = tombstones.get(shortCode);
+        return tombstone != null && tombstone.seq > stamp;
+    }
+
+    private synchronized void pruneTombstones(long now) {
+        long pruned = prunedThrough;
+        for (Map.Entry<String, Tombstone> e : tombstones.entrySet()) {
+            Tombstone tombstone = e.getValue();
+            if (now - tombstone.createdAt > TOMBSTONE_NANOS && tombstones.remove(e.getKey(), tombstone)) {
+                pruned = Math.max(pruned, tombstone.seq);
+            }
+        }
+        prunedThrough = pruned;
+        lastPruneNanos = now;
+    }
+
+    // ------------------------------------------------------------
+    // MÉTODOS PRIVADOS: Remoção por tamanho (algoritmo do relógio)
+    // ------------------------------------------------------------
+
+    private void evictIfNeeded() {
+        // Limita o trabalho de uma chamada (no máximo duas voltas no relógio)
+        int budget = 2 * clockSize.get() + 1;
+
+        while (budget-- > 0 && (entries.size() > maxSize || clockSize.get() > 2 * maxSize)) {
+            Entry candidate = clock.poll();
+            if (candidate == null) {
+                return;
+            }
+            clockSize.decrementAndGet();
+
+            // Entrada morta: já foi substituída, invalidada ou expirou
+            if (entries.get(candidate.key) != candidate) {
+                continue;
+            }
+
+            // Segunda chance: foi acessada desde a última passada do relógio,
+            // ou só estamos limpando entradas mortas e esta continua viva
+            if (candidate.referenced || entries.size() <= maxSize) {
+                candidate.referenced = false;
+                clock.offer(candidate);
+                clockSize.incrementAndGet();
+                continue;
+            }
+
+            if (entries.remove(candidate.key, candidate)) {
+                evictions.increment();
+            }
+        }
+    }
+
+    private record Tombstone(long seq, long createdAt) {
+    }
+
+    private static final class Entry {
+        final String key;
+        final CachedUrl value;
+        final long loadedAt;
+        volatile boolean referenced;
+
+        Entry(String key, CachedUrl value, long loadedAt) {
+            this.key = key;
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
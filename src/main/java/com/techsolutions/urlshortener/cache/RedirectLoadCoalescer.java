@@ -0,0 +1,189 @@
+package com.techsolutions.urlshortener.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Uma leitura do banco por código de cada vez (single-flight) nos misses do cache de redirecionamento.
+ *
+ * Quando um link viraliza, milhares de requisições chegam juntas com o cache ainda vazio para
+ * aquele código: a primeira faz a consulta e as outras esperam o resultado dela (no máximo
+ * max-wait-ms; depois disso consultam o banco por conta própria). Se a consulta falhar, quem
+ * esperava recebe a mesma exceção.
+ *
+ * Só as requisições que chegam durante a consulta são agrupadas: a primeira grava o resultado
+ * no cache antes de liberar as outras, e as seguintes já são hits.
+ *
+ * Cada consulta guarda o carimbo do RedirectCache (loadStamp) de quando começou. Se o código
+ * foi invalidado depois dele (ex: desativação confirmada no meio da consulta), o put da
+ * primeira é descartado pelo cache, e quem esperava também descarta o resultado: pode ser
+ * anterior ao commit, e a requisição pode ter chegado depois dele. Consulta de novo.
+ */
+@Component
+public class RedirectLoadCoalescer {
+
+    private final RedirectCache redirectCache;
+    private final boolean enabled;
+    private final long maxWaitMillis;
+
+    // Código → consulta em andamento
+    private final ConcurrentHashMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder staleResults = new LongAdder();
+
+    public RedirectLoadCoalescer(RedirectCache redirectCache,
+                                 @Value("${app.cache.redirect.coalesce.enabled:true}") boolean enabled,
+                                 @Value("${app.cache.redirect.coalesce.max-wait-ms:1000}") long maxWaitMillis) {
+        if (maxWaitMillis <= 0) {
+            throw new IllegalArgumentException("app.cache.redirect.coalesce.max-wait-ms deve ser maior que zero");
+        }
+        this.redirectCache = redirectCache;
+        this.enabled = enabled;
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    /**
+     * Carrega um código, juntando-se a uma consulta em andamento para o mesmo código, se houver.
+     *
+     * @param loader Consulta ao banco (e gravação no cache); null = código não existe
+     * @return Resultado do loader (desta thread ou da que já estava consultando)
+     */
+    public CachedUrl load(String shortCode, Function<String, CachedUrl> loader) {
+        if (!enabled) {
+            return loader.apply(shortCode);
+        }
+
+        InFlight mine = new InFlight(new CompletableFuture<>(), redirectCache.loadStamp());
+        InFlight running = inFlight.putIfAbsent(shortCode, mine);
+        if (running == null) {
+            loads.increment();
+            try {
+                CachedUrl url = loader.apply(shortCode);
+                mine.result().complete(url);
+                return url;
+            } catch (RuntimeException | Error e) {
+                mine.result().completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(shortCode, mine);
+            }
+        }
+
+        coalesced.increment();
+        try {
+            CachedUrl url = running.result().get(maxWaitMillis, TimeUnit.MILLISECONDS);
+            if (redirectCache.invalidatedSince(shortCode, running.stamp())) {
+                // Resultado possivelmente anterior a uma invalidação: o cache também o recusou
+                staleResults.increment();
+                return loader.apply(shortCode);
+            }
+            return url;
+        } catch (TimeoutException e) {
+            // Consulta travada (banco lento): não prende a requisição além do limite
+            timeouts.increment();
+            return loader.apply(shortCode);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return loader.apply(shortCode);
+        }
+    }
+
+    /**
+     * Versão sem bloqueio de load (redirecionamento reativo): quem chega durante a consulta
+     * recebe um future completado pelo resultado dela, em vez de esperar com a thread parada.
+     * Mesmas regras de espera máxima e de resultado invalidado.
+     *
+     * @param loader Consulta assíncrona ao banco (e gravação no cache); null = código não existe
+     */
+    public CompletableFuture<CachedUrl> loadAsync(String shortCode,
+                                                  Function<String, CompletableFuture<CachedUrl>> loader) {
+        if (!enabled) {
+            return loader.apply(shortCode);
+        }
+
+        InFlight mine = new InFlight(new CompletableFuture<>(), redirectCache.loadStamp());
+        InFlight running = inFlight.putIfAbsent(shortCode, mine);
+        if (running == null) {
+            loads.increment();
+            CompletableFuture<CachedUrl> load;
+            try {
+                load = loader.apply(shortCode);
+            } catch (RuntimeException | Error e) {
+                inFlight.remove(shortCode, mine);
+                mine.result().completeExceptionally(e);
+                throw e;
+            }
+            load.whenComplete((url, error) -> {
+                inFlight.remove(shortCode, mine);
+                if (error != null) {
+                    mine.result().completeExceptionally(error);
+                } else {
+                    mine.result().complete(url);
+                }
+            });
+            // Cópia: cancelar a resposta desta requisição não cancela a consulta dos outros
+            return mine.result().copy();
+        }
+
+        coalesced.increment();
+        // Cópia: o limite de espera desta requisição não completa o resultado compartilhado
+        return running.result().copy()
+            .orTimeout(maxWaitMillis, TimeUnit.MILLISECONDS)
+            .handle((url, error) -> {
+                if (error instanceof TimeoutException) {
+                    timeouts.increment();
+                    return loader.apply(shortCode);
+                }
+                if (error != null) {
+                    return CompletableFuture.<CachedUrl>failedFuture(
+                        error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+                }
+                if (redirectCache.invalidatedSince(shortCode, running.stamp())) {
+                    staleResults.increment();
+                    return loader.apply(shortCode);
+                }
+                return CompletableFuture.completedFuture(url);
+            })
+            .thenCompose(Function.identity());
+    }
+
+    // ------------------------------------------------------------
+    // ESTATÍSTICAS
+    // ------------------------------------------------------------
+
+    /** Consultas feitas ao banco pelo caminho agrupado */
+    public long getLoads() { return loads.sum(); }
+
+    /** Requisições que esperaram a consulta de outra em vez de consultar o banco */
+    public long getCoalesced() { return coalesced.sum(); }
+
+    /** Esperas que passaram de max-wait-ms (e consultaram o banco por conta própria) */
+    public long getTimeouts() { return timeouts.sum(); }
+
+    /** Esperas cujo resultado foi descartado por uma invalidação do código durante a consulta */
+    public long getStaleResults() { return staleResults.sum(); }
+
+    public int getInFlight() { return inFlight.size(); }
+
+    private record InFlight(CompletableFuture<CachedUrl> result, long stamp) {}
+}
@@ -0,0 +1,166 @@
+package com.techsolutions.urlshortener.cache;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Formato binário do snapshot do cache de redirecionamento (ver RedirectSnapshotService).
+ *
+ * Layout (big-endian):
+ * <pre>
+ * cabeçalho  magic "URLS" (int) | versão (short) | reservado (short) | gravado em, epoch ms (long) | entradas (int)
+ * entrada    tamanho do código (byte) | código (ASCII) | tamanho da URL (int) | URL (UTF-8)
+ *            | ativa (byte) | expira em: segundos UTC ou Long.MIN_VALUE (long), nanos (int)
+ * rodapé     CRC32C de tudo o que vem antes (int)
+ * </pre>
+ * Entradas em ordem de prioridade: quem lê com limite fica com as primeiras.
+ */
+public final class RedirectSnapshot {
+
+    static final int MAGIC = 0x55524C53;   // "URLS"
+    static final short VERSION = 1;
+
+    private static final int HEADER_BYTES = 4 + 2 + 2 + 8 + 4;
+    private static final int TRAILER_BYTES = 4;
+    private static final long NO_EXPIRATION = Long.MIN_VALUE;
+
+    private RedirectSnapshot() {
+    }
+
+    // ------------------------------------------------------------
+    // ESCRITA
+    // ------------------------------------------------------------
+
+    /**
+     * Grava o snapshot num arquivo temporário e troca pelo definitivo (move atômico):
+     * quem lê nunca vê um arquivo pela metade.
+     *
+     * @param entries Código → URL, na ordem em que devem ser carregadas
+     */
+    public static void write(Path file, Map<String, CachedUrl> entries) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+
+        try {
+            CRC32C crc = new CRC32C();
+            try (OutputStream raw = Files.newOutputStream(tmp);
+                 CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(raw, 1 << 16), crc);
+                 DataOutputStream out = new DataOutputStream(checked)) {
+
+                out.writeInt(MAGIC);
+                out.writeShort(VERSION);
+                out.writeShort(0);
+                out.writeLong(System.currentTimeMillis());
+                out.writeInt(entries.size());
+
+                for (Map.Entry<String, CachedUrl> entry : entries.entrySet()) {
+                    byte[] code = entry.getKey().getBytes(StandardCharsets.US_ASCII);
+                    byte[] url = entry.getValue().getOriginalUrl().getBytes(StandardCharsets.UTF_8);
+                    LocalDateTime expiresAt = entry.getValue().getExpiresAt();
+
+                    out.writeByte(code.length);
+                    out.write(code);
+                    out.writeInt(url.length);
+                    out.write(url);
+                    out.writeByte(entry.getValue().isActive() ? 1 : 0);
+                    out.writeLong(expiresAt == null ? NO_EXPIRATION : expiresAt.toEpochSecond(ZoneOffset.UTC));
+                    out.writeInt(expiresAt == null ? 0 : expiresAt.getNano());
+                }
+
+                // O CRC não inclui a si mesmo: grava direto no arquivo, por fora do CheckedOutputStream
+                out.flush();
+                new DataOutputStream(raw).writeInt((int) crc.getValue());
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    // ------------------------------------------------------------
+    // LEITURA
+    // ------------------------------------------------------------
+
+    /**
+     * Lê o snapshot mapeando o arquivo em memória (sem cópia para buffers da JVM).
+     * O checksum é conferido antes de qualquer entrada ser entregue.
+     *
+     * @param notBefore Snapshot gravado antes disso (epoch ms) é recusado
+     * @param limit Máximo de entradas entregues (as primeiras do arquivo)
+     * @param consumer Recebe cada código e sua URL
+     * @return Momento em que o snapshot foi gravado (epoch ms)
+     * @throws IOException Se o arquivo não for um snapshot válido desta versão, ou for antigo demais
+     */
+    public static long read(Path file, long notBefore, int limit, BiConsumer<String, CachedUrl> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES + TRAILER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("Tamanho inválido para um snapshot: " + size + " bytes");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int dataBytes = (int) size - TRAILER_BYTES;
+
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.slice(0, dataBytes));
+            if ((int) crc.getValue() != buffer.getInt(dataBytes)) {
+                throw new IOException("Snapshot corrompido: checksum não confere");
+            }
+
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Arquivo não é um snapshot do cache");
+            }
+            short version = buffer.getShort();
+            if (version != VERSION) {
+                throw new IOException("Versão de snapshot não suportada: " + version);
+            }
+            buffer.getShort();
+            long writtenAt = buffer.getLong();
+            if (writtenAt < notBefore) {
+                throw new IOException("Snapshot antigo demais: gravado há " + (System.currentTimeMillis() - writtenAt) / 1000 + " s");
+            }
+            int count = buffer.getInt();
+
+            // Um buffer de bytes reaproveitado para todas as strings (menos lixo numa carga de milhões)
+            byte[] scratch = new byte[2048];
+            int toRead = Math.min(count, limit);
+            for (int i = 0; i < toRead; i++) {
+                int codeLength = buffer.get() & 0xFF;
+                String code = readString(buffer, codeLength, StandardCharsets.ISO_8859_1, scratch);
+                int urlLength = buffer.getInt();
+                if (urlLength > scratch.length) {
+                    scratch = new byte[Math.max(urlLength, 2 * scratch.length)];
+                }
+                String url = readString(buffer, urlLength, StandardCharsets.UTF_8, scratch);
+                boolean active = buffer.get() != 0;
+                long expiresAt = buffer.getLong();
+                int nanos = buffer.getInt();
+                consumer.accept(code, new CachedUrl(url, active, expiresAt == NO_EXPIRATION ? null
+                    : LocalDateTime.ofEpochSecond(expiresAt, nanos, ZoneOffset.UTC)));
+            }
+            return writtenAt;
+        }
+    }
+
+    private static String readString(ByteBuffer buffer, int length, Charset charset, byte[] scratch) {
+        buffer.get(scratch, 0, length);
+        return new String(scratch, 0, length, charset);
+    }
+}
@@ -0,0 +1,296 @@
+package com.techsolutions.urlshortener.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Snapshot em arquivo dos links mais acessados, para o cache de redirecionamento não
+ * começar vazio depois de um deploy.
+ *
+ * A cada interval-ms (e no desligamento) grava até max-entries links: primeiro os que
+ * estão no cache agora (acessados recentemente), depois os de maior click_count no banco.
+ * Ao subir, carrega o arquivo no RedirectCache antes da aplicação ficar pronta
+ * (ApplicationRunner roda antes do readiness passar a ACCEPTING_TRAFFIC).
+ *
+ * O snapshot pode estar velho (links desativados ou apagados desde então): depois da carga,
+ * uma conferência em segundo plano compara as entradas com o banco em lotes e tira do cache
+ * as que mudaram. Até lá vale o mesmo limite de qualquer entrada (app.cache.redirect.ttl-seconds),
+ * e snapshots mais antigos que max-age-seconds são ignorados.
+ */
+@Component
+public class RedirectSnapshotService implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(RedirectSnapshotService.class);
+
+    private static final String SELECT_COLUMNS = "SELECT short_code, original_url, is_active, expires_at FROM shortened_urls ";
+
+    @Autowired
+    private RedirectCache redirectCache;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final boolean enabled;
+    private final Path file;
+    private final int maxEntries;
+    private final long maxAgeMillis;
+    private final int revalidateBatchSize;
+
+    // Uma gravação por vez (agendador, endpoint administrativo e desligamento)
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private volatile LocalDateTime lastWriteAt;
+    private volatile int lastWriteEntries;
+    private volatile long lastWriteMillis;
+    private volatile int loadedEntries;
+    private volatile long loadMillis;
+    private volatile int revalidatedEntries;
+    private volatile int staleEntries;
+
+    public RedirectSnapshotService(@Value("${app.snapshot.enabled:false}") boolean enabled,
+                                   @Value("${app.snapshot.path:./data/redirect-cache.snapshot}") String path,
+                                   @Value("${app.snapshot.max-entries:10000}") int maxEntries,
+                                   @Value("${app.snapshot.max-age-seconds:86400}") long maxAgeSeconds,
+                                   @Value("${app.snapshot.revalidate-batch-size:1000}") int revalidateBatchSize) {
+        if (maxEntries <= 0 || revalidateBatchSize <= 0) {
+            throw new IllegalArgumentException("app.snapshot.max-entries e revalidate-batch-size devem ser maiores que zero");
+        }
+        this.enabled = enabled;
+        this.file = Path.of(path);
+        this.maxEntries = maxEntries;
+        this.maxAgeMillis = maxAgeSeconds * 1000;
+        this.revalidateBatchSize = revalidateBatchSize;
+    }
+
+    // ------------------------------------------------------------
+    // CARGA (ao subir)
+    // ------------------------------------------------------------
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (enabled) {
+            load();
+        }
+    }
+
+    /**
+     * Carrega o snapshot no cache e dispara a conferência com o banco.
+     * Arquivo ausente, velho ou inválido não impede a aplicação de subir.
+     *
+     * @return Entradas carregadas
+     */
+    public int load() {
+        if (!Files.exists(file)) {
+            log.info("Sem snapshot do cache em {}; começando com o cache vazio", file);
+            return 0;
+        }
+
+        long start = System.nanoTime();
+        int limit = Math.min(maxEntries, redirectCache.getMaxSize());
+        List<String> codes = new ArrayList<>();
+        long writtenAt;
+        try {
+            writtenAt = RedirectSnapshot.read(file, System.currentTimeMillis() - maxAgeMillis, limit, (code, url) -> {
+                redirectCache.put(code, url);
+                codes.add(code);
+            });
+        } catch (IOException | RuntimeException e) {
+            // O checksum é conferido antes da primeira entrada: um arquivo inválido não deixa nada no cache
+            log.warn("Snapshot do cache ignorado ({}): {}", file, e.getMessage());
+            return 0;
+        }
+
+        loadMillis = (System.nanoTime() - start) / 1_000_000;
+        loadedEntries = codes.size();
+        meterRegistry.timer("urlshortener.snapshot.load").record(loadMillis, TimeUnit.MILLISECONDS);
+        log.info("Cache de redirecionamento pré-carregado: {} links em {} ms (snapshot de {} s atrás)",
+            codes.size(), loadMillis, (System.currentTimeMillis() - writtenAt) / 1000);
+
+        // Fora do caminho de subida: a aplicação já pode atender enquanto confere
+        Thread.ofVirtual().name("redirect-snapshot-revalidate").start(() -> revalidate(codes));
+        return codes.size();
+    }
+
+    /**
+     * Compara as entradas carregadas com o banco e tira do cache as que mudaram
+     * (desativadas, apagadas, com outra URL ou expiração). Só invalida, nunca grava no
+     * cache: uma desativação concorrente não pode ser sobrescrita com o estado lido aqui.
+     */
+    void revalidate(List<String> codes) {
+        int stale = 0;
+        try {
+            for (int from = 0; from < codes.size(); from += revalidateBatchSize) {
+                List<String> batch = codes.subList(from, Math.min(codes.size(), from + revalidateBatchSize));
+                Map<String, CachedUrl> current = new HashMap<>();
+                jdbcTemplate.query(SELECT_COLUMNS + "WHERE short_code IN (:codes)", Map.of("codes", batch),
+                    rs -> { current.put(rs.getString(1), readUrl(rs)); });
+
+                for (String code : batch) {
+                    CachedUrl cached = redirectCache.peek(code);
+                    CachedUrl actual = current.get(code);
+                    if (cached != null && (actual == null || !sameState(cached, actual))) {
+                        redirectCache.invalidate(code);
+                        stale++;
+                    }
+                }
+            }
+        } catch (DataAccessException e) {
+            // O que não foi conferido ainda sai do cache pelo TTL
+            log.warn("Falha ao conferir o snapshot do cache com o banco", e);
+        }
+        revalidatedEntries = codes.size();
+        staleEntries = stale;
+        if (stale > 0) {
+            log.info("Snapshot do cache: {} de {} links mudaram desde a gravação e saíram do cache", stale, codes.size());
+        }
+    }
+
+    // ------------------------------------------------------------
+    // GRAVAÇÃO
+    // ------------------------------------------------------------
+
+    @Scheduled(fixedDelayString = "${app.snapshot.interval-ms:300000}",
+               initialDelayString = "${app.snapshot.interval-ms:300000}")
+    public void scheduledWrite() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            write();
+        } catch (IllegalStateException e) {
+            // Gravação disparada pelo endpoint ainda em andamento
+        } catch (IOException | DataAccessException e) {
+            log.warn("Falha ao gravar o snapshot do cache; nova tentativa na próxima rodada", e);
+        }
+    }
+
+    @PreDestroy
+    public void writeOnShutdown() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            write();
+        } catch (IllegalStateException | IOException | DataAccessException e) {
+            log.warn("Snapshot do cache não gravado no desligamento: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Grava o snapshot agora.
+     *
+     * @return Entradas gravadas
+     * @throws IllegalStateException se já houver uma gravação em andamento
+     */
+    public int write() throws IOException {
+        if (!writeLock.tryLock()) {
+            throw new IllegalStateException("Já existe uma gravação do snapshot em andamento");
+        }
+        try {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            long start = System.nanoTime();
+
+            Map<String, CachedUrl> entries = collect();
+            RedirectSnapshot.write(file, entries);
+
+            sample.stop(meterRegistry.timer("urlshortener.snapshot.write"));
+            lastWriteMillis = (System.nanoTime() - start) / 1_000_000;
+            lastWriteEntries = entries.size();
+            lastWriteAt = LocalDateTime.now();
+            return entries.size();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Links ativos e não expirados: primeiro os do cache, depois os mais clicados no banco
+    private Map<String, CachedUrl> collect() {
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, CachedUrl> entries = new LinkedHashMap<>();
+        redirectCache.forEach((code, url) -> {
+            if (entries.size() < maxEntries && url.isActive() && !url.isExpiredAt(now)) {
+                entries.put(code, url);
+            }
+        });
+
+        if (entries.size() < maxEntries) {
+            // Busca alguns a mais: parte dos mais clicados já veio do cache
+            int missing = maxEntries - entries.size();
+            jdbcTemplate.query(
+                SELECT_COLUMNS + "WHERE is_active = TRUE AND (expires_at IS NULL OR expires_at > :now) " +
+                "ORDER BY click_count DESC LIMIT :limit",
+                Map.of("now", Timestamp.valueOf(now), "limit", missing + entries.size()),
+                rs -> {
+                    if (entries.size() < maxEntries) {
+                        entries.putIfAbsent(rs.getString(1), readUrl(rs));
+                    }
+                });
+        }
+        return entries;
+    }
+
+    private static CachedUrl readUrl(ResultSet rs) throws SQLException {
+        Timestamp expiresAt = rs.getTimestamp(4);
+        return new CachedUrl(rs.getString(2), rs.getBoolean(3), expiresAt == null ? null : expiresAt.toLocalDateTime());
+    }
+
+    private static boolean sameState(CachedUrl a, CachedUrl b) {
+        return a.isActive() == b.isActive()
+            && a.getOriginalUrl().equals(b.getOriginalUrl())
+            && Objects.equals(a.getExpiresAt(), b.getExpiresAt());
+    }
+
+    // ------------------------------------------------------------
+    // ESTATÍSTICAS
+    // ------------------------------------------------------------
+
+    /**
+     * Última gravação e carga (usado pelo endpoint administrativo).
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("path", file.toAbsolutePath().toString());
+        stats.put("maxEntries", maxEntries);
+        stats.put("lastWriteAt", lastWriteAt);
+        stats.put("lastWriteEntries", lastWriteEntries);
+        stats.put("lastWriteMillis", lastWriteMillis);
+        stats.put("loadedEntries", loadedEntries);
+        stats.put("loadMillis", loadMillis);
+        stats.put("revalidatedEntries", revalidatedEntries);
+        stats.put("staleEntries", staleEntries);
+        return stats;
+    }
+}
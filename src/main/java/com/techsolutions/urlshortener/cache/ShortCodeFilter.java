@@ -0,0 +1,197 @@
+package com.techsolutions.urlshortener.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Filtro de Bloom com todos os códigos existentes, consultado antes do banco.
+ * Inclui os arquivados pela limpeza (ExpiredUrlReaper): não redirecionam mais, mas
+ * continuam ocupados, e a criação só os recusa se o filtro não pular a verificação.
+ *
+ * Um código que o filtro não conhece com certeza não existe: o redirecionamento responde 404
+ * sem consulta (caso típico: bots testando caminhos aleatórios), e a criação com código
+ * customizado pula o existsByShortCode.
+ *
+ * O filtro é carregado do banco quando a aplicação sobe e recebe cada código novo depois
+ * que o INSERT é confirmado. Até a carga terminar (ou com app.bloom.enabled=false),
+ * mightContain() responde sempre true e tudo vai ao banco como antes.
+ * Códigos criados por OUTRAS instâncias chegam pelo barramento de invalidação
+ * (ver CacheCoherence); se ele ficar fora do ar, o filtro é suspenso e recarregado na volta.
+ */
+@Component
+public class ShortCodeFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ShortCodeFilter.class);
+
+    private static final int FETCH_SIZE = 10_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final boolean enabled;
+    private final long expectedItems;
+    private final double falsePositiveRate;
+
+    // Filtro em uso (leitura sem lock)
+    private volatile BloomFilter current;
+
+    // Filtro em construção durante rebuild(): os códigos novos entram nos dois
+    private BloomFilter building;
+
+    private volatile boolean ready;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder rebuilds = new LongAdder();
+
+    public ShortCodeFilter(@Value("${app.bloom.enabled:true}") boolean enabled,
+                           @Value("${app.bloom.expected-items:1000000}") long expectedItems,
+                           @Value("${app.bloom.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.enabled = enabled;
+        this.expectedItems = expectedItems;
+        this.falsePositiveRate = falsePositiveRate;
+        this.current = new BloomFilter(expectedItems, falsePositiveRate);
+    }
+
+    // ------------------------------------------------------------
+    // CONSULTA / ATUALIZAÇÃO
+    // ------------------------------------------------------------
+
+    /**
+     * @return false se o código com certeza não existe no banco
+     */
+    public boolean mightContain(String shortCode) {
+        if (!enabled || !ready) {
+            return true;
+        }
+        if (current.mightContain(shortCode)) {
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    /**
+     * Registra um código gravado. Chamar depois do commit do INSERT: assim uma reconstrução
+     * em andamento ou já o encontra no banco, ou o recebe por aqui.
+     */
+    public synchronized void add(String shortCode) {
+        current.put(shortCode);
+        if (building != null) {
+            building.put(shortCode);
+        }
+    }
+
+    /**
+     * Volta a responder true para tudo até a próxima reconstrução (o filtro pode ter
+     * perdido códigos criados em outras instâncias).
+     */
+    public void suspend() {
+        ready = false;
+    }
+
+    // ------------------------------------------------------------
+    // CARGA / RECONSTRUÇÃO
+    // ------------------------------------------------------------
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Recria o filtro a partir do banco, dimensionado para o dobro dos códigos existentes
+     * (no mínimo app.bloom.expected-items). Consultas continuam usando o filtro antigo
+     * até o novo ficar pronto.
+     *
+     * @return Quantidade de códigos carregados
+     */
+    public long rebuild() {
+        // Consulta fora do lock (I/O dentro de synchronized prende threads virtuais)
+        Long count = jdbcTemplate.queryForObject(
+            "SELECT (SELECT COUNT(*) FROM shortened_urls) + (SELECT COUNT(*) FROM shortened_urls_cold) " +
+            "+ (SELECT COUNT(*) FROM shortened_urls_archive)", Long.class);
+        BloomFilter next = new BloomFilter(Math.max(expectedItems, 2 * (count == null ? 0 : count)), falsePositiveRate);
+
+        synchronized (this) {
+            if (building != null) {
+                throw new IllegalStateException("Reconstrução do filtro já em andamento");
+            }
+            building = next;
+        }
+
+        long loaded;
+        try {
+            loaded = load(building);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                building = null;
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            current = building;
+            building = null;
+        }
+        ready = true;
+        rebuilds.increment();
+        log.info("Filtro de códigos carregado: {} códigos, {} bits, {} hashes",
+            loaded, current.getBitSize(), current.getHashFunctions());
+        return loaded;
+    }
+
+    private long load(BloomFilter filter) {
+        JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+        streaming.setFetchSize(FETCH_SIZE);
+
+        long[] loaded = new long[1];
+        // Códigos da camada fria também existem (o redirecionamento os encontra lá),
+        // e os arquivados continuam reservados (ver existsByShortCode)
+        streaming.query("SELECT short_code FROM shortened_urls UNION ALL SELECT short_code FROM shortened_urls_cold " +
+                        "UNION ALL SELECT short_code FROM shortened_urls_archive", rs -> {
+            filter.put(rs.getString(1));
+            loaded[0]++;
+        });
+        return loaded[0];
+    }
+
+    // ------------------------------------------------------------
+    // ESTATÍSTICAS
+    // ------------------------------------------------------------
+
+    public boolean isReady() { return ready; }
+
+    public long getRejected() { return rejected.sum(); }
+
+    /**
+     * Tamanho e taxa de falso positivo (usado pelo endpoint administrativo).
+     */
+    public Map<String, Object> stats() {
+        BloomFilter filter = current;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("ready", ready);
+        stats.put("items", filter.getInsertions());
+        stats.put("capacity", filter.getExpectedItems());
+        stats.put("bitSize", filter.getBitSize());
+        stats.put("memoryBytes", filter.getBitSize() / 8);
+        stats.put("hashFunctions", filter.getHashFunctions());
+        stats.put("targetFalsePositiveRate", falsePositiveRate);
+        stats.put("estimatedFalsePositiveRate", filter.estimatedFalsePositiveRate());
+        stats.put("rejectedLookups", getRejected());
+        stats.put("rebuilds", rebuilds.sum());
+        return stats;
+    }
+}
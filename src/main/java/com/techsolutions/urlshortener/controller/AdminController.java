@@ -0,0 +1,405 @@
+package com.techsolutions.urlshortener.controller;
+
+import com.techsolutions.urlshortener.analytics.ClickAnalyticsService;
+import com.techsolutions.urlshortener.cache.RedirectCache;
+import com.techsolutions.urlshortener.cache.RedirectLoadCoalescer;
+import com.techsolutions.urlshortener.cache.RedirectSnapshotService;
+import com.techsolutions.urlshortener.cache.ShortCodeFilter;
+import com.techsolutions.urlshortener.index.CodeIndexService;
+import com.techsolutions.urlshortener.ratelimit.RateLimitFilter;
+import com.techsolutions.urlshortener.ratelimit.RateLimiter;
+import com.techsolutions.urlshortener.service.ClickCountBuffer;
+import com.techsolutions.urlshortener.service.ExpiredUrlReaper;
+import com.techsolutions.urlshortener.tiering.LinkTieringService;
+import com.techsolutions.urlshortener.transfer.LinkTransferService;
+import com.techsolutions.urlshortener.transfer.TransferJob;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Endpoints administrativos (estatísticas e operações internas do serviço)
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    @Autowired
+    private RedirectCache redirectCache;
+
+    @Autowired
+    private RedirectLoadCoalescer loadCoalescer;
+
+    @Autowired
+    private ClickCountBuffer clickCountBuffer;
+
+    @Autowired
+    private ClickAnalyticsService analyticsService;
+
+    @Autowired
+    private ShortCodeFilter codeFilter;
+
+    @Autowired
+    private ExpiredUrlReaper reaper;
+
+    @Autowired
+    private LinkTieringService tiering;
+
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
+    @Autowired
+    private RedirectSnapshotService snapshotService;
+
+    @Autowired
+    private CodeIndexService codeIndexService;
+
+    @Autowired
+    private LinkTransferService transferService;
+
+    // ------------------------------------------------------------
+    // GET /api/admin/cache → Estatísticas do cache de redirecionamento
+    // ------------------------------------------------------------
+
+    /**
+     * Retorna tamanho e contadores de hit/miss/remoção do cache
+     * (e das consultas ao banco nos misses, agrupadas por código)
+     * Exemplo: GET /api/admin/cache
+     */
+    @GetMapping("/cache")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        Map<String, Object> stats = new LinkedHashMap<>(redirectCache.stats());
+        stats.put("loads", loadCoalescer.getLoads());
+        stats.put("coalescedLoads", loadCoalescer.getCoalesced());
+        stats.put("coalesceTimeouts", loadCoalescer.getTimeouts());
+        stats.put("coalescedStale", loadCoalescer.getStaleResults());
+        return ResponseEntity.ok(stats);
+    }
+
+    // ------------------------------------------------------------
+    // DELETE /api/admin/cache → Esvaziar o cache
+    // ------------------------------------------------------------
+
+    /**
+     * Esvazia o cache de redirecionamento
+     * Exemplo: DELETE /api/admin/cache
+     */
+    @DeleteMapping("/cache")
+    public ResponseEntity<Void> clearCache() {
+        redirectCache.clear();
+        return ResponseEntity.noContent().build();
+    }
+
+    // ------------------------------------------------------------
+    // GET /api/admin/clicks → Estado do buffer de cliques
+    // ------------------------------------------------------------
+
+    /**
+     * Retorna cliques pendentes e já gravados pelo buffer de cliques
+     * Exemplo: GET /api/admin/clicks
+     */
+    @GetMapping("/clicks")
+    public ResponseEntity<Map<String, Object>> getClickBufferStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pending", clickCountBuffer.getTotalPending());
+        stats.put("flushed", clickCountBuffer.getFlushedClicks());
+        stats.put("failedFlushes", clickCountBuffer.getFailedFlushes());
+        return ResponseEntity.ok(stats);
+    }
+
+    // ------------------------------------------------------------
+    // POST /api/admin/clicks/flush → Forçar gravação dos cliques
+    // ------------------------------------------------------------
+
+    /**
+     * Grava imediatamente os cliques pendentes
+     * Exemplo: POST /api/admin/clicks/flush
+     */
+    @PostMapping("/clicks/flush")
+    public ResponseEntity<Void> flushClicks() {
+        clickCountBuffer.flush();
+        return ResponseEntity.noContent().build();
+    }
+
+    // ------------------------------------------------------------
+    // GET /api/admin/analytics → Estado do pipeline de analytics
+    // ------------------------------------------------------------
+
+    /**
+     * Retorna eventos no buffer, descartados (buffer cheio) e já agregados
+     * Exemplo: GET /api/admin/analytics
+     */
+    @GetMapping("/analytics")
+    public ResponseEntity<Map<String, Object>> getAnalyticsStats() {
+        return ResponseEntity.ok(analyticsService.stats());
+    }
+
+    // ------------------------------------------------------------
+    // GET /api/admin/bloom → Estado do filtro de códigos
+    // ------------------------------------------------------------
+
+    /**
+     * Retorna tamanho, memória e taxa de falso positivo do filtro de Bloom
+     * Exemplo: GET /api/admin/bloom
+     */
+    @GetMapping("/bloom")
+    public ResponseEntity<Map<String, Object>> getBloomStats() {
+        return ResponseEntity.ok(codeFilter.stats());
+    }
+
+    // ------------------------------------------------------------
+    // POST /api/admin/bloom/rebuild → Recarregar o filtro do banco
+    // ------------------------------------------------------------
+
+    /**
+     * Recria o filtro a partir do banco (ex: depois de muitas criações ou de gravações
+     * feitas por outras instâncias)
+     * Exemplo: POST /api/admin/bloom/rebuild
+     */
+    @PostMapping("/bloom/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildBloom() {
+        try {
+            codeFilter.rebuild();
+            return ResponseEntity.ok(codeFilter.stats());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // ------------------------------------------------------------
+    // GET /api/admin/reaper → Estado da limpeza de links expirados
+    // ------------------------------------------------------------
+
+    /**
+     * Retorna linhas arquivadas/apagadas, duração e atraso da última limpeza
+     * Exemplo: GET /api/admin/reaper
+     */
+    @GetMapping("/reaper")
+    public ResponseEntity<Map<String, Object>> getReaperStats() {
+        return ResponseEntity.ok(reaper.stats());
+    }
+
+    // ------------------------------------------------------------
+    // POST /api/admin/reaper/run → Rodar a limpeza agora
+    // ------------------------------------------------------------
+
+    /**
+     * Remove imediatamente um ciclo de lotes de links expirados/desativados
+     * Exemplo: POST /api/admin/reaper/run
+     */
+    @PostMapping("/reaper/run")
+    public ResponseEntity<Map<String, Object>> runReaper() {
+        try {
+            reaper.run();
+            return ResponseEntity.ok(reaper.stats());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // ------------------------------------------------------------
+    // GET /api/admin/tiering → Estado das camadas quente/fria
+    // ------------------------------------------------------------
+
+    /**
+     * Retorna linhas na camada fria, movimentações e estado do sketch de acessos
+     * Exemplo: GET /api/admin/tiering
+     */
+    @GetMapping("/tiering")
+    public ResponseEntity<Map<String, Object>> getTieringStats() {
+        return ResponseEntity.ok(tiering.stats());
+    }
+
+    // ------------------------------------------------------------
+    // POST /api/admin/tiering/run → Mover links entre as camadas agora
+    // ------------------------------------------------------------
+
+    /**
+     * Promove os links frios acessados de novo e rebaixa um ciclo de lotes de links sem acesso
+     * Exemplo: POST /api/admin/tiering/run
+     */
+    @PostMapping("/tiering/run")
+    public ResponseEntity<Map<String, Object>> runTiering() {
+        try {
+            tiering.run();
+            return ResponseEntity.ok(tiering.stats());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // ------------------------------------------------------------
+    // GET /api/admin/rate-limit → Estado dos limites de requisições
+    // ------------------------------------------------------------
+
+    /**
+     * Retorna, por endpoint, o limite configurado, clientes em memória e requisições recusadas
+     * Exemplo: GET /api/admin/rate-limit
+     */
+    @GetMapping("/rate-limit")
+    public ResponseEntity<Map<String, Object>> getRateLimitStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (RateLimiter limiter : rateLimitFilter.getLimiters()) {
+            stats.put(limiter.getName(), limiter.stats());
+        }
+        return ResponseEntity.ok(stats);
+    }
+
+    // ------------------------------------------------------------
+    // GET /api/admin/snapshot → Estado do snapshot do cache
+    // ------------------------------------------------------------
+
+    /**
+     * Retorna a última gravação e a última carga do snapshot do cache de redirecionamento
+     * Exemplo: GET /api/admin/snapshot
+     */
+    @GetMapping("/snapshot")
+    public ResponseEntity<Map<String, Object>> getSnapshotStats() {
+        return ResponseEntity.ok(snapshotService.stats());
+    }
+
+    // ------------------------------------------------------------
+    // POST /api/admin/snapshot → Gravar o snapshot agora
+    // ------------------------------------------------------------
+
+    /**
+     * Grava o snapshot do cache imediatamente (ex: antes de um deploy)
+     * Exemplo: POST /api/admin/snapshot
+     */
+    @PostMapping("/snapshot")
+    public ResponseEntity<Map<String, Object>> writeSnapshot() {
+        try {
+            snapshotService.write();
+            return ResponseEntity.ok(snapshotService.stats());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // ------------------------------------------------------------
+    // GET /api/admin/index → Geração do índice mapeado de códigos
+    // ------------------------------------------------------------
+
+    /**
+     * Retorna a geração em uso, tamanho do arquivo e última montagem do índice
+     * Exemplo: GET /api/admin/index
+     */
+    @GetMapping("/index")
+    public ResponseEntity<Map<String, Object>> getIndexStats() {
+        return ResponseEntity.ok(codeIndexService.stats());
+    }
+
+    // ------------------------------------------------------------
+    // POST /api/admin/index/build → Montar uma nova geração agora
+    // ------------------------------------------------------------
+
+    /**
+     * Monta uma nova geração do índice a partir do banco (e passa a usá-la, se for o caso)
+     * Exemplo: POST /api/admin/index/build
+     */
+    @PostMapping("/index/build")
+    public ResponseEntity<Map<String, Object>> buildIndex() {
+        try {
+            codeIndexService.build();
+            return ResponseEntity.ok(codeIndexService.stats());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // ------------------------------------------------------------
+    // POST /api/admin/transfer/export → Exportar os links para um arquivo (em segundo plano)
+    // ------------------------------------------------------------
+
+    /**
+     * Começa a exportação para app.transfer.dir/{file} e retorna o job (acompanhar em /transfer/jobs/{id})
+     * Exemplo: POST /api/admin/transfer/export?file=links.ulnk
+     *          POST /api/admin/transfer/export?file=links.ulnk&resume=true (continua um arquivo interrompido)
+     */
+    @PostMapping("/transfer/export")
+    public ResponseEntity<Map<String, Object>> startExport(@RequestParam String file,
+                                                           @RequestParam(defaultValue = "false") boolean resume) {
+        try {
+            TransferJob job = transferService.startExport(transferService.resolve(file), resume);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job.toMap());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // ------------------------------------------------------------
+    // POST /api/admin/transfer/import → Importar os links de um arquivo (em segundo plano)
+    // ------------------------------------------------------------
+
+    /**
+     * Começa a importação de app.transfer.dir/{file} e retorna o job
+     * Exemplo: POST /api/admin/transfer/import?file=links.ulnk
+     *          POST /api/admin/transfer/import?file=links.ulnk&afterId=150000 (retoma depois do cursor de um job anterior)
+     */
+    @PostMapping("/transfer/import")
+    public ResponseEntity<Map<String, Object>> startImport(@RequestParam String file,
+                                                           @RequestParam(defaultValue = "0") long afterId) {
+        try {
+            TransferJob job = transferService.startImport(transferService.resolve(file), afterId);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job.toMap());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // ------------------------------------------------------------
+    // GET /api/admin/transfer/jobs → Jobs de exportação/importação
+    // ------------------------------------------------------------
+
+    /**
+     * Retorna o job em andamento e os últimos terminados
+     * Exemplo: GET /api/admin/transfer/jobs
+     */
+    @GetMapping("/transfer/jobs")
+    public ResponseEntity<List<Map<String, Object>>> listTransferJobs() {
+        return ResponseEntity.ok(transferService.listJobs());
+    }
+
+    // ------------------------------------------------------------
+    // GET /api/admin/transfer/jobs/{id} → Progresso de um job
+    // ------------------------------------------------------------
+
+    /**
+     * Retorna status, linhas, cursor (último id concluído) e linhas/s do job
+     * Exemplo: GET /api/admin/transfer/jobs/3f2a9c1b
+     */
+    @GetMapping("/transfer/jobs/{id}")
+    public ResponseEntity<Map<String, Object>> getTransferJob(@PathVariable String id) {
+        TransferJob job = transferService.getJob(id);
+        return job == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(job.toMap());
+    }
+
+    // ------------------------------------------------------------
+    // DELETE /api/admin/transfer/jobs/{id} → Cancelar um job
+    // ------------------------------------------------------------
+
+    /**
+     * Para o job no fim do bloco atual (pode ser retomado pelo cursor)
+     * Exemplo: DELETE /api/admin/transfer/jobs/3f2a9c1b
+     */
+    @DeleteMapping("/transfer/jobs/{id}")
+    public ResponseEntity<Map<String, Object>> cancelTransferJob(@PathVariable String id) {
+        if (!transferService.cancel(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.accepted().body(transferService.getJob(id).toMap());
+    }
+}
@@ -1,18 +1,51 @@
 package com.techsolutions.urlshortener.controller;
 
+import com.techsolutions.urlshortener.analytics.ClickAnalyticsService;
 import com.techsolutions.urlshortener.service.UrlShortenerService;
+import com.techsolutions.urlshortener.service.LookupResult;
+import com.techsolutions.urlshortener.service.RedirectPolicy;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.ResponseBody;
 
+import java.net.URI;
+
+// Stack servlet (MVC). No perfil "reactive" o redirecionamento é feito por ReactiveRedirectRouter
 @Controller
+@Profile("!reactive")
 public class RedirectController {
 
+    // Página mostrada quando o link não existe
+    private static final String NOT_FOUND_PAGE =
+        "<html><body style='background:#0f172a; color:white; font-family:sans-serif; text-align:center; padding-top:100px;'>" +
+        "<h1>404</h1><p>Ops! Esse link não existe.</p>" +
+        "<a href='/' style='color:#2dd4bf;'>Voltar para a Home</a>" +
+        "</body></html>";
+
+    // Link que existiu, mas expirou ou foi desativado (410)
+    private static final String GONE_PAGE =
+        "<html><body style='background:#0f172a; color:white; font-family:sans-serif; text-align:center; padding-top:100px;'>" +
+        "<h1>410</h1><p>Esse link expirou ou foi desativado.</p>" +
+        "<a href='/' style='color:#2dd4bf;'>Voltar para a Home</a>" +
+        "</body></html>";
+
     @Autowired
     private UrlShortenerService urlService;
 
+    @Autowired
+    private ClickAnalyticsService analyticsService;
+
+    @Autowired
+    private RedirectPolicy redirectPolicy;
+
     // Rota da Home: Carrega o seu HTML bonitão
     @GetMapping("/")
     public String home() {
@@ -20,16 +53,35 @@ public class RedirectController {
     }
 
     // Rota de Redirecionamento: SÓ entra aqui se houver algo após a barra (ex: /abc123)
+    // Responde direto com status + Location (sem resolução de view) e sem exceções:
+    // o motivo de não redirecionar vem no LookupResult
     @GetMapping("/{shortCode:[a-zA-Z0-9]+}")
-    public String redirectToOriginalUrl(@PathVariable String shortCode) {
-        try {
-            String originalUrl = urlService.getOriginalUrl(shortCode);
-            if (originalUrl != null && !originalUrl.isEmpty()) {
-                return "redirect:" + originalUrl;
-            }
-            return "redirect:/error/not-found";
-        } catch (Exception e) {
-            return "redirect:/error/not-found";
+    public ResponseEntity<String> redirectToOriginalUrl(@PathVariable String shortCode, HttpServletRequest request) {
+        LookupResult result = urlService.resolve(shortCode);
+        
+        switch (result.getStatus()) {
+            case FOUND:
+                URI location = redirectPolicy.location(result.getOriginalUrl());
+                if (location == null) {
+                    // URL gravada que não é uma URI válida: sem redirecionamento, sem clique
+                    return notFound(HttpStatus.NOT_FOUND);
+                }
+                // Clique e analytics só com o 3xx garantido; ambos só publicam em buffers em memória
+                urlService.recordClick(shortCode);
+                analyticsService.record(shortCode, request.getHeader(HttpHeaders.REFERER),
+                    request.getHeader(HttpHeaders.USER_AGENT), request.getRemoteAddr());
+                return ResponseEntity.status(redirectPolicy.getStatus())
+                    .location(location)
+                    .cacheControl(redirectPolicy.cacheControl(result.getExpiresAt()))
+                    .build();
+            case EXPIRED:
+            case DISABLED:
+                // O link existiu, mas não vale mais
+                return ResponseEntity.status(HttpStatus.GONE)
+                    .contentType(MediaType.TEXT_HTML)
+                    .body(GONE_PAGE);
+            default:
+                return notFound(HttpStatus.NOT_FOUND);
         }
     }
 
@@ -37,9 +89,12 @@ public class RedirectController {
     @GetMapping("/error/not-found")
     @ResponseBody
     public String notFoundPage() {
-        return "<html><body style='background:#0f172a; color:white; font-family:sans-serif; text-align:center; padding-top:100px;'>" +
-               "<h1>404</h1><p>Ops! Esse link não existe.</p>" +
-               "<a href='/' style='color:#2dd4bf;'>Voltar para a Home</a>" +
-               "</body></html>";
+        return NOT_FOUND_PAGE;
+    }
+
+    private static ResponseEntity<String> notFound(HttpStatus status) {
+        return ResponseEntity.status(status)
+            .contentType(MediaType.TEXT_HTML)
+            .body(NOT_FOUND_PAGE);
     }
-}
\ No newline at end of file
+}
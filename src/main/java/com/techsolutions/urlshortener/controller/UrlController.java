@@ -1,27 +1,79 @@
 package com.techsolutions.urlshortener.controller;
 
+import com.techsolutions.urlshortener.analytics.ClickAnalyticsService;
+import com.techsolutions.urlshortener.dto.BatchItemResult;
+import com.techsolutions.urlshortener.dto.ClickStatsResponse;
 import com.techsolutions.urlshortener.dto.CreateUrlRequest;
+import com.techsolutions.urlshortener.dto.UrlFilter;
+import com.techsolutions.urlshortener.dto.UrlPage;
 import com.techsolutions.urlshortener.dto.UrlResponse;
+import com.techsolutions.urlshortener.service.UrlBatchService;
 import com.techsolutions.urlshortener.service.UrlShortenerService;
+import com.techsolutions.urlshortener.service.UrlVersion;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 // @RestController → Marca esta classe como um Controller REST
 // @RequestMapping("/api/urls") → Define o prefixo para todos os endpoints
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/urls")
 public class UrlController {
     
     @Autowired
     private UrlShortenerService urlService;
     
+    @Autowired
+    private UrlBatchService batchService;
+    
+    @Autowired
+    private ClickAnalyticsService analyticsService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${app.batch.max-items:10000}")
+    private int batchMaxItems;
+    
+    // Cache-Control por endpoint (segundos; 0 = o cliente sempre revalida com ETag/Last-Modified)
+    @Value("${app.http-cache.details-max-age-seconds:0}")
+    private long detailsMaxAge;
+    
+    @Value("${app.http-cache.list-max-age-seconds:0}")
+    private long listMaxAge;
+    
+    @Value("${app.http-cache.stats-max-age-seconds:60}")
+    private long statsMaxAge;
+    
     // ------------------------------------------------------------
     // POST /api/urls → Criar nova URL encurtada
     // ------------------------------------------------------------
@@ -43,17 +95,131 @@ public class UrlController {
     }
     
     // ------------------------------------------------------------
-    // GET /api/urls → Listar todas URLs
+    // POST /api/urls/batch → Criar várias URLs de uma vez
     // ------------------------------------------------------------
     
     /**
-     * Lista todas as URLs encurtadas
-     * Exemplo: GET /api/urls
+     * Cria várias URLs encurtadas a partir de um array JSON
+     * Exemplo: POST /api/urls/batch
+     * Body: [{"originalUrl": "https://www.google.com"}, {"originalUrl": "https://github.com"}]
+     * Retorna um resultado por item (CREATED, INVALID, CONFLICT ou ERROR)
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<BatchItemResult>> createShortUrls(@RequestBody List<CreateUrlRequest> requests) {
+        if (requests.size() > batchMaxItems) {
+            // Lotes maiores devem usar a variante NDJSON (lida em partes)
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(null);
+        }
+        return ResponseEntity.ok(batchService.createShortUrls(requests, 0));
+    }
+    
+    /**
+     * Variante em streaming: um JSON por linha na entrada e um resultado por linha na saída
+     * Exemplo: POST /api/urls/batch  (Content-Type: application/x-ndjson)
+     * Body:
+     *   {"originalUrl": "https://www.google.com"}
+     *   {"originalUrl": "https://github.com"}
+     * As linhas são processadas em blocos, então o lote pode ter qualquer tamanho
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public void createShortUrlsStream(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        
+        BufferedReader reader = new BufferedReader(
+            new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8));
+        Writer writer = response.getWriter();
+        
+        List<CreateUrlRequest> chunk = new ArrayList<>();
+        int firstIndex = 0;
+        String line;
+        
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            chunk.add(parseLine(line));
+            
+            if (chunk.size() >= batchService.getChunkSize()) {
+                writeResults(writer, batchService.createShortUrls(chunk, firstIndex));
+                firstIndex += chunk.size();
+                chunk.clear();
+            }
+        }
+        
+        if (!chunk.isEmpty()) {
+            writeResults(writer, batchService.createShortUrls(chunk, firstIndex));
+        }
+        writer.flush();
+    }
+    
+    // ------------------------------------------------------------
+    // GET /api/urls → Listar URLs (paginado)
+    // ------------------------------------------------------------
+    
+    /**
+     * Lista as URLs encurtadas, uma página por vez (paginação por cursor)
+     * Exemplo: GET /api/urls?limit=50&order=desc&active=true
+     * Próxima página: GET /api/urls?limit=50&order=desc&active=true&cursor={nextCursor}
+     * Filtros opcionais: active, expired, createdFrom, createdTo (ISO, ex: 2026-01-01T00:00:00)
      */
     @GetMapping
-    public ResponseEntity<List<UrlResponse>> getAllUrls() {
-        List<UrlResponse> urls = urlService.getAllUrls();
-        return ResponseEntity.ok(urls);
+    public ResponseEntity<UrlPage> listUrls(
+            WebRequest webRequest,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(defaultValue = "asc") String order,
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(required = false) Boolean expired,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo) {
+        try {
+            UrlFilter filter = new UrlFilter(active, expired, createdFrom, createdTo);
+            boolean descending = "desc".equalsIgnoreCase(order);
+            
+            // Página igual à que o cliente já tem: 304 sem ler as URLs nem montar o JSON
+            UrlVersion version = urlService.getPageVersion(filter, cursor, limit, descending);
+            if (webRequest.checkNotModified(version.getETag())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cachePolicy(listMaxAge)).build();
+            }
+            
+            UrlPage page = urlService.listUrls(filter, cursor, limit, descending);
+            return ResponseEntity.ok().cacheControl(cachePolicy(listMaxAge)).body(page);
+        } catch (IllegalArgumentException e) {
+            // Cursor inválido
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+        }
+    }
+    
+    // ------------------------------------------------------------
+    // GET /api/urls/export → Exportar URLs (streaming)
+    // ------------------------------------------------------------
+    
+    /**
+     * Exporta todas as URLs do filtro, sem paginação, em NDJSON ou CSV.
+     * As linhas vão direto do cursor do banco para a resposta (memória constante).
+     * Exemplo: GET /api/urls/export?format=csv&active=true
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUrls(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(required = false) Boolean expired,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo) {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"ndjson".equalsIgnoreCase(format)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        
+        UrlFilter filter = new UrlFilter(active, expired, createdFrom, createdTo);
+        StreamingResponseBody body = out -> urlService.exportUrls(filter, format, out);
+        
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.noStore())
+            .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.APPLICATION_NDJSON)
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=urls." + (csv ? "csv" : "ndjson"))
+            .body(body);
     }
     
     // ------------------------------------------------------------
@@ -63,12 +229,21 @@ public class UrlController {
     /**
      * Obtém detalhes de uma URL específica
      * Exemplo: GET /api/urls/abc123
+     * Com If-None-Match / If-Modified-Since da resposta anterior: 304 se nada mudou
      */
     @GetMapping("/{code}")
-    public ResponseEntity<UrlResponse> getUrlDetails(@PathVariable String code) {
+    public ResponseEntity<UrlResponse> getUrlDetails(@PathVariable String code, WebRequest webRequest) {
+        Optional<UrlVersion> version = urlService.getUrlVersion(code);
+        if (version.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
+        }
+        if (webRequest.checkNotModified(version.get().getETag(), version.get().getLastModifiedMillis())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cachePolicy(detailsMaxAge)).build();
+        }
+        
         try {
             UrlResponse response = urlService.getUrlDetails(code);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().cacheControl(cachePolicy(detailsMaxAge)).body(response);
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
         }
@@ -101,12 +276,87 @@ public class UrlController {
      * Exemplo: GET /api/urls/abc123/clicks
      */
     @GetMapping("/{code}/clicks")
-    public ResponseEntity<Long> getClickCount(@PathVariable String code) {
+    public ResponseEntity<Long> getClickCount(@PathVariable String code, WebRequest webRequest) {
+        // Mesma versão dos detalhes (os cliques fazem parte dela)
+        Optional<UrlVersion> version = urlService.getUrlVersion(code);
+        if (version.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
+        }
+        if (webRequest.checkNotModified(version.get().getETag(), version.get().getLastModifiedMillis())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cachePolicy(detailsMaxAge)).build();
+        }
+        
         try {
             UrlResponse response = urlService.getUrlDetails(code);
-            return ResponseEntity.ok(response.getClickCount());
+            return ResponseEntity.ok().cacheControl(cachePolicy(detailsMaxAge)).body(response.getClickCount());
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
+        }
+    }
+    
+    // ------------------------------------------------------------
+    // GET /api/urls/{code}/stats → Estatísticas de cliques
+    // ------------------------------------------------------------
+    
+    /**
+     * Série temporal de cliques (por minuto, hora ou dia), com top referrers e regiões
+     * Exemplo: GET /api/urls/abc123/stats?granularity=hour
+     * Período opcional: from/to (ISO, ex: 2026-01-01T00:00:00)
+     */
+    @GetMapping("/{code}/stats")
+    public ResponseEntity<ClickStatsResponse> getClickStats(
+            @PathVariable String code,
+            @RequestParam(defaultValue = "hour") String granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        try {
+            // Garante que a URL existe (404 caso contrário)
+            urlService.getUrlDetails(code);
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
         }
+        
+        try {
+            // Agregados gravados periodicamente: o cliente pode reaproveitar a resposta por stats-max-age-seconds
+            return ResponseEntity.ok().cacheControl(cachePolicy(statsMaxAge))
+                .body(analyticsService.getStats(code, granularity, from, to));
+        } catch (IllegalArgumentException e) {
+            // Granularidade inválida
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+        }
+    }
+    
+    // ------------------------------------------------------------
+    // MÉTODOS PRIVADOS (Cache-Control)
+    // ------------------------------------------------------------
+    
+    // Respostas por cliente (private); 0 = guarda, mas revalida a cada uso (no-cache)
+    private static CacheControl cachePolicy(long maxAgeSeconds) {
+        CacheControl policy = maxAgeSeconds > 0
+            ? CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS)
+            : CacheControl.noCache();
+        return policy.cachePrivate();
+    }
+    
+    // ------------------------------------------------------------
+    // MÉTODOS PRIVADOS (NDJSON)
+    // ------------------------------------------------------------
+    
+    // Linha com JSON inválido vira null → o serviço responde INVALID para ela
+    private CreateUrlRequest parseLine(String line) {
+        try {
+            return objectMapper.readValue(line, CreateUrlRequest.class);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+    
+    private void writeResults(Writer writer, List<BatchItemResult> results) throws IOException {
+        for (BatchItemResult result : results) {
+            writer.write(objectMapper.writeValueAsString(result));
+            writer.write('\n');
+        }
+        // Envia este bloco ao cliente antes de processar o próximo
+        writer.flush();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,98 @@
+package com.techsolutions.urlshortener.dto;
+
+/**
+ * Resultado de um item da criação em lote (POST /api/urls/batch)
+ * Cada item do lote recebe um resultado, na mesma ordem do envio
+ */
+public class BatchItemResult {
+    
+    // Situações possíveis de um item
+    public static final String CREATED = "CREATED";     // Criado com sucesso
+    public static final String INVALID = "INVALID";     // Falhou na validação
+    public static final String CONFLICT = "CONFLICT";   // Código customizado já em uso
+    public static final String ERROR = "ERROR";         // Erro inesperado ao gravar
+    
+    private int index;            // Posição do item no lote (começa em 0)
+    private String status;        // CREATED, INVALID, CONFLICT ou ERROR
+    private String shortCode;     // Código gerado (quando criado)
+    private String shortUrl;      // URL curta completa (quando criado)
+    private String error;         // Motivo da falha (quando não criado)
+    
+    // ------------------------------------------------------------
+    // CONSTRUTORES
+    // ------------------------------------------------------------
+    
+    public BatchItemResult() {
+    }
+    
+    public static BatchItemResult created(int index, String shortCode, String shortUrl) {
+        BatchItemResult result = new BatchItemResult();
+        result.index = index;
+        result.status = CREATED;
+        result.shortCode = shortCode;
+        result.shortUrl = shortUrl;
+        return result;
+    }
+    
+    public static BatchItemResult failed(int index, String status, String error) {
+        BatchItemResult result = new BatchItemResult();
+        result.index = index;
+        result.status = status;
+        result.error = error;
+        return result;
+    }
+    
+    // ------------------------------------------------------------
+    // GETTERS e SETTERS
+    // ------------------------------------------------------------
+    
+    public int getIndex() {
+        return index;
+    }
+    
+    public void setIndex(int index) {
+        this.index = index;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public String getShortCode() {
+        return shortCode;
+    }
+    
+    public void setShortCode(String shortCode) {
+        this.shortCode = shortCode;
+    }
+    
+    public String getShortUrl() {
+        return shortUrl;
+    }
+    
+    public void setShortUrl(String shortUrl) {
+        this.shortUrl = shortUrl;
+    }
+    
+    public String getError() {
+        return error;
+    }
+    
+    public void setError(String error) {
+        this.error = error;
+    }
+    
+    @Override
+    public String toString() {
+        return "BatchItemResult{" +
+                "index=" + index +
+                ", status='" + status + '\'' +
+                ", shortCode='" + shortCode + '\'' +
+                ", error='" + error + '\'' +
+                '}';
+    }
+}
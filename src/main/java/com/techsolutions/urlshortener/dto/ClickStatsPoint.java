@@ -0,0 +1,66 @@
+package com.techsolutions.urlshortener.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Um ponto da série temporal de cliques (um minuto, hora ou dia)
+ */
+public class ClickStatsPoint {
+    
+    private LocalDateTime bucketStart;   // Início do intervalo
+    private long clicks;                 // Total de cliques no intervalo
+    private long botClicks;              // Cliques de robôs
+    private long mobileClicks;           // Cliques de celulares/tablets
+    private long desktopClicks;          // Cliques de computadores
+    
+    public ClickStatsPoint() {
+    }
+    
+    public ClickStatsPoint(LocalDateTime bucketStart, long clicks, long botClicks, long mobileClicks, long desktopClicks) {
+        this.bucketStart = bucketStart;
+        this.clicks = clicks;
+        this.botClicks = botClicks;
+        this.mobileClicks = mobileClicks;
+        this.desktopClicks = desktopClicks;
+    }
+    
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+    
+    public void setBucketStart(LocalDateTime bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+    
+    public long getClicks() {
+        return clicks;
+    }
+    
+    public void setClicks(long clicks) {
+        this.clicks = clicks;
+    }
+    
+    public long getBotClicks() {
+        return botClicks;
+    }
+    
+    public void setBotClicks(long botClicks) {
+        this.botClicks = botClicks;
+    }
+    
+    public long getMobileClicks() {
+        return mobileClicks;
+    }
+    
+    public void setMobileClicks(long mobileClicks) {
+        this.mobileClicks = mobileClicks;
+    }
+    
+    public long getDesktopClicks() {
+        return desktopClicks;
+    }
+    
+    public void setDesktopClicks(long desktopClicks) {
+        this.desktopClicks = desktopClicks;
+    }
+}
@@ -0,0 +1,91 @@
+package com.techsolutions.urlshortener.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Estatísticas de cliques de uma URL (GET /api/urls/{code}/stats)
+ */
+public class ClickStatsResponse {
+    
+    private String shortCode;                 // Código curto
+    private String granularity;               // MINUTE, HOUR ou DAY
+    private LocalDateTime from;               // Início do período (inclusive)
+    private LocalDateTime to;                 // Fim do período (exclusive)
+    private long totalClicks;                 // Soma dos cliques da série
+    private List<ClickStatsPoint> series;     // Cliques por intervalo (só intervalos com cliques)
+    private Map<String, Long> topReferrers;   // Host do referrer → cliques
+    private Map<String, Long> regions;        // Região do IP → cliques
+    
+    public ClickStatsResponse() {
+    }
+    
+    // ------------------------------------------------------------
+    // GETTERS e SETTERS
+    // ------------------------------------------------------------
+    
+    public String getShortCode() {
+        return shortCode;
+    }
+    
+    public void setShortCode(String shortCode) {
+        this.shortCode = shortCode;
+    }
+    
+    public String getGranularity() {
+        return granularity;
+    }
+    
+    public void setGranularity(String granularity) {
+        this.granularity = granularity;
+    }
+    
+    public LocalDateTime getFrom() {
+        return from;
+    }
+    
+    public void setFrom(LocalDateTime from) {
+        this.from = from;
+    }
+    
+    public LocalDateTime getTo() {
+        return to;
+    }
+    
+    public void setTo(LocalDateTime to) {
+        this.to = to;
+    }
+    
+    public long getTotalClicks() {
+        return totalClicks;
+    }
+    
+    public void setTotalClicks(long totalClicks) {
+        this.totalClicks = totalClicks;
+    }
+    
+    public List<ClickStatsPoint> getSeries() {
+        return series;
+    }
+    
+    public void setSeries(List<ClickStatsPoint> series) {
+        this.series = series;
+    }
+    
+    public Map<String, Long> getTopReferrers() {
+        return topReferrers;
+    }
+    
+    public void setTopReferrers(Map<String, Long> topReferrers) {
+        this.topReferrers = topReferrers;
+    }
+    
+    public Map<String, Long> getRegions() {
+        return regions;
+    }
+    
+    public void setRegions(Map<String, Long> regions) {
+        this.regions = regions;
+    }
+}
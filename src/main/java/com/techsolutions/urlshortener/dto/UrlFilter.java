@@ -0,0 +1,71 @@
+package com.techsolutions.urlshortener.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filtros da listagem/exportação de URLs (GET /api/urls e GET /api/urls/export)
+ * Todos opcionais: campo null = não filtra por ele
+ */
+public class UrlFilter {
+    
+    private Boolean active;               // Só ativas (true) ou só desativadas (false)
+    private Boolean expired;              // Só expiradas (true) ou só não expiradas (false)
+    private LocalDateTime createdFrom;    // Criadas a partir desta data (inclusive)
+    private LocalDateTime createdTo;      // Criadas antes desta data (exclusive)
+    
+    public UrlFilter() {
+    }
+    
+    public UrlFilter(Boolean active, Boolean expired, LocalDateTime createdFrom, LocalDateTime createdTo) {
+        this.active = active;
+        this.expired = expired;
+        this.createdFrom = createdFrom;
+        this.createdTo = createdTo;
+    }
+    
+    // ------------------------------------------------------------
+    // GETTERS e SETTERS
+    // ------------------------------------------------------------
+    
+    public Boolean getActive() {
+        return active;
+    }
+    
+    public void setActive(Boolean active) {
+        this.active = active;
+    }
+    
+    public Boolean getExpired() {
+        return expired;
+    }
+    
+    public void setExpired(Boolean expired) {
+        this.expired = expired;
+    }
+    
+    public LocalDateTime getCreatedFrom() {
+        return createdFrom;
+    }
+    
+    public void setCreatedFrom(LocalDateTime createdFrom) {
+        this.createdFrom = createdFrom;
+    }
+    
+    public LocalDateTime getCreatedTo() {
+        return createdTo;
+    }
+    
+    public void setCreatedTo(LocalDateTime createdTo) {
+        this.createdTo = createdTo;
+    }
+    
+    @Override
+    public String toString() {
+        return "UrlFilter{" +
+                "active=" + active +
+                ", expired=" + expired +
+                ", createdFrom=" + createdFrom +
+                ", createdTo=" + createdTo +
+                '}';
+    }
+}
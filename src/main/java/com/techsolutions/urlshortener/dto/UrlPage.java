@@ -0,0 +1,37 @@
+package com.techsolutions.urlshortener.dto;
+
+import java.util.List;
+
+/**
+ * Uma página da listagem de URLs (GET /api/urls)
+ * Para buscar a próxima página, envie nextCursor no parâmetro "cursor"
+ */
+public class UrlPage {
+    
+    private List<UrlResponse> items;   // URLs desta página
+    private String nextCursor;         // Cursor da próxima página (null = acabou)
+    
+    public UrlPage() {
+    }
+    
+    public UrlPage(List<UrlResponse> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+    
+    public List<UrlResponse> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<UrlResponse> items) {
+        this.items = items;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
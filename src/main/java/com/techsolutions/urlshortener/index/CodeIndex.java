@@ -0,0 +1,208 @@
+package com.techsolutions.urlshortener.index;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Índice somente leitura código → URL, num arquivo mapeado em memória (ver CodeIndexWriter).
+ *
+ * Layout (big-endian):
+ * <pre>
+ * cabeçalho (64 bytes)  magic "UIDX" (int) | versão (short) | reservado (short) | geração (long)
+ *                       | início da leitura do banco, epoch ms (long) | slots (long) | entradas (long)
+ *                       | início da região de URLs (long) | bytes de URLs (long) | CRC32C do resto (int) | reservado (int)
+ * slots (32 bytes cada) chave + 1, 0 = vazio (long) | expira em: segundos UTC ou Long.MIN_VALUE (long)
+ *                       | posição da URL na região (long) | bytes da URL (int) | flags (int)
+ * URLs                  UTF-8, uma atrás da outra
+ * </pre>
+ * Tabela hash de endereçamento aberto (sondagem linear), chaveada pelo code_key do código
+ * (ShortCodeGenerator.toKey), dimensionada para o dobro das entradas (no máximo 70% ocupada).
+ *
+ * Uma busca só lê o mapeamento: nenhuma alocação até a String final da URL.
+ * O heap não cresce com o número de links (o arquivo é paginado pelo sistema operacional).
+ */
+public final class CodeIndex {
+
+    static final int MAGIC = 0x55494458;   // "UIDX"
+    static final short VERSION = 1;
+    static final int HEADER_BYTES = 64;
+    static final int SLOT_BYTES = 32;
+    public static final long NO_EXPIRATION = Long.MIN_VALUE;
+    static final int FLAG_ACTIVE = 1;
+
+    // Posições dentro do cabeçalho
+    static final int GENERATION_AT = 8;
+    static final int BUILT_AT = 16;
+    static final int SLOTS_AT = 24;
+    static final int ENTRIES_AT = 32;
+    static final int URL_REGION_AT = 40;
+    static final int URL_BYTES_AT = 48;
+    static final int CRC_AT = 56;
+
+    // Buffer de bytes da URL, por thread (a String final copia o conteúdo)
+    private static final ThreadLocal<byte[]> SCRATCH = ThreadLocal.withInitial(() -> new byte[2048]);
+
+    private final Path file;
+    private final MappedChunks data;
+    private final long generation;
+    private final long builtAt;
+    private final long slotCount;
+    private final int slotBits;
+    private final long entryCount;
+    private final long urlRegion;
+
+    private CodeIndex(Path file, MappedChunks data) {
+        this.file = file;
+        this.data = data;
+        this.generation = data.getLong(GENERATION_AT);
+        this.builtAt = data.getLong(BUILT_AT);
+        this.slotCount = data.getLong(SLOTS_AT);
+        this.slotBits = Long.numberOfTrailingZeros(slotCount);
+        this.entryCount = data.getLong(ENTRIES_AT);
+        this.urlRegion = data.getLong(URL_REGION_AT);
+    }
+
+    // ------------------------------------------------------------
+    // ABERTURA
+    // ------------------------------------------------------------
+
+    /**
+     * Mapeia um arquivo de índice.
+     *
+     * @param verifyChecksum true = confere o CRC32C do arquivo inteiro (lê todas as páginas uma vez)
+     * @throws IOException Se o arquivo não for um índice válido desta versão
+     */
+    public static CodeIndex open(Path file, boolean verifyChecksum) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                throw new IOException("Arquivo pequeno demais para um índice: " + size + " bytes");
+            }
+            // O mapeamento continua válido depois de fechar o canal
+            MappedChunks data = new MappedChunks(channel, FileChannel.MapMode.READ_ONLY, size);
+
+            if (data.getInt(0) != MAGIC) {
+                throw new IOException("Arquivo não é um índice de códigos");
+            }
+            short version = data.chunk(0).getShort(4);
+            if (version != VERSION) {
+                throw new IOException("Versão de índice não suportada: " + version);
+            }
+            long slots = data.getLong(SLOTS_AT);
+            long expectedSize = data.getLong(URL_REGION_AT) + data.getLong(URL_BYTES_AT);
+            if (Long.bitCount(slots) != 1 || data.getLong(URL_REGION_AT) != HEADER_BYTES + slots * SLOT_BYTES
+                    || expectedSize != size) {
+                throw new IOException("Índice truncado ou inconsistente");
+            }
+            if (verifyChecksum && checksum(data) != data.getInt(CRC_AT)) {
+                throw new IOException("Índice corrompido: checksum não confere");
+            }
+            return new CodeIndex(file, data);
+        }
+    }
+
+    /**
+     * Geração gravada no cabeçalho, sem mapear o arquivo (para saber se há uma nova).
+     */
+    public static long readGeneration(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // lê o cabeçalho inteiro
+            }
+            if (header.position() < HEADER_BYTES || header.getInt(0) != MAGIC) {
+                throw new IOException("Arquivo não é um índice de códigos");
+            }
+            return header.getLong(GENERATION_AT);
+        }
+    }
+
+    // CRC32C de tudo depois do cabeçalho
+    static int checksum(MappedChunks data) {
+        CRC32C crc = new CRC32C();
+        for (int i = 0; i < data.chunkCount(); i++) {
+            ByteBuffer chunk = data.chunk(i);
+            int from = i == 0 ? HEADER_BYTES : 0;
+            crc.update(chunk.slice(from, chunk.limit() - from));
+        }
+        return (int) crc.getValue();
+    }
+
+    // ------------------------------------------------------------
+    // BUSCA
+    // ------------------------------------------------------------
+
+    /**
+     * @param key Chave do código (ShortCodeGenerator.toKey; -1 = código inválido)
+     * @return Posição do slot no arquivo, ou -1 se o código não está no índice
+     */
+    public long find(long key) {
+        if (key < 0) {
+            return -1;
+        }
+        long stored = key + 1;
+        long mask = slotCount - 1;
+        long slot = slotOf(key, slotBits);
+        for (long probes = 0; probes < slotCount; probes++) {
+            long position = HEADER_BYTES + slot * SLOT_BYTES;
+            long current = data.getLong(position);
+            if (current == stored) {
+                return position;
+            }
+            if (current == 0) {
+                return -1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    public boolean isActive(long slot) {
+        return (data.getInt(slot + 28) & FLAG_ACTIVE) != 0;
+    }
+
+    /**
+     * @return Validade em segundos (LocalDateTime.toEpochSecond(UTC)), ou Long.MIN_VALUE se não expira
+     */
+    public long getExpiresAtEpochSecond(long slot) {
+        return data.getLong(slot + 8);
+    }
+
+    public String getUrl(long slot) {
+        long offset = data.getLong(slot + 16);
+        int length = data.getInt(slot + 24);
+        byte[] scratch = SCRATCH.get();
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, 2 * scratch.length)];
+            SCRATCH.set(scratch);
+        }
+        data.get(urlRegion + offset, scratch, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    // Hash de Fibonacci: chaves sequenciais (códigos alocados em sequência) espalhadas pela tabela
+    static long slotOf(long key, int slotBits) {
+        return slotBits == 0 ? 0 : (key * 0x9E3779B97F4A7C15L) >>> (64 - slotBits);
+    }
+
+    // ------------------------------------------------------------
+    // INFORMAÇÕES
+    // ------------------------------------------------------------
+
+    public Path getFile() { return file; }
+
+    public long getGeneration() { return generation; }
+
+    public long getBuiltAt() { return builtAt; }
+
+    public long getEntryCount() { return entryCount; }
+
+    public long getSlotCount() { return slotCount; }
+
+    public long getFileBytes() { return data.size(); }
+}
@@ -0,0 +1,321 @@
+package com.techsolutions.urlshortener.index;
+
+import com.techsolutions.urlshortener.util.ShortCodeGenerator;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Camada de redirecionamento sem banco (app.redirect.source=index): o UrlShortenerService
+ * consulta o CodeIndex mapeado em memória no lugar do cache + UrlRepository.
+ *
+ * Gerações: a instância com app.index.build=true lê shortened_urls a cada build-interval-ms
+ * e grava uma nova geração do arquivo (move atômico). As instâncias que servem pelo índice
+ * conferem o cabeçalho a cada reload-check-ms e trocam a referência quando a geração muda;
+ * buscas em andamento terminam na geração antiga, que o GC solta depois.
+ *
+ * Entre duas gerações:
+ * - desativações (locais, ou de outras instâncias pelo barramento de invalidação) ficam num
+ *   conjunto em memória, descartado quando chega uma geração montada depois delas;
+ * - códigos criados depois da última geração não existem no índice (404), a não ser com
+ *   app.index.database-fallback=true, que consulta o banco nesses casos.
+ */
+@Component
+public class CodeIndexService implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CodeIndexService.class);
+
+    private static final int FETCH_SIZE = 10_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final boolean serving;
+    private final boolean building;
+    private final Path file;
+    private final boolean verifyChecksum;
+    private final boolean databaseFallback;
+
+    private volatile CodeIndex current;
+
+    // Código desativado → quando (epoch ms); some quando uma geração montada depois disso é carregada
+    private final Map<String, Long> deactivated = new ConcurrentHashMap<>();
+
+    // Uma montagem por vez (agendador, endpoint administrativo e subida)
+    private final ReentrantLock buildLock = new ReentrantLock();
+
+    private volatile long lastBuildMillis;
+    private volatile LocalDateTime lastBuildAt;
+
+    public CodeIndexService(@Value("${app.redirect.source:database}") String source,
+                            @Value("${app.index.build:false}") boolean building,
+                            @Value("${app.index.path:./data/code-index.bin}") String path,
+                            @Value("${app.index.verify-checksum:true}") boolean verifyChecksum,
+                            @Value("${app.index.database-fallback:false}") boolean databaseFallback) {
+        if (!source.equals("database") && !source.equals("index")) {
+            throw new IllegalArgumentException("app.redirect.source deve ser database ou index");
+        }
+        this.serving = source.equals("index");
+        this.building = building;
+        this.file = Path.of(path);
+        this.verifyChecksum = verifyChecksum;
+        this.databaseFallback = databaseFallback;
+    }
+
+    // ------------------------------------------------------------
+    // CONSULTA
+    // ------------------------------------------------------------
+
+    /**
+     * @return Geração em uso, ou null se os redirecionamentos não usam o índice
+     *         (ou nenhuma geração foi carregada ainda: aí o caminho normal, pelo banco, é usado)
+     */
+    public CodeIndex current() {
+        return current;
+    }
+
+    public boolean isDeactivated(String shortCode) {
+        return !deactivated.isEmpty() && deactivated.containsKey(shortCode);
+    }
+
+    public boolean isDatabaseFallback() { return databaseFallback; }
+
+    /**
+     * Registra uma desativação (o código passa a responder 410 até a próxima geração).
+     */
+    public void markDeactivated(String shortCode) {
+        if (serving) {
+            deactivated.put(shortCode, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Registra uma desativação depois do commit da transação atual (ou já, sem transação).
+     */
+    public void markDeactivatedAfterCommit(String shortCode) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    markDeactivated(shortCode);
+                }
+            });
+        } else {
+            markDeactivated(shortCode);
+        }
+    }
+
+    // ------------------------------------------------------------
+    // CARGA / TROCA DE GERAÇÃO
+    // ------------------------------------------------------------
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            if (building && !Files.exists(file)) {
+                build();
+            }
+            if (serving) {
+                reload();
+            }
+        } catch (IOException | DataAccessException e) {
+            log.warn("Índice de códigos indisponível na subida; redirecionamentos pelo banco até a próxima geração", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.index.reload-check-ms:5000}")
+    public void scheduledReload() {
+        if (!serving) {
+            return;
+        }
+        try {
+            reload();
+        } catch (IOException e) {
+            log.warn("Falha ao carregar nova geração do índice de códigos; mantendo a atual", e);
+        }
+    }
+
+    /**
+     * Carrega o arquivo se ele tiver uma geração mais nova que a em uso.
+     *
+     * @return true se trocou de geração
+     */
+    public boolean reload() throws IOException {
+        if (!Files.exists(file)) {
+            return false;
+        }
+        CodeIndex active = current;
+        if (active != null && CodeIndex.readGeneration(file) <= active.getGeneration()) {
+            return false;
+        }
+
+        CodeIndex next = CodeIndex.open(file, verifyChecksum);
+        current = next;
+        // Desativações anteriores ao início da leitura do banco já estão na nova geração
+        deactivated.values().removeIf(at -> at < next.getBuiltAt());
+        log.info("Índice de códigos: geração {} em uso ({} códigos, {} MB)",
+            next.getGeneration(), next.getEntryCount(), next.getFileBytes() / (1024 * 1024));
+        return true;
+    }
+
+    // ------------------------------------------------------------
+    // MONTAGEM
+    // ------------------------------------------------------------
+
+    @Scheduled(fixedDelayString = "${app.index.build-interval-ms:300000}",
+               initialDelayString = "${app.index.build-interval-ms:300000}")
+    public void scheduledBuild() {
+        if (!building) {
+            return;
+        }
+        try {
+            build();
+        } catch (IllegalStateException e) {
+            // Montagem disparada pelo endpoint ainda em andamento
+        } catch (IOException | DataAccessException e) {
+            log.warn("Falha ao montar o índice de códigos; nova tentativa na próxima rodada", e);
+        }
+    }
+
+    /**
+     * Lê shortened_urls inteira, com a camada fria (cursor JDBC), e grava uma nova geração do arquivo.
+     * Se esta instância também serve pelo índice, passa a usar a nova geração.
+     *
+     * @return Códigos gravados
+     * @throws IllegalStateException se já houver uma montagem em andamento
+     */
+    public long build() throws IOException {
+        if (!buildLock.tryLock()) {
+            throw new IllegalStateException("Já existe uma montagem do índice em andamento");
+        }
+        try {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            long start = System.nanoTime();
+            long builtAt = System.currentTimeMillis();
+
+            Long count = jdbcTemplate.queryForObject(
+                "SELECT (SELECT COUNT(*) FROM shortened_urls) + (SELECT COUNT(*) FROM shortened_urls_cold)", Long.class);
+            // Folga para os códigos criados entre o COUNT e o fim da leitura
+            long expected = (count == null ? 0 : count) * 11 / 10 + 1024;
+
+            long generation = nextGeneration();
+            long entries;
+            try (CodeIndexWriter writer = new CodeIndexWriter(file.toAbsolutePath().getParent(), expected)) {
+                JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+                streaming.setFetchSize(FETCH_SIZE);
+                // Camada fria junto (LinkTieringService): sempre ativa e sem expiração
+                streaming.query("SELECT short_code, original_url, is_active, expires_at FROM shortened_urls "
+                        + "UNION ALL SELECT short_code, original_url, TRUE, CAST(NULL AS TIMESTAMP(6)) FROM shortened_urls_cold", rs -> {
+                    long key = ShortCodeGenerator.toKey(rs.getString(1));
+                    if (key < 0) {
+                        return;
+                    }
+                    Timestamp expiresAt = rs.getTimestamp(4);
+                    try {
+                        writer.add(key, rs.getString(2), rs.getBoolean(3),
+                            expiresAt == null ? null : expiresAt.toLocalDateTime());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                entries = writer.getEntries();
+                writer.finish(file, generation, builtAt);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            sample.stop(meterRegistry.timer("urlshortener.index.build"));
+            lastBuildMillis = (System.nanoTime() - start) / 1_000_000;
+            lastBuildAt = LocalDateTime.now();
+            log.info("Índice de códigos: geração {} montada com {} códigos em {} ms", generation, entries, lastBuildMillis);
+
+            if (serving) {
+                reload();
+            }
+            return entries;
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    private long nextGeneration() {
+        try {
+            return Files.exists(file) ? CodeIndex.readGeneration(file) + 1 : 1;
+        } catch (IOException e) {
+            // Arquivo atual inválido: recomeça a contagem
+            return 1;
+        }
+    }
+
+    // ------------------------------------------------------------
+    // ESTATÍSTICAS
+    // ------------------------------------------------------------
+
+    public long getGeneration() {
+        CodeIndex index = current;
+        return index == null ? 0 : index.getGeneration();
+    }
+
+    public long getEntryCount() {
+        CodeIndex index = current;
+        return index == null ? 0 : index.getEntryCount();
+    }
+
+    /**
+     * Idade da geração em uso (desde o início da leitura do banco), em segundos.
+     */
+    public double getAgeSeconds() {
+        CodeIndex index = current;
+        return index == null ? 0 : (System.currentTimeMillis() - index.getBuiltAt()) / 1000.0;
+    }
+
+    /**
+     * Geração em uso e última montagem (usado pelo endpoint administrativo).
+     */
+    public Map<String, Object> stats() {
+        CodeIndex index = current;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("serving", serving);
+        stats.put("building", building);
+        stats.put("path", file.toAbsolutePath().toString());
+        stats.put("generation", index == null ? null : index.getGeneration());
+        stats.put("builtAt", index == null ? null
+            : LocalDateTime.ofInstant(Instant.ofEpochMilli(index.getBuiltAt()), ZoneId.systemDefault()));
+        stats.put("entries", index == null ? 0 : index.getEntryCount());
+        stats.put("slots", index == null ? 0 : index.getSlotCount());
+        stats.put("fileBytes", index == null ? 0 : index.getFileBytes());
+        stats.put("deactivatedSinceBuild", deactivated.size());
+        stats.put("lastBuildAt", lastBuildAt);
+        stats.put("lastBuildMillis", lastBuildMillis);
+        return stats;
+    }
+}
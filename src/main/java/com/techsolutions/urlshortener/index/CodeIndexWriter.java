@@ -0,0 +1,146 @@
+package com.techsolutions.urlshortener.index;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Monta um arquivo de índice (formato em CodeIndex) sem guardar as entradas no heap:
+ * os slots são escritos direto num mapeamento do arquivo e as URLs são acrescentadas
+ * à região de URLs conforme chegam.
+ *
+ * A quantidade de slots é fixada na criação (a partir do número esperado de entradas);
+ * se chegarem entradas demais, add() lança IOException (arquivo cheio) e o índice deve ser
+ * montado de novo com uma estimativa maior.
+ */
+public final class CodeIndexWriter implements Closeable {
+
+    // Ocupação máxima da tabela (sondagem linear degrada rápido acima disso)
+    private static final double MAX_LOAD = 0.7;
+
+    private final Path tmp;
+    private final FileChannel channel;
+    private final MappedChunks slots;
+    private final long slotCount;
+    private final int slotBits;
+    private final long urlRegion;
+    private final ByteBuffer urlBuffer = ByteBuffer.allocateDirect(1 << 16);
+
+    private long urlBytes;          // Bytes de URL recebidos
+    private long flushedUrlBytes;   // Bytes de URL já escritos no arquivo
+    private long entries;
+    private boolean finished;
+
+    /**
+     * @param dir Diretório do arquivo final (o temporário fica ao lado, para o move ser atômico)
+     * @param expectedEntries Estimativa de entradas; a tabela fica com pelo menos o dobro de slots
+     */
+    public CodeIndexWriter(Path dir, long expectedEntries) throws IOException {
+        this.slotCount = Math.max(16, Long.highestOneBit(Math.max(1, expectedEntries) * 2 - 1) << 1);
+        this.slotBits = Long.numberOfTrailingZeros(slotCount);
+        this.urlRegion = CodeIndex.HEADER_BYTES + slotCount * CodeIndex.SLOT_BYTES;
+
+        Files.createDirectories(dir);
+        this.tmp = Files.createTempFile(dir, "code-index", ".tmp");
+        this.channel = FileChannel.open(tmp, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        // Arquivo esparso: os slots vazios (zeros) não ocupam disco até serem escritos
+        this.slots = new MappedChunks(channel, FileChannel.MapMode.READ_WRITE, urlRegion);
+    }
+
+    /**
+     * Acrescenta um código.
+     *
+     * @param key Chave do código (ShortCodeGenerator.toKey); cada chave uma vez só
+     */
+    public void add(long key, String originalUrl, boolean active, LocalDateTime expiresAt) throws IOException {
+        if (entries + 1 > slotCount * MAX_LOAD) {
+            throw new IOException("Índice cheio: mais entradas que o previsto (" + slotCount + " slots)");
+        }
+
+        byte[] url = originalUrl.getBytes(StandardCharsets.UTF_8);
+        long offset = urlBytes;
+        appendUrl(url);
+
+        long mask = slotCount - 1;
+        long slot = CodeIndex.slotOf(key, slotBits);
+        long position = CodeIndex.HEADER_BYTES + slot * CodeIndex.SLOT_BYTES;
+        while (slots.getLong(position) != 0) {
+            slot = (slot + 1) & mask;
+            position = CodeIndex.HEADER_BYTES + slot * CodeIndex.SLOT_BYTES;
+        }
+        slots.putLong(position, key + 1);
+        slots.putLong(position + 8, expiresAt == null ? CodeIndex.NO_EXPIRATION : expiresAt.toEpochSecond(ZoneOffset.UTC));
+        slots.putLong(position + 16, offset);
+        slots.putInt(position + 24, url.length);
+        slots.putInt(position + 28, active ? CodeIndex.FLAG_ACTIVE : 0);
+        entries++;
+    }
+
+    /**
+     * Grava o cabeçalho (com o checksum) e troca o arquivo final pelo novo (move atômico):
+     * quem já mapeou o anterior continua lendo a versão antiga até trocar.
+     *
+     * @param builtAt Início da leitura do banco (epoch ms)
+     */
+    public void finish(Path target, long generation, long builtAt) throws IOException {
+        flushUrls();
+        slots.force();
+
+        long size = urlRegion + urlBytes;
+        MappedChunks all = new MappedChunks(channel, FileChannel.MapMode.READ_WRITE, size);
+        all.putInt(0, CodeIndex.MAGIC);
+        all.chunk(0).putShort(4, CodeIndex.VERSION);
+        all.putLong(CodeIndex.GENERATION_AT, generation);
+        all.putLong(CodeIndex.BUILT_AT, builtAt);
+        all.putLong(CodeIndex.SLOTS_AT, slotCount);
+        all.putLong(CodeIndex.ENTRIES_AT, entries);
+        all.putLong(CodeIndex.URL_REGION_AT, urlRegion);
+        all.putLong(CodeIndex.URL_BYTES_AT, urlBytes);
+        all.putInt(CodeIndex.CRC_AT, CodeIndex.checksum(all));
+        all.force();
+        channel.close();
+
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        finished = true;
+    }
+
+    public long getEntries() { return entries; }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+        if (!finished) {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private void appendUrl(byte[] url) throws IOException {
+        int written = 0;
+        while (written < url.length) {
+            if (!urlBuffer.hasRemaining()) {
+                flushUrls();
+            }
+            int n = Math.min(url.length - written, urlBuffer.remaining());
+            urlBuffer.put(url, written, n);
+            written += n;
+        }
+        urlBytes += url.length;
+    }
+
+    // Escreve o buffer no fim da região de URLs
+    private void flushUrls() throws IOException {
+        urlBuffer.flip();
+        while (urlBuffer.hasRemaining()) {
+            flushedUrlBytes += channel.write(urlBuffer, urlRegion + flushedUrlBytes);
+        }
+        urlBuffer.clear();
+    }
+}
@@ -0,0 +1,82 @@
+package com.techsolutions.urlshortener.index;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Arquivo inteiro mapeado em memória em blocos de 1 GB (um MappedByteBuffer endereça no
+ * máximo 2 GB), com leitura/escrita por posição absoluta (long).
+ * Os dados ficam fora do heap: o tamanho do arquivo não muda o uso de heap da JVM.
+ */
+final class MappedChunks {
+
+    static final int CHUNK_BITS = 30;
+    static final long CHUNK_SIZE = 1L << CHUNK_BITS;
+    private static final long CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final MappedByteBuffer[] chunks;
+    private final long size;
+
+    MappedChunks(FileChannel channel, FileChannel.MapMode mode, long size) throws IOException {
+        int count = (int) ((size + CHUNK_SIZE - 1) >>> CHUNK_BITS);
+        this.chunks = new MappedByteBuffer[count];
+        for (int i = 0; i < count; i++) {
+            long start = (long) i << CHUNK_BITS;
+            chunks[i] = channel.map(mode, start, Math.min(CHUNK_SIZE, size - start));
+        }
+        this.size = size;
+    }
+
+    long size() {
+        return size;
+    }
+
+    MappedByteBuffer chunk(int index) {
+        return chunks[index];
+    }
+
+    int chunkCount() {
+        return chunks.length;
+    }
+
+    // Leituras/escritas de tamanho fixo: quem chama garante que não cruzam o limite de um bloco
+    // (posições alinhadas ao tamanho do registro, que divide CHUNK_SIZE)
+
+    long getLong(long position) {
+        return chunks[(int) (position >>> CHUNK_BITS)].getLong((int) (position & CHUNK_MASK));
+    }
+
+    int getInt(long position) {
+        return chunks[(int) (position >>> CHUNK_BITS)].getInt((int) (position & CHUNK_MASK));
+    }
+
+    void putLong(long position, long value) {
+        chunks[(int) (position >>> CHUNK_BITS)].putLong((int) (position & CHUNK_MASK), value);
+    }
+
+    void putInt(long position, int value) {
+        chunks[(int) (position >>> CHUNK_BITS)].putInt((int) (position & CHUNK_MASK), value);
+    }
+
+    /**
+     * Copia bytes a partir de uma posição qualquer (pode cruzar o limite entre blocos).
+     */
+    void get(long position, byte[] target, int length) {
+        int copied = 0;
+        while (copied < length) {
+            long at = position + copied;
+            MappedByteBuffer chunk = chunks[(int) (at >>> CHUNK_BITS)];
+            int offset = (int) (at & CHUNK_MASK);
+            int n = Math.min(length - copied, chunk.limit() - offset);
+            chunk.get(offset, target, copied, n);
+            copied += n;
+        }
+    }
+
+    void force() {
+        for (MappedByteBuffer chunk : chunks) {
+            chunk.force();
+        }
+    }
+}
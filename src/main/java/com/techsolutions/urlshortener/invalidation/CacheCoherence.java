@@ -0,0 +1,181 @@
+package com.techsolutions.urlshortener.invalidation;
+
+import com.techsolutions.urlshortener.cache.DedupCache;
+import com.techsolutions.urlshortener.cache.RedirectCache;
+import com.techsolutions.urlshortener.cache.ShortCodeFilter;
+import com.techsolutions.urlshortener.index.CodeIndexService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import jakarta.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mantém os caches locais (redirecionamento, deduplicação, filtro de Bloom) coerentes
+ * com o que as outras instâncias gravam no banco.
+ *
+ * O UrlShortenerService publica aqui cada código criado ou desativado; os eventos das
+ * outras instâncias chegam pelo InvalidationBus e são aplicados nos caches desta.
+ * Com app.redirect.source=index, as desativações também valem para o índice mapeado
+ * até a próxima geração (ver CodeIndexService).
+ *
+ * Desatualização limitada: se o barramento ficar mais de max-staleness-ms sem entregar
+ * (ex: banco fora no jdbc), os caches são esvaziados a cada verificação e o filtro de Bloom
+ * é suspenso (tudo vai ao banco). Quando o barramento volta, o filtro é recarregado do banco,
+ * recuperando os códigos criados nesse meio-tempo.
+ */
+@Component
+public class CacheCoherence {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheCoherence.class);
+
+    @Autowired
+    private InvalidationBus bus;
+
+    @Autowired
+    private RedirectCache redirectCache;
+
+    @Autowired
+    private DedupCache dedupCache;
+
+    @Autowired
+    private ShortCodeFilter codeFilter;
+
+    @Autowired
+    private CodeIndexService codeIndexService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.invalidation.max-staleness-ms:5000}")
+    private long maxStalenessMillis;
+
+    private final Map<UrlChangeEvent.Type, Counter> published = new EnumMap<>(UrlChangeEvent.Type.class);
+    private final Map<UrlChangeEvent.Type, Counter> received = new EnumMap<>(UrlChangeEvent.Type.class);
+    private Timer delay;
+    private Counter resets;
+
+    private volatile boolean degraded;
+
+    @PostConstruct
+    public void init() {
+        for (UrlChangeEvent.Type type : UrlChangeEvent.Type.values()) {
+            String tag = type.name().toLowerCase(Locale.ROOT);
+            published.put(type, meterRegistry.counter("urlshortener.invalidation.published", "type", tag, "bus", bus.getName()));
+            received.put(type, meterRegistry.counter("urlshortener.invalidation.received", "type", tag, "bus", bus.getName()));
+        }
+        delay = Timer.builder("urlshortener.invalidation.delay")
+            .description("Da publicação do evento até a aplicação nos caches desta instância")
+            .tag("bus", bus.getName())
+            .register(meterRegistry);
+        resets = meterRegistry.counter("urlshortener.invalidation.resets", "bus", bus.getName());
+
+        bus.subscribe(this::apply);
+    }
+
+    // ------------------------------------------------------------
+    // PUBLICAÇÃO (mudanças feitas nesta instância)
+    // ------------------------------------------------------------
+
+    public void publishCreated(Collection<String> shortCodes) {
+        List<UrlChangeEvent> events = new ArrayList<>(shortCodes.size());
+        for (String shortCode : shortCodes) {
+            events.add(UrlChangeEvent.created(shortCode));
+        }
+        publish(events);
+    }
+
+    public void publishDeactivated(String shortCode, Long urlHash) {
+        publish(List.of(UrlChangeEvent.deactivated(shortCode, urlHash)));
+    }
+
+    /**
+     * Vários códigos de uma vez (ex: links retirados pela limpeza), com o hash da URL
+     * de cada um (ou null): um único INSERT em lote no jdbc.
+     */
+    public void publishDeactivated(Map<String, Long> urlHashByCode) {
+        List<UrlChangeEvent> events = new ArrayList<>(urlHashByCode.size());
+        urlHashByCode.forEach((shortCode, urlHash) -> events.add(UrlChangeEvent.deactivated(shortCode, urlHash)));
+        publish(events);
+    }
+
+    private void publish(List<UrlChangeEvent> events) {
+        bus.publish(events);
+        for (UrlChangeEvent event : events) {
+            published.get(event.getType()).increment();
+        }
+    }
+
+    // ------------------------------------------------------------
+    // RECEBIMENTO (mudanças feitas em outras instâncias)
+    // ------------------------------------------------------------
+
+    void apply(UrlChangeEvent event) {
+        switch (event.getType()) {
+            case CREATED -> {
+                codeFilter.add(event.getShortCode());
+                redirectCache.invalidate(event.getShortCode());
+            }
+            case DEACTIVATED -> {
+                redirectCache.invalidate(event.getShortCode());
+                codeIndexService.markDeactivated(event.getShortCode());
+                if (event.getUrlHash() != null) {
+                    dedupCache.invalidate(event.getUrlHash(), event.getShortCode());
+                }
+            }
+        }
+        received.get(event.getType()).increment();
+        delay.record(Math.max(0, System.currentTimeMillis() - event.getPublishedAt()), TimeUnit.MILLISECONDS);
+    }
+
+    // ------------------------------------------------------------
+    // LIMITE DE DESATUALIZAÇÃO
+    // ------------------------------------------------------------
+
+    @Scheduled(fixedDelayString = "${app.invalidation.staleness-check-ms:1000}")
+    public void enforceStaleness() {
+        long staleness = bus.getStalenessMillis();
+
+        if (staleness > maxStalenessMillis) {
+            if (!degraded) {
+                degraded = true;
+                codeFilter.suspend();
+                log.warn("Barramento de invalidação sem entregas há {} ms; caches locais desligados até voltar", staleness);
+            }
+            // Enquanto o barramento estiver fora, nada fica no cache mais que um intervalo de verificação
+            redirectCache.clear();
+            dedupCache.clear();
+            resets.increment();
+        } else if (degraded) {
+            degraded = false;
+            log.info("Barramento de invalidação de volta; recarregando o filtro de códigos");
+            try {
+                codeFilter.rebuild();
+            } catch (IllegalStateException e) {
+                // Reconstrução já em andamento: ela mesma reativa o filtro
+            }
+        }
+    }
+
+    public boolean isDegraded() { return degraded; }
+
+    public double getStalenessSeconds() {
+        return bus.getStalenessMillis() / 1000.0;
+    }
+}
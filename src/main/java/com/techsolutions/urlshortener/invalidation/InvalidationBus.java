@@ -0,0 +1,35 @@
+package com.techsolutions.urlshortener.invalidation;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Canal entre as instâncias da aplicação para manter os caches locais coerentes
+ * (app.invalidation.bus):
+ *
+ * - loopback: entre contextos Spring da mesma JVM (uma instância só, ou testes com várias);
+ * - jdbc: tabela url_change_log no banco compartilhado, lida periodicamente por cada instância.
+ *
+ * Os eventos vão só para as OUTRAS instâncias: quem publica já atualizou o próprio cache.
+ */
+public interface InvalidationBus {
+
+    /**
+     * Publica os eventos. Dentro de uma transação, as outras instâncias só os recebem
+     * depois do commit (a mudança já está visível no banco quando o cache é limpo).
+     */
+    void publish(List<UrlChangeEvent> events);
+
+    /**
+     * Registra quem aplica os eventos recebidos nesta instância.
+     */
+    void subscribe(Consumer<UrlChangeEvent> listener);
+
+    /**
+     * Há quanto tempo (ms) esta instância pode estar sem receber eventos já publicados.
+     * 0 para entregas imediatas; no jdbc, o tempo desde a última leitura bem-sucedida.
+     */
+    long getStalenessMillis();
+
+    String getName();
+}
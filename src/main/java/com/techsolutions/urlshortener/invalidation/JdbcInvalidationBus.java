@@ -0,0 +1,258 @@
+package com.techsolutions.urlshortener.invalidation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Barramento pelo banco compartilhado (change log), sem broker externo.
+ *
+ * Publicar = INSERT em url_change_log, na mesma transação da mudança: o evento existe
+ * se e somente se a mudança foi confirmada. Cada instância lê a tabela a cada
+ * poll-interval-ms a partir do último id visto e aplica os eventos das outras instâncias.
+ *
+ * Ids de IDENTITY não são confirmados em ordem: uma transação mais lenta pode gravar
+ * um id menor que o último já lido. Por isso cada id pulado pelo cursor vira um buraco,
+ * relido a cada leitura durante reread-window-ms (o tempo máximo esperado entre o INSERT
+ * e o commit). Buraco que não aparece nesse tempo é dado como pulado (rollback ou salto
+ * da sequência) e registrado no log.
+ */
+@Component
+@ConditionalOnProperty(name = "app.invalidation.bus", havingValue = "jdbc")
+public class JdbcInvalidationBus implements InvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(JdbcInvalidationBus.class);
+
+    private static final String SELECT_COLUMNS =
+        "SELECT id, event_type, short_code, url_hash, origin_node, published_at FROM url_change_log ";
+
+    private static final String INSERT_SQL =
+        "INSERT INTO url_change_log (event_type, short_code, url_hash, origin_node, published_at) VALUES (?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String nodeId;
+    private final int batchSize;
+    private final long retentionMillis;
+    private final long rereadWindowMillis;
+
+    private final List<Consumer<UrlChangeEvent>> listeners = new CopyOnWriteArrayList<>();
+
+    // Um poll por vez; cursor e gaps só são usados com o lock
+    private final ReentrantLock pollLock = new ReentrantLock();
+    private long cursor = -1;
+    private boolean anchored;
+    private final Deque<Gap> gaps = new ArrayDeque<>();
+
+    private final LongAdder lateEvents = new LongAdder();
+    private final LongAdder skippedIds = new LongAdder();
+
+    private volatile long lastPollAt = System.currentTimeMillis();
+
+    public JdbcInvalidationBus(@Value("${app.invalidation.node-id:}") String nodeId,
+                               @Value("${app.invalidation.batch-size:1000}") int batchSize,
+                               @Value("${app.invalidation.retention-seconds:3600}") long retentionSeconds,
+                               @Value("${app.invalidation.reread-window-ms:30000}") long rereadWindowMillis) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("app.invalidation.batch-size deve ser maior que zero");
+        }
+        if (rereadWindowMillis < 0 || rereadWindowMillis >= retentionSeconds * 1000) {
+            throw new IllegalArgumentException(
+                "app.invalidation.reread-window-ms deve ficar entre zero e retention-seconds");
+        }
+        this.nodeId = nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+        this.batchSize = batchSize;
+        this.retentionMillis = retentionSeconds * 1000;
+        this.rereadWindowMillis = rereadWindowMillis;
+    }
+
+    @Override
+    public void publish(List<UrlChangeEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        // Usa a transação atual, se houver (JpaTransactionManager expõe a conexão ao JdbcTemplate)
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (ps, event) -> {
+            ps.setString(1, event.getType().name());
+            ps.setString(2, event.getShortCode());
+            if (event.getUrlHash() != null) {
+                ps.setLong(3, event.getUrlHash());
+            } else {
+                ps.setNull(3, Types.BIGINT);
+            }
+            ps.setString(4, nodeId);
+            ps.setTimestamp(5, new Timestamp(event.getPublishedAt()));
+        });
+    }
+
+    @Override
+    public void subscribe(Consumer<UrlChangeEvent> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public long getStalenessMillis() {
+        return Math.max(0, System.currentTimeMillis() - lastPollAt);
+    }
+
+    @Override
+    public String getName() {
+        return "jdbc";
+    }
+
+    public String getNodeId() { return nodeId; }
+
+    // Eventos entregues pela releitura (confirmados depois de um id maior)
+    public long getLateEvents() { return lateEvents.sum(); }
+
+    // Ids que não apareceram dentro da janela de releitura
+    public long getSkippedIds() { return skippedIds.sum(); }
+
+    // ------------------------------------------------------------
+    // LEITURA PERIÓDICA
+    // ------------------------------------------------------------
+
+    @Scheduled(fixedDelayString = "${app.invalidation.poll-interval-ms:500}")
+    public void poll() {
+        if (!pollLock.tryLock()) {
+            return;
+        }
+        try {
+            long started = System.currentTimeMillis();
+            pollLocked();
+            lastPollAt = started;
+        } catch (DataAccessException e) {
+            log.warn("Falha ao ler url_change_log; nova tentativa na próxima rodada", e);
+        } finally {
+            pollLock.unlock();
+        }
+    }
+
+    private void pollLocked() {
+        if (cursor < 0) {
+            // Primeira leitura: eventos anteriores não importam (o cache desta instância começou vazio),
+            // exceto os da janela de releitura, que podem ter vindo de transações ainda abertas
+            Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM url_change_log WHERE published_at < ?",
+                Long.class, new Timestamp(System.currentTimeMillis() - rereadWindowMillis));
+            cursor = max == null ? 0 : max;
+            // Sem evento anterior o primeiro id lido não tem referência: não abre buraco
+            anchored = max != null;
+        }
+
+        long now = System.currentTimeMillis();
+
+        // 1) Buracos abertos: eventos confirmados depois de um id maior já lido
+        for (Gap gap : gaps) {
+            for (Row row : read("WHERE id BETWEEN ? AND ? ORDER BY id", gap.from, gap.to)) {
+                if (gap.found.add(row.id())) {
+                    lateEvents.increment();
+                    deliver(row);
+                }
+            }
+        }
+
+        // 2) Eventos novos; cada salto de id abre um buraco
+        while (true) {
+            List<Row> rows = read("WHERE id > ? ORDER BY id LIMIT ?", cursor, batchSize);
+            for (Row row : rows) {
+                if (anchored && row.id() > cursor + 1) {
+                    gaps.addLast(new Gap(cursor + 1, row.id() - 1, now));
+                }
+                cursor = row.id();
+                anchored = true;
+                deliver(row);
+            }
+
+            // Lote cheio: ainda pode haver mais eventos novos
+            if (rows.size() < batchSize) {
+                break;
+            }
+        }
+
+        // 3) Fim da janela: o que não apareceu é dado como pulado
+        while (!gaps.isEmpty() && (gaps.peekFirst().isFilled() || gaps.peekFirst().openedAt < now - rereadWindowMillis)) {
+            Gap gap = gaps.pollFirst();
+            long missing = gap.size() - gap.found.size();
+            if (missing > 0) {
+                skippedIds.add(missing);
+                log.info("Ids {}..{} de url_change_log: {} não apareceram em {} ms e foram pulados " +
+                    "(rollback ou salto da sequência)", gap.from, gap.to, missing, rereadWindowMillis);
+            }
+        }
+    }
+
+    private List<Row> read(String where, Object... args) {
+        return jdbcTemplate.query(SELECT_COLUMNS + where, (rs, n) -> new Row(
+            rs.getLong("id"),
+            rs.getString("origin_node"),
+            new UrlChangeEvent(
+                UrlChangeEvent.Type.valueOf(rs.getString("event_type")),
+                rs.getString("short_code"),
+                rs.getObject("url_hash", Long.class),
+                rs.getTimestamp("published_at").getTime())
+        ), args);
+    }
+
+    private void deliver(Row row) {
+        if (!nodeId.equals(row.originNode())) {
+            listeners.forEach(listener -> listener.accept(row.event()));
+        }
+    }
+
+    /**
+     * Apaga os eventos mais antigos que retention-seconds (todas as instâncias já leram).
+     */
+    @Scheduled(fixedDelayString = "${app.invalidation.cleanup-interval-ms:60000}")
+    public void cleanup() {
+        try {
+            jdbcTemplate.update("DELETE FROM url_change_log WHERE published_at < ?",
+                new Timestamp(System.currentTimeMillis() - retentionMillis));
+        } catch (DataAccessException e) {
+            log.warn("Falha ao limpar url_change_log", e);
+        }
+    }
+
+    private record Row(long id, String originNode, UrlChangeEvent event) { }
+
+    // Ids [from, to] pulados pelo cursor, ainda esperando o commit (found: os que já apareceram)
+    private static final class Gap {
+        final long from;
+        final long to;
+        final long openedAt;
+        final Set<Long> found = new HashSet<>();
+
+        Gap(long from, long to, long openedAt) {
+            this.from = from;
+            this.to = to;
+            this.openedAt = openedAt;
+        }
+
+        long size() {
+            return to - from + 1;
+        }
+
+        boolean isFilled() {
+            return found.size() == size();
+        }
+    }
+}
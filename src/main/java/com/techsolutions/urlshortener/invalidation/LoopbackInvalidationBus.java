@@ -0,0 +1,79 @@
+package com.techsolutions.urlshortener.invalidation;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Barramento dentro da JVM: entrega os eventos, na própria thread de quem publica,
+ * a todos os outros contextos da aplicação que estão rodando na mesma JVM.
+ * Com uma instância só não entrega nada (não há outros caches); serve para testar
+ * a coerência com vários contextos sem broker externo.
+ */
+@Component
+@ConditionalOnProperty(name = "app.invalidation.bus", havingValue = "loopback", matchIfMissing = true)
+public class LoopbackInvalidationBus implements InvalidationBus {
+
+    // Todos os barramentos "loopback" vivos nesta JVM
+    private static final List<LoopbackInvalidationBus> NODES = new CopyOnWriteArrayList<>();
+
+    private final List<Consumer<UrlChangeEvent>> listeners = new CopyOnWriteArrayList<>();
+
+    public LoopbackInvalidationBus() {
+        NODES.add(this);
+    }
+
+    @PreDestroy
+    public void close() {
+        NODES.remove(this);
+    }
+
+    @Override
+    public void publish(List<UrlChangeEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deliverToOthers(events);
+                }
+            });
+        } else {
+            deliverToOthers(events);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<UrlChangeEvent> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public long getStalenessMillis() {
+        return 0;
+    }
+
+    @Override
+    public String getName() {
+        return "loopback";
+    }
+
+    private void deliverToOthers(List<UrlChangeEvent> events) {
+        for (LoopbackInvalidationBus node : NODES) {
+            if (node != this) {
+                for (UrlChangeEvent event : events) {
+                    node.listeners.forEach(listener -> listener.accept(event));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.techsolutions.urlshortener.invalidation;
+
+/**
+ * Mudança numa URL que os caches locais das outras instâncias precisam saber.
+ *
+ * CREATED: código novo (entra no filtro de Bloom; sai do cache se estava lá com outro dono).
+ * DEACTIVATED: código desativado (sai do cache de redirecionamento e da deduplicação).
+ */
+public final class UrlChangeEvent {
+
+    public enum Type { CREATED, DEACTIVATED }
+
+    private final Type type;
+    private final String shortCode;
+    private final Long urlHash;        // Só em DEACTIVATED (entrada da deduplicação); pode ser null
+    private final long publishedAt;    // Epoch em ms, no relógio de quem publicou
+
+    public UrlChangeEvent(Type type, String shortCode, Long urlHash, long publishedAt) {
+        this.type = type;
+        this.shortCode = shortCode;
+        this.urlHash = urlHash;
+        this.publishedAt = publishedAt;
+    }
+
+    public static UrlChangeEvent created(String shortCode) {
+        return new UrlChangeEvent(Type.CREATED, shortCode, null, System.currentTimeMillis());
+    }
+
+    public static UrlChangeEvent deactivated(String shortCode, Long urlHash) {
+        return new UrlChangeEvent(Type.DEACTIVATED, shortCode, urlHash, System.currentTimeMillis());
+    }
+
+    public Type getType() { return type; }
+
+    public String getShortCode() { return shortCode; }
+
+    public Long getUrlHash() { return urlHash; }
+
+    public long getPublishedAt() { return publishedAt; }
+}
@@ -0,0 +1,164 @@
+package com.techsolutions.urlshortener.metrics;
+
+import com.techsolutions.urlshortener.analytics.ClickAnalyticsService;
+import com.techsolutions.urlshortener.cache.DedupCache;
+import com.techsolutions.urlshortener.cache.RedirectCache;
+import com.techsolutions.urlshortener.cache.RedirectLoadCoalescer;
+import com.techsolutions.urlshortener.cache.ShortCodeFilter;
+import com.techsolutions.urlshortener.index.CodeIndexService;
+import com.techsolutions.urlshortener.invalidation.CacheCoherence;
+import com.techsolutions.urlshortener.ratelimit.RateLimitFilter;
+import com.techsolutions.urlshortener.ratelimit.RateLimiter;
+import com.techsolutions.urlshortener.service.ClickCountBuffer;
+import com.techsolutions.urlshortener.service.ExpiredUrlReaper;
+import com.techsolutions.urlshortener.tiering.LinkTieringService;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Publica no Micrometer os contadores que os componentes já mantêm (LongAdder):
+ * caches de redirecionamento (e consultas agrupadas nos misses) e de deduplicação, buffer de cliques, pipeline de analytics,
+ * filtro de códigos, limpeza de links expirados, limites de requisições, invalidação
+ * entre instâncias, índice mapeado de códigos e camadas quente/fria.
+ * Os valores são lidos na hora da coleta; nada muda no caminho das requisições.
+ */
+@Component
+public class ComponentMetrics implements MeterBinder {
+
+    private final RedirectCache redirectCache;
+    private final ClickCountBuffer clickCountBuffer;
+    private final ClickAnalyticsService analyticsService;
+    private final ShortCodeFilter codeFilter;
+    private final ExpiredUrlReaper reaper;
+    private final RateLimitFilter rateLimitFilter;
+    private final DedupCache dedupCache;
+    private final CacheCoherence cacheCoherence;
+    private final CodeIndexService codeIndexService;
+    private final RedirectLoadCoalescer loadCoalescer;
+    private final LinkTieringService tiering;
+
+    public ComponentMetrics(RedirectCache redirectCache, ClickCountBuffer clickCountBuffer,
+                            ClickAnalyticsService analyticsService, ShortCodeFilter codeFilter,
+                            ExpiredUrlReaper reaper, RateLimitFilter rateLimitFilter, DedupCache dedupCache,
+                            CacheCoherence cacheCoherence, CodeIndexService codeIndexService,
+                            RedirectLoadCoalescer loadCoalescer, LinkTieringService tiering) {
+        this.redirectCache = redirectCache;
+        this.clickCountBuffer = clickCountBuffer;
+        this.analyticsService = analyticsService;
+        this.codeFilter = codeFilter;
+        this.reaper = reaper;
+        this.rateLimitFilter = rateLimitFilter;
+        this.dedupCache = dedupCache;
+        this.cacheCoherence = cacheCoherence;
+        this.codeIndexService = codeIndexService;
+        this.loadCoalescer = loadCoalescer;
+        this.tiering = tiering;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        // Cache de redirecionamento
+        FunctionCounter.builder("urlshortener.cache.requests", redirectCache, RedirectCache::getHits)
+            .tag("result", "hit").register(registry);
+        FunctionCounter.builder("urlshortener.cache.requests", redirectCache, RedirectCache::getMisses)
+            .tag("result", "miss").register(registry);
+        FunctionCounter.builder("urlshortener.cache.removals", redirectCache, RedirectCache::getEvictions)
+            .tag("cause", "size").register(registry);
+        FunctionCounter.builder("urlshortener.cache.removals", redirectCache, RedirectCache::getExpirations)
+            .tag("cause", "expired").register(registry);
+        FunctionCounter.builder("urlshortener.cache.removals", redirectCache, RedirectCache::getInvalidations)
+            .tag("cause", "invalidated").register(registry);
+        Gauge.builder("urlshortener.cache.size", redirectCache, RedirectCache::size)
+            .register(registry);
+        FunctionCounter.builder("urlshortener.cache.loads.stale", redirectCache, RedirectCache::getStaleLoads)
+            .description("Leituras do banco descartadas por uma invalidação posterior")
+            .register(registry);
+
+        // Misses do cache: consultas ao banco e requisições que esperaram a consulta de outra
+        FunctionCounter.builder("urlshortener.cache.loads", loadCoalescer, RedirectLoadCoalescer::getLoads)
+            .register(registry);
+        FunctionCounter.builder("urlshortener.cache.loads.coalesced", loadCoalescer, RedirectLoadCoalescer::getCoalesced)
+            .register(registry);
+        FunctionCounter.builder("urlshortener.cache.loads.timeouts", loadCoalescer, RedirectLoadCoalescer::getTimeouts)
+            .register(registry);
+        Gauge.builder("urlshortener.cache.loads.in.flight", loadCoalescer, RedirectLoadCoalescer::getInFlight)
+            .register(registry);
+
+        // Cache da deduplicação
+        FunctionCounter.builder("urlshortener.dedup.cache.requests", dedupCache, DedupCache::getHits)
+            .tag("result", "hit").register(registry);
+        FunctionCounter.builder("urlshortener.dedup.cache.requests", dedupCache, DedupCache::getMisses)
+            .tag("result", "miss").register(registry);
+
+        // Buffer de cliques
+        Gauge.builder("urlshortener.clicks.pending", clickCountBuffer, ClickCountBuffer::getTotalPending)
+            .register(registry);
+        FunctionCounter.builder("urlshortener.clicks.flushed", clickCountBuffer, ClickCountBuffer::getFlushedClicks)
+            .register(registry);
+
+        // Analytics
+        Gauge.builder("urlshortener.analytics.buffered", analyticsService, ClickAnalyticsService::getBufferedEvents)
+            .register(registry);
+        FunctionCounter.builder("urlshortener.analytics.events", analyticsService, ClickAnalyticsService::getAggregatedEvents)
+            .tag("result", "aggregated").register(registry);
+        FunctionCounter.builder("urlshortener.analytics.events", analyticsService, ClickAnalyticsService::getDroppedEvents)
+            .tag("result", "dropped").register(registry);
+
+        // Filtro de códigos
+        FunctionCounter.builder("urlshortener.bloom.rejected", codeFilter, ShortCodeFilter::getRejected)
+            .description("Buscas respondidas como inexistentes sem ir ao banco")
+            .register(registry);
+
+        // Limpeza de links expirados (linhas removidas: urlshortener.reaper.rows)
+        Gauge.builder("urlshortener.reaper.lag", reaper, ExpiredUrlReaper::getLagSeconds)
+            .description("Atraso do link expirado mais antigo ainda na tabela principal")
+            .baseUnit("seconds")
+            .register(registry);
+        Gauge.builder("urlshortener.reaper.throughput", reaper, ExpiredUrlReaper::getLastThroughput)
+            .description("Linhas removidas por segundo na última execução")
+            .baseUnit("rows.per.second")
+            .register(registry);
+
+        // Limites de requisições, por endpoint
+        for (RateLimiter limiter : rateLimitFilter.getLimiters()) {
+            FunctionCounter.builder("urlshortener.ratelimit.requests", limiter, RateLimiter::getAllowed)
+                .tags("endpoint", limiter.getName(), "result", "allowed").register(registry);
+            FunctionCounter.builder("urlshortener.ratelimit.requests", limiter, RateLimiter::getRejected)
+                .tags("endpoint", limiter.getName(), "result", "rejected").register(registry);
+            Gauge.builder("urlshortener.ratelimit.clients", limiter, RateLimiter::getClients)
+                .tag("endpoint", limiter.getName()).register(registry);
+        }
+
+        // Invalidação entre instâncias (eventos e atraso: urlshortener.invalidation.*)
+        Gauge.builder("urlshortener.invalidation.staleness", cacheCoherence, CacheCoherence::getStalenessSeconds)
+            .description("Tempo desde a última leitura bem-sucedida do barramento de invalidação")
+            .baseUnit("seconds")
+            .register(registry);
+
+        // Índice mapeado de códigos (montagem: urlshortener.index.build)
+        Gauge.builder("urlshortener.index.generation", codeIndexService, CodeIndexService::getGeneration)
+            .description("Geração do índice em uso (0 = nenhuma)")
+            .register(registry);
+        Gauge.builder("urlshortener.index.entries", codeIndexService, CodeIndexService::getEntryCount)
+            .description("Códigos na geração em uso")
+            .register(registry);
+        Gauge.builder("urlshortener.index.age", codeIndexService, CodeIndexService::getAgeSeconds)
+            .description("Tempo desde o início da leitura do banco da geração em uso")
+            .baseUnit("seconds")
+            .register(registry);
+
+        // Camadas quente/fria (execuções: urlshortener.tiering.run)
+        FunctionCounter.builder("urlshortener.tiering.moved", tiering, LinkTieringService::getDemoted)
+            .tag("direction", "demoted").register(registry);
+        FunctionCounter.builder("urlshortener.tiering.moved", tiering, LinkTieringService::getPromoted)
+            .tag("direction", "promoted").register(registry);
+        FunctionCounter.builder("urlshortener.tiering.cold.hits", tiering, LinkTieringService::getColdHits)
+            .description("Misses do cache respondidos pela camada fria")
+            .register(registry);
+    }
+}
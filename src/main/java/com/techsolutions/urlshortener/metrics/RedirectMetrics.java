@@ -0,0 +1,74 @@
+package com.techsolutions.urlshortener.metrics;
+
+import com.techsolutions.urlshortener.service.LookupResult;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métricas dos caminhos de redirecionamento e criação.
+ *
+ * Tags só com valores de um conjunto fechado (resultado, tipo, desfecho): o shortCode
+ * nunca vira tag, senão cada código criaria uma série nova no Prometheus.
+ * Os timers do redirecionamento são criados uma vez e guardados por resultado,
+ * para não procurar o meter no registry a cada requisição.
+ */
+@Component
+public class RedirectMetrics {
+
+    // Desfechos da criação
+    public static final String SUCCESS = "success";
+    public static final String CONFLICT = "conflict";
+    public static final String INVALID = "invalid";
+    public static final String ERROR = "error";
+    public static final String DEDUPLICATED = "deduplicated";
+
+    private final MeterRegistry registry;
+    private final Map<LookupResult.Status, Timer> lookupTimers = new EnumMap<>(LookupResult.Status.class);
+    private final DistributionSummary codeAttempts;
+
+    public RedirectMetrics(MeterRegistry registry) {
+        this.registry = registry;
+
+        for (LookupResult.Status status : LookupResult.Status.values()) {
+            lookupTimers.put(status, Timer.builder("urlshortener.lookup")
+                .description("Busca de um código para redirecionamento")
+                .tag("result", status.name().toLowerCase(Locale.ROOT))
+                .register(registry));
+        }
+
+        this.codeAttempts = DistributionSummary.builder("urlshortener.create.code.attempts")
+            .description("Códigos gerados até o INSERT ser aceito, por URL criada")
+            .serviceLevelObjectives(1, 2, 3)
+            .register(registry);
+    }
+
+    public void recordLookup(LookupResult.Status status, long nanos) {
+        lookupTimers.get(status).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param type "custom" ou "generated"
+     * @param outcome SUCCESS, DEDUPLICATED, CONFLICT, INVALID ou ERROR
+     */
+    public void recordCreate(String type, String outcome, long nanos) {
+        Timer.builder("urlshortener.create")
+            .description("Criação de uma URL encurtada")
+            .tag("type", type)
+            .tag("outcome", outcome)
+            .register(registry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordCodeAttempts(int attempts) {
+        codeAttempts.record(attempts);
+    }
+}
@@ -0,0 +1,83 @@
+package com.techsolutions.urlshortener.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// URL expirada ou desativada, retirada de shortened_urls pelo ExpiredUrlReaper.
+// Mantém as mesmas colunas (e o mesmo id) para consulta/auditoria; a tabela principal
+// fica só com os links que ainda redirecionam.
+// Gravada e lida só em JDBC: a entidade existe para o ddl-auto (no perfil "prod" vem do Flyway).
+@Entity
+@Table(
+    name = "shortened_urls_archive",
+    indexes = @Index(name = "idx_shortened_urls_archive_short_code", columnList = "short_code")
+)
+public class ArchivedUrl {
+
+    // Mesmo id que tinha em shortened_urls
+    @Id
+    private Long id;
+
+    // Sem UNIQUE: um código personalizado pode ser reutilizado depois de arquivado
+    @Column(name = "short_code", nullable = false, length = 10)
+    private String shortCode;
+
+    @Column(name = "code_key")
+    private Long codeKey;
+
+    @Column(name = "original_url", nullable = false, columnDefinition = "TEXT")
+    private String originalUrl;
+
+    @Column(name = "click_count")
+    private Long clickCount;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+
+    @Column(name = "is_active")
+    private Boolean isActive;
+
+    // Quando saiu da tabela principal
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    // EXPIRED ou INACTIVE
+    @Column(name = "reason", nullable = false, length = 8)
+    private String reason;
+
+    public ArchivedUrl() {
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getShortCode() { return shortCode; }
+    public void setShortCode(String shortCode) { this.shortCode = shortCode; }
+
+    public Long getCodeKey() { return codeKey; }
+    public void setCodeKey(Long codeKey) { this.codeKey = codeKey; }
+
+    public String getOriginalUrl() { return originalUrl; }
+    public void setOriginalUrl(String originalUrl) { this.originalUrl = originalUrl; }
+
+    public Long getClickCount() { return clickCount; }
+    public void setClickCount(Long clickCount) { this.clickCount = clickCount; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+
+    public Boolean getIsActive() { return isActive; }
+    public void setIsActive(Boolean isActive) { this.isActive = isActive; }
+
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+    public void setArchivedAt(LocalDateTime archivedAt) { this.archivedAt = archivedAt; }
+
+    public String getReason() { return reason; }
+    public void setReason(String reason) { this.reason = reason; }
+}
@@ -0,0 +1,60 @@
+package com.techsolutions.urlshortener.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Cliques por dia de uma URL quebrados por uma dimensão (REFERRER ou REGION).
+// Ex: ("abc123", 2026-01-21, REFERRER, "www.google.com") → 42 cliques
+@Entity
+@Table(
+    name = "click_dimension_rollups",
+    uniqueConstraints = @UniqueConstraint(
+        name = "uk_click_dimension_rollups_value",
+        columnNames = { "short_code", "bucket_start", "dimension", "dimension_value" }
+    )
+)
+public class ClickDimensionRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "short_code", nullable = false, length = 10)
+    private String shortCode;
+
+    // Início do dia
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    // REFERRER ou REGION
+    @Column(name = "dimension", nullable = false, length = 10)
+    private String dimension;
+
+    // Host do referrer ou região do IP
+    @Column(name = "dimension_value", nullable = false, length = 255)
+    private String dimensionValue;
+
+    @Column(name = "clicks", nullable = false)
+    private Long clicks = 0L;
+
+    public ClickDimensionRollup() {
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getShortCode() { return shortCode; }
+    public void setShortCode(String shortCode) { this.shortCode = shortCode; }
+
+    public LocalDateTime getBucketStart() { return bucketStart; }
+    public void setBucketStart(LocalDateTime bucketStart) { this.bucketStart = bucketStart; }
+
+    public String getDimension() { return dimension; }
+    public void setDimension(String dimension) { this.dimension = dimension; }
+
+    public String getDimensionValue() { return dimensionValue; }
+    public void setDimensionValue(String dimensionValue) { this.dimensionValue = dimensionValue; }
+
+    public Long getClicks() { return clicks; }
+    public void setClicks(Long clicks) { this.clicks = clicks; }
+}
@@ -0,0 +1,74 @@
+package com.techsolutions.urlshortener.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Total de cliques de uma URL em um intervalo de tempo (minuto, hora ou dia).
+// Preenchida pelo agregador de analytics (ClickAnalyticsService), nunca na requisição.
+@Entity
+@Table(
+    name = "click_rollups",
+    uniqueConstraints = @UniqueConstraint(
+        name = "uk_click_rollups_bucket",
+        columnNames = { "short_code", "granularity", "bucket_start" }
+    ),
+    // Retenção dos totais por minuto (ClickAnalyticsService.purge)
+    indexes = @Index(name = "idx_click_rollups_granularity_bucket", columnList = "granularity, bucket_start")
+)
+public class ClickRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "short_code", nullable = false, length = 10)
+    private String shortCode;
+
+    // MINUTE, HOUR ou DAY
+    @Column(name = "granularity", nullable = false, length = 6)
+    private String granularity;
+
+    // Início do intervalo (ex: 2026-01-21T18:00 para a hora 18h)
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    // Total de cliques e quebra por tipo de User-Agent
+    @Column(name = "clicks", nullable = false)
+    private Long clicks = 0L;
+
+    @Column(name = "bot_clicks", nullable = false)
+    private Long botClicks = 0L;
+
+    @Column(name = "mobile_clicks", nullable = false)
+    private Long mobileClicks = 0L;
+
+    @Column(name = "desktop_clicks", nullable = false)
+    private Long desktopClicks = 0L;
+
+    public ClickRollup() {
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getShortCode() { return shortCode; }
+    public void setShortCode(String shortCode) { this.shortCode = shortCode; }
+
+    public String getGranularity() { return granularity; }
+    public void setGranularity(String granularity) { this.granularity = granularity; }
+
+    public LocalDateTime getBucketStart() { return bucketStart; }
+    public void setBucketStart(LocalDateTime bucketStart) { this.bucketStart = bucketStart; }
+
+    public Long getClicks() { return clicks; }
+    public void setClicks(Long clicks) { this.clicks = clicks; }
+
+    public Long getBotClicks() { return botClicks; }
+    public void setBotClicks(Long botClicks) { this.botClicks = botClicks; }
+
+    public Long getMobileClicks() { return mobileClicks; }
+    public void setMobileClicks(Long mobileClicks) { this.mobileClicks = mobileClicks; }
+
+    public Long getDesktopClicks() { return desktopClicks; }
+    public void setDesktopClicks(Long desktopClicks) { this.desktopClicks = desktopClicks; }
+}
@@ -0,0 +1,34 @@
+package com.techsolutions.urlshortener.model;
+
+import jakarta.persistence.*;
+
+// Tabela com o próximo valor livre de cada sequência de códigos curtos.
+// Cada instância da aplicação reserva blocos desta sequência (ver SequenceShortCodeAllocator),
+// então instâncias diferentes nunca recebem o mesmo número.
+@Entity
+@Table(name = "short_code_sequences")
+public class CodeSequence {
+
+    // Nome da sequência (ex: "short_code")
+    @Id
+    @Column(name = "name", length = 50)
+    private String name;
+
+    // Primeiro valor ainda não reservado por nenhuma instância
+    @Column(name = "next_value", nullable = false)
+    private Long nextValue = 0L;
+
+    public CodeSequence() {
+    }
+
+    public CodeSequence(String name, Long nextValue) {
+        this.name = name;
+        this.nextValue = nextValue;
+    }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public Long getNextValue() { return nextValue; }
+    public void setNextValue(Long nextValue) { this.nextValue = nextValue; }
+}
@@ -0,0 +1,73 @@
+package com.techsolutions.urlshortener.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Link ativo e sem expiração que ficou sem acessos, movido de shortened_urls pelo LinkTieringService.
+// Continua redirecionando (o redirecionamento consulta esta tabela quando não acha o código na principal)
+// e volta para a principal se voltar a ser acessado.
+// Compacta: sem expires_at/is_active (sempre NULL/TRUE aqui) e sem os índices de consulta da principal
+// (só o de url_hash, para a deduplicação).
+// Gravada e lida só em JDBC: a entidade existe para o ddl-auto (no perfil "prod" vem do Flyway).
+@Entity
+@Table(
+    name = "shortened_urls_cold",
+    uniqueConstraints = @UniqueConstraint(name = "uk_shortened_urls_cold_short_code", columnNames = "short_code"),
+    indexes = @Index(name = "idx_shortened_urls_cold_url_hash", columnList = "url_hash")
+)
+public class ColdUrl {
+
+    // Mesmo id que tinha em shortened_urls
+    @Id
+    private Long id;
+
+    // UNIQUE: o código continua em uso enquanto estiver aqui
+    @Column(name = "short_code", nullable = false, length = 10)
+    private String shortCode;
+
+    @Column(name = "code_key")
+    private Long codeKey;
+
+    @Column(name = "original_url", nullable = false, columnDefinition = "TEXT")
+    private String originalUrl;
+
+    @Column(name = "click_count")
+    private Long clickCount;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "url_hash")
+    private Long urlHash;
+
+    // Quando saiu da tabela principal
+    @Column(name = "demoted_at", nullable = false)
+    private LocalDateTime demotedAt;
+
+    public ColdUrl() {
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getShortCode() { return shortCode; }
+    public void setShortCode(String shortCode) { this.shortCode = shortCode; }
+
+    public Long getCodeKey() { return codeKey; }
+    public void setCodeKey(Long codeKey) { this.codeKey = codeKey; }
+
+    public String getOriginalUrl() { return originalUrl; }
+    public void setOriginalUrl(String originalUrl) { this.originalUrl = originalUrl; }
+
+    public Long getClickCount() { return clickCount; }
+    public void setClickCount(Long clickCount) { this.clickCount = clickCount; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public Long getUrlHash() { return urlHash; }
+    public void setUrlHash(Long urlHash) { this.urlHash = urlHash; }
+
+    public LocalDateTime getDemotedAt() { return demotedAt; }
+    public void setDemotedAt(LocalDateTime demotedAt) { this.demotedAt = demotedAt; }
+}
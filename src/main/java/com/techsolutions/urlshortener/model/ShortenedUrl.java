@@ -3,7 +3,9 @@
 package com.techsolutions.urlshortener.model;
 
 // Importações necessárias
+import com.techsolutions.urlshortener.util.ShortCodeGenerator;
 import jakarta.persistence.*;       // Anotações do JPA para banco de dados
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDateTime;    // Para trabalhar com datas/horas
 
 // @Entity → Marca esta classe como uma ENTIDADE JPA
@@ -12,31 +14,52 @@ import java.time.LocalDateTime;    // Para trabalhar com datas/horas
 
 // @Table → Especifica o nome da tabela no banco
 // Se não especificar, usaria o nome da classe (ShortenedUrl)
-@Table(name = "shortened_urls")
+// indexes → url_hash é consultado na deduplicação (mesma URL encurtada de novo)
+@Table(
+    name = "shortened_urls",
+    indexes = @Index(name = "idx_shortened_urls_url_hash", columnList = "url_hash")
+)
 public class ShortenedUrl {
     
     // @Id → Marca este campo como CHAVE PRIMÁRIA da tabela
     // Cada registro terá um ID único
     @Id
     
-    // @GeneratedValue → Faz o banco gerar o ID automaticamente
-    // IDENTITY = usa auto-incremento (1, 2, 3, ...)
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // @GeneratedValue → Gera o ID automaticamente
+    // SEQUENCE = usa uma sequência do banco, reservando 50 IDs por consulta (allocationSize).
+    // Com IDENTITY o Hibernate precisa fazer cada INSERT na hora para descobrir o ID,
+    // o que impede gravar vários registros num único lote JDBC (criação em lote)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "shortened_urls_seq")
+    @SequenceGenerator(name = "shortened_urls_seq", sequenceName = "shortened_urls_seq", allocationSize = 50)
     private Long id;  // Ex: 1, 2, 3...
     
     // @Column → Configura como este campo será na tabela
     // short_code = nome da coluna
     // nullable = false → NÃO pode ser vazio (NOT NULL)
     // unique = true → Cada código deve ser único (não pode repetir)
-    // length = 6 → Máximo 6 caracteres (ex: "abc123")
-    @Column(name = "short_code", nullable = false, unique = true, length = 6)
+    // length = 10 → Máximo 10 caracteres (ex: "abc123"); os códigos gerados começam com 6
+    // e crescem quando todos os códigos de 6 caracteres já foram usados
+    @Column(name = "short_code", nullable = false, unique = true, length = 10)
     private String shortCode;  // Ex: "abc123"
     
+    // code_key = o código curto convertido em número (ShortCodeGenerator.toKey)
+    // O redirecionamento busca por esta coluna: índice BIGINT (8 bytes) em vez de VARCHAR.
+    // Todo código válido de até 10 caracteres tem uma chave única; fica null só em
+    // registros antigos ainda não preenchidos (ver CodeKeyBackfill)
+    @Column(name = "code_key", unique = true)
+    private Long codeKey;  // Ex: toKey("abc123")
+    
     // original_url = URL longa que o usuário quer encurtar
     // columnDefinition = "TEXT" → Tipo TEXT no banco (para URLs longas)
     @Column(name = "original_url", nullable = false, columnDefinition = "TEXT")
     private String originalUrl;  // Ex: "https://www.google.com/search?q=..."
     
+    // url_hash = hash de 64 bits da URL original normalizada (UrlNormalizer)
+    // Preenchido na criação; a deduplicação busca por ele e confirma comparando as URLs.
+    // Fica null em registros gravados antes da coluna existir
+    @Column(name = "url_hash")
+    private Long urlHash;
+    
     // click_count = Quantas vezes a URL foi acessada
     // Inicia com 0 por padrão
     @Column(name = "click_count")
@@ -56,6 +79,18 @@ public class ShortenedUrl {
     @Column(name = "is_active")
     private Boolean isActive = true;  // true = ativa, false = inativa
     
+    // row_version = Versão da linha, incrementada a cada alteração (desativação, gravação de cliques)
+    // A API de URLs deriva dela o ETag (304 Not Modified sem ler a linha inteira).
+    // Não é @Version: as alterações são UPDATEs diretos, que incrementam a coluna no próprio SQL
+    @ColumnDefault("0")
+    @Column(name = "row_version", nullable = false)
+    private Long rowVersion = 0L;  // Ex: 0, 1, 2, ...
+    
+    // updated_at = Data/hora da última alteração (Last-Modified da API)
+    // null = nunca alterada desde a criação
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
     // ------------------------------------------------------------
     // CONSTRUTORES
     // ------------------------------------------------------------
@@ -69,7 +104,7 @@ public class ShortenedUrl {
     // Construtor com parâmetros → Para criar URLs facilmente
     // Ex: new ShortenedUrl("abc123", "https://google.com")
     public ShortenedUrl(String shortCode, String originalUrl) {
-        this.shortCode = shortCode;
+        setShortCode(shortCode);
         this.originalUrl = originalUrl;
         this.createdAt = LocalDateTime.now();  // Data atual
         this.clickCount = 0L;                  // Começa com 0 cliques
@@ -103,12 +138,24 @@ public class ShortenedUrl {
     
     // Getter/Setter do código curto
     public String getShortCode() { return shortCode; }
-    public void setShortCode(String shortCode) { this.shortCode = shortCode; }
+    public void setShortCode(String shortCode) {
+        this.shortCode = shortCode;
+        long key = ShortCodeGenerator.toKey(shortCode);
+        this.codeKey = key >= 0 ? key : null;  // A chave acompanha sempre o código
+    }
+    
+    // Getter/Setter da chave numérica do código
+    public Long getCodeKey() { return codeKey; }
+    public void setCodeKey(Long codeKey) { this.codeKey = codeKey; }
     
     // Getter/Setter da URL original
     public String getOriginalUrl() { return originalUrl; }
     public void setOriginalUrl(String originalUrl) { this.originalUrl = originalUrl; }
     
+    // Getter/Setter do hash da URL normalizada
+    public Long getUrlHash() { return urlHash; }
+    public void setUrlHash(Long urlHash) { this.urlHash = urlHash; }
+    
     // Getter/Setter do contador de cliques
     public Long getClickCount() { return clickCount; }
     public void setClickCount(Long clickCount) { this.clickCount = clickCount; }
@@ -124,4 +171,12 @@ public class ShortenedUrl {
     // Getter/Setter do status ativo/inativo
     public Boolean getIsActive() { return isActive; }
     public void setIsActive(Boolean isActive) { this.isActive = isActive; }
+    
+    // Getter/Setter da versão da linha
+    public Long getRowVersion() { return rowVersion; }
+    public void setRowVersion(Long rowVersion) { this.rowVersion = rowVersion; }
+    
+    // Getter/Setter da data da última alteração
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
 }
\ No newline at end of file
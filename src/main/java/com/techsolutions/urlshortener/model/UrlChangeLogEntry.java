@@ -0,0 +1,48 @@
+package com.techsolutions.urlshortener.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Evento de invalidação (código criado/desativado) publicado pelo JdbcInvalidationBus.
+// Lido por id pelas outras instâncias e apagado depois de app.invalidation.retention-seconds.
+// Gravada e lida só em JDBC: a entidade existe para o ddl-auto (no perfil "prod" vem do Flyway).
+@Entity
+@Table(
+    name = "url_change_log",
+    indexes = @Index(name = "idx_url_change_log_published_at", columnList = "published_at")
+)
+public class UrlChangeLogEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // CREATED | DEACTIVATED
+    @Column(name = "event_type", nullable = false, length = 12)
+    private String eventType;
+
+    @Column(name = "short_code", nullable = false, length = 10)
+    private String shortCode;
+
+    @Column(name = "url_hash")
+    private Long urlHash;
+
+    // Instância que publicou (ela mesma ignora o evento)
+    @Column(name = "origin_node", nullable = false, length = 36)
+    private String originNode;
+
+    @Column(name = "published_at", nullable = false)
+    private LocalDateTime publishedAt;
+
+    public Long getId() { return id; }
+
+    public String getEventType() { return eventType; }
+
+    public String getShortCode() { return shortCode; }
+
+    public Long getUrlHash() { return urlHash; }
+
+    public String getOriginNode() { return originNode; }
+
+    public LocalDateTime getPublishedAt() { return publishedAt; }
+}
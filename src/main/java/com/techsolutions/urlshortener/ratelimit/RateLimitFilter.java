@@ -0,0 +1,166 @@
+package com.techsolutions.urlshortener.ratelimit;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limita as requisições por cliente antes de chegarem ao UrlController e ao RedirectController.
+ * Cada endpoint tem o seu limite (app.rate-limit.*): criação, criação em lote, consultas
+ * da API e redirecionamento. Acima do limite responde 429 com Retry-After, sem tocar no banco.
+ *
+ * O cliente é a chave de API (cabeçalho app.rate-limit.api-key-header), se enviada, ou o IP.
+ * A chave não é validada aqui: quem trocar de chave a cada requisição ganha um balde novo,
+ * então o modo por chave só faz sentido atrás de um gateway que autentique as chaves.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    // Chaves de API maiores que isso são cortadas (memória por cliente limitada)
+    private static final int MAX_KEY_LENGTH = 64;
+
+    private final boolean enabled;
+    private final String apiKeyHeader;
+    private final boolean trustForwardedFor;
+
+    private final RateLimiter createLimiter;
+    private final RateLimiter batchLimiter;
+    private final RateLimiter queryLimiter;
+    private final RateLimiter redirectLimiter;
+
+    public RateLimitFilter(@Value("${app.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${app.rate-limit.api-key-header:X-API-Key}") String apiKeyHeader,
+                           @Value("${app.rate-limit.trust-forwarded-for:false}") boolean trustForwardedFor,
+                           @Value("${app.rate-limit.max-clients:1000000}") int maxClients,
+                           @Value("${app.rate-limit.create.capacity:20}") int createCapacity,
+                           @Value("${app.rate-limit.create.refill-per-second:5}") double createRefill,
+                           @Value("${app.rate-limit.batch.capacity:2}") int batchCapacity,
+                           @Value("${app.rate-limit.batch.refill-per-second:0.1}") double batchRefill,
+                           @Value("${app.rate-limit.query.capacity:50}") int queryCapacity,
+                           @Value("${app.rate-limit.query.refill-per-second:20}") double queryRefill,
+                           @Value("${app.rate-limit.redirect.capacity:200}") int redirectCapacity,
+                           @Value("${app.rate-limit.redirect.refill-per-second:100}") double redirectRefill) {
+        this.enabled = enabled;
+        this.apiKeyHeader = apiKeyHeader;
+        this.trustForwardedFor = trustForwardedFor;
+        this.createLimiter = new RateLimiter("create", createCapacity, createRefill, maxClients);
+        this.batchLimiter = new RateLimiter("batch", batchCapacity, batchRefill, maxClients);
+        this.queryLimiter = new RateLimiter("query", queryCapacity, queryRefill, maxClients);
+        this.redirectLimiter = new RateLimiter("redirect", redirectCapacity, redirectRefill, maxClients);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RateLimiter limiter = limiterFor(request);
+        if (limiter == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        long waitNanos = limiter.tryAcquire(clientOf(request));
+        if (waitNanos == 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        long retryAfter = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"Limite de requisições excedido\",\"retryAfterSeconds\":" + retryAfter + "}");
+    }
+
+    /**
+     * Remove periodicamente os baldes de clientes que pararam de fazer requisições.
+     */
+    @Scheduled(fixedDelayString = "${app.rate-limit.sweep-interval-ms:10000}")
+    public void evictIdleClients() {
+        for (RateLimiter limiter : getLimiters()) {
+            limiter.evictIdle();
+        }
+    }
+
+    public List<RateLimiter> getLimiters() {
+        return List.of(createLimiter, batchLimiter, queryLimiter, redirectLimiter);
+    }
+
+    // ------------------------------------------------------------
+    // MÉTODOS PRIVADOS
+    // ------------------------------------------------------------
+
+    /**
+     * Limite do endpoint, ou null para requisições sem limite (home, estáticos, admin, actuator).
+     */
+    private RateLimiter limiterFor(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String method = request.getMethod();
+
+        if (path.equals("/api/urls") || path.startsWith("/api/urls/")) {
+            if (method.equals("POST") && path.equals("/api/urls")) {
+                return createLimiter;
+            }
+            if (method.equals("POST") && path.equals("/api/urls/batch")) {
+                return batchLimiter;
+            }
+            return queryLimiter;
+        }
+
+        if (method.equals("GET") && isShortCodePath(path)) {
+            return redirectLimiter;
+        }
+        return null;
+    }
+
+    // Mesmo formato da rota do RedirectController: /{shortCode:[a-zA-Z0-9]+}
+    private static boolean isShortCodePath(String path) {
+        if (path.length() < 2 || path.charAt(0) != '/') {
+            return false;
+        }
+        for (int i = 1; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (!((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String clientOf(HttpServletRequest request) {
+        String apiKey = request.getHeader(apiKeyHeader);
+        if (apiKey != null && !apiKey.isBlank()) {
+            return "key:" + (apiKey.length() > MAX_KEY_LENGTH ? apiKey.substring(0, MAX_KEY_LENGTH) : apiKey);
+        }
+
+        if (trustForwardedFor) {
+            // Primeiro IP da lista = cliente original (só confiável atrás de um proxy que sobrescreve o cabeçalho)
+            String forwarded = request.getHeader("X-Forwarded-For");
+            if (forwarded != null && !forwarded.isBlank()) {
+                int comma = forwarded.indexOf(',');
+                return "ip:" + (comma < 0 ? forwarded : forwarded.substring(0, comma)).trim();
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,130 @@
+package com.techsolutions.urlshortener.ratelimit;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limite de requisições por cliente (IP ou chave de API) de um endpoint:
+ * até "capacity" requisições seguidas, repostas a "refillPerSecond" por segundo.
+ *
+ * Os baldes ficam num ConcurrentHashMap (leitura sem lock, escrita travando só o bin)
+ * e o consumo é um CAS no balde (TokenBucket). Baldes cheios são removidos por evictIdle():
+ * um balde cheio equivale a um novo, então a remoção não altera nenhum limite e a memória
+ * só guarda os clientes ativos. Acima de maxClients, os clientes novos dividem um balde
+ * de transbordo até a próxima limpeza.
+ */
+public class RateLimiter {
+
+    // Intervalo mínimo entre limpezas disparadas pelo mapa cheio
+    private static final long FULL_SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final String name;
+    private final int capacity;
+    private final double refillPerSecond;
+    private final int maxClients;
+
+    private final long intervalNanos;
+    private final long burstNanos;
+
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final TokenBucket overflow;
+    private final AtomicLong lastFullSweep = new AtomicLong(System.nanoTime() - FULL_SWEEP_INTERVAL_NANOS);
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder overflowed = new LongAdder();
+
+    public RateLimiter(String name, int capacity, double refillPerSecond, int maxClients) {
+        if (capacity <= 0 || refillPerSecond <= 0 || maxClients <= 0) {
+            throw new IllegalArgumentException("Limite '" + name + "': capacity, refill-per-second e max-clients devem ser maiores que zero");
+        }
+        this.name = name;
+        this.capacity = capacity;
+        this.refillPerSecond = refillPerSecond;
+        this.maxClients = maxClients;
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond));
+        this.burstNanos = intervalNanos * capacity;
+        this.overflow = new TokenBucket(System.nanoTime());
+    }
+
+    /**
+     * Consome uma ficha do cliente.
+     *
+     * @param client IP ou chave de API
+     * @return 0 se a requisição pode seguir, ou nanossegundos até a próxima ficha
+     */
+    public long tryAcquire(String client) {
+        long now = System.nanoTime();
+        long wait = bucketFor(client, now).tryAcquire(now, intervalNanos, burstNanos);
+        (wait == 0 ? allowed : rejected).increment();
+        return wait;
+    }
+
+    /**
+     * Remove os baldes cheios (clientes sem requisições recentes).
+     *
+     * @return Baldes removidos
+     */
+    public int evictIdle() {
+        long now = System.nanoTime();
+        int removed = 0;
+        for (Map.Entry<String, TokenBucket> entry : buckets.entrySet()) {
+            // remove(chave, valor): não apaga um balde que outra thread acabou de trocar
+            if (entry.getValue().isFull(now) && buckets.remove(entry.getKey(), entry.getValue())) {
+                removed++;
+            }
+        }
+        evicted.add(removed);
+        return removed;
+    }
+
+    private TokenBucket bucketFor(String client, long now) {
+        TokenBucket bucket = buckets.get(client);
+        if (bucket != null) {
+            return bucket;
+        }
+
+        if (buckets.size() >= maxClients) {
+            // Mapa cheio: tenta liberar espaço (no máximo uma varredura por segundo)
+            long last = lastFullSweep.get();
+            if (now - last >= FULL_SWEEP_INTERVAL_NANOS && lastFullSweep.compareAndSet(last, now)) {
+                evictIdle();
+            }
+            if (buckets.size() >= maxClients) {
+                overflowed.increment();
+                return overflow;
+            }
+        }
+        return buckets.computeIfAbsent(client, k -> new TokenBucket(now));
+    }
+
+    // ------------------------------------------------------------
+    // ESTATÍSTICAS
+    // ------------------------------------------------------------
+
+    public String getName() { return name; }
+
+    public int getClients() { return buckets.size(); }
+
+    public long getAllowed() { return allowed.sum(); }
+
+    public long getRejected() { return rejected.sum(); }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("capacity", capacity);
+        stats.put("refillPerSecond", refillPerSecond);
+        stats.put("clients", buckets.size());
+        stats.put("maxClients", maxClients);
+        stats.put("allowed", allowed.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("evicted", evicted.sum());
+        stats.put("overflowed", overflowed.sum());
+        return stats;
+    }
+}
@@ -0,0 +1,50 @@
+package com.techsolutions.urlshortener.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Balde de fichas de um cliente, sem lock.
+ *
+ * Em vez de guardar "fichas restantes + último reabastecimento" (dois valores, que
+ * precisariam de lock), guarda um único instante: quando o balde estará cheio de novo
+ * (GCRA). Cada requisição empurra esse instante um intervalo para frente com um CAS;
+ * se ele passar de "agora + capacidade", o balde está vazio.
+ */
+final class TokenBucket {
+
+    // Instante (System.nanoTime) em que o balde volta a ficar cheio
+    private final AtomicLong fullAt;
+
+    TokenBucket(long now) {
+        this.fullAt = new AtomicLong(now);
+    }
+
+    /**
+     * Tenta consumir uma ficha.
+     *
+     * @param now System.nanoTime()
+     * @param intervalNanos Tempo para repor uma ficha (1 / taxa)
+     * @param burstNanos capacidade * intervalNanos
+     * @return 0 se consumiu, ou quantos nanossegundos faltam para haver uma ficha
+     */
+    long tryAcquire(long now, long intervalNanos, long burstNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Balde cheio = igual a um balde novo: pode sair do mapa sem o cliente ganhar nada.
+     */
+    boolean isFull(long now) {
+        return fullAt.get() - now <= 0;
+    }
+}
@@ -0,0 +1,103 @@
+package com.techsolutions.urlshortener.reactive;
+
+import com.techsolutions.urlshortener.service.LookupResult;
+import com.techsolutions.urlshortener.service.RedirectPolicy;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+
+/**
+ * GET /{shortCode} em WebFlux/Netty (perfil "reactive").
+ *
+ * Responde direto com o status de redirecionamento, Location e Cache-Control (RedirectPolicy),
+ * como o RedirectController.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveRedirectRouter {
+
+    private static final String NOT_FOUND_PAGE =
+        "<html><body style='background:#0f172a; color:white; font-family:sans-serif; text-align:center; padding-top:100px;'>" +
+        "<h1>404</h1><p>Ops! Esse link não existe.</p>" +
+        "<a href='/' style='color:#2dd4bf;'>Voltar para a Home</a>" +
+        "</body></html>";
+
+    // Link que existiu, mas expirou ou foi desativado (410)
+    private static final String GONE_PAGE =
+        "<html><body style='background:#0f172a; color:white; font-family:sans-serif; text-align:center; padding-top:100px;'>" +
+        "<h1>410</h1><p>Esse link expirou ou foi desativado.</p>" +
+        "<a href='/' style='color:#2dd4bf;'>Voltar para a Home</a>" +
+        "</body></html>";
+
+    private final ReactiveRedirectService redirectService;
+    private final RedirectPolicy redirectPolicy;
+
+    public ReactiveRedirectRouter(ReactiveRedirectService redirectService, RedirectPolicy redirectPolicy) {
+        this.redirectService = redirectService;
+        this.redirectPolicy = redirectPolicy;
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> redirectRoute() {
+        return RouterFunctions.route(GET("/{shortCode:[a-zA-Z0-9]+}"), this::redirect);
+    }
+
+    private Mono<ServerResponse> redirect(ServerRequest request) {
+        String shortCode = request.pathVariable("shortCode");
+        HttpHeaders headers = request.headers().asHttpHeaders();
+        String remoteAddr = request.remoteAddress()
+            .map(InetSocketAddress::getAddress)
+            .map(address -> address.getHostAddress())
+            .orElse(null);
+
+        return redirectService.lookup(shortCode)
+            .flatMap(result -> toResponse(result, () -> redirectService.recordClick(shortCode,
+                headers.getFirst(HttpHeaders.REFERER), headers.getFirst(HttpHeaders.USER_AGENT), remoteAddr)))
+            // Mesmo comportamento do MVC: qualquer falha vira a página de link inexistente
+            .onErrorResume(e -> notFound(HttpStatus.NOT_FOUND));
+    }
+
+    // recordClick só roda quando a resposta é o 3xx (URL válida), como no RedirectController
+    private Mono<ServerResponse> toResponse(LookupResult result, Runnable recordClick) {
+        return switch (result.getStatus()) {
+            case FOUND -> {
+                URI location = redirectPolicy.location(result.getOriginalUrl());
+                if (location == null) {
+                    yield notFound(HttpStatus.NOT_FOUND);
+                }
+                recordClick.run();
+                yield ServerResponse.status(redirectPolicy.getStatus())
+                    .location(location)
+                    .cacheControl(redirectPolicy.cacheControl(result.getExpiresAt()))
+                    .build();
+            }
+            case EXPIRED, DISABLED -> page(HttpStatus.GONE, GONE_PAGE);
+            case MISSING -> notFound(HttpStatus.NOT_FOUND);
+        };
+    }
+
+    private Mono<ServerResponse> notFound(HttpStatus status) {
+        return page(status, NOT_FOUND_PAGE);
+    }
+
+    private Mono<ServerResponse> page(HttpStatus status, String html) {
+        return ServerResponse.status(status)
+            .contentType(MediaType.TEXT_HTML)
+            .bodyValue(html);
+    }
+}
@@ -0,0 +1,154 @@
+package com.techsolutions.urlshortener.reactive;
+
+import com.techsolutions.urlshortener.analytics.ClickAnalyticsService;
+import com.techsolutions.urlshortener.cache.CachedUrl;
+import com.techsolutions.urlshortener.cache.RedirectCache;
+import com.techsolutions.urlshortener.cache.RedirectLoadCoalescer;
+import com.techsolutions.urlshortener.cache.ShortCodeFilter;
+import com.techsolutions.urlshortener.metrics.RedirectMetrics;
+import com.techsolutions.urlshortener.service.ClickCountBuffer;
+import com.techsolutions.urlshortener.service.CodeKeyBackfill;
+import com.techsolutions.urlshortener.service.LookupResult;
+import com.techsolutions.urlshortener.service.UrlShortenerService;
+import com.techsolutions.urlshortener.tiering.LinkTieringService;
+import com.techsolutions.urlshortener.util.ShortCodeGenerator;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Versão reativa de UrlShortenerService.resolve (perfil "reactive").
+ *
+ * Mesmo fluxo do MVC — índice mapeado (app.redirect.source=index), filtro de códigos, cache
+ * em memória, banco só no miss com as consultas simultâneas do mesmo código agrupadas
+ * (RedirectLoadCoalescer), verificação de ativo/expirado, camada fria e contagem de acessos
+ * do LinkTieringService — mas a leitura do banco é um Mono do R2DBC, e quem espera a consulta
+ * de outra requisição recebe um future: nenhuma thread fica parada esperando.
+ * A contagem de cliques e o analytics só publicam em buffers em memória
+ * (ClickCountBuffer e ClickAnalyticsService), gravados depois pelos agendadores.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveRedirectService {
+
+    @Autowired
+    private ReactiveUrlRepository urlRepository;
+
+    @Autowired
+    private RedirectCache redirectCache;
+
+    @Autowired
+    private ShortCodeFilter codeFilter;
+
+    @Autowired
+    private RedirectLoadCoalescer loadCoalescer;
+
+    @Autowired
+    private UrlShortenerService urlService;
+
+    @Autowired
+    private CodeKeyBackfill codeKeyBackfill;
+
+    @Autowired
+    private ClickCountBuffer clickCountBuffer;
+
+    @Autowired
+    private ClickAnalyticsService analyticsService;
+
+    @Autowired
+    private LinkTieringService tiering;
+
+    @Autowired
+    private RedirectMetrics metrics;
+
+    /**
+     * Busca a URL de um código, sem contar o clique (como UrlShortenerService.resolve):
+     * quem responde chama recordClick quando o redirecionamento é de fato enviado.
+     *
+     * @return FOUND com a URL original, ou MISSING / EXPIRED / DISABLED
+     */
+    public Mono<LookupResult> lookup(String shortCode) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return find(shortCode)
+                .doOnNext(result -> metrics.recordLookup(result.getStatus(), System.nanoTime() - start));
+        });
+    }
+
+    /**
+     * Conta o clique e publica o evento de analytics (só buffers em memória).
+     */
+    public void recordClick(String shortCode, String referrer, String userAgent, String remoteAddr) {
+        clickCountBuffer.record(shortCode);
+        tiering.recordAccess(shortCode);
+        analyticsService.record(shortCode, referrer, userAgent, remoteAddr);
+    }
+
+    private Mono<LookupResult> find(String shortCode) {
+        // Índice mapeado: só memória, responde sem banco
+        LookupResult indexed = urlService.findInIndex(shortCode);
+        if (indexed != null) {
+            return Mono.just(indexed);
+        }
+
+        if (!codeFilter.mightContain(shortCode)) {
+            return Mono.just(LookupResult.missing());
+        }
+
+        CachedUrl cached = redirectCache.get(shortCode);
+        Mono<CachedUrl> url;
+        if (cached != null) {
+            url = Mono.just(cached);
+        } else {
+            // Requisições simultâneas pelo mesmo código dividem uma consulta só
+            // (cancelar a resposta não cancela a consulta, que ainda abastece o cache)
+            url = Mono.fromFuture(() -> loadCoalescer.loadAsync(shortCode, code -> load(code).toFuture()), true);
+        }
+
+        return url
+            .map(found -> {
+                if (!found.isActive()) {
+                    return LookupResult.disabled();
+                }
+                if (found.isExpiredAt(LocalDateTime.now())) {
+                    return LookupResult.expired();
+                }
+                return LookupResult.found(found.getOriginalUrl(), found.getExpiresAt());
+            })
+            .defaultIfEmpty(LookupResult.missing());
+    }
+
+    // Miss do cache: lê o banco e guarda o resultado (vazio = código não existe)
+    private Mono<CachedUrl> load(String shortCode) {
+        return Mono.defer(() -> {
+            // Carimbo antes da consulta (ver RedirectCache.put com carimbo)
+            long stamp = redirectCache.loadStamp();
+            return findByCode(shortCode).doOnNext(found -> redirectCache.put(shortCode, found, stamp));
+        });
+    }
+
+    // Mesma regra de UrlShortenerService: chave numérica primeiro, texto como caminho secundário,
+    // e a camada fria se o código não estiver na tabela principal
+    private Mono<CachedUrl> findByCode(String shortCode) {
+        return findHot(shortCode)
+            .switchIfEmpty(Mono.defer(() -> urlRepository.findColdByShortCode(shortCode)
+                .doOnNext(found -> tiering.onColdHit(shortCode))));
+    }
+
+    private Mono<CachedUrl> findHot(String shortCode) {
+        long key = ShortCodeGenerator.toKey(shortCode);
+        if (key < 0) {
+            return urlRepository.findByShortCode(shortCode);
+        }
+
+        return urlRepository.findByCodeKey(key)
+            .switchIfEmpty(Mono.defer(() -> codeKeyBackfill.isComplete()
+                ? Mono.empty()
+                : urlRepository.findByShortCode(shortCode)));
+    }
+}
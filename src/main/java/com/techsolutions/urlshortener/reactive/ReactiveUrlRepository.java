@@ -0,0 +1,100 @@
+package com.techsolutions.urlshortener.reactive;
+
+import com.techsolutions.urlshortener.cache.CachedUrl;
+
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Readable;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Leitura não bloqueante de shortened_urls (e da camada fria, shortened_urls_cold) via R2DBC
+ * (perfil "reactive").
+ *
+ * O ConnectionFactory é criado aqui e não registrado como bean: com um bean desse tipo
+ * o Spring Boot deixaria de criar o DataSource usado pelo JPA/JDBC no resto da aplicação.
+ * Localmente a URL aponta para o mesmo H2 em memória do JDBC.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveUrlRepository {
+
+    private static final String COLUMNS = "SELECT original_url, is_active, expires_at FROM shortened_urls";
+
+    // Camada fria: sempre ativa e sem expiração
+    private static final String COLD_COLUMNS =
+        "SELECT original_url, TRUE AS is_active, CAST(NULL AS TIMESTAMP(6)) AS expires_at FROM shortened_urls_cold";
+
+    private final ConnectionFactory connectionFactory;
+    private final DatabaseClient databaseClient;
+
+    public ReactiveUrlRepository(@Value("${app.reactive.r2dbc.url}") String url,
+                                 @Value("${app.reactive.r2dbc.username:${spring.datasource.username:}}") String username,
+                                 @Value("${app.reactive.r2dbc.password:${spring.datasource.password:}}") String password) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+            .option(ConnectionFactoryOptions.USER, username)
+            .option(ConnectionFactoryOptions.PASSWORD, password)
+            .build();
+
+        this.connectionFactory = ConnectionFactories.get(options);
+        this.databaseClient = DatabaseClient.create(connectionFactory);
+    }
+
+    /**
+     * Busca pela chave numérica do código (índice BIGINT).
+     */
+    public Mono<CachedUrl> findByCodeKey(long codeKey) {
+        return databaseClient.sql(COLUMNS + " WHERE code_key = :key")
+            .bind("key", codeKey)
+            .map(ReactiveUrlRepository::toCachedUrl)
+            .one();
+    }
+
+    /**
+     * Busca pelo texto do código (códigos fora do formato numérico e registros antigos).
+     */
+    public Mono<CachedUrl> findByShortCode(String shortCode) {
+        return databaseClient.sql(COLUMNS + " WHERE short_code = :code")
+            .bind("code", shortCode)
+            .map(ReactiveUrlRepository::toCachedUrl)
+            .one();
+    }
+
+    /**
+     * Busca na camada fria (códigos movidos pelo LinkTieringService).
+     */
+    public Mono<CachedUrl> findColdByShortCode(String shortCode) {
+        return databaseClient.sql(COLD_COLUMNS + " WHERE short_code = :code")
+            .bind("code", shortCode)
+            .map(ReactiveUrlRepository::toCachedUrl)
+            .one();
+    }
+
+    @PreDestroy
+    public void close() {
+        // Com "r2dbc:pool:..." o ConnectionFactory é um pool: fecha as conexões
+        if (connectionFactory instanceof Disposable disposable) {
+            disposable.dispose();
+        }
+    }
+
+    private static CachedUrl toCachedUrl(Readable row) {
+        return new CachedUrl(
+            row.get("original_url", String.class),
+            Boolean.TRUE.equals(row.get("is_active", Boolean.class)),
+            row.get("expires_at", LocalDateTime.class)
+        );
+    }
+}
@@ -0,0 +1,173 @@
+package com.techsolutions.urlshortener.repository;
+
+import com.techsolutions.urlshortener.model.ClickDimensionRollup;
+import com.techsolutions.urlshortener.model.ClickRollup;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Gravação e leitura das tabelas de analytics (click_rollups e click_dimension_rollups).
+// Gravação em JDBC em lote: "UPDATE soma" e, para as linhas que ainda não existem, INSERT.
+// Os métodos de gravação devem ser chamados dentro de uma transação.
+@Repository
+public class ClickRollupRepository {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String UPDATE_ROLLUP =
+        "UPDATE click_rollups SET clicks = clicks + ?, bot_clicks = bot_clicks + ?, " +
+        "mobile_clicks = mobile_clicks + ?, desktop_clicks = desktop_clicks + ? " +
+        "WHERE short_code = ? AND granularity = ? AND bucket_start = ?";
+
+    private static final String INSERT_ROLLUP =
+        "INSERT INTO click_rollups (clicks, bot_clicks, mobile_clicks, desktop_clicks, short_code, granularity, bucket_start) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_DIMENSION =
+        "UPDATE click_dimension_rollups SET clicks = clicks + ? " +
+        "WHERE short_code = ? AND bucket_start = ? AND dimension = ? AND dimension_value = ?";
+
+    private static final String INSERT_DIMENSION =
+        "INSERT INTO click_dimension_rollups (clicks, short_code, bucket_start, dimension, dimension_value) " +
+        "VALUES (?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // ------------------------------------------------------------
+    // GRAVAÇÃO (soma os incrementos aos totais existentes)
+    // ------------------------------------------------------------
+
+    /**
+     * Soma os cliques de cada intervalo aos totais do banco (criando a linha se preciso).
+     *
+     * @param deltas Incrementos por (shortCode, granularity, bucketStart)
+     */
+    public void addRollups(List<ClickRollup> deltas) {
+        upsert(deltas, UPDATE_ROLLUP, INSERT_ROLLUP, (ps, r) -> {
+            ps.setLong(1, r.getClicks());
+            ps.setLong(2, r.getBotClicks());
+            ps.setLong(3, r.getMobileClicks());
+            ps.setLong(4, r.getDesktopClicks());
+            ps.setString(5, r.getShortCode());
+            ps.setString(6, r.getGranularity());
+            ps.setTimestamp(7, Timestamp.valueOf(r.getBucketStart()));
+        });
+    }
+
+    /**
+     * Soma os cliques por referrer/região aos totais diários do banco.
+     *
+     * @param deltas Incrementos por (shortCode, bucketStart, dimension, dimensionValue)
+     */
+    public void addDimensionRollups(List<ClickDimensionRollup> deltas) {
+        upsert(deltas, UPDATE_DIMENSION, INSERT_DIMENSION, (ps, r) -> {
+            ps.setLong(1, r.getClicks());
+            ps.setString(2, r.getShortCode());
+            ps.setTimestamp(3, Timestamp.valueOf(r.getBucketStart()));
+            ps.setString(4, r.getDimension());
+            ps.setString(5, r.getDimensionValue());
+        });
+    }
+
+    /**
+     * Apaga um lote de totais de uma granularidade anteriores a um instante (retenção).
+     * Um comando só, sem transação de quem chama.
+     *
+     * @return Linhas apagadas (menos que limit: não sobrou nada)
+     */
+    public int deleteRollupsBefore(String granularity, LocalDateTime before, int limit) {
+        return jdbcTemplate.update(
+            "DELETE FROM click_rollups WHERE id IN (" +
+            "SELECT id FROM click_rollups WHERE granularity = ? AND bucket_start < ? LIMIT ?)",
+            granularity, Timestamp.valueOf(before), limit);
+    }
+
+    // ------------------------------------------------------------
+    // LEITURA
+    // ------------------------------------------------------------
+
+    /**
+     * Série temporal de uma URL: um item por intervalo com cliques, em ordem cronológica.
+     */
+    public List<ClickRollup> findSeries(String shortCode, String granularity, LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query(
+            "SELECT short_code, granularity, bucket_start, clicks, bot_clicks, mobile_clicks, desktop_clicks " +
+            "FROM click_rollups WHERE short_code = ? AND granularity = ? AND bucket_start >= ? AND bucket_start < ? " +
+            "ORDER BY bucket_start",
+            (rs, rowNum) -> {
+                ClickRollup rollup = new ClickRollup();
+                rollup.setShortCode(rs.getString("short_code"));
+                rollup.setGranularity(rs.getString("granularity"));
+                rollup.setBucketStart(rs.getTimestamp("bucket_start").toLocalDateTime());
+                rollup.setClicks(rs.getLong("clicks"));
+                rollup.setBotClicks(rs.getLong("bot_clicks"));
+                rollup.setMobileClicks(rs.getLong("mobile_clicks"));
+                rollup.setDesktopClicks(rs.getLong("desktop_clicks"));
+                return rollup;
+            },
+            shortCode, granularity, Timestamp.valueOf(from), Timestamp.valueOf(to)
+        );
+    }
+
+    /**
+     * Valores mais frequentes de uma dimensão no período (ex: top referrers).
+     *
+     * @return Valor → total de cliques, do maior para o menor
+     */
+    public Map<String, Long> findTopValues(String shortCode, String dimension,
+                                           LocalDateTime from, LocalDateTime to, int limit) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        jdbcTemplate.query(
+            "SELECT dimension_value, SUM(clicks) AS total FROM click_dimension_rollups " +
+            "WHERE short_code = ? AND dimension = ? AND bucket_start >= ? AND bucket_start < ? " +
+            "GROUP BY dimension_value ORDER BY total DESC LIMIT ?",
+            rs -> { result.put(rs.getString("dimension_value"), rs.getLong("total")); },
+            shortCode, dimension, Timestamp.valueOf(from), Timestamp.valueOf(to), limit
+        );
+        return result;
+    }
+
+    // ------------------------------------------------------------
+    // MÉTODOS PRIVADOS
+    // ------------------------------------------------------------
+
+    private <T> void upsert(List<T> rows, String updateSql, String insertSql,
+                            ParameterizedPreparedStatementSetter<T> setter) {
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        // 1) Tenta somar nas linhas existentes
+        int[][] counts = jdbcTemplate.batchUpdate(updateSql, rows, BATCH_SIZE, setter);
+
+        List<T> missing = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count == 0) {
+                    missing.add(rows.get(index));
+                }
+                index++;
+            }
+        }
+
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        // 2) Cria as linhas que ainda não existiam.
+        // Se outra instância criar a mesma linha ao mesmo tempo, o INSERT lança DuplicateKeyException:
+        // quem chama deve rodar isto numa transação e repetir (aí o UPDATE encontra a linha)
+        jdbcTemplate.batchUpdate(insertSql, missing, BATCH_SIZE, setter);
+    }
+}
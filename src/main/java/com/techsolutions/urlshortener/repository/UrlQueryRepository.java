@@ -0,0 +1,232 @@
+package com.techsolutions.urlshortener.repository;
+
+import com.techsolutions.urlshortener.dto.UrlFilter;
+import com.techsolutions.urlshortener.model.ShortenedUrl;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+// Consultas de listagem em JDBC puro: paginação por cursor (keyset) e leitura em streaming.
+// Não passam pelo JPA para não materializar entidades gerenciadas nem a tabela inteira.
+// Incluem a camada fria (shortened_urls_cold, ver LinkTieringService): cada tabela é lida pelo
+// próprio índice de id e as duas páginas são intercaladas aqui (sem UNION, que obrigaria o banco
+// a ordenar as duas tabelas inteiras antes do LIMIT).
+@Repository
+public class UrlQueryRepository {
+
+    private static final String COLUMNS =
+        "SELECT id, short_code, original_url, click_count, created_at, expires_at, is_active FROM shortened_urls";
+
+    // Camada fria: sempre ativa e sem expiração
+    private static final String COLD_COLUMNS =
+        "SELECT id, short_code, original_url, click_count, created_at, " +
+        "CAST(NULL AS TIMESTAMP(6)) AS expires_at, TRUE AS is_active FROM shortened_urls_cold";
+
+    // Só o que muda a resposta da API (ETag/Last-Modified): sem a URL original
+    private static final String VERSION_COLUMNS =
+        "SELECT id, short_code, row_version, click_count, COALESCE(updated_at, created_at) AS modified_at FROM shortened_urls";
+
+    // Camada fria (LinkTieringService): sem versão nem data de alteração
+    private static final String COLD_VERSION_COLUMNS =
+        "SELECT id, short_code, 0 AS row_version, click_count, CAST(NULL AS TIMESTAMP(6)) AS modified_at FROM shortened_urls_cold";
+
+    /**
+     * Versão de uma linha, lida sem a URL original (ver findVersion / findPageVersions).
+     *
+     * @param modifiedAt Última alteração (ou criação); null = desconhecida
+     */
+    public record RowVersion(long id, String shortCode, long rowVersion, long clickCount, LocalDateTime modifiedAt) {
+    }
+
+    // Linhas buscadas por ida ao banco durante a exportação
+    private static final int EXPORT_FETCH_SIZE = 1000;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    // ------------------------------------------------------------
+    // PAGINAÇÃO POR CURSOR
+    // ------------------------------------------------------------
+
+    /**
+     * Busca uma página de URLs ordenada por id, começando depois do cursor.
+     * Usa "WHERE id > :cursor ... LIMIT n" (keyset): o custo não cresce com o número da página.
+     *
+     * @param filter Filtros opcionais
+     * @param afterId Último id da página anterior (null = primeira página)
+     * @param descending true = mais novas primeiro
+     * @param limit Máximo de linhas
+     * @return URLs da página
+     */
+    public List<ShortenedUrl> findPage(UrlFilter filter, Long afterId, boolean descending, int limit) {
+        return findPageInTiers(COLUMNS, COLD_COLUMNS, ROW_MAPPER, ShortenedUrl::getId, filter, afterId, descending, limit);
+    }
+
+    /**
+     * Mesmas linhas de findPage, só com as versões (ETag da página sem ler as URLs).
+     */
+    public List<RowVersion> findPageVersions(UrlFilter filter, Long afterId, boolean descending, int limit) {
+        return findPageInTiers(VERSION_COLUMNS, COLD_VERSION_COLUMNS, VERSION_MAPPER, RowVersion::id,
+            filter, afterId, descending, limit);
+    }
+
+    /**
+     * Versão de um código, na tabela principal ou na camada fria.
+     *
+     * @return Versão, se o código existir
+     */
+    public Optional<RowVersion> findVersion(String shortCode) {
+        List<RowVersion> rows = jdbcTemplate.query(
+            VERSION_COLUMNS + " WHERE short_code = :code UNION ALL " + COLD_VERSION_COLUMNS + " WHERE short_code = :code",
+            new MapSqlParameterSource("code", shortCode), VERSION_MAPPER);
+        return rows.stream().findFirst();
+    }
+
+    // ------------------------------------------------------------
+    // LEITURA EM STREAMING (exportação)
+    // ------------------------------------------------------------
+
+    /**
+     * Percorre todas as URLs do filtro, uma linha por vez, sem guardar a lista em memória.
+     * Primeiro a tabela principal, depois a camada fria (cada uma em ordem de id).
+     * Deve ser chamado dentro de uma transação (alguns bancos só usam cursor com autocommit desligado).
+     *
+     * @param filter Filtros opcionais
+     * @param consumer Recebe cada URL lida
+     */
+    public void forEach(UrlFilter filter, Consumer<ShortenedUrl> consumer) {
+        // Template próprio com fetchSize: o driver traz as linhas em blocos, não a tabela inteira
+        JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getJdbcTemplate().getDataSource());
+        streaming.setFetchSize(EXPORT_FETCH_SIZE);
+        NamedParameterJdbcTemplate named = new NamedParameterJdbcTemplate(streaming);
+
+        for (boolean cold : new boolean[] { false, true }) {
+            if (cold && !includesCold(filter)) {
+                break;
+            }
+            MapSqlParameterSource params = new MapSqlParameterSource();
+            StringBuilder sql = new StringBuilder(cold ? COLD_COLUMNS : COLUMNS).append(" WHERE 1 = 1");
+            appendFilter(sql, params, filter, cold);
+            sql.append(" ORDER BY id ASC");
+
+            named.query(sql.toString(), params, rs -> { consumer.accept(ROW_MAPPER.mapRow(rs, 0)); });
+        }
+    }
+
+    // ------------------------------------------------------------
+    // MÉTODOS PRIVADOS
+    // ------------------------------------------------------------
+
+    // Página em cada camada (mesmo cursor e limite), intercaladas por id e cortadas no limite
+    private <T> List<T> findPageInTiers(String hotColumns, String coldColumns, RowMapper<T> mapper,
+                                        ToLongFunction<T> id, UrlFilter filter, Long afterId,
+                                        boolean descending, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        List<T> rows = jdbcTemplate.query(
+            pageQuery(hotColumns, false, params, filter, afterId, descending, limit), params, mapper);
+        if (!includesCold(filter)) {
+            return rows;
+        }
+
+        MapSqlParameterSource coldParams = new MapSqlParameterSource();
+        List<T> cold = jdbcTemplate.query(
+            pageQuery(coldColumns, true, coldParams, filter, afterId, descending, limit), coldParams, mapper);
+        if (cold.isEmpty()) {
+            return rows;
+        }
+
+        List<T> merged = new ArrayList<>(rows.size() + cold.size());
+        merged.addAll(rows);
+        merged.addAll(cold);
+        Comparator<T> byId = Comparator.comparingLong(id);
+        merged.sort(descending ? byId.reversed() : byId);
+        return merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+    }
+
+    // SELECT da página: filtro, cursor (keyset), ordem e limite
+    private static String pageQuery(String columns, boolean cold, MapSqlParameterSource params, UrlFilter filter,
+                                    Long afterId, boolean descending, int limit) {
+        StringBuilder sql = new StringBuilder(columns).append(" WHERE 1 = 1");
+        appendFilter(sql, params, filter, cold);
+
+        if (afterId != null) {
+            sql.append(descending ? " AND id < :afterId" : " AND id > :afterId");
+            params.addValue("afterId", afterId);
+        }
+
+        sql.append(descending ? " ORDER BY id DESC" : " ORDER BY id ASC");
+        sql.append(" LIMIT :limit");
+        params.addValue("limit", limit);
+        return sql.toString();
+    }
+
+    // A camada fria só tem links ativos e sem expiração: fica de fora dos filtros que os excluem
+    private static boolean includesCold(UrlFilter filter) {
+        return filter == null
+            || (!Boolean.FALSE.equals(filter.getActive()) && !Boolean.TRUE.equals(filter.getExpired()));
+    }
+
+    // Na camada fria (cold = true) os filtros de ativo/expirado já foram resolvidos por includesCold
+    private static void appendFilter(StringBuilder sql, MapSqlParameterSource params, UrlFilter filter, boolean cold) {
+        if (filter == null) {
+            return;
+        }
+
+        if (filter.getActive() != null && !cold) {
+            sql.append(" AND is_active = :active");
+            params.addValue("active", filter.getActive());
+        }
+
+        if (filter.getExpired() != null && !cold) {
+            sql.append(filter.getExpired()
+                ? " AND expires_at IS NOT NULL AND expires_at < :now"
+                : " AND (expires_at IS NULL OR expires_at >= :now)");
+            params.addValue("now", Timestamp.valueOf(LocalDateTime.now()));
+        }
+
+        if (filter.getCreatedFrom() != null) {
+            sql.append(" AND created_at >= :createdFrom");
+            params.addValue("createdFrom", Timestamp.valueOf(filter.getCreatedFrom()));
+        }
+
+        if (filter.getCreatedTo() != null) {
+            sql.append(" AND created_at < :createdTo");
+            params.addValue("createdTo", Timestamp.valueOf(filter.getCreatedTo()));
+        }
+    }
+
+    private static final RowMapper<ShortenedUrl> ROW_MAPPER = UrlQueryRepository::mapRow;
+
+    private static ShortenedUrl mapRow(ResultSet rs, int rowNum) throws SQLException {
+        ShortenedUrl url = new ShortenedUrl(rs.getString("short_code"), rs.getString("original_url"));
+        url.setId(rs.getLong("id"));
+        url.setClickCount(rs.getLong("click_count"));
+        url.setCreatedAt(toLocalDateTime(rs.getTimestamp("created_at")));
+        url.setExpiresAt(toLocalDateTime(rs.getTimestamp("expires_at")));
+        url.setIsActive(rs.getBoolean("is_active"));
+        return url;
+    }
+
+    private static final RowMapper<RowVersion> VERSION_MAPPER = (rs, rowNum) -> new RowVersion(
+        rs.getLong("id"), rs.getString("short_code"), rs.getLong("row_version"), rs.getLong("click_count"),
+        toLocalDateTime(rs.getTimestamp("modified_at")));
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+}
@@ -9,8 +9,10 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 // @Repository → Marca esta interface como um REPOSITÓRIO Spring
@@ -26,24 +28,44 @@ public interface UrlRepository extends JpaRepository<ShortenedUrl, Long> {
     // Retorna Optional (pode ter ou não resultado)
     Optional<ShortenedUrl> findByShortCode(String shortCode);
     
-    // Spring cria automaticamente: SELECT COUNT(*) FROM shortened_urls WHERE short_code = ?
-    // Retorna true se existir, false se não existir
-    boolean existsByShortCode(String shortCode);
+    // SELECT * FROM shortened_urls WHERE code_key = ?
+    // Caminho principal do redirecionamento (índice numérico); ver ShortCodeGenerator.toKey
+    Optional<ShortenedUrl> findByCodeKey(Long codeKey);
     
-    // ------------------------------------------------------------
-    // MÉTODO PERSONALIZADO COM QUERY JPQL
-    // ------------------------------------------------------------
+    // Retorna true se o código existir, na tabela principal ou na camada fria
+    // (shortened_urls_cold, ver LinkTieringService): código frio continua em uso.
+    // Código arquivado pela limpeza (ExpiredUrlReaper) também: quem tem o link antigo
+    // não pode passar a ser levado a outro destino
+    @Query(value = "SELECT CASE WHEN EXISTS (SELECT 1 FROM shortened_urls WHERE short_code = :shortCode) " +
+                   "OR EXISTS (SELECT 1 FROM shortened_urls_cold WHERE short_code = :shortCode) " +
+                   "OR EXISTS (SELECT 1 FROM shortened_urls_archive WHERE short_code = :shortCode) THEN TRUE ELSE FALSE END",
+           nativeQuery = true)
+    boolean existsByShortCode(@Param("shortCode") String shortCode);
+    
+    // Quais destes códigos já existem (nas duas camadas ou no arquivo)? Uma única consulta para um lote inteiro
+    @Query(value = "SELECT short_code FROM shortened_urls WHERE short_code IN (:shortCodes) " +
+                   "UNION ALL SELECT short_code FROM shortened_urls_cold WHERE short_code IN (:shortCodes) " +
+                   "UNION ALL SELECT short_code FROM shortened_urls_archive WHERE short_code IN (:shortCodes)",
+           nativeQuery = true)
+    List<String> findExistingShortCodes(@Param("shortCodes") Collection<String> shortCodes);
     
-    // @Modifying → Indica que este método MODIFICA dados (UPDATE/DELETE)
-    // @Transactional → Garante que a operação seja atômica (tudo ou nada)
-    // @Query → Define uma consulta JPQL personalizada
+    // URLs ativas e sem expiração com este hash de URL normalizada (deduplicação)
+    // Usa o índice de url_hash; quem chama confirma que a URL é mesmo a mesma
+    @Query("SELECT u FROM ShortenedUrl u WHERE u.urlHash = :urlHash AND u.isActive = true AND u.expiresAt IS NULL ORDER BY u.id")
+    List<ShortenedUrl> findReusableByUrlHash(@Param("urlHash") Long urlHash);
     
-    // Esta query aumenta o click_count em 1 para uma URL específica
-    // ":shortCode" é um parâmetro que será substituído
+    // O mesmo para vários hashes de uma vez (deduplicação no lote)
+    @Query("SELECT u FROM ShortenedUrl u WHERE u.urlHash IN :urlHashes AND u.isActive = true AND u.expiresAt IS NULL ORDER BY u.id")
+    List<ShortenedUrl> findReusableByUrlHashes(@Param("urlHashes") Collection<Long> urlHashes);
+    
+    // Desativa (soft delete) com um UPDATE só das colunas que mudam, incrementando a versão da linha
+    // (um save() da entidade regravaria click_count com o valor lido, perdendo cliques gravados no meio)
     @Modifying
-    @Transactional
-    @Query("UPDATE ShortenedUrl u SET u.clickCount = u.clickCount + 1 WHERE u.shortCode = :shortCode")
-    void incrementClickCount(@Param("shortCode") String shortCode);
+    @Query("UPDATE ShortenedUrl u SET u.isActive = false, u.rowVersion = u.rowVersion + 1, u.updatedAt = :now WHERE u.id = :id")
+    int deactivate(@Param("id") Long id, @Param("now") LocalDateTime now);
+    
+    // Obs.: o contador de cliques NÃO é mais incrementado aqui (um UPDATE por clique).
+    // Ver ClickCountBuffer, que acumula em memória e grava em lote.
     
     // ------------------------------------------------------------
     // MÉTODOS JÁ HERDADOS DE JpaRepository (NÃO PRECISA ESCREVER):
@@ -0,0 +1,282 @@
+package com.techsolutions.urlshortener.service;
+
+import com.techsolutions.urlshortener.tiering.ColdLinkStore;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Contador de cliques em memória com gravação tardia (write-behind).
+ *
+ * Cada redirecionamento só incrementa um LongAdder do seu shortCode (sem lock, sem banco).
+ * Periodicamente os totais acumulados são gravados com um único UPDATE em lote,
+ * em vez de um UPDATE por clique disputando o lock da linha.
+ * Códigos que não estão mais na tabela principal (camada fria, ver LinkTieringService)
+ * recebem os cliques num segundo lote, em shortened_urls_cold.
+ * O lote da tabela principal roda numa única transação: se um sub-lote falhar, os
+ * anteriores também são desfeitos, e devolver todos os cliques ao buffer não os duplica.
+ * getFlushedClicks só conta cliques de linhas efetivamente atualizadas: os devolvidos ao
+ * buffer por falha entram quando forem gravados, e os de códigos que não existem mais
+ * (removidos pela limpeza) não entram.
+ */
+@Component
+public class ClickCountBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(ClickCountBuffer.class);
+
+    private static final String UPDATE_SQL =
+        "UPDATE shortened_urls SET click_count = COALESCE(click_count, 0) + ?, " +
+        "row_version = row_version + 1, updated_at = ? WHERE short_code = ?";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ColdLinkStore coldLinkStore;
+
+    @Value("${app.clicks.batch-size:500}")
+    private int batchSize;
+
+    // Transação do lote da tabela principal (todos os sub-lotes de batchSize juntos)
+    private final TransactionTemplate flushTransaction;
+
+    // shortCode → cliques ainda não gravados
+    private final ConcurrentHashMap<String, Counter> counters = new ConcurrentHashMap<>();
+
+    // Contadores aposentados na última gravação: são somados mais uma vez na próxima,
+    // para não perder incrementos que corriam em paralelo com a aposentadoria
+    private final List<Map.Entry<String, Counter>> retired = new ArrayList<>();
+
+    // Uma gravação por vez (agendador, desligamento e endpoint administrativo)
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final LongAdder flushedClicks = new LongAdder();
+    private final LongAdder failedFlushes = new LongAdder();
+
+    public ClickCountBuffer(PlatformTransactionManager transactionManager) {
+        this.flushTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    // ------------------------------------------------------------
+    // CAMINHO QUENTE: registrar clique
+    // ------------------------------------------------------------
+
+    /**
+     * Registra um clique para o código (não acessa o banco).
+     *
+     * @param shortCode Código curto acessado
+     */
+    public void record(String shortCode) {
+        add(shortCode, 1);
+    }
+
+    /**
+     * Retorna quantos cliques do código ainda não foram gravados no banco.
+     */
+    public long getPending(String shortCode) {
+        Counter counter = counters.get(shortCode);
+        return counter == null ? 0 : counter.adder.sum();
+    }
+
+    /**
+     * Retorna o total de cliques pendentes de todos os códigos.
+     */
+    public long getTotalPending() {
+        long total = 0;
+        for (Counter counter : counters.values()) {
+            total += counter.adder.sum();
+        }
+        return total;
+    }
+
+    public long getFlushedClicks() { return flushedClicks.sum(); }
+
+    public long getFailedFlushes() { return failedFlushes.sum(); }
+
+    // ------------------------------------------------------------
+    // GRAVAÇÃO PERIÓDICA
+    // ------------------------------------------------------------
+
+    /**
+     * Grava no banco, em lote, os cliques acumulados desde a última gravação.
+     * Chamado pelo agendador a cada app.clicks.flush-interval-ms e no desligamento.
+     */
+    @Scheduled(fixedDelayString = "${app.clicks.flush-interval-ms:1000}")
+    public void flush() {
+        // ReentrantLock e não synchronized: o lote JDBC não prende a thread da plataforma
+        // quando o agendador roda em threads virtuais
+        flushLock.lock();
+        try {
+            flushLocked();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushLocked() {
+        Map<String, Long> deltas = new HashMap<>();
+
+        // Sobras dos contadores aposentados na rodada anterior
+        for (Map.Entry<String, Counter> entry : retired) {
+            long late = entry.getValue().adder.sumThenReset();
+            if (late > 0) {
+                deltas.merge(entry.getKey(), late, Long::sum);
+            }
+        }
+        retired.clear();
+
+        for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+            Counter counter = entry.getValue();
+            long delta = counter.adder.sumThenReset();
+
+            if (delta > 0) {
+                deltas.merge(entry.getKey(), delta, Long::sum);
+            } else {
+                // Código sem cliques desde a última gravação: sai do mapa para ele não crescer sem limite
+                counter.retired = true;
+                counters.remove(entry.getKey(), counter);
+                retired.add(Map.entry(entry.getKey(), counter));
+            }
+        }
+
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        deltas.forEach((code, delta) -> args.add(new Object[] { delta, code }));
+
+        // Cliques mudam a resposta da API: nova versão da linha (ETag) e data de alteração
+        Timestamp updatedAt = Timestamp.valueOf(LocalDateTime.now());
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            int[][] updated = flushTransaction.execute(status ->
+                jdbcTemplate.batchUpdate(UPDATE_SQL, args, batchSize,
+                    (ps, row) -> {
+                        ps.setLong(1, (Long) row[0]);
+                        ps.setTimestamp(2, updatedAt);
+                        ps.setString(3, (String) row[1]);
+                    }));
+            List<Object[]> missed = notUpdated(args, updated);
+            flushedClicks.add(clicks(args) - clicks(missed));
+            flushCold(missed);
+        } catch (DataAccessException | TransactionException e) {
+            // Nada do lote foi confirmado: devolve os cliques ao buffer para tentar de novo na próxima rodada
+            failedFlushes.increment();
+            deltas.forEach(this::add);
+            outcome = "failure";
+            log.warn("Falha ao gravar {} contadores de cliques; nova tentativa na próxima rodada", deltas.size(), e);
+        } finally {
+            sample.stop(meterRegistry.timer("urlshortener.clicks.flush", "outcome", outcome));
+            meterRegistry.summary("urlshortener.clicks.flush.rows").record(deltas.size());
+        }
+    }
+
+    /**
+     * Grava tudo que estiver pendente antes de a aplicação desligar.
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+        // Segunda passada recolhe as sobras dos contadores aposentados na primeira
+        flush();
+    }
+
+    // ------------------------------------------------------------
+    // MÉTODOS PRIVADOS
+    // ------------------------------------------------------------
+
+    private void add(String shortCode, long amount) {
+        while (true) {
+            Counter counter = counters.get(shortCode);
+            if (counter == null) {
+                counter = counters.computeIfAbsent(shortCode, k -> new Counter());
+            }
+
+            if (!counter.retired) {
+                counter.adder.add(amount);
+                return;
+            }
+
+            // O contador acabou de ser aposentado pela gravação: ajuda a removê-lo e tenta de novo
+            counters.remove(shortCode, counter);
+        }
+    }
+
+    // Segundo lote, na camada fria; se falhar, só estes cliques voltam ao buffer
+    // (os da tabela principal já foram gravados)
+    private void flushCold(List<Object[]> missed) {
+        if (missed.isEmpty()) {
+            return;
+        }
+        try {
+            int[][] updated = coldLinkStore.addClicks(missed, batchSize);
+            flushedClicks.add(clicks(missed) - clicks(notUpdated(missed, updated)));
+        } catch (DataAccessException e) {
+            failedFlushes.increment();
+            for (Object[] row : missed) {
+                add((String) row[1], (Long) row[0]);
+            }
+            log.warn("Falha ao gravar {} contadores de cliques da camada fria; nova tentativa na próxima rodada",
+                missed.size(), e);
+        }
+    }
+
+    private static long clicks(List<Object[]> rows) {
+        long total = 0;
+        for (Object[] row : rows) {
+            total += (Long) row[0];
+        }
+        return total;
+    }
+
+    // Linhas do lote cujo UPDATE não encontrou o código na tabela principal
+    // (contagem desconhecida, como SUCCESS_NO_INFO, conta como encontrado)
+    private static List<Object[]> notUpdated(List<Object[]> args, int[][] updated) {
+        List<Object[]> missed = new ArrayList<>();
+        int row = 0;
+        for (int[] batch : updated) {
+            for (int count : batch) {
+                if (count == 0) {
+                    missed.add(args.get(row));
+                }
+                row++;
+            }
+        }
+        return missed;
+    }
+
+    private static final class Counter {
+        final LongAdder adder = new LongAdder();
+        volatile boolean retired;
+    }
+}
@@ -0,0 +1,74 @@
+package com.techsolutions.urlshortener.service;
+
+import com.techsolutions.urlshortener.util.ShortCodeGenerator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Preenche a coluna code_key dos registros gravados antes dela existir.
+ *
+ * Enquanto houver registros sem chave, o serviço complementa a busca numérica com a busca
+ * por short_code (isComplete() = false). Depois disso, só códigos fora do formato numérico
+ * (mais de 10 caracteres ou caracteres fora da base 62) usam o caminho por texto.
+ */
+@Component
+public class CodeKeyBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(CodeKeyBackfill.class);
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private volatile boolean complete;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        long lastId = 0;
+        long updated = 0;
+
+        while (true) {
+            List<Object[]> rows = jdbcTemplate.query(
+                "SELECT id, short_code FROM shortened_urls WHERE code_key IS NULL AND id > ? ORDER BY id LIMIT ?",
+                (rs, rowNum) -> new Object[] { rs.getLong("id"), rs.getString("short_code") },
+                lastId, BATCH_SIZE);
+            if (rows.isEmpty()) {
+                break;
+            }
+
+            List<Object[]> keys = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                long key = ShortCodeGenerator.toKey((String) row[1]);
+                if (key >= 0) {
+                    keys.add(new Object[] { key, row[0] });
+                }
+            }
+            jdbcTemplate.batchUpdate("UPDATE shortened_urls SET code_key = ? WHERE id = ? AND code_key IS NULL", keys);
+
+            updated += keys.size();
+            lastId = (Long) rows.get(rows.size() - 1)[0];
+        }
+
+        if (updated > 0) {
+            log.info("code_key preenchida em {} URLs", updated);
+        }
+        complete = true;
+    }
+
+    /**
+     * true quando todos os códigos numéricos já têm code_key no banco.
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+}
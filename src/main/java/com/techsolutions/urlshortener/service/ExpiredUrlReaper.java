@@ -0,0 +1,309 @@
+package com.techsolutions.urlshortener.service;
+
+import com.techsolutions.urlshortener.cache.DedupCache;
+import com.techsolutions.urlshortener.cache.RedirectCache;
+import com.techsolutions.urlshortener.index.CodeIndexService;
+import com.techsolutions.urlshortener.invalidation.CacheCoherence;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Retira de shortened_urls os links expirados (depois de um período de carência)
+ * e os desativados, arquivando-os em shortened_urls_archive ou apagando-os.
+ *
+ * Trabalha em lotes pequenos, cada um na sua transação curta (SELECT ... FOR UPDATE,
+ * INSERT ... SELECT, DELETE por id): nenhuma transação longa segura locks da tabela
+ * que o redirecionamento consulta. Para os caches, retirar um link é o mesmo que desativá-lo:
+ * o evento vai ao barramento na transação do lote (outras instâncias), e depois do commit
+ * os códigos saem dos caches desta (redirecionamento, deduplicação, índice mapeado).
+ * Os códigos arquivados continuam ocupados (ver UrlRepository.existsByShortCode); no modo
+ * delete não sobra registro deles, e um código customizado pode voltar a ser usado.
+ */
+@Component
+public class ExpiredUrlReaper {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpiredUrlReaper.class);
+
+    static final String EXPIRED = "EXPIRED";
+    static final String INACTIVE = "INACTIVE";
+
+    private static final String ARCHIVE_SQL =
+        "INSERT INTO shortened_urls_archive " +
+        "(id, short_code, code_key, original_url, click_count, created_at, expires_at, is_active, archived_at, reason) " +
+        "SELECT id, short_code, code_key, original_url, click_count, created_at, expires_at, is_active, :archivedAt, :reason " +
+        "FROM shortened_urls WHERE id IN (:ids)";
+
+    private static final String DELETE_SQL = "DELETE FROM shortened_urls WHERE id IN (:ids)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Autowired
+    private RedirectCache redirectCache;
+
+    @Autowired
+    private DedupCache dedupCache;
+
+    @Autowired
+    private CodeIndexService codeIndexService;
+
+    @Autowired
+    private CacheCoherence cacheCoherence;
+
+    @Autowired
+    private ClickCountBuffer clickCountBuffer;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final boolean enabled;
+    private final boolean archive;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final long gracePeriodSeconds;
+    private final boolean includeInactive;
+
+    // Cada lote numa transação própria
+    private final TransactionTemplate batchTransaction;
+
+    // Uma limpeza por vez (agendador e endpoint administrativo)
+    private final ReentrantLock runLock = new ReentrantLock();
+
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder archivedRows = new LongAdder();
+    private final LongAdder deletedRows = new LongAdder();
+
+    // Última execução
+    private volatile LocalDateTime lastRunAt;
+    private volatile long lastRunRows;
+    private volatile long lastRunMillis;
+    private volatile double lastThroughput;
+    private volatile double lagSeconds;
+
+    public ExpiredUrlReaper(PlatformTransactionManager transactionManager,
+                            @Value("${app.reaper.enabled:true}") boolean enabled,
+                            @Value("${app.reaper.mode:archive}") String mode,
+                            @Value("${app.reaper.batch-size:500}") int batchSize,
+                            @Value("${app.reaper.max-batches-per-run:20}") int maxBatchesPerRun,
+                            @Value("${app.reaper.grace-period-seconds:86400}") long gracePeriodSeconds,
+                            @Value("${app.reaper.include-inactive:true}") boolean includeInactive) {
+        if (!mode.equals("archive") && !mode.equals("delete")) {
+            throw new IllegalArgumentException("app.reaper.mode deve ser archive ou delete");
+        }
+        if (batchSize <= 0 || maxBatchesPerRun <= 0) {
+            throw new IllegalArgumentException("app.reaper.batch-size e max-batches-per-run devem ser maiores que zero");
+        }
+
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.archive = mode.equals("archive");
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.gracePeriodSeconds = gracePeriodSeconds;
+        this.includeInactive = includeInactive;
+    }
+
+    // ------------------------------------------------------------
+    // EXECUÇÃO
+    // ------------------------------------------------------------
+
+    @Scheduled(fixedDelayString = "${app.reaper.interval-ms:60000}",
+               initialDelayString = "${app.reaper.interval-ms:60000}")
+    public void scheduledRun() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            run();
+        } catch (IllegalStateException e) {
+            // Limpeza disparada pelo endpoint ainda em andamento
+        } catch (DataAccessException e) {
+            log.warn("Falha na limpeza de links expirados; nova tentativa na próxima rodada", e);
+        }
+    }
+
+    /**
+     * Remove até max-batches-per-run lotes de links expirados e desativados.
+     *
+     * @return Linhas removidas nesta execução
+     * @throws IllegalStateException se já houver uma limpeza em andamento
+     */
+    public long run() {
+        if (!runLock.tryLock()) {
+            throw new IllegalStateException("Já existe uma limpeza em andamento");
+        }
+        try {
+            return runLocked();
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    private long runLocked() {
+        // Cliques pendentes dos links que vão sair: grava antes, para irem junto para o arquivo
+        clickCountBuffer.flush();
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.minusSeconds(gracePeriodSeconds);
+        long start = System.nanoTime();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        long removed = 0;
+
+        try {
+            int batches = 0;
+            int last = batchSize;
+            while (batches < maxBatchesPerRun && last == batchSize) {
+                last = reapBatch(EXPIRED, "expires_at < ?", Timestamp.valueOf(cutoff), now);
+                removed += last;
+                batches++;
+            }
+
+            last = batchSize;
+            while (includeInactive && batches < maxBatchesPerRun && last == batchSize) {
+                last = reapBatch(INACTIVE, "is_active = ?", Boolean.FALSE, now);
+                removed += last;
+                batches++;
+            }
+
+            lagSeconds = computeLag(cutoff);
+        } catch (RuntimeException e) {
+            outcome = "failure";
+            throw e;
+        } finally {
+            long elapsedNanos = System.nanoTime() - start;
+            sample.stop(meterRegistry.timer("urlshortener.reaper.run", "outcome", outcome));
+            meterRegistry.summary("urlshortener.reaper.rows.per.run").record(removed);
+
+            runs.increment();
+            lastRunAt = now;
+            lastRunRows = removed;
+            lastRunMillis = elapsedNanos / 1_000_000;
+            lastThroughput = elapsedNanos == 0 ? 0 : removed * 1e9 / elapsedNanos;
+        }
+
+        if (removed > 0) {
+            log.info("Limpeza de links: {} removidos em {} ms", removed, lastRunMillis);
+        }
+        return removed;
+    }
+
+    /**
+     * Um lote: trava até batch-size linhas do critério, arquiva (se configurado) e apaga.
+     *
+     * @return Linhas removidas
+     */
+    private int reapBatch(String reason, String where, Object whereArg, LocalDateTime now) {
+        // shortCode → hash da URL (null em links antigos, sem hash)
+        Map<String, Long> codes = batchTransaction.execute(status -> {
+            List<Long> ids = new ArrayList<>();
+            Map<String, Long> batchCodes = new LinkedHashMap<>();
+            jdbcTemplate.query(
+                "SELECT id, short_code, url_hash FROM shortened_urls WHERE " + where + " LIMIT ? FOR UPDATE",
+                rs -> {
+                    ids.add(rs.getLong("id"));
+                    long urlHash = rs.getLong("url_hash");
+                    batchCodes.put(rs.getString("short_code"), rs.wasNull() ? null : urlHash);
+                },
+                whereArg, batchSize);
+            if (ids.isEmpty()) {
+                return batchCodes;
+            }
+
+            MapSqlParameterSource params = new MapSqlParameterSource("ids", ids);
+            if (archive) {
+                params.addValue("archivedAt", Timestamp.valueOf(now));
+                params.addValue("reason", reason);
+                namedJdbcTemplate.update(ARCHIVE_SQL, params);
+            }
+            namedJdbcTemplate.update(DELETE_SQL, params);
+
+            // Outras instâncias: só recebem se o lote confirmar
+            cacheCoherence.publishDeactivated(batchCodes);
+            return batchCodes;
+        });
+
+        // Só depois do commit: o redirecionamento não volta a encontrar os códigos no cache
+        codes.forEach((code, urlHash) -> {
+            redirectCache.invalidate(code);
+            codeIndexService.markDeactivated(code);
+            if (urlHash != null) {
+                dedupCache.invalidate(urlHash, code);
+            }
+        });
+
+        (archive ? archivedRows : deletedRows).add(codes.size());
+        meterRegistry.counter("urlshortener.reaper.rows", "reason", reason, "action", archive ? "archived" : "deleted")
+            .increment(codes.size());
+        return codes.size();
+    }
+
+    /**
+     * Atraso da limpeza: há quanto tempo o link expirado mais antigo ainda na tabela
+     * já deveria ter saído (0 = nada pendente).
+     */
+    private double computeLag(LocalDateTime cutoff) {
+        Timestamp oldest = jdbcTemplate.queryForObject(
+            "SELECT MIN(expires_at) FROM shortened_urls WHERE expires_at < ?", Timestamp.class,
+            Timestamp.valueOf(cutoff));
+        if (oldest == null) {
+            return 0;
+        }
+        return Duration.between(oldest.toLocalDateTime(), cutoff).toMillis() / 1000.0;
+    }
+
+    // ------------------------------------------------------------
+    // ESTATÍSTICAS
+    // ------------------------------------------------------------
+
+    public long getArchivedRows() { return archivedRows.sum(); }
+
+    public long getDeletedRows() { return deletedRows.sum(); }
+
+    public double getLagSeconds() { return lagSeconds; }
+
+    public double getLastThroughput() { return lastThroughput; }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("mode", archive ? "archive" : "delete");
+        stats.put("gracePeriodSeconds", gracePeriodSeconds);
+        stats.put("runs", runs.sum());
+        stats.put("archived", archivedRows.sum());
+        stats.put("deleted", deletedRows.sum());
+        stats.put("lastRunAt", lastRunAt);
+        stats.put("lastRunRows", lastRunRows);
+        stats.put("lastRunMillis", lastRunMillis);
+        stats.put("rowsPerSecond", lastThroughput);
+        stats.put("lagSeconds", lagSeconds);
+        return stats;
+    }
+}
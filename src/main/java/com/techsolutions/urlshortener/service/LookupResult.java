@@ -0,0 +1,53 @@
+package com.techsolutions.urlshortener.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resultado da busca de um código para redirecionamento, sem exceções no caminho normal.
+ *
+ * Os resultados sem URL (MISSING, EXPIRED, DISABLED) são instâncias únicas:
+ * um código inexistente não aloca nada nem monta stack trace.
+ */
+public final class LookupResult {
+
+    public enum Status {
+        FOUND,      // Ativa e dentro da validade
+        MISSING,    // Código não existe
+        EXPIRED,    // Existe, mas passou de expiresAt
+        DISABLED    // Existe, mas foi desativada
+    }
+
+    private static final LookupResult MISSING = new LookupResult(Status.MISSING, null, null);
+    private static final LookupResult EXPIRED = new LookupResult(Status.EXPIRED, null, null);
+    private static final LookupResult DISABLED = new LookupResult(Status.DISABLED, null, null);
+
+    private final Status status;
+    private final String originalUrl;
+    private final LocalDateTime expiresAt;
+
+    private LookupResult(Status status, String originalUrl, LocalDateTime expiresAt) {
+        this.status = status;
+        this.originalUrl = originalUrl;
+        this.expiresAt = expiresAt;
+    }
+
+    public static LookupResult found(String originalUrl, LocalDateTime expiresAt) {
+        return new LookupResult(Status.FOUND, originalUrl, expiresAt);
+    }
+
+    public static LookupResult missing() { return MISSING; }
+
+    public static LookupResult expired() { return EXPIRED; }
+
+    public static LookupResult disabled() { return DISABLED; }
+
+    public Status getStatus() { return status; }
+
+    public boolean isFound() { return status == Status.FOUND; }
+
+    // Só preenchida quando FOUND
+    public String getOriginalUrl() { return originalUrl; }
+
+    // Validade da URL encontrada (null = não expira); usada para limitar o cache do navegador
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+}
@@ -0,0 +1,71 @@
+package com.techsolutions.urlshortener.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Status, Location e cabeçalho Cache-Control das respostas de redirecionamento (MVC e reativo).
+ *
+ * - 302 sem cache (padrão): todo clique passa pelo serviço e é contado.
+ * - 301 com max-age: navegadores e CDNs guardam o redirecionamento e deixam de
+ *   perguntar ao serviço (menos carga, mas esses cliques não são contados).
+ * O max-age nunca passa da validade da URL, para um link expirado não continuar no cache.
+ */
+@Component
+public class RedirectPolicy {
+
+    private final HttpStatus status;
+    private final long maxAgeSeconds;
+
+    public RedirectPolicy(@Value("${app.redirect.status:302}") int status,
+                          @Value("${app.redirect.cache-max-age-seconds:0}") long maxAgeSeconds) {
+        HttpStatus resolved = HttpStatus.valueOf(status);
+        if (!resolved.is3xxRedirection()) {
+            throw new IllegalArgumentException("app.redirect.status deve ser um status 3xx: " + status);
+        }
+        if (maxAgeSeconds < 0) {
+            throw new IllegalArgumentException("app.redirect.cache-max-age-seconds não pode ser negativo");
+        }
+        this.status = resolved;
+        this.maxAgeSeconds = maxAgeSeconds;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Location do redirecionamento. Quem chama só conta o clique se houver Location:
+     * uma URL gravada que não vira URI absoluta responde 404, não 3xx.
+     *
+     * @return URI absoluta, ou null se a URL original não for uma
+     */
+    public URI location(String originalUrl) {
+        try {
+            URI uri = URI.create(originalUrl);
+            return uri.isAbsolute() ? uri : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Cache-Control para uma URL encontrada.
+     *
+     * @param expiresAt Validade da URL (null = não expira)
+     */
+    public CacheControl cacheControl(LocalDateTime expiresAt) {
+        long maxAge = maxAgeSeconds;
+        if (maxAge > 0 && expiresAt != null) {
+            maxAge = Math.min(maxAge, Math.max(0, Duration.between(LocalDateTime.now(), expiresAt).getSeconds()));
+        }
+        return maxAge > 0 ? CacheControl.maxAge(maxAge, TimeUnit.SECONDS).cachePublic() : CacheControl.noCache();
+    }
+}
@@ -0,0 +1,384 @@
+package com.techsolutions.urlshortener.service;
+
+import com.techsolutions.urlshortener.cache.RedirectCache;
+import com.techsolutions.urlshortener.cache.ShortCodeFilter;
+import com.techsolutions.urlshortener.dto.BatchItemResult;
+import com.techsolutions.urlshortener.dto.CreateUrlRequest;
+import com.techsolutions.urlshortener.invalidation.CacheCoherence;
+import com.techsolutions.urlshortener.model.ShortenedUrl;
+import com.techsolutions.urlshortener.repository.UrlRepository;
+import com.techsolutions.urlshortener.util.ShortCodeAllocator;
+import com.techsolutions.urlshortener.util.UrlNormalizer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Criação de URLs em lote (POST /api/urls/batch).
+ *
+ * Os itens são processados em blocos de app.batch.chunk-size:
+ * - validação de cada item em memória
+ * - deduplicação (app.dedup.enabled) com uma consulta por tabela para o bloco: URLs já
+ *   encurtadas devolvem o código existente, e repetidas no bloco ficam com o da primeira
+ * - uma única consulta para saber quais códigos do bloco já existem
+ * - códigos gerados alocados de uma vez (uma ida ao banco)
+ * - INSERTs agrupados em lotes JDBC pelo Hibernate, numa transação por bloco
+ * - depois do commit, as URLs novas entram no cache de deduplicação, como na criação avulsa
+ */
+@Service
+public class UrlBatchService {
+
+    // Tentativas de um item na gravação item a item (mesmo limite da criação avulsa)
+    private static final int MAX_INSERT_ATTEMPTS = 3;
+
+    @Autowired
+    private UrlRepository urlRepository;
+
+    @Autowired
+    private UrlShortenerService urlService;
+
+    @Autowired
+    private ShortCodeAllocator codeAllocator;
+
+    @Autowired
+    private RedirectCache redirectCache;
+
+    @Autowired
+    private ShortCodeFilter codeFilter;
+
+    @Autowired
+    private CacheCoherence cacheCoherence;
+    
+    @Autowired
+    private Validator validator;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.base-url}")
+    private String baseUrl;
+
+    @Value("${app.batch.chunk-size:500}")
+    private int chunkSize;
+
+    public UrlBatchService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // ------------------------------------------------------------
+    // MÉTODO PRINCIPAL: Criar várias URLs
+    // ------------------------------------------------------------
+
+    /**
+     * Cria várias URLs encurtadas, em blocos.
+     *
+     * @param requests Itens do lote (item null = JSON inválido na entrada)
+     * @param firstIndex Índice do primeiro item (para lotes lidos em partes, como no NDJSON)
+     * @return Um resultado por item, na mesma ordem
+     */
+    public List<BatchItemResult> createShortUrls(List<CreateUrlRequest> requests, int firstIndex) {
+        List<BatchItemResult> results = new ArrayList<>(requests.size());
+
+        for (int start = 0; start < requests.size(); start += chunkSize) {
+            int end = Math.min(start + chunkSize, requests.size());
+            Timer.Sample sample = Timer.start(meterRegistry);
+            List<BatchItemResult> chunk = createChunk(requests.subList(start, end), firstIndex + start);
+            sample.stop(meterRegistry.timer("urlshortener.batch.chunk"));
+
+            for (BatchItemResult result : chunk) {
+                // status: CREATED / INVALID / CONFLICT / ERROR (conjunto fechado)
+                meterRegistry.counter("urlshortener.batch.items", "status", result.getStatus()).increment();
+            }
+            results.addAll(chunk);
+        }
+
+        return results;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    // ------------------------------------------------------------
+    // MÉTODOS PRIVADOS
+    // ------------------------------------------------------------
+
+    private List<BatchItemResult> createChunk(List<CreateUrlRequest> chunk, int firstIndex) {
+        BatchItemResult[] results = new BatchItemResult[chunk.size()];
+        String[] codes = new String[chunk.size()];
+
+        // 1) Validação e códigos customizados
+        Set<String> customCodes = new HashSet<>();
+
+        for (int i = 0; i < chunk.size(); i++) {
+            CreateUrlRequest request = chunk.get(i);
+            String error = validate(request);
+
+            if (error != null) {
+                results[i] = BatchItemResult.failed(firstIndex + i, BatchItemResult.INVALID, error);
+            } else if (hasCustomCode(request)) {
+                String customCode = request.getCustomCode();
+                if (!customCodes.add(customCode)) {
+                    results[i] = BatchItemResult.failed(firstIndex + i, BatchItemResult.CONFLICT,
+                        "Código customizado '" + customCode + "' repetido no lote.");
+                } else {
+                    codes[i] = customCode;
+                }
+            }
+        }
+
+        // 2) Deduplicação: sameAs[i] = posição do item igual anterior no bloco (-1 = nenhum)
+        int[] sameAs = deduplicate(chunk, firstIndex, results, codes);
+
+        // 3) Códigos gerados, todos de uma vez
+        int generatedCount = 0;
+        for (int i = 0; i < chunk.size(); i++) {
+            if (needsGeneratedCode(i, results, codes, sameAs)) {
+                generatedCount++;
+            }
+        }
+        List<String> generated = codeAllocator.allocate(generatedCount);
+        int next = 0;
+        for (int i = 0; i < chunk.size(); i++) {
+            if (needsGeneratedCode(i, results, codes, sameAs)) {
+                codes[i] = generated.get(next++);
+            }
+        }
+
+        // 4) Uma consulta para todos os códigos do bloco
+        Set<String> existing = findExisting(codes);
+        for (int i = 0; i < chunk.size(); i++) {
+            if (codes[i] == null || !existing.contains(codes[i])) {
+                continue;
+            }
+
+            if (hasCustomCode(chunk.get(i))) {
+                results[i] = BatchItemResult.failed(firstIndex + i, BatchItemResult.CONFLICT,
+                    "Código customizado '" + codes[i] + "' já está em uso.");
+                codes[i] = null;
+            } else {
+                // Código gerado que alguém já escolheu manualmente: troca pelo próximo livre
+                codes[i] = allocateFree(customCodes);
+            }
+        }
+
+        // 5) Grava o bloco numa única transação (INSERTs em lote JDBC)
+        List<ShortenedUrl> entities = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            if (results[i] == null && sameAs[i] < 0) {
+                entities.add(urlService.buildNewUrl(codes[i], chunk.get(i)));
+                positions.add(i);
+            }
+        }
+
+        List<String> created = new ArrayList<>(positions.size());
+        try {
+            saveAll(entities);
+            entities.forEach(urlService::rememberForDedup);
+            for (int i : positions) {
+                results[i] = BatchItemResult.created(firstIndex + i, codes[i], baseUrl + "/" + codes[i]);
+                created.add(codes[i]);
+            }
+        } catch (DataIntegrityViolationException e) {
+            // Algum código foi gravado por outra requisição entre a consulta e o INSERT:
+            // grava este bloco item a item, com os códigos já reservados, para isolar o conflito
+            for (int i : positions) {
+                results[i] = createOne(chunk.get(i), codes[i], customCodes, firstIndex + i);
+                if (BatchItemResult.CREATED.equals(results[i].getStatus())) {
+                    created.add(results[i].getShortCode());
+                }
+            }
+        }
+
+        for (String code : created) {
+            redirectCache.invalidate(code);
+            codeFilter.add(code);
+        }
+
+        // Repetidos no bloco: mesmo resultado do primeiro
+        for (int i = 0; i < chunk.size(); i++) {
+            if (sameAs[i] >= 0) {
+                results[i] = copyOf(results[sameAs[i]], firstIndex + i);
+            }
+        }
+
+        List<BatchItemResult> list = new ArrayList<>(results.length);
+        for (BatchItemResult result : results) {
+            list.add(result);
+        }
+        return list;
+    }
+
+    // Itens sem código customizado que não reaproveitam uma URL existente nem outro item
+    private int[] deduplicate(List<CreateUrlRequest> chunk, int firstIndex, BatchItemResult[] results, String[] codes) {
+        int[] sameAs = new int[chunk.size()];
+        Arrays.fill(sameAs, -1);
+
+        String[] normalized = new String[chunk.size()];
+        Set<String> urls = new HashSet<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            if (results[i] == null && codes[i] == null && urlService.isDedupCandidate(chunk.get(i))) {
+                normalized[i] = UrlNormalizer.normalize(chunk.get(i).getOriginalUrl());
+                urls.add(normalized[i]);
+            }
+        }
+        if (urls.isEmpty()) {
+            return sameAs;
+        }
+
+        Map<String, ShortenedUrl> existing = urlService.findDuplicates(urls);
+        Map<String, Integer> firstPosition = new HashMap<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            if (normalized[i] == null) {
+                continue;
+            }
+            ShortenedUrl url = existing.get(normalized[i]);
+            if (url != null) {
+                results[i] = BatchItemResult.created(firstIndex + i, url.getShortCode(), baseUrl + "/" + url.getShortCode());
+            } else {
+                Integer first = firstPosition.putIfAbsent(normalized[i], i);
+                if (first != null) {
+                    sameAs[i] = first;
+                }
+            }
+        }
+        return sameAs;
+    }
+
+    private static boolean needsGeneratedCode(int i, BatchItemResult[] results, String[] codes, int[] sameAs) {
+        return results[i] == null && codes[i] == null && sameAs[i] < 0;
+    }
+
+    private static BatchItemResult copyOf(BatchItemResult result, int index) {
+        return BatchItemResult.CREATED.equals(result.getStatus())
+            ? BatchItemResult.created(index, result.getShortCode(), result.getShortUrl())
+            : BatchItemResult.failed(index, result.getStatus(), result.getError());
+    }
+
+    private void saveAll(List<ShortenedUrl> entities) {
+        if (entities.isEmpty()) {
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            // Flush pelo repositório (e não pelo EntityManager): a violação de UNIQUE chega
+            // traduzida como DataIntegrityViolationException, que dispara a gravação item a item
+            urlRepository.saveAllAndFlush(entities);
+            // Eventos na mesma transação dos INSERTs (um único INSERT em lote no jdbc)
+            List<String> codes = new ArrayList<>(entities.size());
+            for (ShortenedUrl entity : entities) {
+                codes.add(entity.getShortCode());
+            }
+            cacheCoherence.publishCreated(codes);
+            // Solta as entidades da sessão para a memória não crescer de bloco em bloco
+            entityManager.clear();
+        });
+    }
+
+    /**
+     * Grava um item sozinho com o código já reservado para ele. Código customizado em uso
+     * é CONFLICT; código gerado em uso (escolhido manualmente no meio) troca pelo próximo livre.
+     */
+    private BatchItemResult createOne(CreateUrlRequest request, String code, Set<String> reserved, int index) {
+        String current = code;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                // Entidade nova a cada tentativa: a do saveAll que falhou já recebeu id
+                ShortenedUrl entity = urlService.buildNewUrl(current, request);
+                saveAll(List.of(entity));
+                urlService.rememberForDedup(entity);
+                return BatchItemResult.created(index, current, baseUrl + "/" + current);
+            } catch (DataIntegrityViolationException e) {
+                if (hasCustomCode(request)) {
+                    return BatchItemResult.failed(index, BatchItemResult.CONFLICT,
+                        "Código customizado '" + current + "' já está em uso.");
+                }
+                if (attempt >= MAX_INSERT_ATTEMPTS) {
+                    return BatchItemResult.failed(index, BatchItemResult.ERROR,
+                        "Não foi possível gravar um código único após " + MAX_INSERT_ATTEMPTS + " tentativas.");
+                }
+                current = allocateFree(reserved);
+            } catch (RuntimeException e) {
+                return BatchItemResult.failed(index, BatchItemResult.ERROR, e.getMessage());
+            }
+        }
+    }
+
+    private String validate(CreateUrlRequest request) {
+        if (request == null) {
+            return "JSON inválido.";
+        }
+
+        Set<ConstraintViolation<CreateUrlRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+        }
+
+        if (hasCustomCode(request)) {
+            try {
+                urlService.validateCustomCode(request.getCustomCode());
+            } catch (IllegalArgumentException e) {
+                return e.getMessage();
+            }
+        }
+        return null;
+    }
+
+    private Set<String> findExisting(String[] codes) {
+        List<String> candidates = new ArrayList<>();
+        for (String code : codes) {
+            // Códigos que o filtro não conhece com certeza estão livres: ficam fora da consulta
+            if (code != null && codeFilter.mightContain(code)) {
+                candidates.add(code);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(urlRepository.findExistingShortCodes(candidates));
+    }
+
+    private String allocateFree(Set<String> reserved) {
+        while (true) {
+            String code = codeAllocator.allocate();
+            if (!reserved.contains(code)
+                    && (!codeFilter.mightContain(code) || !urlRepository.existsByShortCode(code))) {
+                return code;
+            }
+        }
+    }
+
+    private static boolean hasCustomCode(CreateUrlRequest request) {
+        return request.getCustomCode() != null && !request.getCustomCode().isBlank();
+    }
+}
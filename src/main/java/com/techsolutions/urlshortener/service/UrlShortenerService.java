@@ -1,22 +1,60 @@
 package com.techsolutions.urlshortener.service;
 
 // Importa nossos componentes
+import com.techsolutions.urlshortener.cache.CachedUrl;
+import com.techsolutions.urlshortener.cache.DedupCache;
+import com.techsolutions.urlshortener.cache.RedirectCache;
+import com.techsolutions.urlshortener.cache.RedirectLoadCoalescer;
+import com.techsolutions.urlshortener.cache.ShortCodeFilter;
 import com.techsolutions.urlshortener.dto.CreateUrlRequest;
+import com.techsolutions.urlshortener.dto.UrlFilter;
+import com.techsolutions.urlshortener.dto.UrlPage;
 import com.techsolutions.urlshortener.dto.UrlResponse;
+import com.techsolutions.urlshortener.index.CodeIndex;
+import com.techsolutions.urlshortener.index.CodeIndexService;
+import com.techsolutions.urlshortener.invalidation.CacheCoherence;
+import com.techsolutions.urlshortener.metrics.RedirectMetrics;
 import com.techsolutions.urlshortener.model.ShortenedUrl;
+import com.techsolutions.urlshortener.repository.UrlQueryRepository;
 import com.techsolutions.urlshortener.repository.UrlRepository;
+import com.techsolutions.urlshortener.tiering.ColdLinkStore;
+import com.techsolutions.urlshortener.tiering.LinkTieringService;
+import com.techsolutions.urlshortener.util.SequenceShortCodeAllocator;
+import com.techsolutions.urlshortener.util.ShortCodeAllocator;
 import com.techsolutions.urlshortener.util.ShortCodeGenerator;
+import com.techsolutions.urlshortener.util.UrlNormalizer;
+
+// Importa do Jackson (JSON)
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 // Importa do Spring
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 // Importa utilitários
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 // @Service → Marca esta classe como um SERVIÇO Spring
@@ -34,65 +72,258 @@ public class UrlShortenerService {
     @Autowired
     private ShortCodeGenerator codeGenerator;
     
+    @Autowired
+    private RedirectCache redirectCache;
+    
+    @Autowired
+    private ClickCountBuffer clickCountBuffer;
+    
     // @Value → Injeta valor do application.yml
     @Value("${app.base-url}")
     private String baseUrl;
     
-    @Value("${app.short-code-length:6}")
-    private int shortCodeLength;
+    @Autowired
+    private ShortCodeAllocator codeAllocator;
+    
+    @Autowired
+    private UrlQueryRepository urlQueryRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private CodeKeyBackfill codeKeyBackfill;
+    
+    @Autowired
+    private ShortCodeFilter codeFilter;
+    
+    @Autowired
+    private RedirectLoadCoalescer loadCoalescer;
+    
+    @Autowired
+    private RedirectMetrics metrics;
+    
+    @Autowired
+    private DedupCache dedupCache;
+    
+    // Avisa as outras instâncias (caches delas) de cada código criado ou desativado
+    @Autowired
+    private CacheCoherence cacheCoherence;
+    
+    // Redirecionamento pelo índice mapeado em memória (app.redirect.source=index)
+    @Autowired
+    private CodeIndexService codeIndexService;
+    
+    // Camada fria (links sem acessos recentes, fora de shortened_urls) e contagem de acessos
+    @Autowired
+    private ColdLinkStore coldStore;
+    
+    @Autowired
+    private LinkTieringService tiering;
+    
+    // Reaproveita a URL curta de uma URL original já encurtada (ver findDuplicate)
+    @Value("${app.dedup.enabled:false}")
+    private boolean dedupEnabled;
+    
+    private final TransactionTemplate readOnlyTransaction;
+    
+    // Transação da criação: o INSERT e o evento do barramento confirmam juntos
+    private final TransactionTemplate createTransaction;
+    
+    // Tamanho máximo de uma página da listagem
+    public static final int MAX_PAGE_SIZE = 500;
+    
+    // Tentativas de INSERT quando um código gerado colide com um código customizado
+    private static final int MAX_INSERT_ATTEMPTS = 3;
+    
+    // Segmentos fixos das rotas de /api/urls (/batch, /export, /{código}/stats): como código,
+    // deixariam a rota ambígua. Comparados sem diferenciar maiúsculas
+    private static final Set<String> RESERVED_CODES = Set.of("batch", "export", "stats");
+    
+    public UrlShortenerService(PlatformTransactionManager transactionManager) {
+        // Transação somente leitura usada pela exportação (cursor JDBC)
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.createTransaction = new TransactionTemplate(transactionManager);
+    }
     
     // ------------------------------------------------------------
     // MÉTODO PRINCIPAL: Criar URL encurtada
     // ------------------------------------------------------------
     
     /**
-     * Cria uma nova URL encurtada
+     * Cria uma nova URL encurtada.
+     * Para códigos gerados, o alocador já garante um código livre: a criação é um único INSERT.
      * 
      * @param request Dados da URL a ser encurtada
      * @return Resposta com dados da URL criada
      * @throws IllegalArgumentException Se o código customizado já existir
      */
-    @Transactional
     public UrlResponse createShortUrl(CreateUrlRequest request) {
-        String shortCode;
+        long start = System.nanoTime();
         
         // Verifica se o usuário forneceu um código customizado
-        if (request.getCustomCode() != null && !request.getCustomCode().isBlank()) {
-            shortCode = request.getCustomCode();
-            
-            // Valida se o código customizado é válido
-            if (!codeGenerator.isValidCode(shortCode)) {
-                throw new IllegalArgumentException(
-                    "Código customizado inválido. Use apenas letras e números."
-                );
+        boolean custom = request.getCustomCode() != null && !request.getCustomCode().isBlank();
+        String type = custom ? "custom" : "generated";
+        
+        if (custom) {
+            try {
+                // Valida formato e tamanho do código customizado
+                validateCustomCode(request.getCustomCode());
+            } catch (IllegalArgumentException e) {
+                metrics.recordCreate(type, RedirectMetrics.INVALID, System.nanoTime() - start);
+                throw e;
             }
-            
-            // Verifica se o código customizado já existe
-            if (urlRepository.existsByShortCode(shortCode)) {
-                throw new IllegalArgumentException(
-                    "Código customizado '" + shortCode + "' já está em uso."
-                );
+        }
+        
+        String outcome = RedirectMetrics.ERROR;
+        try {
+            if (!custom) {
+                UrlResponse existing = findDuplicate(request);
+                if (existing != null) {
+                    outcome = RedirectMetrics.DEDUPLICATED;
+                    return existing;
+                }
             }
-        } else {
-            // Gera código aleatório até encontrar um disponível
-            shortCode = generateUniqueShortCode();
+            
+            UrlResponse response = custom ? createWithCustomCode(request) : createWithGeneratedCode(request);
+            outcome = RedirectMetrics.SUCCESS;
+            return response;
+        } catch (IllegalArgumentException e) {
+            outcome = RedirectMetrics.CONFLICT;
+            throw e;
+        } finally {
+            metrics.recordCreate(type, outcome, System.nanoTime() - start);
         }
+    }
+    
+    private UrlResponse createWithCustomCode(CreateUrlRequest request) {
+        String shortCode = request.getCustomCode();
         
-        // Cria a entidade para salvar no banco
-        ShortenedUrl shortenedUrl = new ShortenedUrl(shortCode, request.getOriginalUrl());
+        // Verifica se o código customizado já existe
+        // (se o filtro não conhece o código, ele com certeza está livre: pula a consulta)
+        if (codeFilter.mightContain(shortCode) && urlRepository.existsByShortCode(shortCode)) {
+            throw new IllegalArgumentException(
+                "Código customizado '" + shortCode + "' já está em uso."
+            );
+        }
         
-        // Configura expiração se fornecida
-        if (request.getExpiresInDays() != null && request.getExpiresInDays() > 0) {
-            LocalDateTime expiresAt = LocalDateTime.now()
-                .plusDays(request.getExpiresInDays());
-            shortenedUrl.setExpiresAt(expiresAt);
+        try {
+            return convertToResponse(saveNewUrl(shortCode, request));
+        } catch (DataIntegrityViolationException e) {
+            // Outra requisição gravou o mesmo código entre a verificação e o INSERT
+            throw new IllegalArgumentException(
+                "Código customizado '" + shortCode + "' já está em uso."
+            );
+        }
+    }
+    
+    private UrlResponse createWithGeneratedCode(CreateUrlRequest request) {
+        // Código gerado: só colide se alguém escolheu manualmente o mesmo código antes.
+        // Nesse caso raro, a constraint UNIQUE recusa o INSERT e pegamos o próximo código.
+        for (int attempt = 1; ; attempt++) {
+            String shortCode = generateUniqueShortCode();
+            try {
+                // A constraint UNIQUE não vê a camada fria: conferida aqui (só se o filtro conhece o código)
+                if (codeFilter.mightContain(shortCode) && coldStore.exists(shortCode)) {
+                    throw new DataIntegrityViolationException("Código já em uso na camada fria: " + shortCode);
+                }
+                UrlResponse response = convertToResponse(saveNewUrl(shortCode, request));
+                metrics.recordCodeAttempts(attempt);
+                return response;
+            } catch (DataIntegrityViolationException e) {
+                if (attempt >= MAX_INSERT_ATTEMPTS) {
+                    metrics.recordCodeAttempts(attempt);
+                    throw new RuntimeException(
+                        "Não foi possível gravar um código único após " + MAX_INSERT_ATTEMPTS + " tentativas.", e
+                    );
+                }
+            }
+        }
+    }
+    
+    /**
+     * Deduplicação (app.dedup.enabled): procura uma URL curta ativa e sem expiração já
+     * criada para a mesma URL normalizada (UrlNormalizer). Só para códigos gerados e pedidos
+     * sem expiração: quem escolhe o código ou pede expiração sempre recebe uma URL nova.
+     * Duas criações simultâneas da mesma URL ainda podem gerar dois códigos (não há UNIQUE).
+     * 
+     * @param request Dados da URL a ser encurtada
+     * @return URL existente, ou null para criar uma nova
+     */
+    private UrlResponse findDuplicate(CreateUrlRequest request) {
+        if (!dedupEnabled || hasExpiration(request)) {
+            return null;
         }
         
-        // Salva no banco de dados
-        ShortenedUrl savedUrl = urlRepository.save(shortenedUrl);
+        String normalized = UrlNormalizer.normalize(request.getOriginalUrl());
+        long hash = UrlNormalizer.hash(normalized);
         
-        // Converte para DTO de resposta
-        return convertToResponse(savedUrl);
+        // Cache primeiro; no banco, o hash acha os candidatos e a URL normalizada confirma
+        // (a camada fria por último: o link pode ter sido movido para lá por falta de acessos)
+        ShortenedUrl existing = dedupCache.get(hash, normalized);
+        if (existing == null) {
+            existing = firstMatch(urlRepository.findReusableByUrlHash(hash), normalized);
+            if (existing == null) {
+                existing = firstMatch(coldStore.findReusableByUrlHash(hash), normalized);
+            }
+            if (existing != null) {
+                dedupCache.put(hash, normalized, existing);
+            }
+        }
+        return existing == null ? null : convertToResponse(existing);
+    }
+    
+    /**
+     * Se o item do lote passa pela deduplicação (mesmas regras de findDuplicate).
+     */
+    boolean isDedupCandidate(CreateUrlRequest request) {
+        boolean custom = request.getCustomCode() != null && !request.getCustomCode().isBlank();
+        return dedupEnabled && !custom && !hasExpiration(request);
+    }
+    
+    /**
+     * findDuplicate para um bloco do lote (UrlBatchService): o cache primeiro e, para o que
+     * faltar, uma consulta por tabela com todos os hashes em vez de uma por item.
+     * 
+     * @param normalizedUrls URLs já normalizadas (UrlNormalizer)
+     * @return URL normalizada → URL existente a reaproveitar (só as encontradas)
+     */
+    Map<String, ShortenedUrl> findDuplicates(Set<String> normalizedUrls) {
+        Map<String, ShortenedUrl> found = new HashMap<>();
+        Set<Long> missing = new HashSet<>();
+        for (String normalized : normalizedUrls) {
+            long hash = UrlNormalizer.hash(normalized);
+            ShortenedUrl cached = dedupCache.get(hash, normalized);
+            if (cached != null) {
+                found.put(normalized, cached);
+            } else {
+                missing.add(hash);
+            }
+        }
+        if (missing.isEmpty()) {
+            return found;
+        }
+        
+        // Tabela principal antes da camada fria, em ordem de id: fica o primeiro candidato de cada URL
+        List<ShortenedUrl> candidates = new ArrayList<>(urlRepository.findReusableByUrlHashes(missing));
+        candidates.addAll(coldStore.findReusableByUrlHashes(missing));
+        for (ShortenedUrl candidate : candidates) {
+            String normalized = UrlNormalizer.normalize(candidate.getOriginalUrl());
+            if (normalizedUrls.contains(normalized) && found.putIfAbsent(normalized, candidate) == null) {
+                dedupCache.put(UrlNormalizer.hash(normalized), normalized, candidate);
+            }
+        }
+        return found;
+    }
+    
+    private static ShortenedUrl firstMatch(List<ShortenedUrl> candidates, String normalized) {
+        for (ShortenedUrl candidate : candidates) {
+            if (UrlNormalizer.normalize(candidate.getOriginalUrl()).equals(normalized)) {
+                return candidate;
+            }
+        }
+        return null;
     }
     
     // ------------------------------------------------------------
@@ -100,53 +331,273 @@ public class UrlShortenerService {
     // ------------------------------------------------------------
     
     /**
-     * Busca URL original pelo código curto e incrementa contador
+     * Busca a URL de um código para redirecionar e, se encontrada, conta o clique.
+     * Consulta primeiro o cache em memória; o banco só é lido em caso de miss.
+     * Não lança exceção para código inexistente, expirado ou desativado: o motivo vem no resultado.
      * 
      * @param shortCode Código curto (ex: "abc123")
-     * @return URL original se encontrada e ativa
-     * @throws RuntimeException Se URL não for encontrada ou expirada
+     * @return FOUND com a URL original, ou MISSING / EXPIRED / DISABLED
      */
-    @Transactional
-    public String getOriginalUrl(String shortCode) {
-        // Busca no banco
-        Optional<ShortenedUrl> urlOpt = urlRepository.findByShortCode(shortCode);
-        
-        if (urlOpt.isEmpty()) {
-            throw new RuntimeException("URL não encontrada para o código: " + shortCode);
+    public LookupResult lookup(String shortCode) {
+        LookupResult result = resolve(shortCode);
+        if (result.getStatus() == LookupResult.Status.FOUND) {
+            recordClick(shortCode);
         }
+        return result;
+    }
+    
+    /**
+     * Como lookup, mas sem contar o clique: para quem só decide se vai redirecionar depois
+     * (RedirectController valida a URL antes) e chama recordClick ao redirecionar.
+     * 
+     * @param shortCode Código curto (ex: "abc123")
+     * @return FOUND com a URL original, ou MISSING / EXPIRED / DISABLED
+     */
+    public LookupResult resolve(String shortCode) {
+        long start = System.nanoTime();
+        LookupResult result = findForRedirect(shortCode);
+        metrics.recordLookup(result.getStatus(), System.nanoTime() - start);
+        return result;
+    }
+    
+    /**
+     * Conta um clique num código encontrado por resolve (em memória; gravado em lote depois).
+     */
+    public void recordClick(String shortCode) {
+        clickCountBuffer.record(shortCode);
+        tiering.recordAccess(shortCode);
+    }
+    
+    private LookupResult findForRedirect(String shortCode) {
+        LookupResult indexed = findInIndex(shortCode);
+        if (indexed != null) {
+            return indexed;
+        }
+        
+        // Busca no cache (e, se não estiver lá, no banco)
+        CachedUrl url = redirectCache.get(shortCode);
         
-        ShortenedUrl url = urlOpt.get();
+        if (url == null) {
+            // Código que o filtro de Bloom não conhece: não existe, nem consulta o banco
+            if (!codeFilter.mightContain(shortCode)) {
+                return LookupResult.missing();
+            }
+            
+            // Requisições simultâneas pelo mesmo código dividem uma consulta só
+            url = loadCoalescer.load(shortCode, this::loadForRedirect);
+            
+            if (url == null) {
+                return LookupResult.missing();
+            }
+        }
         
         // Verifica se está ativa
-        if (!url.getIsActive()) {
-            throw new RuntimeException("URL está desativada: " + shortCode);
+        if (!url.isActive()) {
+            return LookupResult.disabled();
         }
         
         // Verifica se expirou
-        if (url.getExpiresAt() != null && url.getExpiresAt().isBefore(LocalDateTime.now())) {
-            throw new RuntimeException("URL expirada: " + shortCode);
+        if (url.isExpiredAt(LocalDateTime.now())) {
+            return LookupResult.expired();
+        }
+        
+        return LookupResult.found(url.getOriginalUrl(), url.getExpiresAt());
+    }
+    
+    // Miss do cache: lê o banco e guarda o resultado, também de URLs inativas/expiradas
+    // (o próximo acesso já é respondido sem banco). Fora da tabela principal, tenta a camada fria
+    private CachedUrl loadForRedirect(String shortCode) {
+        // Carimbo antes da leitura: uma desativação confirmada no meio descarta o put
+        long stamp = redirectCache.loadStamp();
+        Optional<ShortenedUrl> urlOpt = findByCode(shortCode);
+        if (urlOpt.isEmpty()) {
+            urlOpt = coldStore.find(shortCode);
+            if (urlOpt.isEmpty()) {
+                return null;
+            }
+            tiering.onColdHit(shortCode);
+        }
+        CachedUrl url = CachedUrl.from(urlOpt.get());
+        redirectCache.put(shortCode, url, stamp);
+        return url;
+    }
+    
+    /**
+     * Camada sem banco (app.redirect.source=index): o índice mapeado responde sozinho
+     * (código fora dele = 404, salvo database-fallback). Usado também pelo redirecionamento reativo.
+     * 
+     * @return Resultado do índice, ou null se o caminho pelo cache/banco deve ser usado
+     */
+    public LookupResult findInIndex(String shortCode) {
+        CodeIndex index = codeIndexService.current();
+        if (index == null) {
+            return null;
+        }
+        LookupResult result = findInIndex(index, shortCode);
+        if (result.getStatus() == LookupResult.Status.MISSING && codeIndexService.isDatabaseFallback()) {
+            return null;
+        }
+        return result;
+    }
+    
+    // Mesmas regras do caminho pelo cache, lendo direto do arquivo mapeado (sem alocar até a URL)
+    private LookupResult findInIndex(CodeIndex index, String shortCode) {
+        long slot = index.find(ShortCodeGenerator.toKey(shortCode));
+        if (slot < 0) {
+            return LookupResult.missing();
+        }
+        if (!index.isActive(slot) || codeIndexService.isDeactivated(shortCode)) {
+            return LookupResult.disabled();
         }
         
-        // Incrementa contador de cliques
-        urlRepository.incrementClickCount(shortCode);
+        LocalDateTime expiresAt = null;
+        long expiresAtSecond = index.getExpiresAtEpochSecond(slot);
+        if (expiresAtSecond != CodeIndex.NO_EXPIRATION) {
+            expiresAt = LocalDateTime.ofEpochSecond(expiresAtSecond, 0, ZoneOffset.UTC);
+            if (expiresAt.isBefore(LocalDateTime.now())) {
+                return LookupResult.expired();
+            }
+        }
+        
+        return LookupResult.found(index.getUrl(slot), expiresAt);
+    }
+    
+    /**
+     * Busca URL original pelo código curto e incrementa contador.
+     * Mesmo que lookup(), mas sinalizando os casos sem URL com exceção.
+     * 
+     * @param shortCode Código curto (ex: "abc123")
+     * @return URL original se encontrada e ativa
+     * @throws RuntimeException Se URL não for encontrada, expirada ou desativada
+     */
+    public String getOriginalUrl(String shortCode) {
+        LookupResult result = lookup(shortCode);
         
-        // Retorna URL original
-        return url.getOriginalUrl();
+        return switch (result.getStatus()) {
+            case FOUND -> result.getOriginalUrl();
+            case DISABLED -> throw new RuntimeException("URL está desativada: " + shortCode);
+            case EXPIRED -> throw new RuntimeException("URL expirada: " + shortCode);
+            case MISSING -> throw new RuntimeException("URL não encontrada para o código: " + shortCode);
+        };
     }
     
     // ------------------------------------------------------------
-    // MÉTODO: Listar todas URLs
+    // MÉTODO: Listar URLs (paginado por cursor)
     // ------------------------------------------------------------
     
     /**
-     * Retorna todas as URLs encurtadas
+     * Retorna uma página de URLs encurtadas.
+     * A paginação é por cursor (keyset): o cursor guarda o último id devolvido,
+     * e a próxima página começa depois dele.
      * 
-     * @return Lista de URLs
+     * @param filter Filtros opcionais
+     * @param cursor Cursor recebido na página anterior (null = primeira página)
+     * @param limit Tamanho da página (limitado a MAX_PAGE_SIZE)
+     * @param descending true = mais novas primeiro
+     * @return Página com as URLs e o cursor da próxima
+     * @throws IllegalArgumentException Se o cursor for inválido
      */
-    public List<UrlResponse> getAllUrls() {
-        return urlRepository.findAll().stream()
+    public UrlPage listUrls(UrlFilter filter, String cursor, int limit, boolean descending) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Long afterId = decodeCursor(cursor);
+        
+        // Busca uma linha a mais só para saber se existe próxima página
+        List<ShortenedUrl> rows = urlQueryRepository.findPage(filter, afterId, descending, pageSize + 1);
+        
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            nextCursor = encodeCursor(rows.get(pageSize - 1).getId());
+        }
+        
+        List<UrlResponse> items = rows.stream()
             .map(this::convertToResponse)
             .collect(Collectors.toList());
+        return new UrlPage(items, nextCursor);
+    }
+    
+    // ------------------------------------------------------------
+    // MÉTODOS: Versões (requisições condicionais da API)
+    // ------------------------------------------------------------
+    
+    /**
+     * Versão da resposta de getUrlDetails, sem ler a URL original nem montar a resposta:
+     * ETag da versão da linha e dos cliques (gravados + pendentes); Last-Modified da última
+     * alteração, desconhecida enquanto houver cliques no buffer.
+     * 
+     * @param shortCode Código curto
+     * @return Versão, se o código existir
+     */
+    public Optional<UrlVersion> getUrlVersion(String shortCode) {
+        return urlQueryRepository.findVersion(shortCode).map(row -> {
+            long pending = clickCountBuffer.getPending(row.shortCode());
+            String eTag = "W/\"" + row.rowVersion() + "-" + (row.clickCount() + pending) + "\"";
+            return new UrlVersion(eTag, pending > 0 ? null : row.modifiedAt());
+        });
+    }
+    
+    /**
+     * Versão da página que listUrls devolveria com os mesmos parâmetros: ETag calculado
+     * dos ids, versões e cliques das linhas da página (mais a linha que indica a próxima).
+     * 
+     * @throws IllegalArgumentException Se o cursor for inválido
+     */
+    public UrlVersion getPageVersion(UrlFilter filter, String cursor, int limit, boolean descending) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Long afterId = decodeCursor(cursor);
+        
+        long hash = 0;
+        for (UrlQueryRepository.RowVersion row : urlQueryRepository.findPageVersions(filter, afterId, descending, pageSize + 1)) {
+            hash = mix(hash, row.id());
+            hash = mix(hash, row.rowVersion());
+            hash = mix(hash, row.clickCount() + clickCountBuffer.getPending(row.shortCode()));
+        }
+        return new UrlVersion("W/\"p" + Long.toHexString(hash) + "\"", null);
+    }
+    
+    private static long mix(long hash, long value) {
+        return (Long.rotateLeft(hash, 23) ^ value) * 0x9E3779B97F4A7C15L;
+    }
+    
+    // ------------------------------------------------------------
+    // MÉTODO: Exportar URLs (streaming)
+    // ------------------------------------------------------------
+    
+    /**
+     * Escreve todas as URLs do filtro direto na saída, linha a linha,
+     * lendo do banco por cursor JDBC (memória constante, qualquer tamanho de tabela).
+     * Os links da camada fria vêm depois dos da tabela principal.
+     * 
+     * @param filter Filtros opcionais
+     * @param format "ndjson" (um JSON por linha) ou "csv"
+     * @param out Saída (corpo da resposta HTTP)
+     */
+    public void exportUrls(UrlFilter filter, String format, OutputStream out) throws IOException {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        
+        if (csv) {
+            writer.write("shortCode,originalUrl,shortUrl,clickCount,createdAt,expiresAt,isActive\n");
+        }
+        
+        readOnlyTransaction.executeWithoutResult(status ->
+            urlQueryRepository.forEach(filter, url -> {
+                try {
+                    UrlResponse response = convertToResponse(url);
+                    if (csv) {
+                        writeCsvLine(writer, response);
+                    } else {
+                        writer.write(objectMapper.writeValueAsString(response));
+                        writer.write('\n');
+                    }
+                } catch (IOException e) {
+                    // Cliente desconectou: interrompe a leitura do banco
+                    throw new UncheckedIOException(e);
+                }
+            })
+        );
+        
+        writer.flush();
     }
     
     // ------------------------------------------------------------
@@ -160,7 +611,8 @@ public class UrlShortenerService {
      * @return Detalhes da URL
      */
     public UrlResponse getUrlDetails(String shortCode) {
-        ShortenedUrl url = urlRepository.findByShortCode(shortCode)
+        ShortenedUrl url = findByCode(shortCode)
+            .or(() -> coldStore.find(shortCode))
             .orElseThrow(() -> new RuntimeException("URL não encontrada: " + shortCode));
         
         return convertToResponse(url);
@@ -177,40 +629,209 @@ public class UrlShortenerService {
      */
     @Transactional
     public void deactivateUrl(String shortCode) {
-        ShortenedUrl url = urlRepository.findByShortCode(shortCode)
+        Optional<ShortenedUrl> found = findByCode(shortCode);
+        if (found.isEmpty() && !coldStore.restore(List.of(shortCode)).isEmpty()) {
+            // Link da camada fria: volta para a principal (nesta transação) e é desativado lá
+            found = findByCode(shortCode);
+        }
+        ShortenedUrl url = found
             .orElseThrow(() -> new RuntimeException("URL não encontrada: " + shortCode));
         
-        url.setIsActive(false);
-        urlRepository.save(url);
+        urlRepository.deactivate(url.getId(), LocalDateTime.now());
+        
+        // Remove do cache para o redirecionamento parar imediatamente
+        redirectCache.invalidateAfterCommit(shortCode);
+        
+        // E a deduplicação não devolve mais este código
+        if (url.getUrlHash() != null) {
+            dedupCache.invalidate(url.getUrlHash(), shortCode);
+        }
+        
+        // Índice mapeado: vale até a próxima geração, montada já sem este código ativo
+        codeIndexService.markDeactivatedAfterCommit(shortCode);
+        
+        // Nas outras instâncias, o evento só é entregue se esta transação confirmar
+        cacheCoherence.publishDeactivated(shortCode, url.getUrlHash());
     }
     
     // ------------------------------------------------------------
-    // MÉTODO PRIVADO: Gerar código único
+    // MÉTODOS PRIVADOS: Gerar código único e gravar
     // ------------------------------------------------------------
     
     /**
-     * Gera um código curto único (não existente no banco)
+     * Valida um código customizado (formato e tamanho)
+     * 
+     * @param shortCode Código escolhido pelo usuário
+     * @throws IllegalArgumentException Se o código for inválido
+     */
+    void validateCustomCode(String shortCode) {
+        // Valida se o código customizado é válido
+        if (!codeGenerator.isValidCode(shortCode)) {
+            throw new IllegalArgumentException(
+                "Código customizado inválido. Use apenas letras e números."
+            );
+        }
+        
+        if (RESERVED_CODES.contains(shortCode.toLowerCase(Locale.ROOT))) {
+            throw new IllegalArgumentException(
+                "Código customizado '" + shortCode + "' é reservado."
+            );
+        }
+        
+        // Valida o tamanho (mesmo limite da coluna short_code)
+        if (shortCode.length() > SequenceShortCodeAllocator.MAX_LENGTH) {
+            throw new IllegalArgumentException(
+                "Código customizado muito longo (máximo " + SequenceShortCodeAllocator.MAX_LENGTH + " caracteres)."
+            );
+        }
+    }
+    
+    /**
+     * Busca uma URL pelo código: pela chave numérica (índice BIGINT) sempre que o código
+     * pode ser convertido; por short_code para códigos fora desse formato e, enquanto
+     * o preenchimento da code_key não terminou, para registros antigos.
+     * 
+     * @param shortCode Código curto
+     * @return URL, se existir
+     */
+    private Optional<ShortenedUrl> findByCode(String shortCode) {
+        long key = ShortCodeGenerator.toKey(shortCode);
+        if (key < 0) {
+            return urlRepository.findByShortCode(shortCode);
+        }
+        
+        Optional<ShortenedUrl> url = urlRepository.findByCodeKey(key);
+        if (url.isEmpty() && !codeKeyBackfill.isComplete()) {
+            return urlRepository.findByShortCode(shortCode);
+        }
+        return url;
+    }
+    
+    /**
+     * Gera um código curto único usando o alocador configurado
+     * (app.short-code.allocator)
      * 
      * @return Código único
      */
     private String generateUniqueShortCode() {
-        String shortCode;
-        int attempts = 0;
-        final int MAX_ATTEMPTS = 10;
+        return codeAllocator.allocate();
+    }
+    
+    /**
+     * Grava uma nova URL com o código informado. O INSERT e o evento de criação (no jdbc,
+     * uma linha de url_change_log) confirmam na mesma transação: não fica link gravado
+     * que as outras instâncias desconhecem (o filtro de Bloom delas responderia 404)
+     * 
+     * @param shortCode Código curto já escolhido
+     * @param request Dados da URL
+     * @return Entidade gravada
+     */
+    private ShortenedUrl saveNewUrl(String shortCode, CreateUrlRequest request) {
+        ShortenedUrl savedUrl = createTransaction.execute(status -> {
+            // Flush aqui: a violação de UNIQUE sai do repositório já como DataIntegrityViolationException
+            ShortenedUrl saved = urlRepository.saveAndFlush(buildNewUrl(shortCode, request));
+            cacheCoherence.publishCreated(List.of(shortCode));
+            return saved;
+        });
         
-        do {
-            shortCode = codeGenerator.generate(shortCodeLength);
-            attempts++;
-            
-            if (attempts >= MAX_ATTEMPTS) {
-                throw new RuntimeException(
-                    "Não foi possível gerar um código único após " + MAX_ATTEMPTS + " tentativas."
-                );
-            }
-            
-        } while (urlRepository.existsByShortCode(shortCode));
+        // Garante que nenhuma entrada antiga do código fique no cache
+        redirectCache.invalidate(shortCode);
+        
+        // INSERT confirmado: o código passa a existir no filtro
+        codeFilter.add(shortCode);
         
-        return shortCode;
+        rememberForDedup(savedUrl);
+        
+        return savedUrl;
+    }
+    
+    /**
+     * Próxima criação da mesma URL já encontra este código no cache de deduplicação
+     * (chamado depois do commit, também para os itens do lote)
+     * 
+     * @param savedUrl URL recém-gravada
+     */
+    void rememberForDedup(ShortenedUrl savedUrl) {
+        if (dedupEnabled && savedUrl.getExpiresAt() == null) {
+            dedupCache.put(savedUrl.getUrlHash(), UrlNormalizer.normalize(savedUrl.getOriginalUrl()), savedUrl);
+        }
+    }
+    
+    /**
+     * Monta a entidade de uma nova URL (ainda não gravada)
+     * 
+     * @param shortCode Código curto já escolhido
+     * @param request Dados da URL
+     * @return Entidade pronta para salvar
+     */
+    ShortenedUrl buildNewUrl(String shortCode, CreateUrlRequest request) {
+        // Cria a entidade para salvar no banco
+        ShortenedUrl shortenedUrl = new ShortenedUrl(shortCode, request.getOriginalUrl());
+        
+        // Hash da URL normalizada (deduplicação), gravado mesmo com ela desligada
+        shortenedUrl.setUrlHash(UrlNormalizer.hash(UrlNormalizer.normalize(request.getOriginalUrl())));
+        
+        // Configura expiração se fornecida
+        if (hasExpiration(request)) {
+            LocalDateTime expiresAt = LocalDateTime.now()
+                .plusDays(request.getExpiresInDays());
+            shortenedUrl.setExpiresAt(expiresAt);
+        }
+        
+        return shortenedUrl;
+    }
+    
+    private static boolean hasExpiration(CreateUrlRequest request) {
+        return request.getExpiresInDays() != null && request.getExpiresInDays() > 0;
+    }
+    
+    // ------------------------------------------------------------
+    // MÉTODOS PRIVADOS: Cursor e CSV
+    // ------------------------------------------------------------
+    
+    // O cursor é o último id em Base64 (opaco para o cliente)
+    private static String encodeCursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(String.valueOf(id).getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static Long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor);
+        }
+    }
+    
+    private static void writeCsvLine(Writer writer, UrlResponse url) throws IOException {
+        writer.write(csv(url.getShortCode()));
+        writer.write(',');
+        writer.write(csv(url.getOriginalUrl()));
+        writer.write(',');
+        writer.write(csv(url.getShortUrl()));
+        writer.write(',');
+        writer.write(String.valueOf(url.getClickCount()));
+        writer.write(',');
+        writer.write(url.getCreatedAt() != null ? url.getCreatedAt().toString() : "");
+        writer.write(',');
+        writer.write(url.getExpiresAt() != null ? url.getExpiresAt().toString() : "");
+        writer.write(',');
+        writer.write(String.valueOf(url.getIsActive()));
+        writer.write('\n');
+    }
+    
+    // Coloca o valor entre aspas quando tem vírgula, aspas ou quebra de linha
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
     }
     
     // ------------------------------------------------------------
@@ -228,7 +849,9 @@ public class UrlShortenerService {
         response.setShortCode(url.getShortCode());
         response.setOriginalUrl(url.getOriginalUrl());
         response.setShortUrl(baseUrl + "/" + url.getShortCode());
-        response.setClickCount(url.getClickCount());
+        // Cliques já gravados + cliques ainda no buffer
+        long persisted = url.getClickCount() != null ? url.getClickCount() : 0L;
+        response.setClickCount(persisted + clickCountBuffer.getPending(url.getShortCode()));
         response.setCreatedAt(url.getCreatedAt());
         response.setExpiresAt(url.getExpiresAt());
         response.setIsActive(url.getIsActive());
@@ -0,0 +1,33 @@
+package com.techsolutions.urlshortener.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Versão de uma resposta da API de URLs (uma URL ou uma página da listagem), para requisições
+ * condicionais: ETag e, quando conhecida, a data da última alteração (Last-Modified).
+ * Calculada só com versão e cliques das linhas, sem ler as URLs nem montar o JSON.
+ */
+public final class UrlVersion {
+
+    private final String eTag;
+    private final LocalDateTime lastModified;
+
+    UrlVersion(String eTag, LocalDateTime lastModified) {
+        this.eTag = eTag;
+        this.lastModified = lastModified;
+    }
+
+    // ETag fraco (W/"..."): mesmo conteúdo, não necessariamente os mesmos bytes
+    public String getETag() { return eTag; }
+
+    // null = desconhecida (cliques ainda no buffer, camada fria, página da listagem)
+    public LocalDateTime getLastModified() { return lastModified; }
+
+    /**
+     * @return Last-Modified em milissegundos, ou -1 se desconhecida
+     */
+    public long getLastModifiedMillis() {
+        return lastModified == null ? -1 : lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
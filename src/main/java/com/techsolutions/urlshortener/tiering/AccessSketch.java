@@ -0,0 +1,80 @@
+package com.techsolutions.urlshortener.tiering;
+
+/**
+ * Frequência aproximada de acesso por código (count-min sketch): 4 linhas de contadores,
+ * cada código incrementa um contador por linha e a estimativa é o menor dos quatro.
+ *
+ * Memória fixa (4 × width inteiros) para qualquer quantidade de códigos. A estimativa
+ * nunca fica abaixo do valor real; colisões só podem aumentá-la (um link frio pode
+ * parecer quente, nunca o contrário).
+ *
+ * Os incrementos não são atômicos: com acessos simultâneos ao mesmo contador algum
+ * incremento se perde, o que só torna a estimativa um pouco menor num link muito acessado.
+ * halve() divide todos os contadores por 2 (envelhecimento: acessos antigos pesam menos).
+ */
+public final class AccessSketch {
+
+    private static final int DEPTH = 4;
+
+    // Multiplicadores ímpares, um por linha: cada linha espalha os códigos de um jeito
+    private static final int[] SEEDS = { 0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F };
+
+    private final int[][] counters;
+    private final int mask;
+
+    /**
+     * @param width Contadores por linha (potência de 2)
+     */
+    public AccessSketch(int width) {
+        if (width <= 0 || Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException("Largura do sketch deve ser potência de 2: " + width);
+        }
+        this.counters = new int[DEPTH][width];
+        this.mask = width - 1;
+    }
+
+    public void increment(String code) {
+        int hash = code.hashCode();
+        for (int row = 0; row < DEPTH; row++) {
+            int[] line = counters[row];
+            int index = index(hash, row);
+            if (line[index] != Integer.MAX_VALUE) {
+                line[index]++;
+            }
+        }
+    }
+
+    /**
+     * @return Acessos estimados do código (≥ o valor real, salvo incrementos perdidos)
+     */
+    public int estimate(String code) {
+        int hash = code.hashCode();
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            min = Math.min(min, counters[row][index(hash, row)]);
+        }
+        return min;
+    }
+
+    /**
+     * Divide todos os contadores por 2. Incrementos que correm em paralelo podem ser
+     * sobrescritos (mesma imprecisão dos incrementos não atômicos).
+     */
+    public void halve() {
+        for (int[] line : counters) {
+            for (int i = 0; i < line.length; i++) {
+                line[i] >>>= 1;
+            }
+        }
+    }
+
+    public int getWidth() { return mask + 1; }
+
+    private int index(int hash, int row) {
+        int x = hash * SEEDS[row];
+        x ^= x >>> 16;
+        x *= 0x7FEB352D;
+        x ^= x >>> 15;
+        return x & mask;
+    }
+}
@@ -0,0 +1,185 @@
+package com.techsolutions.urlshortener.tiering;
+
+import com.techsolutions.urlshortener.model.ShortenedUrl;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Acesso à camada fria (shortened_urls_cold, ver ColdUrl) e movimentação de linhas
+ * entre ela e a tabela principal.
+ *
+ * Cada movimentação é SELECT ... FOR UPDATE, INSERT ... SELECT e DELETE por id, na mesma
+ * transação: o código está sempre em exatamente uma das duas tabelas.
+ */
+@Component
+public class ColdLinkStore {
+
+    private static final String SELECT_COLUMNS =
+        "SELECT id, short_code, original_url, click_count, created_at, url_hash FROM shortened_urls_cold ";
+
+    private static final String DEMOTE_SQL =
+        "INSERT INTO shortened_urls_cold " +
+        "(id, short_code, code_key, original_url, click_count, created_at, url_hash, demoted_at) " +
+        "SELECT id, short_code, code_key, original_url, click_count, created_at, url_hash, :demotedAt " +
+        "FROM shortened_urls WHERE id IN (:ids)";
+
+    private static final String RESTORE_SQL =
+        "INSERT INTO shortened_urls " +
+        "(id, short_code, code_key, original_url, click_count, created_at, expires_at, is_active, url_hash) " +
+        "SELECT id, short_code, code_key, original_url, click_count, created_at, NULL, TRUE, url_hash " +
+        "FROM shortened_urls_cold WHERE id IN (:ids)";
+
+    private static final String ADD_CLICKS_SQL =
+        "UPDATE shortened_urls_cold SET click_count = COALESCE(click_count, 0) + ? WHERE short_code = ?";
+
+    // Entidade não gerenciada, ativa e sem expiração
+    private static final RowMapper<ShortenedUrl> ROW_MAPPER = (rs, n) -> {
+        ShortenedUrl url = new ShortenedUrl(rs.getString("short_code"), rs.getString("original_url"));
+        url.setId(rs.getLong("id"));
+        url.setClickCount(rs.getObject("click_count", Long.class));
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        url.setCreatedAt(createdAt == null ? null : createdAt.toLocalDateTime());
+        url.setUrlHash(rs.getObject("url_hash", Long.class));
+        return url;
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    // ------------------------------------------------------------
+    // CONSULTA
+    // ------------------------------------------------------------
+
+    /**
+     * Busca um código na camada fria.
+     *
+     * @return URL (entidade não gerenciada, ativa e sem expiração), se o código estiver lá
+     */
+    public Optional<ShortenedUrl> find(String shortCode) {
+        return jdbcTemplate.query(SELECT_COLUMNS + "WHERE short_code = ?", ROW_MAPPER, shortCode)
+            .stream().findFirst();
+    }
+
+    /**
+     * Candidatos à deduplicação na camada fria (mesmo papel de UrlRepository.findReusableByUrlHash).
+     * Quem chama confirma que a URL é mesmo a mesma.
+     */
+    public List<ShortenedUrl> findReusableByUrlHash(long urlHash) {
+        return jdbcTemplate.query(SELECT_COLUMNS + "WHERE url_hash = ? ORDER BY id", ROW_MAPPER, urlHash);
+    }
+
+    /**
+     * O mesmo para vários hashes de uma vez (deduplicação no lote).
+     */
+    public List<ShortenedUrl> findReusableByUrlHashes(Collection<Long> urlHashes) {
+        return namedJdbcTemplate.query(SELECT_COLUMNS + "WHERE url_hash IN (:hashes) ORDER BY id",
+            new MapSqlParameterSource("hashes", urlHashes), ROW_MAPPER);
+    }
+
+    public boolean exists(String shortCode) {
+        return !jdbcTemplate.queryForList(
+            "SELECT 1 FROM shortened_urls_cold WHERE short_code = ?", Integer.class, shortCode).isEmpty();
+    }
+
+    public long count() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM shortened_urls_cold", Long.class);
+        return count == null ? 0 : count;
+    }
+
+    // ------------------------------------------------------------
+    // MOVIMENTAÇÃO
+    // ------------------------------------------------------------
+
+    /**
+     * Move linhas da tabela principal para a camada fria. Confere de novo, com a linha travada,
+     * que continuam ativas e sem expiração (podem ter mudado desde a seleção).
+     *
+     * @param ids Ids em shortened_urls
+     * @return Códigos movidos
+     */
+    @Transactional
+    public List<String> demote(Collection<Long> ids, LocalDateTime now) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<Long> lockedIds = new ArrayList<>();
+        List<String> codes = new ArrayList<>();
+        namedJdbcTemplate.query(
+            "SELECT id, short_code FROM shortened_urls " +
+            "WHERE id IN (:ids) AND is_active = TRUE AND expires_at IS NULL FOR UPDATE",
+            new MapSqlParameterSource("ids", ids),
+            rs -> {
+                lockedIds.add(rs.getLong("id"));
+                codes.add(rs.getString("short_code"));
+            });
+        if (lockedIds.isEmpty()) {
+            return codes;
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", lockedIds)
+            .addValue("demotedAt", Timestamp.valueOf(now));
+        namedJdbcTemplate.update(DEMOTE_SQL, params);
+        namedJdbcTemplate.update("DELETE FROM shortened_urls WHERE id IN (:ids)", params);
+        return codes;
+    }
+
+    /**
+     * Devolve códigos da camada fria para a tabela principal (ativos, sem expiração).
+     * Participa da transação de quem chama, se houver (ex.: desativação).
+     *
+     * @return Códigos movidos (os que estavam na camada fria)
+     */
+    @Transactional
+    public List<String> restore(Collection<String> shortCodes) {
+        if (shortCodes.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = new ArrayList<>();
+        List<String> codes = new ArrayList<>();
+        namedJdbcTemplate.query(
+            "SELECT id, short_code FROM shortened_urls_cold WHERE short_code IN (:codes) FOR UPDATE",
+            new MapSqlParameterSource("codes", shortCodes),
+            rs -> {
+                ids.add(rs.getLong("id"));
+                codes.add(rs.getString("short_code"));
+            });
+        if (ids.isEmpty()) {
+            return codes;
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", ids);
+        namedJdbcTemplate.update(RESTORE_SQL, params);
+        namedJdbcTemplate.update("DELETE FROM shortened_urls_cold WHERE id IN (:ids)", params);
+        return codes;
+    }
+
+    /**
+     * Soma cliques em códigos da camada fria (ClickCountBuffer, para os que não estavam na principal).
+     *
+     * @param deltas Pares { cliques, código }
+     * @return Linhas atualizadas por item, em lotes (0 = código também fora da camada fria)
+     */
+    public int[][] addClicks(List<Object[]> deltas, int batchSize) {
+        return jdbcTemplate.batchUpdate(ADD_CLICKS_SQL, deltas, batchSize,
+            (ps, row) -> {
+                ps.setLong(1, (Long) row[0]);
+                ps.setString(2, (String) row[1]);
+            });
+    }
+}
@@ -0,0 +1,332 @@
+package com.techsolutions.urlshortener.tiering;
+
+import com.techsolutions.urlshortener.cache.RedirectCache;
+import com.techsolutions.urlshortener.service.ClickCountBuffer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Camadas quente/fria de links, pela frequência de acesso.
+ *
+ * Cada redirecionamento encontrado incrementa um count-min sketch (AccessSketch, memória fixa),
+ * envelhecido a cada sketch-aging-ms. Periodicamente:
+ * - promoção: códigos encontrados na camada fria e acessados de novo (estimativa ≥ promote-min-accesses)
+ *   voltam para shortened_urls;
+ * - rebaixamento: a tabela principal é percorrida por id, em lotes; links ativos, sem expiração,
+ *   com mais de min-age-days e estimativa ≤ cold-max-accesses vão para shortened_urls_cold.
+ *   O cursor continua de onde parou na execução seguinte e volta ao início no fim da tabela.
+ *
+ * O redirecionamento procura na principal e, se não achar, na camada fria (UrlShortenerService);
+ * para quem acessa não muda nada. O sketch é desta instância: com várias instâncias, cada uma
+ * só enxerga os próprios acessos (deixe app.tiering.migrate ligado em uma só).
+ * Só rebaixa depois do primeiro envelhecimento: antes disso o sketch não cobre tempo suficiente.
+ */
+@Component
+public class LinkTieringService {
+
+    private static final Logger log = LoggerFactory.getLogger(LinkTieringService.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ColdLinkStore coldStore;
+
+    @Autowired
+    private RedirectCache redirectCache;
+
+    @Autowired
+    private ClickCountBuffer clickCountBuffer;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final boolean enabled;
+    private final boolean migrate;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final long minAgeDays;
+    private final int coldMaxAccesses;
+    private final int promoteMinAccesses;
+    private final int maxPromotionCandidates;
+
+    private final AccessSketch sketch;
+
+    // Códigos servidos pela camada fria, à espera de acessos suficientes para voltar
+    private final Set<String> promotionCandidates = ConcurrentHashMap.newKeySet();
+
+    // Uma execução por vez (agendador e endpoint administrativo)
+    private final ReentrantLock runLock = new ReentrantLock();
+
+    // Último id percorrido na tabela principal (0 = recomeçar do início)
+    private volatile long cursor;
+    private volatile long agings;
+
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder demoted = new LongAdder();
+    private final LongAdder promoted = new LongAdder();
+    private final LongAdder coldHits = new LongAdder();
+
+    // Última execução
+    private volatile LocalDateTime lastRunAt;
+    private volatile long lastRunScanned;
+    private volatile long lastRunMillis;
+
+    public LinkTieringService(@Value("${app.tiering.enabled:false}") boolean enabled,
+                              @Value("${app.tiering.migrate:true}") boolean migrate,
+                              @Value("${app.tiering.sketch-width:262144}") int sketchWidth,
+                              @Value("${app.tiering.batch-size:500}") int batchSize,
+                              @Value("${app.tiering.max-batches-per-run:20}") int maxBatchesPerRun,
+                              @Value("${app.tiering.min-age-days:7}") long minAgeDays,
+                              @Value("${app.tiering.cold-max-accesses:0}") int coldMaxAccesses,
+                              @Value("${app.tiering.promote-min-accesses:3}") int promoteMinAccesses,
+                              @Value("${app.tiering.max-promotion-candidates:10000}") int maxPromotionCandidates) {
+        if (batchSize <= 0 || maxBatchesPerRun <= 0) {
+            throw new IllegalArgumentException("app.tiering.batch-size e max-batches-per-run devem ser maiores que zero");
+        }
+        if (promoteMinAccesses <= coldMaxAccesses) {
+            throw new IllegalArgumentException("app.tiering.promote-min-accesses deve ser maior que cold-max-accesses");
+        }
+        this.enabled = enabled;
+        this.migrate = migrate;
+        this.sketch = new AccessSketch(sketchWidth);
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.minAgeDays = minAgeDays;
+        this.coldMaxAccesses = coldMaxAccesses;
+        this.promoteMinAccesses = promoteMinAccesses;
+        this.maxPromotionCandidates = maxPromotionCandidates;
+    }
+
+    // ------------------------------------------------------------
+    // CAMINHO DO REDIRECIONAMENTO
+    // ------------------------------------------------------------
+
+    /**
+     * Conta um acesso ao código (redirecionamento encontrado). Sem lock e sem banco.
+     */
+    public void recordAccess(String shortCode) {
+        if (enabled) {
+            sketch.increment(shortCode);
+        }
+    }
+
+    /**
+     * O código não estava na tabela principal e foi encontrado na camada fria.
+     * Vira candidato à promoção (até max-promotion-candidates códigos).
+     */
+    public void onColdHit(String shortCode) {
+        coldHits.increment();
+        if (enabled && promotionCandidates.size() < maxPromotionCandidates) {
+            promotionCandidates.add(shortCode);
+        }
+    }
+
+    // ------------------------------------------------------------
+    // EXECUÇÃO
+    // ------------------------------------------------------------
+
+    // Envelhecimento: acessos antigos valem metade a cada período
+    @Scheduled(fixedDelayString = "${app.tiering.sketch-aging-ms:3600000}",
+               initialDelayString = "${app.tiering.sketch-aging-ms:3600000}")
+    public void age() {
+        if (enabled) {
+            sketch.halve();
+            agings++;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.tiering.interval-ms:60000}",
+               initialDelayString = "${app.tiering.interval-ms:60000}")
+    public void scheduledRun() {
+        if (!enabled || !migrate) {
+            return;
+        }
+        try {
+            run();
+        } catch (IllegalStateException e) {
+            // Execução disparada pelo endpoint ainda em andamento
+        } catch (DataAccessException e) {
+            log.warn("Falha na movimentação entre camadas quente/fria; nova tentativa na próxima rodada", e);
+        }
+    }
+
+    /**
+     * Promove os candidatos acessados de novo e rebaixa até max-batches-per-run lotes de links frios.
+     *
+     * @return Linhas movidas (nos dois sentidos)
+     * @throws IllegalStateException se já houver uma execução em andamento ou a função estiver desligada
+     */
+    public long run() {
+        if (!enabled) {
+            throw new IllegalStateException("Camadas quente/fria desligadas (app.tiering.enabled)");
+        }
+        if (!runLock.tryLock()) {
+            throw new IllegalStateException("Já existe uma movimentação entre camadas em andamento");
+        }
+        try {
+            return runLocked();
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    private long runLocked() {
+        // Cliques pendentes gravados antes, na tabela onde o código está agora
+        clickCountBuffer.flush();
+
+        LocalDateTime now = LocalDateTime.now();
+        long start = System.nanoTime();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        long moved = 0;
+        long scanned = 0;
+
+        try {
+            moved += promote();
+
+            if (isWarm()) {
+                Timestamp createdBefore = Timestamp.valueOf(now.minusDays(minAgeDays));
+                for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                    int[] result = demoteBatch(createdBefore, now);
+                    scanned += result[0];
+                    moved += result[1];
+                    if (result[0] < batchSize) {
+                        // Fim da tabela: a próxima execução recomeça do início
+                        cursor = 0;
+                        break;
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            outcome = "failure";
+            throw e;
+        } finally {
+            sample.stop(meterRegistry.timer("urlshortener.tiering.run", "outcome", outcome));
+            runs.increment();
+            lastRunAt = now;
+            lastRunScanned = scanned;
+            lastRunMillis = (System.nanoTime() - start) / 1_000_000;
+        }
+
+        if (moved > 0) {
+            log.info("Camadas quente/fria: {} links movidos em {} ms", moved, lastRunMillis);
+        }
+        return moved;
+    }
+
+    // Candidatos com acessos suficientes voltam à principal; os que esfriaram de vez saem da lista
+    private long promote() {
+        List<String> ready = new ArrayList<>();
+        Iterator<String> it = promotionCandidates.iterator();
+        while (it.hasNext()) {
+            String code = it.next();
+            int estimate = sketch.estimate(code);
+            if (estimate >= promoteMinAccesses) {
+                ready.add(code);
+                it.remove();
+            } else if (estimate == 0) {
+                it.remove();
+            }
+        }
+
+        long count = 0;
+        for (int from = 0; from < ready.size(); from += batchSize) {
+            List<String> codes = coldStore.restore(ready.subList(from, Math.min(ready.size(), from + batchSize)));
+            // Mesmo conteúdo no cache, mas a entrada passa a vir da principal no próximo miss
+            for (String code : codes) {
+                redirectCache.invalidate(code);
+            }
+            count += codes.size();
+        }
+        promoted.add(count);
+        return count;
+    }
+
+    /**
+     * Um lote: percorre até batch-size linhas da principal a partir do cursor e rebaixa as frias.
+     *
+     * @return { linhas percorridas, linhas rebaixadas }
+     */
+    private int[] demoteBatch(Timestamp createdBefore, LocalDateTime now) {
+        List<Long> coldIds = new ArrayList<>();
+        long[] lastId = { cursor };
+        int[] scanned = new int[1];
+        jdbcTemplate.query(
+            "SELECT id, short_code FROM shortened_urls WHERE id > ? AND created_at < ? " +
+            "AND is_active = TRUE AND expires_at IS NULL ORDER BY id LIMIT ?",
+            rs -> {
+                lastId[0] = rs.getLong("id");
+                scanned[0]++;
+                if (sketch.estimate(rs.getString("short_code")) <= coldMaxAccesses) {
+                    coldIds.add(lastId[0]);
+                }
+            },
+            cursor, createdBefore, batchSize);
+        cursor = lastId[0];
+
+        // O cache do redirecionamento continua válido: a camada fria devolve o mesmo conteúdo
+        int count = coldStore.demote(coldIds, now).size();
+        demoted.add(count);
+        return new int[] { scanned[0], count };
+    }
+
+    // ------------------------------------------------------------
+    // ESTATÍSTICAS
+    // ------------------------------------------------------------
+
+    public boolean isEnabled() { return enabled; }
+
+    /** O sketch já passou por um envelhecimento (cobre ao menos um período inteiro) */
+    public boolean isWarm() { return agings > 0; }
+
+    public int estimate(String shortCode) { return sketch.estimate(shortCode); }
+
+    public long getDemoted() { return demoted.sum(); }
+
+    public long getPromoted() { return promoted.sum(); }
+
+    public long getColdHits() { return coldHits.sum(); }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("migrate", migrate);
+        stats.put("sketchWidth", sketch.getWidth());
+        stats.put("sketchAgings", agings);
+        stats.put("warm", isWarm());
+        stats.put("coldRows", coldStore.count());
+        stats.put("promotionCandidates", promotionCandidates.size());
+        stats.put("runs", runs.sum());
+        stats.put("demoted", demoted.sum());
+        stats.put("promoted", promoted.sum());
+        stats.put("coldHits", coldHits.sum());
+        stats.put("cursor", cursor);
+        stats.put("lastRunAt", lastRunAt);
+        stats.put("lastRunScanned", lastRunScanned);
+        stats.put("lastRunMillis", lastRunMillis);
+        return stats;
+    }
+}
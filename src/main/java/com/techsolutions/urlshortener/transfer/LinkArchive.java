@@ -0,0 +1,383 @@
+package com.techsolutions.urlshortener.transfer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32C;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Arquivo de exportação de shortened_urls (ver LinkArchiveWriter), lido bloco a bloco por um FileChannel.
+ *
+ * Layout (big-endian):
+ * <pre>
+ * cabeçalho (16 bytes)  magic "ULNK" (int) | versão (short) | reservado (short) | criado em, epoch ms (long)
+ * bloco (33 bytes + dados comprimidos)
+ *                       tipo (byte) | linhas (int) | primeiro id (long) | último id (long)
+ *                       | bytes sem compressão (int) | bytes comprimidos (int) | CRC32C dos bytes comprimidos (int)
+ *                       | dados (Deflate)
+ * </pre>
+ * Tipos de bloco:
+ * - ROWS: até app.transfer.chunk-rows linhas em ordem de id, coluna por coluna:
+ *   ids (deltas, varint) | tamanhos dos códigos (byte) | códigos (ASCII) | tamanhos das URLs (varint) | URLs (UTF-8)
+ *   | presença (bitmap) de click_count, created_at, expires_at, is_active e url_hash
+ *   | click_count (varint) | created_at (deltas de microssegundos UTC, varint) | expires_at (idem)
+ *   | is_active (bitmap) | url_hash (8 bytes)
+ *   Só os valores presentes (não NULL) são gravados. Colunas parecidas lado a lado comprimem melhor.
+ * - SEQUENCES: short_code_sequences (nome → next_value) no fim da exportação;
+ * - END: fim do arquivo (linhas = total exportado). Sem ele, a exportação foi interrompida.
+ *
+ * O último id de cada bloco é o cursor da retomada: a exportação continua depois do último bloco
+ * íntegro e a importação pula os blocos (sem descomprimir) até o id onde parou.
+ */
+public final class LinkArchive implements Closeable {
+
+    static final int MAGIC = 0x554C4E4B;   // "ULNK"
+    static final short VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int CHUNK_HEADER_BYTES = 1 + 4 + 8 + 8 + 4 + 4 + 4;
+
+    static final byte EOF = 0;
+    static final byte ROWS = 1;
+    static final byte SEQUENCES = 2;
+    static final byte END = 3;
+
+    // Limite de um bloco (protege contra cabeçalho corrompido pedindo um buffer enorme)
+    static final int MAX_CHUNK_BYTES = 1 << 30;
+
+    private final FileChannel channel;
+    private final long createdAt;
+    private final ByteBuffer chunkHeader = ByteBuffer.allocate(CHUNK_HEADER_BYTES);
+    private final Inflater inflater = new Inflater();
+    private final CRC32C crc = new CRC32C();
+    private ByteBuffer compressed = ByteBuffer.allocate(1 << 16);
+    private ByteBuffer raw = ByteBuffer.allocate(1 << 20);
+
+    // Bloco atual (depois de next())
+    private byte type;
+    private int rows;
+    private long firstId;
+    private long lastId;
+    private int rawBytes;
+    private int compressedBytes;
+    private int checksum;
+
+    private LinkArchive(FileChannel channel, long createdAt) {
+        this.channel = channel;
+        this.createdAt = createdAt;
+    }
+
+    // ------------------------------------------------------------
+    // ABERTURA
+    // ------------------------------------------------------------
+
+    /**
+     * @throws IOException Se o arquivo não for uma exportação desta versão
+     */
+    public static LinkArchive open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            if (!readFully(channel, header) || header.getInt(0) != MAGIC) {
+                throw new IOException("Arquivo não é uma exportação de links");
+            }
+            short version = header.getShort(4);
+            if (version != VERSION) {
+                throw new IOException("Versão de exportação não suportada: " + version);
+            }
+            return new LinkArchive(channel, header.getLong(8));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Resultado de scan(): até onde o arquivo está íntegro.
+     *
+     * @param validBytes Tamanho do arquivo até o último bloco íntegro
+     * @param rows       Linhas nos blocos íntegros
+     * @param lastId     Último id gravado (cursor da retomada; 0 se nenhum)
+     * @param complete   true se o arquivo termina no bloco END
+     */
+    record Scan(long validBytes, long rows, long lastId, boolean complete) { }
+
+    /**
+     * Percorre o arquivo conferindo os checksums, sem descomprimir, até o primeiro bloco
+     * incompleto ou corrompido (exportação interrompida no meio de uma gravação).
+     */
+    static Scan scan(Path file) throws IOException {
+        try (LinkArchive archive = open(file)) {
+            long valid = HEADER_BYTES;
+            long rows = 0;
+            long lastId = 0;
+            while (true) {
+                byte type = archive.next();
+                if (type == EOF || !archive.verifyPayload()) {
+                    return new Scan(valid, rows, lastId, false);
+                }
+                valid = archive.channel.position();
+                if (type == END) {
+                    return new Scan(valid, rows, lastId, true);
+                }
+                if (type == ROWS) {
+                    rows += archive.rows;
+                    lastId = archive.lastId;
+                }
+            }
+        }
+    }
+
+    // ------------------------------------------------------------
+    // LEITURA
+    // ------------------------------------------------------------
+
+    /**
+     * Lê o cabeçalho do próximo bloco. Depois disso, o bloco deve ser lido
+     * (readRows/readSequences) ou pulado (skip).
+     *
+     * @return Tipo do bloco, ou EOF se o arquivo acabou (ou termina num cabeçalho incompleto)
+     */
+    byte next() throws IOException {
+        chunkHeader.clear();
+        if (!readFully(channel, chunkHeader)) {
+            return EOF;
+        }
+        chunkHeader.flip();
+        type = chunkHeader.get();
+        rows = chunkHeader.getInt();
+        firstId = chunkHeader.getLong();
+        lastId = chunkHeader.getLong();
+        rawBytes = chunkHeader.getInt();
+        compressedBytes = chunkHeader.getInt();
+        checksum = chunkHeader.getInt();
+
+        if (type < ROWS || type > END || rows < 0
+                || rawBytes < 0 || rawBytes > MAX_CHUNK_BYTES || compressedBytes < 0 || compressedBytes > MAX_CHUNK_BYTES) {
+            throw new IOException("Bloco inválido na posição " + (channel.position() - CHUNK_HEADER_BYTES));
+        }
+        return type;
+    }
+
+    int getRows() { return rows; }
+
+    long getFirstId() { return firstId; }
+
+    long getLastId() { return lastId; }
+
+    /**
+     * Pula os dados do bloco atual sem ler.
+     */
+    void skip() throws IOException {
+        channel.position(channel.position() + compressedBytes);
+    }
+
+    /**
+     * Lê e descomprime o bloco ROWS atual.
+     */
+    void readRows(LinkChunk chunk) throws IOException {
+        ByteBuffer in = inflate();
+        chunk.reset(rows);
+
+        long id = firstId;
+        for (int i = 0; i < rows; i++) {
+            id += unzigzag(getVarLong(in));
+            chunk.ids[i] = id;
+        }
+
+        int codesAt = in.position() + rows;
+        for (int i = 0; i < rows; i++) {
+            int length = in.get() & 0xFF;
+            chunk.shortCodes[i] = new String(in.array(), codesAt, length, StandardCharsets.US_ASCII);
+            codesAt += length;
+        }
+        in.position(codesAt);
+
+        int[] urlLengths = new int[rows];
+        for (int i = 0; i < rows; i++) {
+            urlLengths[i] = (int) getVarLong(in);
+        }
+        for (int i = 0; i < rows; i++) {
+            chunk.originalUrls[i] = new String(in.array(), in.position(), urlLengths[i], StandardCharsets.UTF_8);
+            in.position(in.position() + urlLengths[i]);
+        }
+
+        int bitmapBytes = (rows + 7) >>> 3;
+        int clicksPresent = in.position();
+        int createdPresent = clicksPresent + bitmapBytes;
+        int expiresPresent = createdPresent + bitmapBytes;
+        int activePresent = expiresPresent + bitmapBytes;
+        int hashPresent = activePresent + bitmapBytes;
+        in.position(hashPresent + bitmapBytes);
+
+        for (int i = 0; i < rows; i++) {
+            chunk.clickCounts[i] = bit(in, clicksPresent, i) ? unzigzag(getVarLong(in)) : null;
+        }
+        long previous = 0;
+        for (int i = 0; i < rows; i++) {
+            if (bit(in, createdPresent, i)) {
+                previous += unzigzag(getVarLong(in));
+                chunk.createdAt[i] = fromMicros(previous);
+            } else {
+                chunk.createdAt[i] = null;
+            }
+        }
+        previous = 0;
+        for (int i = 0; i < rows; i++) {
+            if (bit(in, expiresPresent, i)) {
+                previous += unzigzag(getVarLong(in));
+                chunk.expiresAt[i] = fromMicros(previous);
+            } else {
+                chunk.expiresAt[i] = null;
+            }
+        }
+        int activeValues = in.position();
+        in.position(activeValues + bitmapBytes);
+        for (int i = 0; i < rows; i++) {
+            chunk.active[i] = bit(in, activePresent, i) ? bit(in, activeValues, i) : null;
+        }
+        for (int i = 0; i < rows; i++) {
+            chunk.urlHashes[i] = bit(in, hashPresent, i) ? in.getLong() : null;
+        }
+        chunk.size = rows;
+    }
+
+    /**
+     * Lê o bloco SEQUENCES atual (nome → next_value).
+     */
+    Map<String, Long> readSequences() throws IOException {
+        ByteBuffer in = inflate();
+        Map<String, Long> sequences = new LinkedHashMap<>();
+        for (int i = 0; i < rows; i++) {
+            int length = (int) getVarLong(in);
+            String name = new String(in.array(), in.position(), length, StandardCharsets.UTF_8);
+            in.position(in.position() + length);
+            sequences.put(name, in.getLong());
+        }
+        return sequences;
+    }
+
+    public long getCreatedAt() { return createdAt; }
+
+    public long position() throws IOException { return channel.position(); }
+
+    public long size() throws IOException { return channel.size(); }
+
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        channel.close();
+    }
+
+    // ------------------------------------------------------------
+    // MÉTODOS PRIVADOS
+    // ------------------------------------------------------------
+
+    // Lê os dados comprimidos do bloco atual e confere o checksum
+    private boolean verifyPayload() throws IOException {
+        if (compressed.capacity() < compressedBytes) {
+            compressed = ByteBuffer.allocate(Math.max(compressedBytes, 2 * compressed.capacity()));
+        }
+        compressed.clear().limit(compressedBytes);
+        if (!readFully(channel, compressed)) {
+            return false;
+        }
+        crc.reset();
+        crc.update(compressed.array(), 0, compressedBytes);
+        return (int) crc.getValue() == checksum;
+    }
+
+    private ByteBuffer inflate() throws IOException {
+        if (!verifyPayload()) {
+            throw new IOException("Bloco truncado ou corrompido na posição "
+                + (channel.position() - compressedBytes - CHUNK_HEADER_BYTES));
+        }
+        if (raw.capacity() < rawBytes) {
+            raw = ByteBuffer.allocate(Math.max(rawBytes, 2 * raw.capacity()));
+        }
+        inflater.reset();
+        inflater.setInput(compressed.array(), 0, compressedBytes);
+        try {
+            int inflated = 0;
+            while (inflated < rawBytes && !inflater.finished()) {
+                int n = inflater.inflate(raw.array(), inflated, rawBytes - inflated);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                inflated += n;
+            }
+            if (inflated != rawBytes) {
+                throw new IOException("Bloco com tamanho diferente do cabeçalho");
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Bloco com compressão inválida", e);
+        }
+        raw.clear().limit(rawBytes);
+        return raw;
+    }
+
+    private static boolean bit(ByteBuffer in, int bitmapAt, int i) {
+        return (in.get(bitmapAt + (i >>> 3)) & (1 << (i & 7))) != 0;
+    }
+
+    // true se encheu o buffer; false se o arquivo acabou antes
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ------------------------------------------------------------
+    // CODIFICAÇÃO (compartilhada com LinkArchiveWriter)
+    // ------------------------------------------------------------
+
+    static void putVarLong(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    static long getVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    // Deltas negativos (ids fora de ordem, datas que voltam) também ficam curtos
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    // TIMESTAMP(6): microssegundos bastam
+    static long toMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+    }
+
+    static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+            Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,268 @@
+package com.techsolutions.urlshortener.transfer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.zip.CRC32C;
+import java.util.zip.Deflater;
+
+/**
+ * Grava um arquivo de exportação (formato em LinkArchive) por um FileChannel, um bloco por vez:
+ * cada bloco é montado em colunas num buffer reaproveitado, comprimido e escrito com o cabeçalho.
+ * Um bloco só conta depois de escrito inteiro; uma exportação interrompida pode continuar do
+ * último bloco íntegro (append).
+ */
+final class LinkArchiveWriter implements Closeable {
+
+    private final FileChannel channel;
+    private final Deflater deflater;
+    private final CRC32C crc = new CRC32C();
+    private final ByteBuffer chunkHeader = ByteBuffer.allocate(LinkArchive.CHUNK_HEADER_BYTES);
+    private ByteBuffer raw = ByteBuffer.allocate(1 << 20);
+    private byte[] compressed = new byte[1 << 16];
+    private byte[][] urlBytes = new byte[0][];
+
+    private long rows;
+
+    private LinkArchiveWriter(FileChannel channel, int compressionLevel, long rows) {
+        this.channel = channel;
+        this.deflater = new Deflater(compressionLevel);
+        this.rows = rows;
+    }
+
+    /**
+     * Cria o arquivo (substituindo um anterior) e grava o cabeçalho.
+     */
+    static LinkArchiveWriter create(Path file, int compressionLevel) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+
+        ByteBuffer header = ByteBuffer.allocate(LinkArchive.HEADER_BYTES);
+        header.putInt(LinkArchive.MAGIC).putShort(LinkArchive.VERSION).putShort((short) 0)
+            .putLong(System.currentTimeMillis()).flip();
+        try {
+            writeFully(channel, header);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return new LinkArchiveWriter(channel, compressionLevel, 0);
+    }
+
+    /**
+     * Reabre uma exportação interrompida: descarta o que vem depois do último bloco íntegro
+     * e continua a gravar dali.
+     */
+    static LinkArchiveWriter append(Path file, LinkArchive.Scan scan, int compressionLevel) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE);
+        try {
+            channel.truncate(scan.validBytes());
+            channel.position(scan.validBytes());
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return new LinkArchiveWriter(channel, compressionLevel, scan.rows());
+    }
+
+    // ------------------------------------------------------------
+    // BLOCOS
+    // ------------------------------------------------------------
+
+    void writeRows(LinkChunk chunk) throws IOException {
+        int n = chunk.size;
+        if (n == 0) {
+            return;
+        }
+        raw.clear();
+
+        ensure(n * 10);
+        long previousId = chunk.firstId();
+        for (int i = 0; i < n; i++) {
+            LinkArchive.putVarLong(raw, LinkArchive.zigzag(chunk.ids[i] - previousId));
+            previousId = chunk.ids[i];
+        }
+
+        int codeBytes = 0;
+        for (int i = 0; i < n; i++) {
+            codeBytes += chunk.shortCodes[i].length();
+        }
+        ensure(n + codeBytes);
+        for (int i = 0; i < n; i++) {
+            raw.put((byte) chunk.shortCodes[i].length());
+        }
+        for (int i = 0; i < n; i++) {
+            raw.put(chunk.shortCodes[i].getBytes(StandardCharsets.US_ASCII));
+        }
+
+        if (urlBytes.length < n) {
+            urlBytes = new byte[n][];
+        }
+        long totalUrlBytes = 0;
+        for (int i = 0; i < n; i++) {
+            urlBytes[i] = chunk.originalUrls[i].getBytes(StandardCharsets.UTF_8);
+            totalUrlBytes += urlBytes[i].length;
+        }
+        if (totalUrlBytes > LinkArchive.MAX_CHUNK_BYTES / 2) {
+            throw new IOException("Bloco grande demais: diminua app.transfer.chunk-rows");
+        }
+        ensure(n * 5 + (int) totalUrlBytes);
+        for (int i = 0; i < n; i++) {
+            LinkArchive.putVarLong(raw, urlBytes[i].length);
+        }
+        for (int i = 0; i < n; i++) {
+            raw.put(urlBytes[i]);
+            urlBytes[i] = null;
+        }
+
+        int bitmapBytes = (n + 7) >>> 3;
+        ensure(6 * bitmapBytes);
+        putPresence(chunk.clickCounts, n);
+        putPresence(chunk.createdAt, n);
+        putPresence(chunk.expiresAt, n);
+        putPresence(chunk.active, n);
+        putPresence(chunk.urlHashes, n);
+
+        ensure(n * 10 * 3 + bitmapBytes + n * 8);
+        for (int i = 0; i < n; i++) {
+            if (chunk.clickCounts[i] != null) {
+                LinkArchive.putVarLong(raw, LinkArchive.zigzag(chunk.clickCounts[i]));
+            }
+        }
+        long previous = 0;
+        for (int i = 0; i < n; i++) {
+            if (chunk.createdAt[i] != null) {
+                long micros = LinkArchive.toMicros(chunk.createdAt[i]);
+                LinkArchive.putVarLong(raw, LinkArchive.zigzag(micros - previous));
+                previous = micros;
+            }
+        }
+        previous = 0;
+        for (int i = 0; i < n; i++) {
+            if (chunk.expiresAt[i] != null) {
+                long micros = LinkArchive.toMicros(chunk.expiresAt[i]);
+                LinkArchive.putVarLong(raw, LinkArchive.zigzag(micros - previous));
+                previous = micros;
+            }
+        }
+        int activeValues = raw.position();
+        raw.put(activeValues, new byte[bitmapBytes]).position(activeValues + bitmapBytes);
+        for (int i = 0; i < n; i++) {
+            if (Boolean.TRUE.equals(chunk.active[i])) {
+                setBit(activeValues, i);
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            if (chunk.urlHashes[i] != null) {
+                raw.putLong(chunk.urlHashes[i]);
+            }
+        }
+
+        writeChunk(LinkArchive.ROWS, n, chunk.firstId(), chunk.lastId());
+        rows += n;
+    }
+
+    /**
+     * Grava short_code_sequences (nome → next_value).
+     */
+    void writeSequences(Map<String, Long> sequences) throws IOException {
+        raw.clear();
+        for (Map.Entry<String, Long> sequence : sequences.entrySet()) {
+            byte[] name = sequence.getKey().getBytes(StandardCharsets.UTF_8);
+            ensure(5 + name.length + 8);
+            LinkArchive.putVarLong(raw, name.length);
+            raw.put(name);
+            raw.putLong(sequence.getValue());
+        }
+        writeChunk(LinkArchive.SEQUENCES, sequences.size(), 0, 0);
+    }
+
+    /**
+     * Grava o bloco END e força os dados para o disco.
+     */
+    void finish() throws IOException {
+        raw.clear();
+        writeChunk(LinkArchive.END, (int) Math.min(rows, Integer.MAX_VALUE), 0, 0);
+        channel.force(true);
+    }
+
+    long getRows() { return rows; }
+
+    long getBytesWritten() throws IOException { return channel.position(); }
+
+    @Override
+    public void close() throws IOException {
+        deflater.end();
+        channel.close();
+    }
+
+    // ------------------------------------------------------------
+    // MÉTODOS PRIVADOS
+    // ------------------------------------------------------------
+
+    // Comprime o buffer raw e escreve cabeçalho + dados
+    private void writeChunk(byte type, int chunkRows, long firstId, long lastId) throws IOException {
+        int rawBytes = raw.position();
+        int compressedBytes = 0;
+        if (rawBytes > 0) {
+            deflater.reset();
+            deflater.setInput(raw.array(), 0, rawBytes);
+            deflater.finish();
+            while (!deflater.finished()) {
+                if (compressedBytes == compressed.length) {
+                    compressed = Arrays.copyOf(compressed, 2 * compressed.length);
+                }
+                compressedBytes += deflater.deflate(compressed, compressedBytes, compressed.length - compressedBytes);
+            }
+        }
+        crc.reset();
+        crc.update(compressed, 0, compressedBytes);
+
+        chunkHeader.clear();
+        chunkHeader.put(type).putInt(chunkRows).putLong(firstId).putLong(lastId)
+            .putInt(rawBytes).putInt(compressedBytes).putInt((int) crc.getValue()).flip();
+        writeFully(channel, chunkHeader);
+        writeFully(channel, ByteBuffer.wrap(compressed, 0, compressedBytes));
+    }
+
+    private void putPresence(Object[] column, int n) {
+        int at = raw.position();
+        int bitmapBytes = (n + 7) >>> 3;
+        raw.put(at, new byte[bitmapBytes]).position(at + bitmapBytes);
+        for (int i = 0; i < n; i++) {
+            if (column[i] != null) {
+                setBit(at, i);
+            }
+        }
+    }
+
+    private void setBit(int bitmapAt, int i) {
+        int at = bitmapAt + (i >>> 3);
+        raw.put(at, (byte) (raw.get(at) | (1 << (i & 7))));
+    }
+
+    // Garante espaço para mais bytes no buffer raw
+    private void ensure(int extra) {
+        if (raw.remaining() < extra) {
+            ByteBuffer bigger = ByteBuffer.allocate(Math.max(raw.capacity() * 2, raw.position() + extra));
+            raw.flip();
+            bigger.put(raw);
+            raw = bigger;
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
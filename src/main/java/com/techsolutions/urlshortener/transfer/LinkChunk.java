@@ -0,0 +1,93 @@
+package com.techsolutions.urlshortener.transfer;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * Bloco de linhas de shortened_urls em colunas (um array por coluna), reaproveitado
+ * entre os blocos de uma exportação/importação.
+ * As colunas que aceitam NULL no banco guardam null.
+ */
+final class LinkChunk {
+
+    int size;
+    long[] ids;
+    String[] shortCodes;
+    String[] originalUrls;
+    Long[] clickCounts;
+    LocalDateTime[] createdAt;
+    LocalDateTime[] expiresAt;
+    Boolean[] active;
+    Long[] urlHashes;
+
+    LinkChunk(int capacity) {
+        allocate(capacity);
+    }
+
+    void add(long id, String shortCode, String originalUrl, Long clickCount,
+             LocalDateTime created, LocalDateTime expires, Boolean isActive, Long urlHash) {
+        if (size == ids.length) {
+            ensureCapacity(2 * size);
+        }
+        ids[size] = id;
+        shortCodes[size] = shortCode;
+        originalUrls[size] = originalUrl;
+        clickCounts[size] = clickCount;
+        createdAt[size] = created;
+        expiresAt[size] = expires;
+        active[size] = isActive;
+        urlHashes[size] = urlHash;
+        size++;
+    }
+
+    /**
+     * Esvazia o bloco e garante espaço para rows linhas (leitura de um bloco do arquivo).
+     */
+    void reset(int rows) {
+        clear();
+        ensureCapacity(rows);
+    }
+
+    void clear() {
+        // Solta as Strings do bloco anterior
+        Arrays.fill(shortCodes, 0, size, null);
+        Arrays.fill(originalUrls, 0, size, null);
+        size = 0;
+    }
+
+    boolean isFull() {
+        return size == ids.length;
+    }
+
+    long firstId() {
+        return ids[0];
+    }
+
+    long lastId() {
+        return ids[size - 1];
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > ids.length) {
+            ids = Arrays.copyOf(ids, capacity);
+            shortCodes = Arrays.copyOf(shortCodes, capacity);
+            originalUrls = Arrays.copyOf(originalUrls, capacity);
+            clickCounts = Arrays.copyOf(clickCounts, capacity);
+            createdAt = Arrays.copyOf(createdAt, capacity);
+            expiresAt = Arrays.copyOf(expiresAt, capacity);
+            active = Arrays.copyOf(active, capacity);
+            urlHashes = Arrays.copyOf(urlHashes, capacity);
+        }
+    }
+
+    private void allocate(int capacity) {
+        ids = new long[capacity];
+        shortCodes = new String[capacity];
+        originalUrls = new String[capacity];
+        clickCounts = new Long[capacity];
+        createdAt = new LocalDateTime[capacity];
+        expiresAt = new LocalDateTime[capacity];
+        active = new Boolean[capacity];
+        urlHashes = new Long[capacity];
+    }
+}
@@ -0,0 +1,519 @@
+package com.techsolutions.urlshortener.transfer;
+
+import com.techsolutions.urlshortener.cache.DedupCache;
+import com.techsolutions.urlshortener.cache.RedirectCache;
+import com.techsolutions.urlshortener.cache.ShortCodeFilter;
+import com.techsolutions.urlshortener.util.ShortCodeGenerator;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Exportação/importação de shortened_urls inteira em arquivo (formato em LinkArchive),
+ * como job em segundo plano: um job por vez, acompanhado por getJob() (endpoint
+ * /api/admin/transfer/jobs/{id} ou LinkTransferCli).
+ *
+ * Exportação: lê a tabela por um cursor JDBC em ordem de id, em blocos de chunk-rows linhas.
+ * Com resume=true, continua um arquivo interrompido depois do último bloco íntegro.
+ *
+ * Importação: cada bloco vira um batch de INSERTs numa transação; os ids do arquivo são mantidos.
+ * Com afterId, pula as linhas até esse id (cursor de um job anterior que falhou ou foi cancelado).
+ * Linhas que já existem (mesmo id ou código) são puladas. No fim:
+ * - shortened_urls_seq e short_code_sequences passam dos valores importados (novos links não colidem);
+ * - filtro de Bloom, cache de redirecionamento e cache da deduplicação desta instância são recarregados.
+ * Outras instâncias e o índice em arquivo (app.index) só veem os links importados depois de
+ * POST /api/admin/bloom/rebuild e da próxima geração do índice: importe com o serviço parado
+ * ou numa instância só.
+ */
+@Component
+public class LinkTransferService {
+
+    private static final Logger log = LoggerFactory.getLogger(LinkTransferService.class);
+
+    // Inclui a camada fria (LinkTieringService), que volta como linha comum na importação
+    private static final String SELECT_ROWS =
+        "SELECT * FROM (" +
+        "SELECT id, short_code, original_url, click_count, created_at, expires_at, is_active, url_hash " +
+        "FROM shortened_urls WHERE id > ? " +
+        "UNION ALL " +
+        "SELECT id, short_code, original_url, click_count, created_at, CAST(NULL AS TIMESTAMP(6)), TRUE, url_hash " +
+        "FROM shortened_urls_cold WHERE id > ?" +
+        ") ORDER BY id";
+
+    private static final String INSERT_INTO =
+        "INSERT INTO shortened_urls (id, short_code, code_key, original_url, click_count, created_at, " +
+        "expires_at, is_active, url_hash) VALUES ";
+    private static final String ROW_VALUES = "(?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int COLUMNS = 9;
+    private static final int ROWS_PER_STATEMENT = 100;
+
+    private static final String INSERT_ROW = INSERT_INTO + ROW_VALUES;
+    private static final String INSERT_ROWS = INSERT_INTO + String.join(", ", Collections.nCopies(ROWS_PER_STATEMENT, ROW_VALUES));
+
+    // allocationSize de ShortenedUrl: o Hibernate reserva ids de 50 em 50
+    private static final long ID_ALLOCATION_SIZE = 50;
+
+    // Nome de arquivo aceito pelos endpoints (sempre dentro de app.transfer.dir)
+    private static final Pattern FILE_NAME = Pattern.compile("[A-Za-z0-9][A-Za-z0-9._-]{0,127}");
+
+    private static final int MAX_FINISHED_JOBS = 20;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ShortCodeFilter codeFilter;
+
+    @Autowired
+    private RedirectCache redirectCache;
+
+    @Autowired
+    private DedupCache dedupCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Path dir;
+    private final int chunkRows;
+    private final int compressionLevel;
+
+    // Cada bloco importado numa transação própria
+    private final TransactionTemplate chunkTransaction;
+
+    // Uma thread: um job por vez
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(
+        Thread.ofPlatform().name("link-transfer").daemon().factory());
+
+    // Jobs em andamento e os últimos terminados, por id
+    private final Map<String, TransferJob> jobs = Collections.synchronizedMap(new LinkedHashMap<>());
+    private volatile TransferJob running;
+
+    public LinkTransferService(PlatformTransactionManager transactionManager,
+                               @Value("${app.transfer.dir:./data/transfer}") String dir,
+                               @Value("${app.transfer.chunk-rows:10000}") int chunkRows,
+                               @Value("${app.transfer.compression-level:1}") int compressionLevel) {
+        if (chunkRows <= 0) {
+            throw new IllegalArgumentException("app.transfer.chunk-rows deve ser maior que zero");
+        }
+        if (compressionLevel < 0 || compressionLevel > 9) {
+            throw new IllegalArgumentException("app.transfer.compression-level deve estar entre 0 e 9");
+        }
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.dir = Path.of(dir);
+        this.chunkRows = chunkRows;
+        this.compressionLevel = compressionLevel;
+    }
+
+    // ------------------------------------------------------------
+    // JOBS
+    // ------------------------------------------------------------
+
+    /**
+     * Arquivo dentro de app.transfer.dir (endpoints administrativos não escolhem caminhos livres).
+     *
+     * @throws IllegalArgumentException se o nome não for um nome de arquivo simples
+     */
+    public Path resolve(String fileName) {
+        if (fileName == null || !FILE_NAME.matcher(fileName).matches()) {
+            throw new IllegalArgumentException("Nome de arquivo inválido: use letras, números, '.', '_' e '-'");
+        }
+        return dir.resolve(fileName);
+    }
+
+    /**
+     * Começa a exportar a tabela para o arquivo.
+     *
+     * @param resume true = continua um arquivo interrompido (ou cria, se não existir)
+     * @throws IllegalStateException se já houver um job em andamento
+     */
+    public synchronized TransferJob startExport(Path file, boolean resume) {
+        return start(new TransferJob(TransferJob.Type.EXPORT, file, 0), job -> export(job, resume));
+    }
+
+    /**
+     * Começa a importar o arquivo.
+     *
+     * @param afterId Pula as linhas com id até este (cursor de um job anterior; 0 = tudo)
+     * @throws IllegalArgumentException se o arquivo não existir
+     * @throws IllegalStateException se já houver um job em andamento
+     */
+    public synchronized TransferJob startImport(Path file, long afterId) {
+        if (!Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("Arquivo não encontrado: " + file);
+        }
+        return start(new TransferJob(TransferJob.Type.IMPORT, file, afterId), this::importFile);
+    }
+
+    public TransferJob getJob(String id) {
+        return jobs.get(id);
+    }
+
+    public List<Map<String, Object>> listJobs() {
+        synchronized (jobs) {
+            return jobs.values().stream().map(TransferJob::toMap).toList();
+        }
+    }
+
+    /**
+     * Pede o cancelamento (o job para no fim do bloco atual e pode ser retomado pelo cursor).
+     *
+     * @return false se o job não existe ou já terminou
+     */
+    public boolean cancel(String id) {
+        TransferJob job = jobs.get(id);
+        if (job == null || job.isFinished()) {
+            return false;
+        }
+        job.requestCancel();
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        TransferJob job = running;
+        if (job != null) {
+            job.requestCancel();
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private interface JobBody {
+        void run(TransferJob job) throws IOException;
+    }
+
+    private TransferJob start(TransferJob job, JobBody body) {
+        if (running != null) {
+            throw new IllegalStateException("Já existe um job de transferência em andamento: " + running.getId());
+        }
+        running = job;
+        synchronized (jobs) {
+            jobs.put(job.getId(), job);
+            jobs.values().removeIf(old -> old.isFinished() && jobs.size() > MAX_FINISHED_JOBS);
+        }
+        executor.execute(() -> run(job, body));
+        return job;
+    }
+
+    private void run(TransferJob job, JobBody body) {
+        String type = job.getType().name().toLowerCase();
+        try {
+            body.run(job);
+            job.finish(TransferJob.Status.COMPLETED, null);
+            log.info("Transferência {} ({}) concluída: {} linhas, {} linhas/s",
+                job.getId(), type, job.getRows(), Math.round(job.getRowsPerSecond()));
+        } catch (CancellationException e) {
+            job.finish(TransferJob.Status.CANCELLED, "Cancelado no id " + job.getCursor());
+            log.info("Transferência {} ({}) cancelada no id {}", job.getId(), type, job.getCursor());
+        } catch (IOException | UncheckedIOException | DataAccessException e) {
+            job.finish(TransferJob.Status.FAILED, e.getMessage());
+            log.warn("Transferência {} ({}) falhou no id {}", job.getId(), type, job.getCursor(), e);
+        } catch (RuntimeException e) {
+            job.finish(TransferJob.Status.FAILED, e.toString());
+            log.error("Transferência {} ({}) falhou no id {}", job.getId(), type, job.getCursor(), e);
+        } finally {
+            meterRegistry.counter("urlshortener.transfer.rows", "type", type).increment(job.getRows());
+            running = null;
+        }
+    }
+
+    // ------------------------------------------------------------
+    // EXPORTAÇÃO
+    // ------------------------------------------------------------
+
+    private void export(TransferJob job, boolean resume) throws IOException {
+        Path file = job.getFile();
+        LinkArchive.Scan scan = null;
+        if (resume && Files.exists(file)) {
+            scan = LinkArchive.scan(file);
+            if (scan.complete()) {
+                job.setTotalRows(0);
+                job.progress(0, scan.lastId(), scan.validBytes());
+                return;
+            }
+        }
+        long afterId = scan == null ? 0 : scan.lastId();
+        job.progress(0, afterId, 0);
+        job.setTotalRows(jdbcTemplate.queryForObject(
+            "SELECT (SELECT COUNT(*) FROM shortened_urls WHERE id > ?) + (SELECT COUNT(*) FROM shortened_urls_cold WHERE id > ?)",
+            Long.class, afterId, afterId));
+
+        try (LinkArchiveWriter writer = scan == null
+                ? LinkArchiveWriter.create(file, compressionLevel)
+                : LinkArchiveWriter.append(file, scan, compressionLevel)) {
+            LinkChunk chunk = new LinkChunk(chunkRows);
+            long[] exported = new long[1];
+
+            JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+            streaming.setFetchSize(chunkRows);
+            streaming.query(SELECT_ROWS, rs -> {
+                Timestamp created = rs.getTimestamp(5);
+                Timestamp expires = rs.getTimestamp(6);
+                chunk.add(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getObject(4, Long.class),
+                    created == null ? null : created.toLocalDateTime(),
+                    expires == null ? null : expires.toLocalDateTime(),
+                    rs.getObject(7, Boolean.class), rs.getObject(8, Long.class));
+                if (chunk.isFull()) {
+                    exported[0] += writeChunk(job, writer, chunk, exported[0]);
+                }
+            }, afterId, afterId);
+            exported[0] += writeChunk(job, writer, chunk, exported[0]);
+
+            // Depois das linhas: os valores lidos aqui já cobrem todos os códigos exportados
+            Map<String, Long> sequences = new LinkedHashMap<>();
+            jdbcTemplate.query("SELECT name, next_value FROM short_code_sequences",
+                rs -> { sequences.put(rs.getString(1), rs.getLong(2)); });
+            writer.writeSequences(sequences);
+            writer.finish();
+            job.progress(exported[0], job.getCursor(), writer.getBytesWritten());
+        }
+    }
+
+    // Grava o bloco (se tiver linhas) e confere o pedido de cancelamento; chamado de dentro do cursor JDBC
+    private int writeChunk(TransferJob job, LinkArchiveWriter writer, LinkChunk chunk, long exported) {
+        int rows = chunk.size;
+        if (rows == 0) {
+            return 0;
+        }
+        try {
+            writer.writeRows(chunk);
+            job.progress(exported + rows, chunk.lastId(), writer.getBytesWritten());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        chunk.clear();
+        if (job.isCancelRequested()) {
+            throw new CancellationException();
+        }
+        return rows;
+    }
+
+    // ------------------------------------------------------------
+    // IMPORTAÇÃO
+    // ------------------------------------------------------------
+
+    private void importFile(TransferJob job) throws IOException {
+        long afterId = job.getCursor();
+        long imported = 0;
+        long skipped = 0;
+        Map<String, Long> sequences = Map.of();
+        boolean complete = false;
+
+        try (LinkArchive archive = LinkArchive.open(job.getFile())) {
+            job.setTotalBytes(archive.size());
+            LinkChunk chunk = new LinkChunk(chunkRows);
+
+            while (!complete) {
+                byte type = archive.next();
+                switch (type) {
+                    case LinkArchive.ROWS -> {
+                        if (archive.getLastId() <= afterId) {
+                            // Já importado por um job anterior: nem descomprime
+                            archive.skip();
+                        } else {
+                            archive.readRows(chunk);
+                            int inserted = insertChunk(chunk, afterId);
+                            imported += inserted;
+                            skipped += countAfter(chunk, afterId) - inserted;
+                            job.setSkippedRows(skipped);
+                        }
+                        job.progress(imported, Math.max(afterId, archive.getLastId()), archive.position());
+                        if (job.isCancelRequested()) {
+                            throw new CancellationException();
+                        }
+                    }
+                    case LinkArchive.SEQUENCES -> sequences = archive.readSequences();
+                    case LinkArchive.END -> complete = true;
+                    default -> throw new IOException(
+                        "Arquivo termina sem o bloco final: exportação incompleta (retome a exportação com resume=true)");
+                }
+            }
+        } finally {
+            if (imported > 0) {
+                afterImport(sequences);
+            }
+        }
+    }
+
+    private static int countAfter(LinkChunk chunk, long afterId) {
+        int count = 0;
+        for (int i = 0; i < chunk.size; i++) {
+            if (chunk.ids[i] > afterId) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Insere as linhas do bloco com id > afterId num batch só (uma transação).
+     * Se alguma já existir, o batch volta atrás e o bloco é gravado linha a linha, pulando as repetidas.
+     *
+     * @return Linhas inseridas
+     */
+    private int insertChunk(LinkChunk chunk, long afterId) {
+        List<Integer> rows = new ArrayList<>(chunk.size);
+        for (int i = 0; i < chunk.size; i++) {
+            if (chunk.ids[i] > afterId) {
+                rows.add(i);
+            }
+        }
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            chunkTransaction.executeWithoutResult(status -> {
+                // INSERTs de ROWS_PER_STATEMENT linhas cada (bem menos idas ao banco) e o resto linha a linha
+                int statements = rows.size() / ROWS_PER_STATEMENT;
+                jdbcTemplate.batchUpdate(INSERT_ROWS, new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int statement) throws SQLException {
+                        for (int r = 0; r < ROWS_PER_STATEMENT; r++) {
+                            bindRow(ps, r * COLUMNS, chunk, rows.get(statement * ROWS_PER_STATEMENT + r));
+                        }
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return statements;
+                    }
+                });
+                jdbcTemplate.batchUpdate(INSERT_ROW, new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        bindRow(ps, 0, chunk, rows.get(statements * ROWS_PER_STATEMENT + i));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows.size() - statements * ROWS_PER_STATEMENT;
+                    }
+                });
+            });
+            return rows.size();
+        } catch (DataIntegrityViolationException e) {
+            // Importação repetida, ou banco com parte dos links
+            int inserted = 0;
+            for (int row : rows) {
+                try {
+                    jdbcTemplate.update(INSERT_ROW, ps -> bindRow(ps, 0, chunk, row));
+                    inserted++;
+                } catch (DataIntegrityViolationException duplicate) {
+                    // Mesmo id ou mesmo código já no banco
+                }
+            }
+            return inserted;
+        }
+    }
+
+    // Parâmetros da linha i do bloco a partir da posição offset + 1 do statement
+    private static void bindRow(PreparedStatement ps, int offset, LinkChunk chunk, int i) throws SQLException {
+        long key = ShortCodeGenerator.toKey(chunk.shortCodes[i]);
+        ps.setLong(offset + 1, chunk.ids[i]);
+        ps.setString(offset + 2, chunk.shortCodes[i]);
+        setLong(ps, offset + 3, key < 0 ? null : key);
+        ps.setString(offset + 4, chunk.originalUrls[i]);
+        setLong(ps, offset + 5, chunk.clickCounts[i]);
+        setTimestamp(ps, offset + 6, chunk.createdAt[i]);
+        setTimestamp(ps, offset + 7, chunk.expiresAt[i]);
+        if (chunk.active[i] == null) {
+            ps.setNull(offset + 8, Types.BOOLEAN);
+        } else {
+            ps.setBoolean(offset + 8, chunk.active[i]);
+        }
+        setLong(ps, offset + 9, chunk.urlHashes[i]);
+    }
+
+    private static void setLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.BIGINT);
+        } else {
+            ps.setLong(index, value);
+        }
+    }
+
+    private static void setTimestamp(PreparedStatement ps, int index, LocalDateTime value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.TIMESTAMP);
+        } else {
+            ps.setTimestamp(index, Timestamp.valueOf(value));
+        }
+    }
+
+    /**
+     * Depois da importação: sequências à frente dos valores importados e caches locais recarregados.
+     */
+    private void afterImport(Map<String, Long> sequences) {
+        try {
+            for (Map.Entry<String, Long> sequence : sequences.entrySet()) {
+                int updated = jdbcTemplate.update(
+                    "UPDATE short_code_sequences SET next_value = GREATEST(next_value, ?) WHERE name = ?",
+                    sequence.getValue(), sequence.getKey());
+                if (updated == 0) {
+                    jdbcTemplate.update("INSERT INTO short_code_sequences (name, next_value) VALUES (?, ?)",
+                        sequence.getKey(), sequence.getValue());
+                }
+            }
+
+            // O Hibernate usa o valor da sequência como fim do bloco de allocationSize ids
+            Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM shortened_urls", Long.class);
+            Long next = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR shortened_urls_seq", Long.class);
+            if (maxId != null && next != null && next < maxId + ID_ALLOCATION_SIZE) {
+                jdbcTemplate.execute("ALTER SEQUENCE shortened_urls_seq RESTART WITH " + (maxId + ID_ALLOCATION_SIZE + 1));
+            }
+        } catch (DataAccessException e) {
+            log.error("Importação: falha ao avançar as sequências; novos links podem colidir com os importados", e);
+        }
+
+        redirectCache.clear();
+        dedupCache.clear();
+        try {
+            codeFilter.rebuild();
+        } catch (IllegalStateException e) {
+            // Reconstrução já em andamento (começou depois das inserções ou vai terminar sem elas)
+            log.warn("Importação: filtro de códigos em reconstrução; rode POST /api/admin/bloom/rebuild ao terminar");
+        } catch (DataAccessException e) {
+            log.warn("Importação: falha ao recarregar o filtro de códigos", e);
+        }
+    }
+
+    // ------------------------------------------------------------
+    // ESTATÍSTICAS
+    // ------------------------------------------------------------
+
+    public Path getDir() { return dir; }
+}
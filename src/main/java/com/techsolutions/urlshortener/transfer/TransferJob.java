@@ -0,0 +1,132 @@
+package com.techsolutions.urlshortener.transfer;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Uma exportação ou importação em segundo plano (ver LinkTransferService).
+ * Atualizada só pela thread do job; os campos voláteis são lidos pelo endpoint de progresso.
+ */
+public class TransferJob {
+
+    public enum Type { EXPORT, IMPORT }
+
+    public enum Status { RUNNING, COMPLETED, FAILED, CANCELLED }
+
+    private final String id = UUID.randomUUID().toString().substring(0, 8);
+    private final Type type;
+    private final Path file;
+    private final long startCursor;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final long startNanos = System.nanoTime();
+
+    private volatile Status status = Status.RUNNING;
+    private volatile long rows;          // Linhas exportadas/importadas por este job
+    private volatile long skippedRows;   // Importação: linhas que já existiam no banco
+    private volatile long totalRows = -1;
+    private volatile long cursor;        // Último id concluído (retomada: resume / afterId)
+    private volatile long bytes;
+    private volatile long totalBytes = -1;
+    private volatile LocalDateTime finishedAt;
+    private volatile long elapsedNanos;
+    private volatile String error;
+    private volatile boolean cancelRequested;
+
+    TransferJob(Type type, Path file, long startCursor) {
+        this.type = type;
+        this.file = file;
+        this.startCursor = startCursor;
+        this.cursor = startCursor;
+    }
+
+    // ------------------------------------------------------------
+    // PROGRESSO (thread do job)
+    // ------------------------------------------------------------
+
+    void progress(long rows, long cursor, long bytes) {
+        this.rows = rows;
+        this.cursor = cursor;
+        this.bytes = bytes;
+    }
+
+    void setSkippedRows(long skippedRows) { this.skippedRows = skippedRows; }
+
+    void setTotalRows(long totalRows) { this.totalRows = totalRows; }
+
+    void setTotalBytes(long totalBytes) { this.totalBytes = totalBytes; }
+
+    void finish(Status status, String error) {
+        this.elapsedNanos = System.nanoTime() - startNanos;
+        this.error = error;
+        this.finishedAt = LocalDateTime.now();
+        this.status = status;
+    }
+
+    void requestCancel() { cancelRequested = true; }
+
+    boolean isCancelRequested() { return cancelRequested; }
+
+    // ------------------------------------------------------------
+    // CONSULTA
+    // ------------------------------------------------------------
+
+    public String getId() { return id; }
+
+    public Type getType() { return type; }
+
+    public Path getFile() { return file; }
+
+    public Status getStatus() { return status; }
+
+    public boolean isFinished() { return status != Status.RUNNING; }
+
+    public long getRows() { return rows; }
+
+    public long getCursor() { return cursor; }
+
+    public String getError() { return error; }
+
+    /**
+     * @return Fração concluída (0 a 1), ou -1 se ainda não se sabe o total
+     */
+    public double getProgress() {
+        if (status == Status.COMPLETED) {
+            return 1;
+        }
+        // Exportação: linhas; importação: bytes lidos do arquivo
+        if (type == Type.EXPORT) {
+            return totalRows <= 0 ? -1 : Math.min(1, (double) rows / totalRows);
+        }
+        return totalBytes <= 0 ? -1 : Math.min(1, (double) bytes / totalBytes);
+    }
+
+    public double getRowsPerSecond() {
+        long nanos = isFinished() ? elapsedNanos : System.nanoTime() - startNanos;
+        return nanos == 0 ? 0 : rows * 1e9 / nanos;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("id", id);
+        map.put("type", type);
+        map.put("file", file.toString());
+        map.put("status", status);
+        map.put("progress", getProgress());
+        map.put("rows", rows);
+        map.put("totalRows", totalRows < 0 ? null : totalRows);
+        if (type == Type.IMPORT) {
+            map.put("skippedRows", skippedRows);
+        }
+        map.put("startCursor", startCursor);
+        map.put("cursor", cursor);
+        map.put("bytes", bytes);
+        map.put("rowsPerSecond", Math.round(getRowsPerSecond()));
+        map.put("startedAt", startedAt);
+        map.put("finishedAt", finishedAt);
+        map.put("error", error);
+        return map;
+    }
+}
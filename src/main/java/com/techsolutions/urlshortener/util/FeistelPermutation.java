@@ -0,0 +1,91 @@
+package com.techsolutions.urlshortener.util;
+
+/**
+ * Permutação bijetiva e determinística do intervalo [0, domainSize).
+ *
+ * Usada para "embaralhar" números sequenciais antes de virarem código curto:
+ * 0, 1, 2... viram valores espalhados pelo intervalo, sem nunca repetir.
+ * É uma rede de Feistel balanceada sobre o menor número par de bits que cobre
+ * o domínio, com "cycle walking" para descartar resultados fora do intervalo.
+ */
+public final class FeistelPermutation {
+
+    private static final int ROUNDS = 4;
+
+    private final long domainSize;
+    private final int halfBits;
+    private final long halfMask;
+    private final long[] roundKeys = new long[ROUNDS];
+
+    /**
+     * @param domainSize Tamanho do domínio (ex: 62^6 para códigos de 6 caracteres)
+     * @param key        Chave secreta; a mesma chave sempre gera a mesma permutação
+     */
+    public FeistelPermutation(long domainSize, long key) {
+        if (domainSize < 2) {
+            throw new IllegalArgumentException("O domínio deve ter pelo menos 2 valores");
+        }
+        this.domainSize = domainSize;
+
+        int bits = 64 - Long.numberOfLeadingZeros(domainSize - 1);
+        if (bits % 2 != 0) {
+            bits++;
+        }
+        this.halfBits = bits / 2;
+        this.halfMask = (1L << halfBits) - 1;
+
+        // Deriva uma chave por rodada a partir da chave principal
+        long state = key;
+        for (int i = 0; i < ROUNDS; i++) {
+            state += 0x9E3779B97F4A7C15L;
+            roundKeys[i] = mix(state);
+        }
+    }
+
+    /**
+     * Retorna a imagem de value na permutação.
+     *
+     * @param value Valor no intervalo [0, domainSize)
+     * @return Outro valor no mesmo intervalo (bijeção)
+     */
+    public long permute(long value) {
+        if (value < 0 || value >= domainSize) {
+            throw new IllegalArgumentException("Valor fora do domínio: " + value);
+        }
+
+        // Cycle walking: como 2^bits < 4 * domainSize, são poucas voltas em média
+        long x = value;
+        do {
+            x = encrypt(x);
+        } while (x >= domainSize);
+        return x;
+    }
+
+    public long getDomainSize() {
+        return domainSize;
+    }
+
+    // ------------------------------------------------------------
+    // MÉTODOS PRIVADOS
+    // ------------------------------------------------------------
+
+    private long encrypt(long x) {
+        long left = x >>> halfBits;
+        long right = x & halfMask;
+
+        for (long roundKey : roundKeys) {
+            long next = left ^ (mix(right ^ roundKey) & halfMask);
+            left = right;
+            right = next;
+        }
+
+        return (left << halfBits) | right;
+    }
+
+    // Finalizador do SplitMix64: espalha bem os bits de entrada
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
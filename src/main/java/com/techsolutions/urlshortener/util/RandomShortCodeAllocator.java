@@ -0,0 +1,49 @@
+package com.techsolutions.urlshortener.util;
+
+import com.techsolutions.urlshortener.repository.UrlRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Alocador antigo: sorteia um código e consulta o banco até achar um livre.
+ * Mantido como alternativa (app.short-code.allocator=random); custa até
+ * MAX_ATTEMPTS consultas por criação e piora conforme o espaço de códigos enche.
+ */
+@Component
+@ConditionalOnProperty(name = "app.short-code.allocator", havingValue = "random")
+public class RandomShortCodeAllocator implements ShortCodeAllocator {
+
+    private static final int MAX_ATTEMPTS = 10;
+
+    @Autowired
+    private UrlRepository urlRepository;
+
+    @Autowired
+    private ShortCodeGenerator codeGenerator;
+
+    @Value("${app.short-code-length:6}")
+    private int shortCodeLength;
+
+    @Override
+    public String allocate() {
+        String shortCode;
+        int attempts = 0;
+
+        do {
+            shortCode = codeGenerator.generate(shortCodeLength);
+            attempts++;
+
+            if (attempts >= MAX_ATTEMPTS) {
+                throw new RuntimeException(
+                    "Não foi possível gerar um código único após " + MAX_ATTEMPTS + " tentativas."
+                );
+            }
+
+        } while (urlRepository.existsByShortCode(shortCode));
+
+        return shortCode;
+    }
+}
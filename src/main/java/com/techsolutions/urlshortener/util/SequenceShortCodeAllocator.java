@@ -0,0 +1,210 @@
+package com.techsolutions.urlshortener.util;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Alocador sem colisão: cada número de uma sequência vira exatamente um código.
+ *
+ * A instância reserva no banco um bloco de blockSize números de uma vez
+ * (UPDATE atômico na tabela short_code_sequences) e os distribui em memória.
+ * Instâncias diferentes recebem blocos diferentes, então nunca geram o mesmo código,
+ * e criar uma URL não precisa mais consultar se o código já existe.
+ *
+ * Com scramble ligado, o número passa por uma permutação de Feistel antes de ser
+ * codificado em base 62, para que códigos consecutivos não sejam adivinháveis.
+ * A chave da permutação deve ser a mesma em todas as instâncias e nunca mudar.
+ */
+@Component
+@ConditionalOnProperty(name = "app.short-code.allocator", havingValue = "sequence", matchIfMissing = true)
+public class SequenceShortCodeAllocator implements ShortCodeAllocator {
+
+    // Tamanho máximo da coluna short_code
+    public static final int MAX_LENGTH = 10;
+
+    private static final String SEQUENCE_NAME = "short_code";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ShortCodeGenerator codeGenerator;
+
+    private final TransactionTemplate reserveTransaction;
+    private final int minLength;
+    private final int blockSize;
+    private final boolean scramble;
+    private final long scrambleKey;
+
+    // Permutação usada para cada tamanho de código (criadas sob demanda)
+    private final FeistelPermutation[] permutations = new FeistelPermutation[MAX_LENGTH + 1];
+
+    // Bloco reservado atual: [next, end)
+    private long next;
+    private long end;
+
+    // Protege o bloco atual. ReentrantLock e não synchronized: a reserva faz I/O no banco,
+    // e uma thread virtual bloqueada dentro de synchronized prende a thread da plataforma (pinning)
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public SequenceShortCodeAllocator(PlatformTransactionManager transactionManager,
+                                      @Value("${app.short-code-length:6}") int minLength,
+                                      @Value("${app.short-code.block-size:100}") int blockSize,
+                                      @Value("${app.short-code.scramble:true}") boolean scramble,
+                                      @Value("${app.short-code.scramble-key:0}") long scrambleKey) {
+        if (minLength <= 0 || minLength > MAX_LENGTH) {
+            throw new IllegalArgumentException("app.short-code-length deve estar entre 1 e " + MAX_LENGTH);
+        }
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("app.short-code.block-size deve ser maior que zero");
+        }
+
+        // A reserva roda numa transação própria e curta: o lock da linha da sequência
+        // não fica preso durante a transação de quem está criando a URL
+        this.reserveTransaction = new TransactionTemplate(transactionManager);
+        this.reserveTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.minLength = minLength;
+        this.blockSize = blockSize;
+        this.scramble = scramble;
+        this.scrambleKey = scrambleKey;
+    }
+
+    // ------------------------------------------------------------
+    // ALOCAÇÃO
+    // ------------------------------------------------------------
+
+    @Override
+    public String allocate() {
+        lock.lock();
+        try {
+            if (next >= end) {
+                next = reserveBlock(blockSize);
+                end = next + blockSize;
+            }
+            return toCode(next++);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<String> allocate(int count) {
+        lock.lock();
+        try {
+            return allocateLocked(count);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private List<String> allocateLocked(int count) {
+        List<String> codes = new ArrayList<>(count);
+
+        // Usa o que sobrou do bloco atual
+        while (codes.size() < count && next < end) {
+            codes.add(toCode(next++));
+        }
+
+        // Reserva o restante (e mais um bloco normal de folga) numa única ida ao banco
+        int missing = count - codes.size();
+        if (missing > 0) {
+            long reserved = (long) missing + blockSize;
+            next = reserveBlock(reserved);
+            end = next + reserved;
+
+            while (codes.size() < count) {
+                codes.add(toCode(next++));
+            }
+        }
+
+        return codes;
+    }
+
+    /**
+     * Converte um número da sequência no código correspondente.
+     * Os primeiros 62^minLength números viram códigos de minLength caracteres,
+     * os 62^(minLength+1) seguintes viram códigos de minLength+1 caracteres, e assim por diante.
+     */
+    String toCode(long sequenceValue) {
+        long offset = sequenceValue;
+
+        for (int length = minLength; length <= MAX_LENGTH; length++) {
+            long size = ShortCodeGenerator.keyspaceSize(length);
+
+            if (offset < size) {
+                long value = scramble ? permutation(length).permute(offset) : offset;
+                return codeGenerator.encode(value, length);
+            }
+            offset -= size;
+        }
+
+        throw new IllegalStateException("Espaço de códigos esgotado (" + MAX_LENGTH + " caracteres)");
+    }
+
+    // ------------------------------------------------------------
+    // MÉTODOS PRIVADOS
+    // ------------------------------------------------------------
+
+    /**
+     * Reserva count números da sequência no banco e retorna o primeiro deles.
+     */
+    private long reserveBlock(long count) {
+        while (true) {
+            Long start = reserveTransaction.execute(status -> {
+                int updated = jdbcTemplate.update(
+                    "UPDATE short_code_sequences SET next_value = next_value + ? WHERE name = ?",
+                    count, SEQUENCE_NAME
+                );
+                if (updated == 0) {
+                    return null;
+                }
+
+                // Ainda dentro da transação (linha travada): lê o valor que nós mesmos gravamos
+                Long nextValue = jdbcTemplate.queryForObject(
+                    "SELECT next_value FROM short_code_sequences WHERE name = ?",
+                    Long.class, SEQUENCE_NAME
+                );
+                return nextValue - count;
+            });
+
+            if (start != null) {
+                return start;
+            }
+
+            // Primeira reserva neste banco: cria a linha da sequência e tenta de novo
+            createSequenceRow();
+        }
+    }
+
+    private void createSequenceRow() {
+        try {
+            reserveTransaction.executeWithoutResult(status -> jdbcTemplate.update(
+                "INSERT INTO short_code_sequences (name, next_value) VALUES (?, 0)",
+                SEQUENCE_NAME
+            ));
+        } catch (DuplicateKeyException e) {
+            // Outra instância criou a linha ao mesmo tempo: tudo bem
+        }
+    }
+
+    private FeistelPermutation permutation(int length) {
+        FeistelPermutation permutation = permutations[length];
+        if (permutation == null) {
+            permutation = new FeistelPermutation(ShortCodeGenerator.keyspaceSize(length), scrambleKey + length);
+            permutations[length] = permutation;
+        }
+        return permutation;
+    }
+}
@@ -0,0 +1,38 @@
+package com.techsolutions.urlshortener.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Estratégia de alocação de códigos curtos gerados automaticamente.
+ *
+ * Implementações:
+ * - SequenceShortCodeAllocator → blocos de uma sequência no banco, sem colisão (padrão)
+ * - RandomShortCodeAllocator   → código aleatório + verificação no banco (comportamento antigo)
+ *
+ * Escolhida pela propriedade app.short-code.allocator (sequence | random).
+ */
+public interface ShortCodeAllocator {
+
+    /**
+     * Retorna um código curto ainda não usado por nenhum outro código gerado.
+     *
+     * @return Código curto
+     */
+    String allocate();
+    
+    /**
+     * Retorna count códigos de uma vez (usado na criação em lote).
+     * Implementações podem sobrescrever para reservar tudo numa única ida ao banco.
+     *
+     * @param count Quantidade de códigos
+     * @return Lista com count códigos distintos
+     */
+    default List<String> allocate(int count) {
+        List<String> codes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            codes.add(allocate());
+        }
+        return codes;
+    }
+}
@@ -1,12 +1,18 @@
 package com.techsolutions.urlshortener.util;
 
-// Importa RandomStringUtils do Apache Commons
-// Esta classe vai nos ajudar a gerar strings aleatórias
-import org.apache.commons.lang3.RandomStringUtils;
 import org.springframework.stereotype.Component;
 
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
 // @Component → Marca esta classe como um COMPONENTE Spring
 // Pode ser injetado em outras classes com @Autowired
+//
+// Todas as operações trabalham com tabelas pré-calculadas e tipos primitivos:
+// - geração: um long sorteado por ThreadLocalRandom (sem Random compartilhado entre threads)
+//   convertido para base 62 direto num char[]
+// - validação: tabela de 128 booleans (sem indexOf nem cópia da String)
+// - decode/toKey: código → número, para guardar e indexar o código como BIGINT
 @Component
 public class ShortCodeGenerator {
     
@@ -19,10 +25,50 @@ public class ShortCodeGenerator {
     // Ex: ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789
     private static final String CHARACTERS = 
         "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+
+    // Base da numeração (62)
+    private static final int BASE = CHARACTERS.length();
+
+    // Dígito → caractere
+    private static final char[] ALPHABET = CHARACTERS.toCharArray();
+
+    // Caractere (ASCII) → dígito, ou -1 se o caractere não é permitido
+    private static final byte[] DIGITS = new byte[128];
+
+    // Caractere (ASCII) → permitido?
+    private static final boolean[] VALID = new boolean[128];
+
+    static {
+        Arrays.fill(DIGITS, (byte) -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            DIGITS[ALPHABET[i]] = (byte) i;
+            VALID[ALPHABET[i]] = true;
+        }
+    }
     
     // Tamanho padrão do código (6 caracteres)
     // 6 caracteres = 62^6 = ~56 bilhões de combinações possíveis!
     private static final int DEFAULT_LENGTH = 6;
+
+    // Maior tamanho cujo espaço de códigos (62^n) cabe num long: 62^10 ≈ 8,4 × 10^17
+    public static final int MAX_NUMERIC_LENGTH = 10;
+
+    // 62^n para n = 0..10
+    private static final long[] POWERS = new long[MAX_NUMERIC_LENGTH + 1];
+
+    // Primeira chave numérica de cada tamanho: 62^1 + ... + 62^(n-1)
+    // (os códigos de 1 caractere ocupam 0..61, os de 2 caracteres 62..3905, e assim por diante)
+    private static final long[] KEY_OFFSETS = new long[MAX_NUMERIC_LENGTH + 1];
+
+    static {
+        POWERS[0] = 1;
+        for (int i = 1; i < POWERS.length; i++) {
+            POWERS[i] = POWERS[i - 1] * BASE;
+        }
+        for (int i = 2; i < KEY_OFFSETS.length; i++) {
+            KEY_OFFSETS[i] = KEY_OFFSETS[i - 1] + POWERS[i - 1];
+        }
+    }
     
     // ------------------------------------------------------------
     // MÉTODO PRINCIPAL
@@ -35,11 +81,7 @@ public class ShortCodeGenerator {
      * @return Código curto aleatório
      */
     public String generate() {
-        // RandomStringUtils.random() gera uma string aleatória
-        // Parâmetros:
-        // 1. tamanho (6)
-        // 2. caracteres permitidos (CHARACTERS)
-        return RandomStringUtils.random(DEFAULT_LENGTH, CHARACTERS);
+        return random(DEFAULT_LENGTH);
     }
     
     /**
@@ -54,9 +96,115 @@ public class ShortCodeGenerator {
             throw new IllegalArgumentException("O tamanho deve ser maior que zero");
         }
         
-        return RandomStringUtils.random(length, CHARACTERS);
+        return random(length);
     }
     
+    // ------------------------------------------------------------
+    // MÉTODOS PARA CODIFICAR / DECODIFICAR NÚMEROS
+    // ------------------------------------------------------------
+
+    /**
+     * Converte um número em código de tamanho fixo na base 62
+     * (completa com o primeiro caractere, 'A', à esquerda).
+     * Ex: encode(0, 6) = "AAAAAA", encode(61, 6) = "AAAAA9"
+     *
+     * @param value Número no intervalo [0, 62^length)
+     * @param length Tamanho do código
+     * @return Código correspondente ao número
+     */
+    public String encode(long value, int length) {
+        if (length <= 0) {
+            throw new IllegalArgumentException("O tamanho deve ser maior que zero");
+        }
+        if (value < 0) {
+            throw new IllegalArgumentException("O valor não pode ser negativo");
+        }
+        if (length <= MAX_NUMERIC_LENGTH && value >= POWERS[length]) {
+            throw new IllegalArgumentException("Valor grande demais para " + length + " caracteres: " + value);
+        }
+
+        return new String(toChars(value, length));
+    }
+
+    /**
+     * Converte um código de volta no número (inverso de encode).
+     * Ex: decode("AAAAA9") = 61, e encode(decode(c), c.length()) = c
+     *
+     * Códigos de tamanhos diferentes podem ter o mesmo número ("AB" e "AAAB" = 1):
+     * para uma chave única entre tamanhos, use toKey.
+     *
+     * @param code Código com até MAX_NUMERIC_LENGTH caracteres
+     * @return Número no intervalo [0, 62^length)
+     * @throws IllegalArgumentException Se o código for inválido ou longo demais
+     */
+    public long decode(String code) {
+        if (code == null || code.isEmpty()) {
+            throw new IllegalArgumentException("O código não pode ser vazio");
+        }
+        if (code.length() > MAX_NUMERIC_LENGTH) {
+            throw new IllegalArgumentException("Código longo demais para virar número: " + code);
+        }
+
+        long value = digits(code);
+        if (value < 0) {
+            throw new IllegalArgumentException("Caractere inválido no código: " + code);
+        }
+        return value;
+    }
+
+    // ------------------------------------------------------------
+    // CHAVE NUMÉRICA (coluna code_key)
+    // ------------------------------------------------------------
+
+    /**
+     * Chave numérica única de um código, de qualquer tamanho até MAX_NUMERIC_LENGTH.
+     * Diferente de decode, não repete entre tamanhos: "B" = 1, "AB" = 63, "AAB" = 3907.
+     * Ex: toKey("A") = 0, toKey("9") = 61, toKey("AA") = 62
+     *
+     * @param code Código curto
+     * @return Chave em [0, 62 + 62^2 + ... + 62^10), ou -1 se o código for inválido ou longo demais
+     */
+    public static long toKey(String code) {
+        if (code == null || code.isEmpty() || code.length() > MAX_NUMERIC_LENGTH) {
+            return -1;
+        }
+        long value = digits(code);
+        return value < 0 ? -1 : KEY_OFFSETS[code.length()] + value;
+    }
+
+    /**
+     * Código correspondente a uma chave numérica (inverso de toKey).
+     *
+     * @param key Chave gerada por toKey
+     * @return Código curto
+     */
+    public static String fromKey(long key) {
+        if (key < 0) {
+            throw new IllegalArgumentException("A chave não pode ser negativa");
+        }
+        for (int length = 1; length <= MAX_NUMERIC_LENGTH; length++) {
+            long value = key - KEY_OFFSETS[length];
+            if (value < POWERS[length]) {
+                return new String(toChars(value, length));
+            }
+        }
+        throw new IllegalArgumentException("Chave fora do intervalo: " + key);
+    }
+
+    /**
+     * Quantidade de códigos distintos com o tamanho informado (62^length).
+     */
+    public static long keyspaceSize(int length) {
+        if (length >= 0 && length <= MAX_NUMERIC_LENGTH) {
+            return POWERS[length];
+        }
+        long size = 1;
+        for (int i = 0; i < length; i++) {
+            size = Math.multiplyExact(size, (long) BASE);
+        }
+        return size;
+    }
+
     // ------------------------------------------------------------
     // MÉTODO PARA VALIDAR CÓDIGOS
     // ------------------------------------------------------------
@@ -72,10 +220,11 @@ public class ShortCodeGenerator {
             return false;
         }
         
-        // Verifica cada caractere do código
-        for (char c : code.toCharArray()) {
-            // Se algum caractere NÃO estiver na lista de permitidos → inválido
-            if (CHARACTERS.indexOf(c) == -1) {
+        // Verifica cada caractere do código na tabela (sem copiar a String)
+        for (int i = 0; i < code.length(); i++) {
+            char c = code.charAt(i);
+            // Fora do ASCII ou fora da lista de permitidos → inválido
+            if (c >= 128 || !VALID[c]) {
                 return false;
             }
         }
@@ -94,6 +243,48 @@ public class ShortCodeGenerator {
      * @return Código curto aleatório
      */
     public static String generateStatic() {
-        return RandomStringUtils.random(DEFAULT_LENGTH, CHARACTERS);
+        return random(DEFAULT_LENGTH);
+    }
+
+    // ------------------------------------------------------------
+    // MÉTODOS PRIVADOS
+    // ------------------------------------------------------------
+
+    private static String random(int length) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (length <= MAX_NUMERIC_LENGTH) {
+            // Um único sorteio uniforme em [0, 62^length) cobre o código inteiro
+            return new String(toChars(random.nextLong(POWERS[length]), length));
+        }
+
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = ALPHABET[random.nextInt(BASE)];
+        }
+        return new String(chars);
+    }
+
+    // Valor posicional na base 62, ou -1 se houver caractere inválido
+    private static long digits(String code) {
+        long value = 0;
+        for (int i = 0; i < code.length(); i++) {
+            char c = code.charAt(i);
+            int digit = c < 128 ? DIGITS[c] : -1;
+            if (digit < 0) {
+                return -1;
+            }
+            value = value * BASE + digit;
+        }
+        return value;
+    }
+
+    private static char[] toChars(long value, int length) {
+        char[] chars = new char[length];
+        long remaining = value;
+        for (int i = length - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (remaining % BASE)];
+            remaining /= BASE;
+        }
+        return chars;
     }
-}
\ No newline at end of file
+}
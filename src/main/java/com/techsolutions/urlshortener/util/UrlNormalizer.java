@@ -0,0 +1,106 @@
+package com.techsolutions.urlshortener.util;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Forma canônica de uma URL, para reconhecer a mesma URL escrita de jeitos diferentes
+ * (deduplicação na criação).
+ *
+ * - esquema e host em minúsculas;
+ * - porta padrão removida (http:80, https:443);
+ * - caminho vazio vira "/" e a barra final dos demais caminhos é removida;
+ * - parâmetros da query em ordem alfabética (parâmetros vazios descartados).
+ *
+ * Caminho, query e fragmento não são decodificados: "%2F" e "/" continuam diferentes.
+ * Texto que não é uma URI hierárquica válida é devolvido como está (sem espaços nas pontas).
+ */
+public final class UrlNormalizer {
+
+    private UrlNormalizer() {
+    }
+
+    public static String normalize(String url) {
+        String trimmed = url.trim();
+        URI uri;
+        try {
+            uri = new URI(trimmed);
+        } catch (URISyntaxException e) {
+            return trimmed;
+        }
+        if (uri.isOpaque() || uri.getScheme() == null || uri.getRawAuthority() == null) {
+            return trimmed;
+        }
+
+        String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+        StringBuilder sb = new StringBuilder(trimmed.length()).append(scheme).append("://");
+
+        if (uri.getHost() == null) {
+            // Autoridade que o URI não conseguiu separar (ex: host com "_"): só em minúsculas
+            sb.append(uri.getRawAuthority().toLowerCase(Locale.ROOT));
+        } else {
+            if (uri.getRawUserInfo() != null) {
+                sb.append(uri.getRawUserInfo()).append('@');
+            }
+            sb.append(uri.getHost().toLowerCase(Locale.ROOT));
+            int port = uri.getPort();
+            if (port != -1 && !(port == 80 && scheme.equals("http")) && !(port == 443 && scheme.equals("https"))) {
+                sb.append(':').append(port);
+            }
+        }
+
+        String path = uri.getRawPath();
+        if (path == null || path.isEmpty()) {
+            path = "/";
+        } else {
+            int end = path.length();
+            while (end > 1 && path.charAt(end - 1) == '/') {
+                end--;
+            }
+            path = path.substring(0, end);
+        }
+        sb.append(path);
+
+        String query = uri.getRawQuery();
+        if (query != null) {
+            List<String> params = new ArrayList<>();
+            for (String param : query.split("&")) {
+                if (!param.isEmpty()) {
+                    params.add(param);
+                }
+            }
+            if (!params.isEmpty()) {
+                Collections.sort(params);
+                sb.append('?').append(String.join("&", params));
+            }
+        }
+
+        if (uri.getRawFragment() != null) {
+            sb.append('#').append(uri.getRawFragment());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Hash de 64 bits (primeiros 8 bytes do SHA-256) da URL já normalizada.
+     * Cabe numa coluna BIGINT indexada; colisões são resolvidas comparando as URLs.
+     */
+    public static long hash(String normalizedUrl) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                .digest(normalizedUrl.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            // Todo JRE tem SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+-- Esquema inicial: o mesmo que o Hibernate gera a partir das entidades (ddl-auto)
+-- No perfil "prod" o Hibernate só valida (ddl-auto: validate); o esquema é daqui em diante
+
+-- IDs de shortened_urls reservados de 50 em 50 (allocationSize de ShortenedUrl)
+CREATE SEQUENCE shortened_urls_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE shortened_urls (
+    id           BIGINT       NOT NULL,
+    short_code   VARCHAR(10)  NOT NULL,
+    code_key     BIGINT,
+    original_url TEXT         NOT NULL,
+    click_count  BIGINT,
+    created_at   TIMESTAMP(6),
+    expires_at   TIMESTAMP(6),
+    is_active    BOOLEAN,
+    CONSTRAINT pk_shortened_urls PRIMARY KEY (id),
+    CONSTRAINT uk_shortened_urls_short_code UNIQUE (short_code),
+    CONSTRAINT uk_shortened_urls_code_key UNIQUE (code_key)
+);
+
+CREATE TABLE short_code_sequences (
+    name       VARCHAR(50) NOT NULL,
+    next_value BIGINT      NOT NULL,
+    CONSTRAINT pk_short_code_sequences PRIMARY KEY (name)
+);
+
+CREATE TABLE click_rollups (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    short_code     VARCHAR(10)  NOT NULL,
+    granularity    VARCHAR(6)   NOT NULL,
+    bucket_start   TIMESTAMP(6) NOT NULL,
+    clicks         BIGINT       NOT NULL,
+    bot_clicks     BIGINT       NOT NULL,
+    mobile_clicks  BIGINT       NOT NULL,
+    desktop_clicks BIGINT       NOT NULL,
+    CONSTRAINT pk_click_rollups PRIMARY KEY (id),
+    CONSTRAINT uk_click_rollups_bucket UNIQUE (short_code, granularity, bucket_start)
+);
+
+CREATE TABLE click_dimension_rollups (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    short_code      VARCHAR(10)  NOT NULL,
+    bucket_start    TIMESTAMP(6) NOT NULL,
+    dimension       VARCHAR(10)  NOT NULL,
+    dimension_value VARCHAR(255) NOT NULL,
+    clicks          BIGINT       NOT NULL,
+    CONSTRAINT pk_click_dimension_rollups PRIMARY KEY (id),
+    CONSTRAINT uk_click_dimension_rollups_value UNIQUE (short_code, bucket_start, dimension, dimension_value)
+);
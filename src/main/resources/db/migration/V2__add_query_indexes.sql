@@ -0,0 +1,12 @@
+-- Índices das consultas que não usam a chave primária nem as restrições UNIQUE
+-- (redirecionamento: uk_shortened_urls_code_key; séries de cliques: uk_click_rollups_bucket)
+
+-- Listagem/exportação com filtro de data (UrlQueryRepository)
+CREATE INDEX idx_shortened_urls_created_at ON shortened_urls (created_at);
+
+-- Filtro de expiradas (expires_at < agora)
+CREATE INDEX idx_shortened_urls_expires_at ON shortened_urls (expires_at);
+
+-- Top valores de uma dimensão no período (ClickRollupRepository.findTopValues):
+-- WHERE short_code = ? AND dimension = ? AND bucket_start BETWEEN ...
+CREATE INDEX idx_click_dimension_rollups_lookup ON click_dimension_rollups (short_code, dimension, bucket_start);
@@ -0,0 +1,20 @@
+-- Links expirados/desativados retirados de shortened_urls pelo ExpiredUrlReaper
+-- A tabela principal (consultada a cada redirecionamento) fica só com os links válidos
+CREATE TABLE shortened_urls_archive (
+    id           BIGINT       NOT NULL,
+    short_code   VARCHAR(10)  NOT NULL,
+    code_key     BIGINT,
+    original_url TEXT         NOT NULL,
+    click_count  BIGINT,
+    created_at   TIMESTAMP(6),
+    expires_at   TIMESTAMP(6),
+    is_active    BOOLEAN,
+    archived_at  TIMESTAMP(6) NOT NULL,
+    reason       VARCHAR(8)   NOT NULL,
+    CONSTRAINT pk_shortened_urls_archive PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_shortened_urls_archive_short_code ON shortened_urls_archive (short_code);
+
+-- Links desativados a remover (WHERE is_active = FALSE)
+CREATE INDEX idx_shortened_urls_is_active ON shortened_urls (is_active);
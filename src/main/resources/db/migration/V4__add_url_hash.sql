@@ -0,0 +1,5 @@
+-- Hash da URL original normalizada (deduplicação na criação, app.dedup.enabled)
+-- Registros antigos ficam com NULL e simplesmente não são reaproveitados
+ALTER TABLE shortened_urls ADD COLUMN url_hash BIGINT;
+
+CREATE INDEX idx_shortened_urls_url_hash ON shortened_urls (url_hash);
@@ -0,0 +1,13 @@
+-- Eventos de invalidação de cache entre instâncias (app.invalidation.bus=jdbc)
+-- Lidos por id a cada app.invalidation.poll-interval-ms; apagados após retention-seconds
+CREATE TABLE url_change_log (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    event_type   VARCHAR(12)  NOT NULL,
+    short_code   VARCHAR(10)  NOT NULL,
+    url_hash     BIGINT,
+    origin_node  VARCHAR(36)  NOT NULL,
+    published_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_url_change_log PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_url_change_log_published_at ON url_change_log (published_at);
@@ -0,0 +1,15 @@
+-- Camada fria: links ativos e sem expiração sem acessos recentes, movidos de shortened_urls
+-- pelo LinkTieringService. O redirecionamento consulta esta tabela quando o código não está na principal.
+-- Compacta: sem expires_at/is_active (sempre NULL/TRUE aqui) e só com a chave primária e o código
+CREATE TABLE shortened_urls_cold (
+    id           BIGINT       NOT NULL,
+    short_code   VARCHAR(10)  NOT NULL,
+    code_key     BIGINT,
+    original_url TEXT         NOT NULL,
+    click_count  BIGINT,
+    created_at   TIMESTAMP(6),
+    url_hash     BIGINT,
+    demoted_at   TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_shortened_urls_cold PRIMARY KEY (id),
+    CONSTRAINT uk_shortened_urls_cold_short_code UNIQUE (short_code)
+);
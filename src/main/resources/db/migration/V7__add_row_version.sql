@@ -0,0 +1,5 @@
+-- Versão e data da última alteração de cada linha (ETag/Last-Modified da API de URLs)
+-- row_version sobe a cada alteração (desativação, gravação de cliques); updated_at fica NULL
+-- até a primeira alteração (a API usa created_at)
+ALTER TABLE shortened_urls ADD COLUMN row_version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE shortened_urls ADD COLUMN updated_at TIMESTAMP(6);
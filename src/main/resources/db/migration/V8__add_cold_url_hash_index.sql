@@ -0,0 +1,3 @@
+-- Deduplicação também na camada fria: uma URL já encurtada que foi para shortened_urls_cold
+-- continua sendo reaproveitada em vez de ganhar um código novo
+CREATE INDEX idx_shortened_urls_cold_url_hash ON shortened_urls_cold (url_hash);
@@ -0,0 +1,2 @@
+-- Limpeza dos totais por minuto (app.analytics.retention): acha os mais antigos sem varrer a tabela
+CREATE INDEX idx_click_rollups_granularity_bucket ON click_rollups (granularity, bucket_start);
@@ -83,8 +83,10 @@ document.addEventListener('DOMContentLoaded', function() {
     // Função para carregar URLs
     async function loadUrls() {
         try {
-            const response = await fetch(API_URL);
-            const urls = await response.json();
+            // Primeira página, mais novas primeiro (a API é paginada)
+            const response = await fetch(`${API_URL}?limit=50&order=desc`);
+            const page = await response.json();
+            const urls = page.items;
             
             // Limpar lista
             urlList.innerHTML = '';
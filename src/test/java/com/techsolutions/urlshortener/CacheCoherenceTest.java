@@ -0,0 +1,164 @@
+package com.techsolutions.urlshortener;
+
+import com.techsolutions.urlshortener.dto.CreateUrlRequest;
+import com.techsolutions.urlshortener.invalidation.JdbcInvalidationBus;
+import com.techsolutions.urlshortener.service.ExpiredUrlReaper;
+import com.techsolutions.urlshortener.service.LookupResult;
+import com.techsolutions.urlshortener.service.UrlShortenerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Duas instâncias (contextos) no mesmo banco: o que uma desativa não pode continuar
+ * sendo redirecionado pelo cache da outra.
+ */
+class CacheCoherenceTest {
+
+    @Test
+    void deveInvalidarCacheDaOutraInstanciaPeloLoopback() {
+        String database = "coherence-" + UUID.randomUUID();
+        try (ConfigurableApplicationContext a = start(database, "loopback", "create");
+             ConfigurableApplicationContext b = start(database, "loopback", "none")) {
+
+            String code = a.getBean(UrlShortenerService.class)
+                .createShortUrl(new CreateUrlRequest("https://coherence.example.com/page"))
+                .getShortCode();
+
+            // Entregue na hora: o filtro de códigos de B já conhece o código novo
+            UrlShortenerService urlServiceB = b.getBean(UrlShortenerService.class);
+            assertEquals(LookupResult.Status.FOUND, urlServiceB.lookup(code).getStatus());
+
+            a.getBean(UrlShortenerService.class).deactivateUrl(code);
+
+            assertEquals(LookupResult.Status.DISABLED, urlServiceB.lookup(code).getStatus());
+        }
+    }
+
+    @Test
+    void deveInvalidarCacheDaOutraInstanciaPeloChangeLog() {
+        String database = "coherence-" + UUID.randomUUID();
+        try (ConfigurableApplicationContext a = start(database, "jdbc", "create");
+             ConfigurableApplicationContext b = start(database, "jdbc", "none")) {
+
+            String code = a.getBean(UrlShortenerService.class)
+                .createShortUrl(new CreateUrlRequest("https://coherence.example.com/page"))
+                .getShortCode();
+            UrlShortenerService urlServiceB = b.getBean(UrlShortenerService.class);
+            JdbcInvalidationBus busB = b.getBean(JdbcInvalidationBus.class);
+
+            // O filtro de códigos de B só conhece o código novo depois da leitura do change log
+            assertEquals(LookupResult.Status.MISSING, urlServiceB.lookup(code).getStatus());
+            busB.poll();
+            assertEquals(LookupResult.Status.FOUND, urlServiceB.lookup(code).getStatus());
+
+            a.getBean(UrlShortenerService.class).deactivateUrl(code);
+
+            // Até a próxima leitura do change log, B ainda responde do cache
+            assertEquals(LookupResult.Status.FOUND, urlServiceB.lookup(code).getStatus());
+
+            busB.poll();
+            assertEquals(LookupResult.Status.DISABLED, urlServiceB.lookup(code).getStatus());
+        }
+    }
+
+    @Test
+    void deveEntregarEventoConfirmadoDepoisDeUmIdMaior() {
+        String database = "coherence-" + UUID.randomUUID();
+        try (ConfigurableApplicationContext a = start(database, "jdbc", "create");
+             ConfigurableApplicationContext b = start(database, "jdbc", "none")) {
+
+            String code = a.getBean(UrlShortenerService.class)
+                .createShortUrl(new CreateUrlRequest("https://coherence.example.com/late"))
+                .getShortCode();
+            UrlShortenerService urlServiceB = b.getBean(UrlShortenerService.class);
+            JdbcInvalidationBus busB = b.getBean(JdbcInvalidationBus.class);
+            busB.poll();
+            assertEquals(LookupResult.Status.FOUND, urlServiceB.lookup(code).getStatus());
+
+            // Desativação de outra instância cuja transação confirma depois de um evento de id maior
+            JdbcTemplate jdbc = a.getBean(JdbcTemplate.class);
+            jdbc.update("UPDATE shortened_urls SET is_active = FALSE WHERE short_code = ?", code);
+            long last = jdbc.queryForObject("SELECT MAX(id) FROM url_change_log", Long.class);
+            insertEvent(jdbc, last + 2, "CREATED", "outro");
+            busB.poll();
+            assertEquals(LookupResult.Status.FOUND, urlServiceB.lookup(code).getStatus());
+
+            insertEvent(jdbc, last + 1, "DEACTIVATED", code);
+            busB.poll();
+            assertEquals(LookupResult.Status.DISABLED, urlServiceB.lookup(code).getStatus());
+            assertEquals(1, busB.getLateEvents());
+            assertEquals(0, busB.getSkippedIds());
+        }
+    }
+
+    @Test
+    void deveTirarDoCacheDaOutraInstanciaOLinkRetiradoPelaLimpeza() {
+        String database = "coherence-" + UUID.randomUUID();
+        try (ConfigurableApplicationContext a = start(database, "loopback", "create");
+             ConfigurableApplicationContext b = start(database, "loopback", "none")) {
+
+            String code = a.getBean(UrlShortenerService.class)
+                .createShortUrl(new CreateUrlRequest("https://coherence.example.com/limpeza"))
+                .getShortCode();
+            UrlShortenerService urlServiceB = b.getBean(UrlShortenerService.class);
+            assertEquals(LookupResult.Status.FOUND, urlServiceB.lookup(code).getStatus());
+
+            // Expirada há mais que a carência: a limpeza de A a retira da tabela
+            a.getBean(JdbcTemplate.class).update("UPDATE shortened_urls SET expires_at = " +
+                "DATEADD('DAY', -2, CURRENT_TIMESTAMP) WHERE short_code = ?", code);
+            a.getBean(ExpiredUrlReaper.class).run();
+
+            assertEquals(LookupResult.Status.MISSING, urlServiceB.lookup(code).getStatus());
+        }
+    }
+
+    @Test
+    void naoDeveGravarLinkSemOEventoNoChangeLog() {
+        String database = "coherence-" + UUID.randomUUID();
+        try (ConfigurableApplicationContext a = start(database, "jdbc", "create")) {
+            JdbcTemplate jdbc = a.getBean(JdbcTemplate.class);
+            UrlShortenerService urlService = a.getBean(UrlShortenerService.class);
+
+            // Evento não gravado: o INSERT do link é desfeito junto
+            jdbc.execute("ALTER TABLE url_change_log RENAME TO url_change_log_off");
+            try {
+                assertThrows(DataAccessException.class, () ->
+                    urlService.createShortUrl(new CreateUrlRequest("https://coherence.example.com/atomica")));
+            } finally {
+                jdbc.execute("ALTER TABLE url_change_log_off RENAME TO url_change_log");
+            }
+
+            assertEquals(0, jdbc.queryForObject(
+                "SELECT COUNT(*) FROM shortened_urls WHERE original_url = ?", Integer.class,
+                "https://coherence.example.com/atomica"));
+        }
+    }
+
+    private static void insertEvent(JdbcTemplate jdbc, long id, String type, String code) {
+        jdbc.update("INSERT INTO url_change_log (id, event_type, short_code, origin_node, published_at) " +
+            "VALUES (?, ?, ?, 'outra-instancia', CURRENT_TIMESTAMP)", id, type, code);
+    }
+
+    private static ConfigurableApplicationContext start(String database, String bus, String ddlAuto) {
+        return new SpringApplicationBuilder(UrlShortenerApplication.class)
+            .web(WebApplicationType.NONE)
+            .bannerMode(Banner.Mode.OFF)
+            .run("--spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+                "--spring.jpa.hibernate.ddl-auto=" + ddlAuto,
+                "--spring.jpa.show-sql=false",
+                "--app.invalidation.bus=" + bus,
+                // Leituras do change log só quando o teste chama poll()
+                "--app.invalidation.poll-interval-ms=3600000",
+                "--app.invalidation.max-staleness-ms=3600000");
+    }
+}
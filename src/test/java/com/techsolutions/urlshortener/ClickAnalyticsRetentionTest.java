@@ -0,0 +1,52 @@
+package com.techsolutions.urlshortener;
+
+import com.techsolutions.urlshortener.analytics.ClickAnalyticsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Banco próprio: a limpeza apaga de toda a tabela
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:analyticsretentiontest",
+    "app.analytics.retention.minute-hours=24",
+    "app.analytics.retention.batch-size=2"
+})
+class ClickAnalyticsRetentionTest {
+
+    @Autowired
+    private ClickAnalyticsService analyticsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void deveApagarSoTotaisPorMinutoForaDaRetencao() {
+        analyticsService.record("ret1", null, "Mozilla/5.0", "127.0.0.1");
+        analyticsService.aggregate();
+        for (int i = 0; i < 3; i++) {
+            insertRollup("MINUTE", "DATEADD('MINUTE', " + i + ", DATEADD('DAY', -3, CURRENT_TIMESTAMP))");
+        }
+        insertRollup("HOUR", "DATEADD('DAY', -3, CURRENT_TIMESTAMP)");
+
+        // Lotes de 2: dois DELETEs na mesma execução
+        assertEquals(3, analyticsService.purge());
+        assertEquals(1L, count("MINUTE"));
+        assertEquals(2L, count("HOUR"));
+        assertEquals(1L, count("DAY"));
+        assertEquals(0, analyticsService.purge());
+    }
+
+    private void insertRollup(String granularity, String bucketStart) {
+        jdbcTemplate.update("INSERT INTO click_rollups " +
+            "(short_code, granularity, bucket_start, clicks, bot_clicks, mobile_clicks, desktop_clicks) " +
+            "VALUES ('ret1', ?, " + bucketStart + ", 1, 0, 0, 1)", granularity);
+    }
+
+    private long count(String granularity) {
+        return jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM click_rollups WHERE granularity = ?", Long.class, granularity);
+    }
+}
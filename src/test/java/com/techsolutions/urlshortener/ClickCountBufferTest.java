@@ -0,0 +1,189 @@
+package com.techsolutions.urlshortener;
+
+import com.techsolutions.urlshortener.dto.CreateUrlRequest;
+import com.techsolutions.urlshortener.dto.UrlResponse;
+import com.techsolutions.urlshortener.repository.UrlRepository;
+import com.techsolutions.urlshortener.service.ClickCountBuffer;
+import com.techsolutions.urlshortener.service.UrlShortenerService;
+import com.techsolutions.urlshortener.tiering.ColdLinkStore;
+import org.h2.api.Trigger;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Gravações só quando o teste chama flush(); sub-lotes de 2 linhas
+@SpringBootTest(properties = {
+    "app.clicks.flush-interval-ms=3600000",
+    "app.clicks.batch-size=2"
+})
+class ClickCountBufferTest {
+
+    @Autowired
+    private UrlShortenerService urlService;
+
+    @Autowired
+    private ClickCountBuffer clickCountBuffer;
+
+    @Autowired
+    private UrlRepository urlRepository;
+
+    @Autowired
+    private ColdLinkStore coldStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void deveSomarCliquesPendentesEGravarEmLote() {
+        UrlResponse created = urlService.createShortUrl(new CreateUrlRequest("https://google.com"));
+        String code = created.getShortCode();
+
+        for (int i = 0; i < 3; i++) {
+            urlService.getOriginalUrl(code);
+        }
+
+        // Persistidos + pendentes
+        assertEquals(3L, urlService.getUrlDetails(code).getClickCount());
+
+        clickCountBuffer.flush();
+
+        assertEquals(0L, clickCountBuffer.getPending(code));
+        assertEquals(3L, urlRepository.findByShortCode(code).orElseThrow().getClickCount());
+        assertEquals(3L, urlService.getUrlDetails(code).getClickCount());
+    }
+
+    @Test
+    void naoDevePerderCliquesGravadosDuranteADesativacao() {
+        String code = urlService.createShortUrl(new CreateUrlRequest("https://desativar.example.com")).getShortCode();
+        for (int i = 0; i < 3; i++) {
+            urlService.getOriginalUrl(code);
+        }
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            // A desativação já leu a linha (click_count = 0)...
+            urlRepository.findByShortCode(code).orElseThrow();
+
+            // ...a gravação dos cliques confirma em outra conexão...
+            Thread flush = new Thread(clickCountBuffer::flush);
+            flush.start();
+            try {
+                flush.join();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+
+            // ...e só então a desativação grava (sem regravar click_count com o valor lido)
+            urlService.deactivateUrl(code);
+        });
+
+        assertEquals(3L, jdbcTemplate.queryForObject(
+            "SELECT click_count FROM shortened_urls WHERE short_code = ?", Long.class, code));
+        assertEquals(Boolean.FALSE, jdbcTemplate.queryForObject(
+            "SELECT is_active FROM shortened_urls WHERE short_code = ?", Boolean.class, code));
+    }
+
+    @Test
+    void deveContarComoGravadosSoOsCliquesQueChegaramAoBanco() {
+        String hot = urlService.createShortUrl(new CreateUrlRequest("https://gravados.example.com/quente")).getShortCode();
+        String cold = urlService.createShortUrl(new CreateUrlRequest("https://gravados.example.com/fria")).getShortCode();
+        coldStore.demote(List.of(jdbcTemplate.queryForObject(
+            "SELECT id FROM shortened_urls WHERE short_code = ?", Long.class, cold)), LocalDateTime.now());
+        long before = clickCountBuffer.getFlushedClicks();
+
+        clickCountBuffer.record(hot);
+        clickCountBuffer.record(hot);
+        clickCountBuffer.record(cold);
+        // Código que não está em nenhuma das tabelas (ex: removido pela limpeza)
+        clickCountBuffer.record("semLinha");
+
+        // Falha só no lote da camada fria: os cliques dela voltam ao buffer e não contam ainda
+        jdbcTemplate.execute("ALTER TABLE shortened_urls_cold RENAME TO shortened_urls_cold_off");
+        try {
+            clickCountBuffer.flush();
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE shortened_urls_cold_off RENAME TO shortened_urls_cold");
+        }
+        assertEquals(before + 2, clickCountBuffer.getFlushedClicks());
+        assertEquals(1L, clickCountBuffer.getPending(cold));
+
+        clickCountBuffer.flush();
+        assertEquals(before + 3, clickCountBuffer.getFlushedClicks());
+        assertEquals(1L, jdbcTemplate.queryForObject(
+            "SELECT click_count FROM shortened_urls_cold WHERE short_code = ?", Long.class, cold));
+    }
+
+    @Test
+    void naoDeveDuplicarCliquesQuandoUmSubLoteFalha() {
+        List<String> codes = List.of(
+            urlService.createShortUrl(new CreateUrlRequest("https://sublote.example.com/1")).getShortCode(),
+            urlService.createShortUrl(new CreateUrlRequest("https://sublote.example.com/2")).getShortCode(),
+            urlService.createShortUrl(new CreateUrlRequest("https://sublote.example.com/3")).getShortCode());
+        codes.forEach(clickCountBuffer::record);
+        long failedBefore = clickCountBuffer.getFailedFlushes();
+
+        // Terceira linha = segundo sub-lote: o primeiro já foi executado quando ela falha
+        FailingUpdateTrigger.arm(codes, 3);
+        jdbcTemplate.execute("CREATE TRIGGER falha_sublote BEFORE UPDATE ON shortened_urls " +
+            "FOR EACH ROW CALL \"" + FailingUpdateTrigger.class.getName() + "\"");
+        try {
+            clickCountBuffer.flush();
+        } finally {
+            jdbcTemplate.execute("DROP TRIGGER falha_sublote");
+        }
+        assertEquals(failedBefore + 1, clickCountBuffer.getFailedFlushes());
+
+        clickCountBuffer.flush();
+        for (String code : codes) {
+            assertEquals(1L, jdbcTemplate.queryForObject(
+                "SELECT click_count FROM shortened_urls WHERE short_code = ?", Long.class, code));
+        }
+    }
+
+    // Falha na N-ésima linha atualizada entre os códigos observados
+    public static class FailingUpdateTrigger implements Trigger {
+
+        private static volatile Set<String> watched = Set.of();
+        private static volatile int failAt;
+        private static final AtomicInteger fired = new AtomicInteger();
+
+        private int codeColumn;
+
+        static void arm(List<String> codes, int failAtRow) {
+            watched = Set.copyOf(codes);
+            failAt = failAtRow;
+            fired.set(0);
+        }
+
+        @Override
+        public void init(Connection conn, String schemaName, String triggerName, String tableName,
+                         boolean before, int type) throws SQLException {
+            try (ResultSet columns = conn.getMetaData().getColumns(null, schemaName, tableName, "SHORT_CODE")) {
+                columns.next();
+                codeColumn = columns.getInt("ORDINAL_POSITION") - 1;
+            }
+        }
+
+        @Override
+        public void fire(Connection conn, Object[] oldRow, Object[] newRow) throws SQLException {
+            if (watched.contains((String) newRow[codeColumn]) && fired.incrementAndGet() == failAt) {
+                throw new SQLException("falha simulada no sub-lote");
+            }
+        }
+    }
+}
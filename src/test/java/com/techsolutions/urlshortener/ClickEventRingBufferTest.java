@@ -0,0 +1,36 @@
+package com.techsolutions.urlshortener;
+
+import com.techsolutions.urlshortener.analytics.ClickEventRingBuffer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClickEventRingBufferTest {
+
+    @Test
+    void deveDescartarQuandoCheioEEntregarNaOrdem() {
+        ClickEventRingBuffer buffer = new ClickEventRingBuffer(4);
+
+        for (int i = 0; i < 6; i++) {
+            buffer.offer(i, "c" + i, null, null, null);
+        }
+        assertEquals(2, buffer.getDropped());
+
+        List<String> codes = new ArrayList<>();
+        assertEquals(4, buffer.drain((ts, code, ref, ua, ip) -> codes.add(code), 100));
+        assertEquals(List.of("c0", "c1", "c2", "c3"), codes);
+
+        // Depois do drain há espaço de novo
+        assertTrue(buffer.offer(7, "c7", null, null, null));
+        assertEquals(1, buffer.size());
+    }
+
+    @Test
+    void deveArredondarCapacidadeParaPotenciaDeDois() {
+        assertEquals(8, new ClickEventRingBuffer(5).getCapacity());
+        assertEquals(8, new ClickEventRingBuffer(8).getCapacity());
+    }
+}
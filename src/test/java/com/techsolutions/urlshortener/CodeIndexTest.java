@@ -0,0 +1,100 @@
+package com.techsolutions.urlshortener;
+
+import com.techsolutions.urlshortener.dto.CreateUrlRequest;
+import com.techsolutions.urlshortener.index.CodeIndex;
+import com.techsolutions.urlshortener.index.CodeIndexService;
+import com.techsolutions.urlshortener.index.CodeIndexWriter;
+import com.techsolutions.urlshortener.service.LookupResult;
+import com.techsolutions.urlshortener.service.UrlShortenerService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+    "app.redirect.source=index",
+    "app.index.path=target/code-index-test/code-index.bin"
+})
+class CodeIndexTest {
+
+    @Autowired
+    private UrlShortenerService urlService;
+
+    @Autowired
+    private CodeIndexService codeIndexService;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void deveMontarELerIndiceMapeado() throws IOException {
+        LocalDateTime expiresAt = LocalDateTime.of(2030, 1, 2, 3, 4, 5);
+        Path file = dir.resolve("index.bin");
+        try (CodeIndexWriter writer = new CodeIndexWriter(dir, 10_000)) {
+            for (long key = 0; key < 10_000; key++) {
+                // Chaves sequenciais, como as do alocador por sequência
+                writer.add(key, "https://example.com/ação/" + key, key % 10 != 0, key % 7 == 0 ? expiresAt : null);
+            }
+            writer.finish(file, 3, System.currentTimeMillis());
+        }
+
+        CodeIndex index = CodeIndex.open(file, true);
+        assertEquals(3, index.getGeneration());
+        assertEquals(10_000, index.getEntryCount());
+        for (long key = 0; key < 10_000; key++) {
+            long slot = index.find(key);
+            assertEquals("https://example.com/ação/" + key, index.getUrl(slot));
+            assertEquals(key % 10 != 0, index.isActive(slot));
+            assertEquals(key % 7 == 0 ? expiresAt.toEpochSecond(ZoneOffset.UTC) : CodeIndex.NO_EXPIRATION,
+                index.getExpiresAtEpochSecond(slot));
+        }
+        assertEquals(-1, index.find(10_000));
+        assertEquals(-1, index.find(-1));
+
+        // Um byte trocado na região das URLs: recusado na abertura
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 3] ^= 0x01;
+        Files.write(file, bytes);
+        assertThrows(IOException.class, () -> CodeIndex.open(file, true));
+    }
+
+    @Test
+    void deveRedirecionarPeloIndiceSemConsultarOBanco() throws IOException, InterruptedException {
+        String code = create("https://index.example.com/a");
+        codeIndexService.build();
+        assertEquals(LookupResult.Status.FOUND, urlService.lookup(code).getStatus());
+        assertEquals("https://index.example.com/a", urlService.lookup(code).getOriginalUrl());
+
+        // Criado depois da geração: não está no índice (sem database-fallback)
+        String later = create("https://index.example.com/b");
+        assertEquals(LookupResult.Status.MISSING, urlService.lookup(later).getStatus());
+
+        // Desativação vale na hora, antes da próxima geração
+        urlService.deactivateUrl(code);
+        assertEquals(LookupResult.Status.DISABLED, urlService.lookup(code).getStatus());
+
+        // Próxima geração começa a ler o banco depois da desativação: ela mesma passa a valer
+        Thread.sleep(5);
+        codeIndexService.build();
+        assertEquals(LookupResult.Status.DISABLED, urlService.lookup(code).getStatus());
+        assertEquals(LookupResult.Status.FOUND, urlService.lookup(later).getStatus());
+        assertEquals(0, codeIndexService.stats().get("deactivatedSinceBuild"));
+        assertTrue(codeIndexService.getGeneration() > 1);
+        assertFalse(Files.exists(Path.of("target/code-index-test/code-index.bin.tmp")));
+    }
+
+    private String create(String url) {
+        return urlService.createShortUrl(new CreateUrlRequest(url)).getShortCode();
+    }
+}
@@ -0,0 +1,78 @@
+package com.techsolutions.urlshortener;
+
+import com.techsolutions.urlshortener.cache.ShortCodeFilter;
+import com.techsolutions.urlshortener.dto.CreateUrlRequest;
+import com.techsolutions.urlshortener.service.ExpiredUrlReaper;
+import com.techsolutions.urlshortener.service.LookupResult;
+import com.techsolutions.urlshortener.service.UrlShortenerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {"app.reaper.enabled=false", "app.reaper.grace-period-seconds=0"})
+class ExpiredUrlReaperTest {
+
+    @Autowired
+    private UrlShortenerService urlService;
+
+    @Autowired
+    private ExpiredUrlReaper reaper;
+
+    @Autowired
+    private ShortCodeFilter codeFilter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void deveArquivarExpiradasEDesativadasEManterAsValidas() {
+        String expired = urlService.createShortUrl(new CreateUrlRequest("https://expirada.com")).getShortCode();
+        String inactive = urlService.createShortUrl(new CreateUrlRequest("https://desativada.com")).getShortCode();
+        String valid = urlService.createShortUrl(new CreateUrlRequest("https://valida.com")).getShortCode();
+
+        // Passa pelo cache antes de expirar: a limpeza também precisa tirá-la de lá
+        assertEquals(LookupResult.Status.FOUND, urlService.lookup(expired).getStatus());
+        jdbcTemplate.update("UPDATE shortened_urls SET expires_at = DATEADD('DAY', -1, CURRENT_TIMESTAMP) WHERE short_code = ?", expired);
+        urlService.deactivateUrl(inactive);
+
+        reaper.run();
+
+        assertEquals("EXPIRED", archivedReason(expired));
+        assertEquals("INACTIVE", archivedReason(inactive));
+        assertEquals(0, count("SELECT COUNT(*) FROM shortened_urls WHERE short_code IN (?, ?)", expired, inactive));
+        assertEquals(0, count("SELECT COUNT(*) FROM shortened_urls_archive WHERE short_code = ?", valid));
+
+        assertEquals(LookupResult.Status.MISSING, urlService.lookup(expired).getStatus());
+        assertEquals(LookupResult.Status.FOUND, urlService.lookup(valid).getStatus());
+    }
+
+    @Test
+    void naoDevePermitirReusarCodigoArquivado() {
+        CreateUrlRequest request = new CreateUrlRequest("https://arquivada.com/original");
+        request.setCustomCode("arquivado1");
+        urlService.createShortUrl(request);
+        urlService.deactivateUrl("arquivado1");
+        reaper.run();
+        assertEquals("INACTIVE", archivedReason("arquivado1"));
+
+        // Mesmo depois de recarregar o filtro de códigos a partir do banco
+        codeFilter.rebuild();
+
+        CreateUrlRequest reuse = new CreateUrlRequest("https://arquivada.com/outro-destino");
+        reuse.setCustomCode("arquivado1");
+        assertThrows(IllegalArgumentException.class, () -> urlService.createShortUrl(reuse));
+    }
+
+    private String archivedReason(String code) {
+        return jdbcTemplate.queryForObject(
+            "SELECT reason FROM shortened_urls_archive WHERE short_code = ?", String.class, code);
+    }
+
+    private int count(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Integer.class, args);
+    }
+}
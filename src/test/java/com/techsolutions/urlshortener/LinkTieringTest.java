@@ -0,0 +1,132 @@
+package com.techsolutions.urlshortener;
+
+import com.techsolutions.urlshortener.dto.CreateUrlRequest;
+import com.techsolutions.urlshortener.dto.UrlFilter;
+import com.techsolutions.urlshortener.dto.UrlPage;
+import com.techsolutions.urlshortener.dto.UrlResponse;
+import com.techsolutions.urlshortener.service.LookupResult;
+import com.techsolutions.urlshortener.service.UrlShortenerService;
+import com.techsolutions.urlshortener.tiering.ColdLinkStore;
+import com.techsolutions.urlshortener.tiering.LinkTieringService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Banco próprio: a execução percorre a tabela inteira
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:tieringtest",
+    "app.tiering.enabled=true",
+    "app.dedup.enabled=true",
+    "app.tiering.interval-ms=3600000",
+    "app.tiering.sketch-aging-ms=3600000"
+})
+class LinkTieringTest {
+
+    @Autowired
+    private UrlShortenerService urlService;
+
+    @Autowired
+    private LinkTieringService tiering;
+
+    @Autowired
+    private ColdLinkStore coldStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void deveMoverLinksSemAcessoParaACamadaFriaEVoltarQuandoAcessados() {
+        String hot = create("https://tiering.example.com/quente");
+        String cold = create("https://tiering.example.com/frio");
+        String other = create("https://tiering.example.com/outro");
+        jdbcTemplate.update("UPDATE shortened_urls SET created_at = DATEADD('DAY', -30, CURRENT_TIMESTAMP)");
+
+        for (int i = 0; i < 5; i++) {
+            urlService.lookup(hot);
+        }
+        // Sketch ainda sem um período inteiro: nada é rebaixado
+        assertEquals(0, tiering.run());
+
+        tiering.age();
+        assertEquals(2, tiering.run());
+        assertEquals(1, count("shortened_urls"));
+        assertEquals(2, count("shortened_urls_cold"));
+
+        // Redirecionamento, detalhes e cliques continuam funcionando pela camada fria
+        assertEquals("https://tiering.example.com/frio", urlService.getOriginalUrl(cold));
+        assertEquals(1L, urlService.getUrlDetails(cold).getClickCount());
+        CreateUrlRequest taken = new CreateUrlRequest("https://tiering.example.com/copia");
+        taken.setCustomCode(cold);
+        assertThrows(IllegalArgumentException.class, () -> urlService.createShortUrl(taken));
+
+        // Acessado de novo: volta para a principal com os cliques
+        urlService.lookup(cold);
+        urlService.lookup(cold);
+        tiering.run();
+        assertEquals(3L, jdbcTemplate.queryForObject(
+            "SELECT click_count FROM shortened_urls WHERE short_code = ?", Long.class, cold));
+        assertEquals(1, count("shortened_urls_cold"));
+
+        // Desativação de um link frio: volta para a principal já inativo
+        urlService.deactivateUrl(other);
+        assertEquals(0, count("shortened_urls_cold"));
+        assertFalse(urlService.getUrlDetails(other).getIsActive());
+        assertEquals(LookupResult.Status.DISABLED, urlService.lookup(other).getStatus());
+    }
+
+    @Test
+    void deveListarExportarEDeduplicarLinksDaCamadaFria() throws Exception {
+        String hot = create("https://tiering.example.com/leitura/quente");
+        String cold = create("https://tiering.example.com/leitura/fria");
+        coldStore.demote(List.of(jdbcTemplate.queryForObject(
+            "SELECT id FROM shortened_urls WHERE short_code = ?", Long.class, cold)), LocalDateTime.now());
+
+        try {
+            // Listagem página a página: a camada fria entra na ordem de id
+            List<String> listed = new ArrayList<>();
+            String cursor = null;
+            do {
+                UrlPage page = urlService.listUrls(null, cursor, 1, false);
+                page.getItems().forEach(item -> listed.add(item.getShortCode()));
+                cursor = page.getNextCursor();
+            } while (cursor != null);
+            assertTrue(listed.indexOf(hot) >= 0 && listed.indexOf(hot) < listed.indexOf(cold));
+
+            List<String> activeFirst = urlService.listUrls(new UrlFilter(true, false, null, null), null, 100, true)
+                .getItems().stream().map(UrlResponse::getShortCode).toList();
+            assertTrue(activeFirst.indexOf(cold) >= 0 && activeFirst.indexOf(cold) < activeFirst.indexOf(hot));
+            assertFalse(urlService.listUrls(new UrlFilter(false, null, null, null), null, 100, false)
+                .getItems().stream().anyMatch(item -> item.getShortCode().equals(cold)));
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            urlService.exportUrls(null, "ndjson", out);
+            assertTrue(out.toString(StandardCharsets.UTF_8).contains("\"shortCode\":\"" + cold + "\""));
+
+            // Deduplicação: a mesma URL reaproveita o código que está na camada fria
+            assertEquals(cold, create("https://tiering.example.com/leitura/fria"));
+        } finally {
+            jdbcTemplate.update("DELETE FROM shortened_urls WHERE short_code IN (?, ?)", hot, cold);
+            jdbcTemplate.update("DELETE FROM shortened_urls_cold WHERE short_code IN (?, ?)", hot, cold);
+        }
+    }
+
+    private String create(String url) {
+        return urlService.createShortUrl(new CreateUrlRequest(url)).getShortCode();
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+}
@@ -0,0 +1,103 @@
+package com.techsolutions.urlshortener;
+
+import com.techsolutions.urlshortener.dto.CreateUrlRequest;
+import com.techsolutions.urlshortener.service.LookupResult;
+import com.techsolutions.urlshortener.service.UrlShortenerService;
+import com.techsolutions.urlshortener.transfer.LinkTransferService;
+import com.techsolutions.urlshortener.transfer.TransferJob;
+import com.techsolutions.urlshortener.util.ShortCodeGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Banco próprio: o teste apaga e recria a tabela inteira
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:transfertest",
+    "app.transfer.dir=target/link-transfer-test",
+    "app.transfer.chunk-rows=100"
+})
+class LinkTransferTest {
+
+    @Autowired
+    private LinkTransferService transferService;
+
+    @Autowired
+    private UrlShortenerService urlService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void deveExportarRetomarEImportarATabela() throws Exception {
+        jdbcTemplate.update("DELETE FROM shortened_urls");
+        LocalDateTime created = LocalDateTime.of(2024, 5, 6, 7, 8, 9, 123_456_000);
+        for (int i = 0; i < 1_000; i++) {
+            // Ids com buracos e colunas opcionais ora NULL, ora preenchidas
+            jdbcTemplate.update("INSERT INTO shortened_urls (id, short_code, code_key, original_url, click_count, "
+                    + "created_at, expires_at, is_active, url_hash) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                10_000 + 3L * i, "tr" + i, ShortCodeGenerator.toKey("tr" + i), "https://transfer.example.com/ação/" + i,
+                i % 5 == 0 ? null : (long) i * 7,
+                i % 9 == 0 ? null : Timestamp.valueOf(created.plusSeconds(i)),
+                i % 4 == 0 ? Timestamp.valueOf(created.plusDays(i)) : null,
+                i % 11 == 0 ? null : i % 3 != 0,
+                i % 2 == 0 ? null : -31L * i);
+        }
+        List<Map<String, Object>> original = readTable();
+
+        Path file = transferService.resolve("links.ulnk");
+        assertEquals(TransferJob.Status.COMPLETED, await(transferService.startExport(file, false)).getStatus());
+
+        // Exportação interrompida no meio de um bloco: a retomada refaz só o que faltou
+        long size = Files.size(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(size / 2);
+        }
+        TransferJob resumed = await(transferService.startExport(file, true));
+        assertEquals(TransferJob.Status.COMPLETED, resumed.getStatus());
+        assertTrue(resumed.getRows() > 0 && resumed.getRows() < 1_000);
+
+        jdbcTemplate.update("DELETE FROM shortened_urls");
+        TransferJob imported = await(transferService.startImport(file, 0));
+        assertEquals(TransferJob.Status.COMPLETED, imported.getStatus());
+        assertEquals(1_000, imported.getRows());
+        assertEquals(original, readTable());
+        assertEquals(LookupResult.Status.FOUND, urlService.lookup("tr1").getStatus());
+
+        // De novo, a partir do cursor: o que já está no banco é pulado
+        TransferJob again = await(transferService.startImport(file, 10_000 + 3L * 500));
+        assertEquals(0, again.getRows());
+        assertEquals(499L, again.toMap().get("skippedRows"));
+
+        // Sequências à frente dos ids importados: um link novo não colide
+        String code = urlService.createShortUrl(new CreateUrlRequest("https://transfer.example.com/novo")).getShortCode();
+        assertEquals(LookupResult.Status.FOUND, urlService.lookup(code).getStatus());
+
+        assertThrows(IllegalArgumentException.class, () -> transferService.resolve("../fora.ulnk"));
+    }
+
+    private List<Map<String, Object>> readTable() {
+        return jdbcTemplate.queryForList("SELECT id, short_code, code_key, original_url, click_count, created_at, "
+            + "expires_at, is_active, url_hash FROM shortened_urls ORDER BY id");
+    }
+
+    private static TransferJob await(TransferJob job) throws InterruptedException {
+        for (int i = 0; i < 500 && !job.isFinished(); i++) {
+            Thread.sleep(20);
+        }
+        return job;
+    }
+}
@@ -0,0 +1,38 @@
+package com.techsolutions.urlshortener;
+
+import com.techsolutions.urlshortener.dto.CreateUrlRequest;
+import com.techsolutions.urlshortener.service.LookupResult;
+import com.techsolutions.urlshortener.service.UrlShortenerService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+// Perfil "prod" num banco em memória próprio: o esquema vem só das migrações do Flyway
+// e o Hibernate (ddl-auto: validate) não sobe se elas divergirem das entidades
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:prod-profile-test;DB_CLOSE_DELAY=-1",
+    "app.snapshot.path=target/prod-profile-test/redirect-cache.snapshot"
+})
+@ActiveProfiles("prod")
+class ProdProfileTest {
+
+    @Autowired
+    private UrlShortenerService urlService;
+
+    @Autowired
+    private Flyway flyway;
+
+    @Test
+    void deveCriarEsquemaPelasMigracoesEValidarAsEntidades() {
+        assertNotNull(flyway.info().current());
+        assertEquals(0, flyway.info().pending().length);
+
+        String code = urlService.createShortUrl(new CreateUrlRequest("https://google.com")).getShortCode();
+        assertEquals(LookupResult.Status.FOUND, urlService.lookup(code).getStatus());
+    }
+}
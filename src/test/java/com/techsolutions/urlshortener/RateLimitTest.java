@@ -0,0 +1,79 @@
+package com.techsolutions.urlshortener;
+
+import com.techsolutions.urlshortener.analytics.ClickAnalyticsService;
+import com.techsolutions.urlshortener.controller.UrlController;
+import com.techsolutions.urlshortener.ratelimit.RateLimiter;
+import com.techsolutions.urlshortener.service.UrlBatchService;
+import com.techsolutions.urlshortener.service.UrlShortenerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = UrlController.class, properties = {
+    "app.rate-limit.create.capacity=2",
+    "app.rate-limit.create.refill-per-second=0.01"
+})
+class RateLimitTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private UrlShortenerService urlShortenerService;
+
+    @MockBean
+    private UrlBatchService urlBatchService;
+
+    @MockBean
+    private ClickAnalyticsService clickAnalyticsService;
+
+    @Test
+    void deveConsumirFichasPorClienteERemoverSoBaldesCheios() {
+        RateLimiter limiter = new RateLimiter("teste", 3, 1, 1000);
+
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertEquals(0, limiter.tryAcquire("a"));
+        long wait = limiter.tryAcquire("a");
+        assertTrue(wait > 0 && wait <= 1_000_000_000L, "espera até a próxima ficha: " + wait);
+
+        // Outro cliente tem o seu próprio balde
+        assertEquals(0, limiter.tryAcquire("b"));
+
+        // Baldes em uso não são removidos (a remoção não pode devolver fichas)
+        assertEquals(0, limiter.evictIdle());
+        assertEquals(2, limiter.getClients());
+        assertTrue(limiter.tryAcquire("a") > 0);
+    }
+
+    @Test
+    void deveResponder429ComRetryAfterAcimaDoLimite() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/api/urls").with(r -> { r.setRemoteAddr("10.0.0.1"); return r; })
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"originalUrl\":\"https://google.com\"}"))
+                    .andExpect(status().isCreated());
+        }
+
+        mockMvc.perform(post("/api/urls").with(r -> { r.setRemoteAddr("10.0.0.1"); return r; })
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"originalUrl\":\"https://google.com\"}"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "100"));
+
+        // Outro IP não é afetado
+        mockMvc.perform(post("/api/urls").with(r -> { r.setRemoteAddr("10.0.0.2"); return r; })
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"originalUrl\":\"https://google.com\"}"))
+                .andExpect(status().isCreated());
+    }
+}
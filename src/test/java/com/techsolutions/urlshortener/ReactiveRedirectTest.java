@@ -0,0 +1,89 @@
+package com.techsolutions.urlshortener;
+
+import com.techsolutions.urlshortener.cache.RedirectLoadCoalescer;
+import com.techsolutions.urlshortener.dto.CreateUrlRequest;
+import com.techsolutions.urlshortener.service.UrlShortenerService;
+import com.techsolutions.urlshortener.tiering.ColdLinkStore;
+import com.techsolutions.urlshortener.tiering.LinkTieringService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = { "app.tiering.enabled=true", "app.tiering.interval-ms=3600000" })
+@ActiveProfiles("reactive")
+class ReactiveRedirectTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private UrlShortenerService urlService;
+
+    @Autowired
+    private ColdLinkStore coldStore;
+
+    @Autowired
+    private LinkTieringService tiering;
+
+    @Autowired
+    private RedirectLoadCoalescer loadCoalescer;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void deveRedirecionarComLocationSemView() {
+        String code = urlService.createShortUrl(new CreateUrlRequest("https://google.com")).getShortCode();
+
+        webTestClient.get().uri("/" + code)
+            .exchange()
+            .expectStatus().isFound()
+            .expectHeader().valueEquals(HttpHeaders.LOCATION, "https://google.com");
+
+        webTestClient.get().uri("/naoExiste")
+            .exchange()
+            .expectStatus().isNotFound();
+    }
+
+    @Test
+    void deveResponder410ComAPaginaDeLinkDesativadoEConsultarPeloAgrupador() {
+        String code = urlService.createShortUrl(new CreateUrlRequest("https://reactive.example.com/desativada")).getShortCode();
+        urlService.deactivateUrl(code);
+        long loads = loadCoalescer.getLoads();
+
+        webTestClient.get().uri("/" + code)
+            .exchange()
+            .expectStatus().isEqualTo(HttpStatus.GONE)
+            .expectBody(String.class).value(body -> assertTrue(body.contains("expirou ou foi desativado")));
+
+        assertEquals(loads + 1, loadCoalescer.getLoads());
+    }
+
+    @Test
+    void deveRedirecionarCodigoDaCamadaFria() {
+        String code = urlService.createShortUrl(new CreateUrlRequest("https://reactive.example.com/frio")).getShortCode();
+        Long id = jdbcTemplate.queryForObject("SELECT id FROM shortened_urls WHERE short_code = ?", Long.class, code);
+        assertEquals(List.of(code), coldStore.demote(List.of(id), LocalDateTime.now()));
+        long coldHits = tiering.getColdHits();
+
+        webTestClient.get().uri("/" + code)
+            .exchange()
+            .expectStatus().isFound()
+            .expectHeader().valueEquals(HttpHeaders.LOCATION, "https://reactive.example.com/frio");
+
+        assertTrue(tiering.getColdHits() > coldHits);
+        assertTrue(tiering.estimate(code) > 0);
+    }
+}
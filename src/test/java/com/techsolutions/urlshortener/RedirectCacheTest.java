@@ -0,0 +1,192 @@
+package com.techsolutions.urlshortener;
+
+import com.techsolutions.urlshortener.cache.CachedUrl;
+import com.techsolutions.urlshortener.cache.RedirectCache;
+import com.techsolutions.urlshortener.cache.RedirectLoadCoalescer;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedirectCacheTest {
+
+    @Test
+    void deveContarHitsEMisses() {
+        RedirectCache cache = new RedirectCache(10, 60);
+
+        assertNull(cache.get("abc123"));
+        cache.put("abc123", new CachedUrl("https://google.com", true, null));
+
+        assertEquals("https://google.com", cache.get("abc123").getOriginalUrl());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void deveRemoverQuandoPassarDoTamanhoMaximo() {
+        RedirectCache cache = new RedirectCache(100, 60);
+
+        for (int i = 0; i < 1000; i++) {
+            cache.put("c" + i, new CachedUrl("https://exemplo.com/" + i, true, null));
+        }
+
+        assertTrue(cache.size() <= 100);
+        assertEquals(1000 - cache.size(), cache.getEvictions());
+    }
+
+    @Test
+    void deveExpirarPorTtlEInvalidar() {
+        RedirectCache semTtl = new RedirectCache(10, 0);
+        semTtl.put("abc123", new CachedUrl("https://google.com", true, null));
+        assertNull(semTtl.get("abc123"));
+        assertEquals(1, semTtl.getExpirations());
+
+        RedirectCache cache = new RedirectCache(10, 60);
+        cache.put("abc123", new CachedUrl("https://google.com", true, LocalDateTime.now().minusDays(1)));
+        assertTrue(cache.get("abc123").isExpiredAt(LocalDateTime.now()));
+
+        cache.invalidate("abc123");
+        assertNull(cache.get("abc123"));
+    }
+
+    @Test
+    void naoDeveRecolocarNoCacheLeituraAnteriorAoCommit() {
+        RedirectCache cache = new RedirectCache(10, 300);
+        cache.put("abc123", new CachedUrl("https://google.com", true, null));
+
+        long stamp;
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Desativação ainda sem commit; um miss concorrente lê a linha ainda ativa
+            cache.invalidateAfterCommit("abc123");
+            stamp = cache.loadStamp();
+
+            // Commit: a invalidação pós-commit roda antes de a leitura gravar no cache
+            TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertFalse(cache.put("abc123", new CachedUrl("https://google.com", true, null), stamp));
+        assertNull(cache.get("abc123"));
+        assertEquals(1, cache.getStaleLoads());
+
+        // Leitura iniciada depois do commit entra normalmente
+        assertTrue(cache.put("abc123", new CachedUrl("https://google.com", false, null), cache.loadStamp()));
+        assertFalse(cache.get("abc123").isActive());
+    }
+
+    @Test
+    void deveAgruparConsultasSimultaneasDoMesmoCodigo() throws Exception {
+        RedirectLoadCoalescer coalescer = new RedirectLoadCoalescer(new RedirectCache(10, 60), true, 5_000);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger queries = new AtomicInteger();
+        Function<String, CachedUrl> loader = code -> {
+            queries.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return new CachedUrl("https://viral.example.com", true, null);
+        };
+
+        List<Future<CachedUrl>> results = new ArrayList<>();
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 50; i++) {
+                results.add(pool.submit(() -> coalescer.load("viral", loader)));
+            }
+            // Todas esperando a primeira consulta
+            while (coalescer.getCoalesced() < 49) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+            for (Future<CachedUrl> result : results) {
+                assertEquals("https://viral.example.com", result.get().getOriginalUrl());
+            }
+        }
+
+        assertEquals(1, queries.get());
+        assertEquals(1, coalescer.getLoads());
+        assertEquals(0, coalescer.getInFlight());
+    }
+
+    @Test
+    void deveConsultarSozinhoDepoisDaEsperaMaxima() throws Exception {
+        RedirectLoadCoalescer coalescer = new RedirectLoadCoalescer(new RedirectCache(10, 60), true, 20);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger queries = new AtomicInteger();
+        Function<String, CachedUrl> loader = code -> {
+            // Só a primeira consulta trava (banco lento)
+            if (queries.incrementAndGet() == 1) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            return new CachedUrl("https://lento.example.com", true, null);
+        };
+
+        Thread stuck = Thread.ofVirtual().start(() -> coalescer.load("lento", loader));
+        while (coalescer.getInFlight() == 0) {
+            Thread.sleep(1);
+        }
+        assertEquals("https://lento.example.com", coalescer.load("lento", loader).getOriginalUrl());
+        assertEquals(1, coalescer.getTimeouts());
+        assertEquals(2, queries.get());
+
+        release.countDown();
+        stuck.join();
+    }
+
+    @Test
+    void naoDeveEntregarAQuemEsperaOResultadoDeUmaConsultaInvalidada() throws Exception {
+        RedirectCache cache = new RedirectCache(10, 60);
+        RedirectLoadCoalescer coalescer = new RedirectLoadCoalescer(cache, true, 5_000);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger queries = new AtomicInteger();
+        Function<String, CachedUrl> loader = code -> {
+            // A primeira consulta lê o banco antes do commit da desativação
+            if (queries.incrementAndGet() == 1) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                return new CachedUrl("https://desativada.example.com", true, null);
+            }
+            return new CachedUrl("https://desativada.example.com", false, null);
+        };
+
+        Thread first = Thread.ofVirtual().start(() -> coalescer.load("desativ", loader));
+        while (coalescer.getInFlight() == 0) {
+            Thread.sleep(1);
+        }
+
+        // Desativação confirmada no meio da consulta; esta requisição chega depois dela
+        cache.invalidate("desativ");
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<CachedUrl> waiter = pool.submit(() -> coalescer.load("desativ", loader));
+            while (coalescer.getCoalesced() == 0) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            assertFalse(waiter.get().isActive());
+        }
+        first.join();
+        assertEquals(1, coalescer.getStaleResults());
+    }
+}
@@ -0,0 +1,82 @@
+package com.techsolutions.urlshortener;
+
+import com.techsolutions.urlshortener.dto.CreateUrlRequest;
+import com.techsolutions.urlshortener.service.ClickCountBuffer;
+import com.techsolutions.urlshortener.service.UrlShortenerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"app.redirect.status=301", "app.redirect.cache-max-age-seconds=3600"})
+@AutoConfigureMockMvc
+class RedirectControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UrlShortenerService urlService;
+
+    @Autowired
+    private ClickCountBuffer clickCountBuffer;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void deveResponderComStatusLocationECacheControl() throws Exception {
+        String code = urlService.createShortUrl(new CreateUrlRequest("https://google.com")).getShortCode();
+
+        mockMvc.perform(get("/" + code))
+            .andExpect(status().isMovedPermanently())
+            .andExpect(header().string("Location", "https://google.com"))
+            .andExpect(header().string("Cache-Control", "max-age=3600, public"));
+    }
+
+    @Test
+    void deveResponderSemExcecaoParaCodigoInexistenteOuDesativado() throws Exception {
+        mockMvc.perform(get("/naoExiste"))
+            .andExpect(status().isNotFound());
+
+        String code = urlService.createShortUrl(new CreateUrlRequest("https://google.com")).getShortCode();
+        urlService.deactivateUrl(code);
+
+        mockMvc.perform(get("/" + code))
+            .andExpect(status().isGone())
+            .andExpect(content().string(containsString("expirou ou foi desativado")));
+    }
+
+    @Test
+    void deveContarCliqueSoQuandoRedireciona() throws Exception {
+        String valid = urlService.createShortUrl(new CreateUrlRequest("https://google.com/valida")).getShortCode();
+        String invalid = urlService.createShortUrl(new CreateUrlRequest("https://google.com/invalida")).getShortCode();
+        // URL gravada que não vira URI (ex: importada por fora da API)
+        jdbcTemplate.update("UPDATE shortened_urls SET original_url = ? WHERE short_code = ?",
+            "https://google.com/com espaço", invalid);
+
+        mockMvc.perform(get("/" + valid))
+            .andExpect(status().isMovedPermanently());
+        mockMvc.perform(get("/" + invalid))
+            .andExpect(status().isNotFound());
+
+        clickCountBuffer.flush();
+        assertEquals(1L, clickCount(valid));
+        assertEquals(0L, clickCount(invalid));
+    }
+
+    private long clickCount(String code) {
+        return jdbcTemplate.queryForObject(
+            "SELECT COALESCE(click_count, 0) FROM shortened_urls WHERE short_code = ?", Long.class, code);
+    }
+}
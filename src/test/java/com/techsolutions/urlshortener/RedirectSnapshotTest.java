@@ -0,0 +1,88 @@
+package com.techsolutions.urlshortener;
+
+import com.techsolutions.urlshortener.cache.CachedUrl;
+import com.techsolutions.urlshortener.cache.RedirectCache;
+import com.techsolutions.urlshortener.cache.RedirectSnapshot;
+import com.techsolutions.urlshortener.cache.RedirectSnapshotService;
+import com.techsolutions.urlshortener.dto.CreateUrlRequest;
+import com.techsolutions.urlshortener.service.UrlShortenerService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "app.snapshot.path=target/snapshot-test/redirect-cache.snapshot")
+class RedirectSnapshotTest {
+
+    @Autowired
+    private UrlShortenerService urlService;
+
+    @Autowired
+    private RedirectCache redirectCache;
+
+    @Autowired
+    private RedirectSnapshotService snapshotService;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void deveGravarELerSnapshotNaOrdemEComChecksum() throws IOException {
+        LocalDateTime expiresAt = LocalDateTime.of(2030, 1, 2, 3, 4, 5, 123_456_000);
+        Map<String, CachedUrl> entries = new LinkedHashMap<>();
+        entries.put("hot1", new CachedUrl("https://example.com/ação?q=1", true, null));
+        entries.put("hot2", new CachedUrl("https://example.com/b", true, expiresAt));
+        entries.put("cold", new CachedUrl("https://example.com/c", false, null));
+
+        Path file = dir.resolve("cache.snapshot");
+        RedirectSnapshot.write(file, entries);
+
+        // Com limite, ficam as primeiras entradas
+        List<String> codes = new ArrayList<>();
+        Map<String, CachedUrl> read = new LinkedHashMap<>();
+        RedirectSnapshot.read(file, 0, 2, (code, url) -> {
+            codes.add(code);
+            read.put(code, url);
+        });
+        assertEquals(List.of("hot1", "hot2"), codes);
+        assertEquals("https://example.com/ação?q=1", read.get("hot1").getOriginalUrl());
+        assertNull(read.get("hot1").getExpiresAt());
+        assertEquals(expiresAt, read.get("hot2").getExpiresAt());
+
+        // Um byte trocado no meio do arquivo: rejeitado antes de entregar qualquer entrada
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 0x01;
+        Files.write(file, bytes);
+        assertThrows(IOException.class, () -> RedirectSnapshot.read(file, 0, Integer.MAX_VALUE, (code, url) -> codes.add(code)));
+        assertEquals(2, codes.size());
+    }
+
+    @Test
+    void devePreCarregarCacheAPartirDoSnapshot() throws IOException {
+        String code = urlService.createShortUrl(new CreateUrlRequest("https://snapshot.example.com/page")).getShortCode();
+        urlService.lookup(code);
+        assertNotNull(redirectCache.get(code));
+
+        snapshotService.write();
+        redirectCache.clear();
+        assertNull(redirectCache.get(code));
+
+        assertFalse(snapshotService.load() == 0);
+        assertEquals("https://snapshot.example.com/page", redirectCache.get(code).getOriginalUrl());
+    }
+}
@@ -0,0 +1,70 @@
+package com.techsolutions.urlshortener;
+
+import com.techsolutions.urlshortener.util.FeistelPermutation;
+import com.techsolutions.urlshortener.util.ShortCodeAllocator;
+import com.techsolutions.urlshortener.util.ShortCodeGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ShortCodeAllocatorTest {
+
+    @Autowired
+    private ShortCodeAllocator allocator;
+
+    @Autowired
+    private ShortCodeGenerator codeGenerator;
+
+    @Test
+    void permutacaoDeveSerBijetiva() {
+        long domain = ShortCodeGenerator.keyspaceSize(2);
+        FeistelPermutation permutation = new FeistelPermutation(domain, 42L);
+
+        Set<Long> images = new HashSet<>();
+        for (long i = 0; i < domain; i++) {
+            long image = permutation.permute(i);
+            assertTrue(image >= 0 && image < domain);
+            images.add(image);
+        }
+        assertEquals(domain, images.size());
+    }
+
+    @Test
+    void deveAlocarCodigosUnicosEmParalelo() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<List<String>>> futures = new ArrayList<>();
+
+        for (int t = 0; t < 8; t++) {
+            futures.add(executor.submit(() -> {
+                List<String> codes = new ArrayList<>();
+                for (int i = 0; i < 500; i++) {
+                    codes.add(allocator.allocate());
+                }
+                return codes;
+            }));
+        }
+
+        Set<String> all = new HashSet<>();
+        for (Future<List<String>> future : futures) {
+            for (String code : future.get()) {
+                assertEquals(6, code.length());
+                assertTrue(codeGenerator.isValidCode(code));
+                all.add(code);
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(8 * 500, all.size());
+    }
+}
@@ -0,0 +1,57 @@
+package com.techsolutions.urlshortener;
+
+import com.techsolutions.urlshortener.util.ShortCodeGenerator;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShortCodeGeneratorTest {
+
+    private final ShortCodeGenerator generator = new ShortCodeGenerator();
+
+    @Test
+    void deveDecodificarOQueFoiCodificado() {
+        assertEquals("AAAAAA", generator.encode(0, 6));
+        assertEquals("AAAAA9", generator.encode(61, 6));
+        assertEquals(61L, generator.decode("AAAAA9"));
+
+        long max = ShortCodeGenerator.keyspaceSize(10) - 1;
+        assertEquals("9999999999", generator.encode(max, 10));
+        assertEquals(max, generator.decode("9999999999"));
+
+        for (int i = 0; i < 1000; i++) {
+            String code = generator.generate();
+            assertEquals(6, code.length());
+            assertEquals(code, generator.encode(generator.decode(code), 6));
+        }
+    }
+
+    @Test
+    void chaveNumericaDeveSerUnicaEntreTamanhos() {
+        assertEquals(0L, ShortCodeGenerator.toKey("A"));
+        assertEquals(61L, ShortCodeGenerator.toKey("9"));
+        assertEquals(62L, ShortCodeGenerator.toKey("AA"));
+        assertEquals(63L, ShortCodeGenerator.toKey("AB"));
+        assertNotEquals(ShortCodeGenerator.toKey("AB"), ShortCodeGenerator.toKey("AAAB"));
+
+        for (String code : new String[] { "A", "abc123", "9999999999", "AAAAAAAAAA", "Zz" }) {
+            assertEquals(code, ShortCodeGenerator.fromKey(ShortCodeGenerator.toKey(code)));
+        }
+
+        assertEquals(-1L, ShortCodeGenerator.toKey("abc-12"));
+        assertEquals(-1L, ShortCodeGenerator.toKey("AAAAAAAAAAA"));
+    }
+
+    @Test
+    void deveRejeitarCodigosInvalidos() {
+        assertTrue(generator.isValidCode("aB3dEf"));
+        assertFalse(generator.isValidCode("aB3-Ef"));
+        assertFalse(generator.isValidCode("aB3dÉf"));
+        assertFalse(generator.isValidCode(""));
+        assertFalse(generator.isValidCode(null));
+
+        assertThrows(IllegalArgumentException.class, () -> generator.decode("aB3-Ef"));
+        assertThrows(IllegalArgumentException.class, () -> generator.decode("AAAAAAAAAAA"));
+        assertThrows(IllegalArgumentException.class, () -> generator.encode(ShortCodeGenerator.keyspaceSize(6), 6));
+    }
+}
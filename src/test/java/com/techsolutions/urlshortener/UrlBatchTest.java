@@ -0,0 +1,115 @@
+package com.techsolutions.urlshortener;
+
+import com.techsolutions.urlshortener.cache.DedupCache;
+import com.techsolutions.urlshortener.dto.BatchItemResult;
+import com.techsolutions.urlshortener.dto.CreateUrlRequest;
+import com.techsolutions.urlshortener.service.UrlBatchService;
+import com.techsolutions.urlshortener.service.UrlShortenerService;
+import com.techsolutions.urlshortener.util.ShortCodeGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Banco próprio: grava linhas com id fixo direto na tabela
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:batchtest",
+    "app.dedup.enabled=true"
+})
+class UrlBatchTest {
+
+    @Autowired
+    private UrlBatchService batchService;
+
+    @Autowired
+    private UrlShortenerService urlService;
+
+    @Autowired
+    private DedupCache dedupCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void deveDeduplicarNoLoteComoNaCriacaoAvulsa() {
+        String existing = urlService.createShortUrl(new CreateUrlRequest("https://lote.example.com/existente")).getShortCode();
+        CreateUrlRequest custom = new CreateUrlRequest("https://lote.example.com/existente");
+        custom.setCustomCode("loteCustom");
+        CreateUrlRequest expiring = new CreateUrlRequest("https://lote.example.com/existente");
+        expiring.setExpiresInDays(7);
+
+        List<BatchItemResult> results = batchService.createShortUrls(List.of(
+            new CreateUrlRequest("https://LOTE.example.com:443/existente"),
+            new CreateUrlRequest("https://lote.example.com/nova?b=2&a=1"),
+            new CreateUrlRequest("https://lote.example.com/nova?a=1&b=2"),
+            custom,
+            expiring), 0);
+
+        assertEquals(existing, results.get(0).getShortCode());
+        // Repetida no próprio lote: um código só
+        assertEquals(results.get(1).getShortCode(), results.get(2).getShortCode());
+        assertEquals(2, results.get(2).getIndex());
+        assertEquals(1L, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM shortened_urls WHERE original_url LIKE 'https://lote.example.com/nova%'", Long.class));
+        // Código customizado e expiração sempre criam uma nova
+        assertEquals("loteCustom", results.get(3).getShortCode());
+        assertNotEquals(existing, results.get(4).getShortCode());
+        results.forEach(result -> assertEquals(BatchItemResult.CREATED, result.getStatus()));
+    }
+
+    @Test
+    void deveColocarNoCacheDeDeduplicacaoAsUrlsCriadasNoLote() {
+        String created = batchService.createShortUrls(
+            List.of(new CreateUrlRequest("https://lote.example.com/cache-dedup")), 0).get(0).getShortCode();
+        long hits = dedupCache.getHits();
+
+        // Criação avulsa logo depois: respondida pelo cache, sem consultar o banco
+        assertEquals(created,
+            urlService.createShortUrl(new CreateUrlRequest("https://lote.example.com/cache-dedup")).getShortCode());
+        assertEquals(hits + 1, dedupCache.getHits());
+    }
+
+    @Test
+    void deveRecusarCodigosCustomizadosReservados() {
+        assertReserved("Batch");
+        assertReserved("Export");
+        assertReserved("STATS");
+    }
+
+    // Recusado tanto na criação individual quanto como item do lote
+    private void assertReserved(String code) {
+        CreateUrlRequest request = new CreateUrlRequest("https://lote.example.com/reservado");
+        request.setCustomCode(code);
+        assertThrows(IllegalArgumentException.class, () -> urlService.createShortUrl(request));
+        assertEquals(BatchItemResult.INVALID, batchService.createShortUrls(List.of(request), 0).get(0).getStatus());
+    }
+
+    @Test
+    void deveGravarItemAItemComOsCodigosReservadosQuandoOBlocoFalha() {
+        // Código gravado por fora da aplicação: o filtro não o conhece, a consulta do bloco o pula
+        // e o INSERT em lote falha na constraint UNIQUE
+        jdbcTemplate.update("INSERT INTO shortened_urls (id, short_code, code_key, original_url, click_count, " +
+            "created_at, is_active) VALUES (1000000, 'porFora', ?, 'https://lote.example.com/fora', 0, CURRENT_TIMESTAMP, TRUE)",
+            ShortCodeGenerator.toKey("porFora"));
+        CreateUrlRequest taken = new CreateUrlRequest("https://lote.example.com/conflito");
+        taken.setCustomCode("porFora");
+
+        List<BatchItemResult> results = batchService.createShortUrls(List.of(
+            new CreateUrlRequest("https://lote.example.com/falha/1"),
+            taken,
+            new CreateUrlRequest("https://lote.example.com/falha/2")), 0);
+
+        assertEquals(BatchItemResult.CREATED, results.get(0).getStatus());
+        assertEquals(BatchItemResult.CONFLICT, results.get(1).getStatus());
+        assertEquals(BatchItemResult.CREATED, results.get(2).getStatus());
+        assertEquals("https://lote.example.com/falha/2", urlService.getOriginalUrl(results.get(2).getShortCode()));
+        assertEquals("https://lote.example.com/fora", jdbcTemplate.queryForObject(
+            "SELECT original_url FROM shortened_urls WHERE short_code = 'porFora'", String.class));
+    }
+}
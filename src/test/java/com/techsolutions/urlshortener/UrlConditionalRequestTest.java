@@ -0,0 +1,83 @@
+package com.techsolutions.urlshortener;
+
+import com.techsolutions.urlshortener.dto.CreateUrlRequest;
+import com.techsolutions.urlshortener.service.ClickCountBuffer;
+import com.techsolutions.urlshortener.service.UrlShortenerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Banco próprio: o ETag da listagem muda com qualquer linha gravada por outros testes
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:conditionaltest")
+@AutoConfigureMockMvc
+class UrlConditionalRequestTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UrlShortenerService urlService;
+
+    @Autowired
+    private ClickCountBuffer clickCountBuffer;
+
+    @Test
+    void deveResponder304EnquantoAUrlNaoMudar() throws Exception {
+        String code = urlService.createShortUrl(new CreateUrlRequest("https://etag.example.com")).getShortCode();
+        String path = "/api/urls/" + code;
+
+        String eTag = mockMvc.perform(get(path))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+            .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+
+        // Clique ainda no buffer e depois gravado: cada um muda a resposta
+        urlService.lookup(code);
+        String pendingETag = mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        clickCountBuffer.flush();
+        String flushedETag = mockMvc.perform(get(path + "/clicks").header(HttpHeaders.IF_NONE_MATCH, pendingETag))
+            .andExpect(status().isOk())
+            .andExpect(content().string("1"))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(pendingETag, flushedETag);
+
+        urlService.deactivateUrl(code);
+        mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, flushedETag))
+            .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/urls/naoexiste"))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void deveResponder304NaListagemAteUmaUrlNova() throws Exception {
+        urlService.createShortUrl(new CreateUrlRequest("https://etag.example.com/lista"));
+        String path = "/api/urls?limit=50&order=desc";
+
+        String eTag = mockMvc.perform(get(path))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified());
+
+        urlService.createShortUrl(new CreateUrlRequest("https://etag.example.com/lista/nova"));
+        mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk());
+    }
+}
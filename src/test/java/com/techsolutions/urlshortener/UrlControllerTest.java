@@ -1,6 +1,9 @@
 package com.techsolutions.urlshortener;
 
+import com.techsolutions.urlshortener.analytics.ClickAnalyticsService;
 import com.techsolutions.urlshortener.controller.UrlController;
+import com.techsolutions.urlshortener.dto.BatchItemResult;
+import com.techsolutions.urlshortener.service.UrlBatchService;
 import com.techsolutions.urlshortener.service.UrlShortenerService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,7 +12,16 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(UrlController.class)
@@ -21,6 +33,12 @@ class UrlControllerTest {
     @MockBean
     private UrlShortenerService urlShortenerService;
 
+    @MockBean
+    private UrlBatchService urlBatchService;
+
+    @MockBean
+    private ClickAnalyticsService clickAnalyticsService;
+
     @Test
     void deveCriarUrl() throws Exception {
         mockMvc.perform(post("/api/urls")
@@ -28,4 +46,31 @@ class UrlControllerTest {
                 .content("{\"originalUrl\":\"https://google.com\"}"))
                 .andExpect(status().isCreated());
     }
+
+    @Test
+    void deveCriarUrlsEmLote() throws Exception {
+        when(urlBatchService.createShortUrls(anyList(), anyInt())).thenReturn(List.of(
+                BatchItemResult.created(0, "abc123", "http://localhost:8080/abc123"),
+                BatchItemResult.failed(1, BatchItemResult.INVALID, "URL inválida")));
+
+        mockMvc.perform(post("/api/urls/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"originalUrl\":\"https://google.com\"},{\"originalUrl\":\"x\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[1].status").value("INVALID"));
+    }
+
+    @Test
+    void deveCriarUrlsEmLoteViaNdjson() throws Exception {
+        when(urlBatchService.getChunkSize()).thenReturn(500);
+        when(urlBatchService.createShortUrls(anyList(), anyInt())).thenReturn(List.of(
+                BatchItemResult.created(0, "abc123", "http://localhost:8080/abc123")));
+
+        mockMvc.perform(post("/api/urls/batch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content("{\"originalUrl\":\"https://google.com\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("\"shortCode\":\"abc123\"")));
+    }
 }
@@ -0,0 +1,49 @@
+package com.techsolutions.urlshortener;
+
+import com.techsolutions.urlshortener.dto.CreateUrlRequest;
+import com.techsolutions.urlshortener.service.UrlShortenerService;
+import com.techsolutions.urlshortener.util.UrlNormalizer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+@SpringBootTest(properties = "app.dedup.enabled=true")
+class UrlDedupTest {
+
+    @Autowired
+    private UrlShortenerService urlService;
+
+    @Test
+    void deveNormalizarVariacoesDaMesmaUrl() {
+        String expected = "https://example.com/docs?a=1&b=2#intro";
+        assertEquals(expected, UrlNormalizer.normalize("HTTPS://Example.COM:443/docs/?b=2&a=1#intro"));
+        assertEquals(expected, UrlNormalizer.normalize(" https://example.com/docs?a=1&&b=2#intro "));
+        assertEquals("http://example.com/", UrlNormalizer.normalize("http://example.com:80"));
+        assertEquals("http://example.com:8080/", UrlNormalizer.normalize("http://example.com:8080/"));
+
+        // Caminho diferenciado por maiúsculas continua diferente
+        assertNotEquals(UrlNormalizer.normalize("https://example.com/A"), UrlNormalizer.normalize("https://example.com/a"));
+    }
+
+    @Test
+    void deveReaproveitarCodigoDaMesmaUrlAtivaESemExpiracao() {
+        String first = create("https://dedup.example.com/page?x=1&y=2", null);
+        assertEquals(first, create("https://DEDUP.example.com:443/page/?y=2&x=1", null));
+
+        // Com expiração sempre cria uma nova
+        assertNotEquals(first, create("https://dedup.example.com/page?x=1&y=2", 7));
+
+        // Desativada não é mais reaproveitada
+        urlService.deactivateUrl(first);
+        assertNotEquals(first, create("https://dedup.example.com/page?x=1&y=2", null));
+    }
+
+    private String create(String url, Integer expiresInDays) {
+        CreateUrlRequest request = new CreateUrlRequest(url);
+        request.setExpiresInDays(expiresInDays);
+        return urlService.createShortUrl(request).getShortCode();
+    }
+}
@@ -0,0 +1,166 @@
+package com.techsolutions.urlshortener;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techsolutions.urlshortener.dto.CreateUrlRequest;
+import com.techsolutions.urlshortener.service.UrlShortenerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Banco próprio: as listagens e exportações comparam a tabela inteira
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:listingtest")
+@AutoConfigureMockMvc
+class UrlListingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UrlShortenerService urlService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void limparTabela() {
+        jdbcTemplate.update("DELETE FROM shortened_urls");
+    }
+
+    @Test
+    void devePercorrerTodasAsPaginasPeloCursorComDatasEmpatadas() throws Exception {
+        List<String> created = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            created.add(create("https://listagem.example.com/" + i));
+        }
+        // Mesma data em todas: a ordem (e o cursor) vem só do id
+        jdbcTemplate.update("UPDATE shortened_urls SET created_at = TIMESTAMP '2026-01-01 00:00:00'");
+
+        assertEquals(created, listAll("asc"));
+        Collections.reverse(created);
+        assertEquals(created, listAll("desc"));
+    }
+
+    @Test
+    void deveResponder400ParaCursorInvalido() throws Exception {
+        create("https://listagem.example.com/cursor");
+        String notANumber = Base64.getUrlEncoder().withoutPadding()
+            .encodeToString("1 OR 1=1".getBytes(StandardCharsets.UTF_8));
+
+        mockMvc.perform(get("/api/urls").param("cursor", "não é base64!"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/urls").param("cursor", notANumber))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void deveFiltrarPorAtivasEExpiradas() throws Exception {
+        String active = create("https://listagem.example.com/ativa");
+        String disabled = create("https://listagem.example.com/desativada");
+        String expired = create("https://listagem.example.com/expirada");
+        urlService.deactivateUrl(disabled);
+        jdbcTemplate.update("UPDATE shortened_urls SET expires_at = DATEADD('DAY', -1, CURRENT_TIMESTAMP) " +
+            "WHERE short_code = ?", expired);
+
+        assertEquals(List.of(active, expired), codes(list("active=true")));
+        assertEquals(List.of(disabled), codes(list("active=false")));
+        assertEquals(List.of(expired), codes(list("expired=true")));
+        assertEquals(List.of(active), codes(list("active=true&expired=false")));
+
+        String csv = export("csv", "expired=true");
+        assertEquals(2, csv.split("\n").length);
+        assertTrue(csv.split("\n")[1].startsWith(expired + ","));
+    }
+
+    @Test
+    void deveExportarCsvComAspasNosCamposEspeciais() throws Exception {
+        String code = create("https://listagem.example.com/csv");
+        jdbcTemplate.update("UPDATE shortened_urls SET original_url = ? WHERE short_code = ?",
+            "https://listagem.example.com/a,b?q=\"c\"\nd", code);
+
+        String csv = export("csv", "");
+        assertTrue(csv.startsWith("shortCode,originalUrl,shortUrl,clickCount,createdAt,expiresAt,isActive\n"));
+        assertTrue(csv.contains(code + ",\"https://listagem.example.com/a,b?q=\"\"c\"\"\nd\","));
+    }
+
+    @Test
+    void deveExportarNdjsonComUmObjetoPorLinha() throws Exception {
+        String first = create("https://listagem.example.com/ndjson/1");
+        String second = create("https://listagem.example.com/ndjson/2");
+        // Quebra de linha dentro do valor não pode quebrar o enquadramento
+        jdbcTemplate.update("UPDATE shortened_urls SET original_url = ? WHERE short_code = ?",
+            "https://listagem.example.com/ndjson/\n2", second);
+
+        String body = export("ndjson", "");
+        assertTrue(body.endsWith("\n"));
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(first, objectMapper.readTree(lines[0]).get("shortCode").asText());
+        JsonNode last = objectMapper.readTree(lines[1]);
+        assertEquals(second, last.get("shortCode").asText());
+        assertEquals("https://listagem.example.com/ndjson/\n2", last.get("originalUrl").asText());
+    }
+
+    private String create(String url) {
+        return urlService.createShortUrl(new CreateUrlRequest(url)).getShortCode();
+    }
+
+    private List<String> listAll(String order) throws Exception {
+        List<String> listed = new ArrayList<>();
+        String cursor = null;
+        do {
+            JsonNode page = list("limit=2&order=" + order + (cursor == null ? "" : "&cursor=" + cursor));
+            listed.addAll(codes(page));
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+        } while (cursor != null);
+        return listed;
+    }
+
+    private JsonNode list(String query) throws Exception {
+        String body = mockMvc.perform(get("/api/urls?" + query))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        return objectMapper.readTree(body);
+    }
+
+    private static List<String> codes(JsonNode page) {
+        List<String> codes = new ArrayList<>();
+        page.get("items").forEach(item -> codes.add(item.get("shortCode").asText()));
+        return codes;
+    }
+
+    // StreamingResponseBody: a resposta é escrita de forma assíncrona
+    private String export(String format, String query) throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/urls/export?format=" + format + "&" + query))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(
+                "csv".equals(format) ? new MediaType("text", "csv") : MediaType.APPLICATION_NDJSON))
+            .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+}